@@ -0,0 +1,85 @@
+package com.ahss.archive;
+
+import com.ahss.entity.PaymentRequest;
+import com.ahss.enums.PaymentMethodType;
+import com.ahss.enums.PaymentRequestStatus;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.StreamSupport;
+
+/**
+ * One archived payment: the {@code payment_request} row with its transactions, refunds and
+ * audit entries, each exactly as {@code to_jsonb(row)} rendered it (snake_case column names),
+ * so the archive keeps every column even if the entities change later.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ArchivedPayment(JsonNode request,
+                              List<JsonNode> transactions,
+                              List<JsonNode> refunds,
+                              List<JsonNode> auditLogs) {
+
+    private static final TypeReference<Map<String, Object>> METADATA = new TypeReference<>() {
+    };
+
+    public UUID id() {
+        return UUID.fromString(request.get("payment_request_id").asText());
+    }
+
+    /**
+     * Rebuilds a detached {@link PaymentRequest} from the archived row.
+     */
+    public PaymentRequest toPaymentRequest(ObjectMapper objectMapper) {
+        PaymentRequest entity = new PaymentRequest();
+        entity.setId(id());
+        entity.setRequestCode(text("request_code"));
+        entity.setPaymentToken(text("payment_token"));
+        entity.setTitle(text("title"));
+        entity.setDescription(text("description"));
+        entity.setAmount(present("amount") ? request.get("amount").decimalValue() : null);
+        entity.setCurrency(text("currency"));
+        entity.setPayerName(text("payer_name"));
+        entity.setPayerEmail(text("payer_email"));
+        entity.setPayerPhone(text("payer_phone"));
+        if (present("allowed_payment_methods")) {
+            entity.setAllowedPaymentMethods(StreamSupport.stream(request.get("allowed_payment_methods").spliterator(), false)
+                    .map(method -> PaymentMethodType.valueOf(method.asText()))
+                    .toArray(PaymentMethodType[]::new));
+        }
+        String preSelected = text("pre_selected_payment_method");
+        entity.setPreSelectedPaymentMethod(preSelected != null ? PaymentMethodType.valueOf(preSelected) : null);
+        entity.setStatus(PaymentRequestStatus.valueOf(text("status")));
+        entity.setExpiresAt(dateTime("expires_at"));
+        entity.setPaidAt(dateTime("paid_at"));
+        entity.setTenantId(number("tenant_id"));
+        entity.setMetadata(present("metadata") ? objectMapper.convertValue(request.get("metadata"), METADATA) : null);
+        entity.setCreatedAt(dateTime("created_at"));
+        entity.setUpdatedAt(dateTime("updated_at"));
+        entity.setCreatedBy(number("created_by"));
+        entity.setUpdatedBy(number("updated_by"));
+        return entity;
+    }
+
+    private boolean present(String column) {
+        JsonNode value = request.get(column);
+        return value != null && !value.isNull();
+    }
+
+    private String text(String column) {
+        return present(column) ? request.get(column).asText() : null;
+    }
+
+    private Long number(String column) {
+        return present(column) ? request.get(column).asLong() : null;
+    }
+
+    private LocalDateTime dateTime(String column) {
+        return present(column) ? LocalDateTime.parse(request.get(column).asText()) : null;
+    }
+}
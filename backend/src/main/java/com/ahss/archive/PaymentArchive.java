@@ -0,0 +1,380 @@
+package com.ahss.archive;
+
+import com.ahss.entity.PaymentRequest;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local-disk cold storage for settled payments that {@link PaymentArchiver} moved out of the
+ * hot tables. Each segment is a pair of files:
+ * <ul>
+ *   <li>{@code payments-<seq>.ndjson.gz}: one gzip member per payment, each holding one NDJSON
+ *   line. Concatenated members form a valid gzip stream, so {@code zcat} reads a whole
+ *   segment, while a single payment can be inflated on its own from its offset.</li>
+ *   <li>{@code payments-<seq>.idx}: fixed-width entries (id, offset, length), appended and
+ *   fsynced after the data they point to. Bytes written without an index entry, for example
+ *   by a crash mid-batch, are never read.</li>
+ * </ul>
+ * Indexes are loaded into sorted arrays at startup (28 bytes per payment) and looked up newest
+ * segment first, so a payment archived twice resolves to its latest copy. The directory is
+ * created by the first append; until then, as when archiving is disabled, the archive is empty.
+ */
+@Component
+public class PaymentArchive implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentArchive.class);
+
+    static final String DATA_SUFFIX = ".ndjson.gz";
+    static final String INDEX_SUFFIX = ".idx";
+    static final int INDEX_ENTRY_BYTES = 28;
+
+    static final String LOOKUP_METRIC = "payment.archive.lookups";
+    static final String SEGMENTS_METRIC = "payment.archive.segments";
+
+    /** A payment to archive: its request id and the bundle JSON. */
+    public record Entry(UUID id, String json) {
+    }
+
+    private record Location(long offset, int length) {
+    }
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    /** Amounts stay BigDecimal, with their scale, instead of passing through double. */
+    private final ObjectReader bundleReader;
+    private final long maxSegmentBytes;
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+    /** Newest first. */
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final Counter hits;
+    private final Counter misses;
+    private Segment writable;
+
+    public PaymentArchive(ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${payment.archive.dir:data/payment-archive}") String directory,
+                          @Value("${payment.archive.max-segment-bytes:268435456}") long maxSegmentBytes) throws IOException {
+        this.directory = Path.of(directory);
+        this.objectMapper = objectMapper;
+        this.bundleReader = objectMapper.readerFor(ArchivedPayment.class)
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .without(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES);
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.hits = Counter.builder(LOOKUP_METRIC)
+                .description("Payment lookups answered by the archive")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder(LOOKUP_METRIC)
+                .description("Payment lookups answered by the archive")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder(SEGMENTS_METRIC, segments, List::size)
+                .description("Payment archive segments on local disk")
+                .register(meterRegistry);
+        loadSegments();
+    }
+
+    /**
+     * Appends the payments to the current segment and makes them durable: data and index are
+     * fsynced before this returns, so the caller may then delete the rows from the database.
+     */
+    public synchronized void append(List<Entry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (writable == null || writable.size >= maxSegmentBytes) {
+            writable = openSegment();
+            segments.add(0, writable);
+        }
+        Segment segment = writable;
+        ByteBuffer index = ByteBuffer.allocate(entries.size() * INDEX_ENTRY_BYTES);
+        for (Entry entry : entries) {
+            ByteBuffer member = ByteBuffer.wrap(gzip(entry.json() + "\n"));
+            long offset = segment.size;
+            int length = member.remaining();
+            while (member.hasRemaining()) {
+                segment.size += segment.data.write(member, segment.size);
+            }
+            index.putLong(entry.id().getMostSignificantBits())
+                    .putLong(entry.id().getLeastSignificantBits())
+                    .putLong(offset)
+                    .putInt(length);
+        }
+        segment.data.force(false);
+        index.flip();
+        try (FileChannel indexChannel = FileChannel.open(segment.indexPath, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (index.hasRemaining()) {
+                indexChannel.write(index);
+            }
+            indexChannel.force(false);
+        }
+        index.rewind();
+        segment.index = segment.index.merge(SegmentIndex.read(index));
+    }
+
+    /** Looks the payment up, newest segment first. */
+    public Optional<ArchivedPayment> find(UUID id) {
+        for (Segment segment : segments) {
+            Location location = segment.index.locate(id);
+            if (location != null) {
+                hits.increment();
+                return Optional.of(read(segment, location));
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /** The archived payment request as a detached entity. */
+    public Optional<PaymentRequest> findPaymentRequest(UUID id) {
+        return find(id).map(payment -> payment.toPaymentRequest(objectMapper));
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.data.close();
+        }
+    }
+
+    private ArchivedPayment read(Segment segment, Location location) {
+        ByteBuffer buffer = ByteBuffer.allocate(location.length());
+        try {
+            while (buffer.hasRemaining()) {
+                if (segment.data.read(buffer, location.offset() + buffer.position()) < 0) {
+                    throw new IOException("Archive segment " + segment.dataPath + " is truncated");
+                }
+            }
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(buffer.array()))) {
+                return bundleReader.readValue(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable archive entry in " + segment.dataPath, e);
+        }
+    }
+
+    private void loadSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> indexes;
+        try (Stream<Path> files = Files.list(directory)) {
+            indexes = files.filter(path -> path.getFileName().toString().endsWith(INDEX_SUFFIX))
+                    .sorted(Comparator.comparingLong(PaymentArchive::sequenceOf).reversed())
+                    .toList();
+        }
+        for (Path indexPath : indexes) {
+            long seq = sequenceOf(indexPath);
+            Path dataPath = directory.resolve(name(seq) + DATA_SUFFIX);
+            if (!Files.exists(dataPath)) {
+                log.warn("Archive index {} has no data file, skipping it", indexPath);
+                continue;
+            }
+            Segment segment = new Segment(dataPath, indexPath, StandardOpenOption.READ);
+            // A torn last entry (crash during the index append) points at nothing durable
+            byte[] bytes = Files.readAllBytes(indexPath);
+            segment.index = SegmentIndex.read(ByteBuffer.wrap(bytes, 0, bytes.length - bytes.length % INDEX_ENTRY_BYTES));
+            segments.add(segment);
+            sequence.accumulateAndGet(seq, Math::max);
+        }
+        if (!segments.isEmpty()) {
+            log.info("Payment archive opened with {} segment(s) in {}", segments.size(), directory);
+        }
+    }
+
+    private Segment openSegment() throws IOException {
+        Files.createDirectories(directory);
+        long seq = sequence.incrementAndGet();
+        Path dataPath = directory.resolve(name(seq) + DATA_SUFFIX);
+        Path indexPath = directory.resolve(name(seq) + INDEX_SUFFIX);
+        Files.createFile(indexPath);
+        return new Segment(dataPath, indexPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    private static String name(long seq) {
+        return "payments-" + seq;
+    }
+
+    private static long sequenceOf(Path path) {
+        String file = path.getFileName().toString();
+        return Long.parseLong(file.substring("payments-".length(), file.indexOf('.')));
+    }
+
+    private static byte[] gzip(String line) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(line.length() / 3);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static final class Segment {
+        private final Path dataPath;
+        private final Path indexPath;
+        private final FileChannel data;
+        private volatile SegmentIndex index = SegmentIndex.EMPTY;
+        private long size;
+
+        private Segment(Path dataPath, Path indexPath, StandardOpenOption... options) throws IOException {
+            this.dataPath = dataPath;
+            this.indexPath = indexPath;
+            this.data = FileChannel.open(dataPath, options);
+            this.size = data.size();
+        }
+    }
+
+    /**
+     * Immutable id-sorted index of one segment, kept as parallel primitive arrays. Ids are
+     * compared as {@link UUID#compareTo} does; of duplicate ids the later entry wins.
+     */
+    private static final class SegmentIndex {
+
+        private static final SegmentIndex EMPTY = new SegmentIndex(new long[0], new long[0], new long[0], new int[0]);
+
+        private final long[] msb;
+        private final long[] lsb;
+        private final long[] offsets;
+        private final int[] lengths;
+
+        private SegmentIndex(long[] msb, long[] lsb, long[] offsets, int[] lengths) {
+            this.msb = msb;
+            this.lsb = lsb;
+            this.offsets = offsets;
+            this.lengths = lengths;
+        }
+
+        static SegmentIndex read(ByteBuffer buffer) {
+            int count = buffer.remaining() / INDEX_ENTRY_BYTES;
+            long[][] rows = new long[count][];
+            for (int i = 0; i < count; i++) {
+                rows[i] = new long[]{buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getInt()};
+            }
+            return of(rows);
+        }
+
+        /**
+         * Merges a newer run into this one in a single linear pass; both runs are sorted and
+         * free of duplicates, and on equal ids the appended entry wins.
+         */
+        SegmentIndex merge(SegmentIndex appended) {
+            int size = msb.length + appended.msb.length;
+            long[] mergedMsb = new long[size];
+            long[] mergedLsb = new long[size];
+            long[] mergedOffsets = new long[size];
+            int[] mergedLengths = new int[size];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < msb.length || j < appended.msb.length) {
+                int cmp = i == msb.length ? 1
+                        : j == appended.msb.length ? -1
+                        : compare(msb[i], lsb[i], appended.msb[j], appended.lsb[j]);
+                SegmentIndex from = cmp < 0 ? this : appended;
+                int at = cmp < 0 ? i++ : j++;
+                if (cmp == 0) {
+                    i++;
+                }
+                mergedMsb[k] = from.msb[at];
+                mergedLsb[k] = from.lsb[at];
+                mergedOffsets[k] = from.offsets[at];
+                mergedLengths[k] = from.lengths[at];
+                k++;
+            }
+            if (k < size) {
+                return new SegmentIndex(Arrays.copyOf(mergedMsb, k), Arrays.copyOf(mergedLsb, k),
+                        Arrays.copyOf(mergedOffsets, k), Arrays.copyOf(mergedLengths, k));
+            }
+            return new SegmentIndex(mergedMsb, mergedLsb, mergedOffsets, mergedLengths);
+        }
+
+        Location locate(UUID id) {
+            int low = 0;
+            int high = msb.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(msb[mid], lsb[mid], id.getMostSignificantBits(), id.getLeastSignificantBits());
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return new Location(offsets[mid], lengths[mid]);
+                }
+            }
+            return null;
+        }
+
+        private static SegmentIndex of(long[][] rows) {
+            // Sort by id, then offset descending so the newest copy of a duplicate comes first
+            Arrays.sort(rows, (a, b) -> {
+                int cmp = compare(a[0], a[1], b[0], b[1]);
+                return cmp != 0 ? cmp : Long.compare(b[2], a[2]);
+            });
+            List<long[]> unique = new ArrayList<>(rows.length);
+            for (long[] row : rows) {
+                if (unique.isEmpty() || compare(unique.get(unique.size() - 1)[0], unique.get(unique.size() - 1)[1],
+                        row[0], row[1]) != 0) {
+                    unique.add(row);
+                }
+            }
+            long[] msb = new long[unique.size()];
+            long[] lsb = new long[unique.size()];
+            long[] offsets = new long[unique.size()];
+            int[] lengths = new int[unique.size()];
+            for (int i = 0; i < unique.size(); i++) {
+                long[] row = unique.get(i);
+                msb[i] = row[0];
+                lsb[i] = row[1];
+                offsets[i] = row[2];
+                lengths[i] = (int) row[3];
+            }
+            return new SegmentIndex(msb, lsb, offsets, lengths);
+        }
+
+        private static int compare(long msbA, long lsbA, long msbB, long lsbB) {
+            int cmp = Long.compare(msbA, msbB);
+            return cmp != 0 ? cmp : Long.compare(lsbA, lsbB);
+        }
+    }
+}
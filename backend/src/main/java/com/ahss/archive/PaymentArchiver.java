@@ -0,0 +1,198 @@
+package com.ahss.archive;
+
+import com.ahss.datasource.UseWorkload;
+import com.ahss.datasource.Workload;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves settled payments older than the dispute window out of the hot tables into the
+ * {@link PaymentArchive}. A payment is settled when its request is in one of
+ * {@code payment.archive.statuses}, was last updated before the window and has no pending or
+ * processing transaction or refund.
+ *
+ * <p>Each batch runs in one transaction: lock the requests ({@code SKIP LOCKED}, so instances
+ * never archive the same rows), render each request with its transactions, refunds and audit
+ * entries as JSON in the database, append the bundles to the archive (fsynced), then delete
+ * the rows children first. If the delete or commit fails the rows stay hot and the archived
+ * copies are simply shadowed by them, so nothing is lost either way.
+ *
+ * <p>The archive lives on local disk: run the job on one instance, or point
+ * {@code payment.archive.dir} at storage every instance can read, so that
+ * {@code getPaymentRequestById} finds archived payments everywhere.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.archive", name = "enabled", havingValue = "true")
+public class PaymentArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentArchiver.class);
+
+    static final String ARCHIVED_METRIC = "payment.archive.archived";
+
+    private static final String PENDING_STATUSES = "('PENDING', 'PROCESSING')";
+
+    static final String SELECT_SQL =
+            "SELECT r.payment_request_id FROM payment_request r " +
+            "WHERE r.status::text = ANY(?) AND r.updated_at < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM payment_transaction t WHERE t.payment_request_id = r.payment_request_id " +
+            "AND t.transaction_status::text IN " + PENDING_STATUSES + ") " +
+            "AND NOT EXISTS (SELECT 1 FROM payment_refund f " +
+            "JOIN payment_transaction t ON t.payment_transaction_id = f.payment_transaction_id " +
+            "WHERE t.payment_request_id = r.payment_request_id AND f.refund_status::text IN " + PENDING_STATUSES + ") " +
+            "ORDER BY r.payment_request_id LIMIT ? FOR UPDATE OF r SKIP LOCKED";
+
+    private static final String TRANSACTION_IDS =
+            "SELECT payment_transaction_id FROM payment_transaction WHERE payment_request_id = ANY(CAST(? AS uuid[]))";
+
+    private static final String REFUND_IDS =
+            "SELECT payment_refund_id FROM payment_refund WHERE payment_transaction_id IN (" + TRANSACTION_IDS + ")";
+
+    static final String BUNDLE_SQL =
+            "SELECT r.payment_request_id, jsonb_build_object(" +
+            "'request', to_jsonb(r), " +
+            "'transactions', COALESCE((SELECT jsonb_agg(to_jsonb(t) ORDER BY t.created_at) FROM payment_transaction t " +
+            "WHERE t.payment_request_id = r.payment_request_id), '[]'::jsonb), " +
+            "'refunds', COALESCE((SELECT jsonb_agg(to_jsonb(f) ORDER BY f.created_at) FROM payment_refund f " +
+            "JOIN payment_transaction t ON t.payment_transaction_id = f.payment_transaction_id " +
+            "WHERE t.payment_request_id = r.payment_request_id), '[]'::jsonb), " +
+            "'auditLogs', COALESCE((SELECT jsonb_agg(to_jsonb(a) ORDER BY a.created_at) FROM payment_audit_log a " +
+            "WHERE a.payment_request_id = r.payment_request_id " +
+            "OR a.payment_transaction_id IN (SELECT t.payment_transaction_id FROM payment_transaction t " +
+            "WHERE t.payment_request_id = r.payment_request_id) " +
+            "OR a.payment_refund_id IN (SELECT f.payment_refund_id FROM payment_refund f " +
+            "JOIN payment_transaction t ON t.payment_transaction_id = f.payment_transaction_id " +
+            "WHERE t.payment_request_id = r.payment_request_id)), '[]'::jsonb))::text " +
+            "FROM payment_request r WHERE r.payment_request_id = ANY(CAST(? AS uuid[])) " +
+            "ORDER BY r.payment_request_id";
+
+    /** Children first: audit rows reference refunds, refunds reference transactions, and so on. */
+    static final List<String> DELETE_SQL = List.of(
+            "DELETE FROM payment_audit_log WHERE payment_request_id = ANY(CAST(? AS uuid[])) " +
+                    "OR payment_transaction_id IN (" + TRANSACTION_IDS + ") " +
+                    "OR payment_refund_id IN (" + REFUND_IDS + ")",
+            "DELETE FROM payment_refund WHERE payment_transaction_id IN (" + TRANSACTION_IDS + ")",
+            "DELETE FROM payment_transaction WHERE payment_request_id = ANY(CAST(? AS uuid[]))",
+            "DELETE FROM payment_request WHERE payment_request_id = ANY(CAST(? AS uuid[]))");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactions;
+    private final PaymentArchive archive;
+    private final Clock clock;
+    private final String[] statuses;
+    private final Duration disputeWindow;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter archived;
+
+    @Autowired
+    public PaymentArchiver(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           PaymentArchive archive,
+                           MeterRegistry meterRegistry,
+                           @Value("${payment.archive.statuses:COMPLETED,REFUNDED,PARTIAL_REFUND,VOIDED}") String[] statuses,
+                           @Value("${payment.archive.dispute-window-days:180}") int disputeWindowDays,
+                           @Value("${payment.archive.batch-size:200}") int batchSize,
+                           @Value("${payment.archive.max-batches-per-run:500}") int maxBatchesPerRun) {
+        this(jdbcTemplate, new TransactionTemplate(transactionManager), archive, meterRegistry, Clock.systemDefaultZone(),
+                statuses, Duration.ofDays(disputeWindowDays), batchSize, maxBatchesPerRun);
+    }
+
+    PaymentArchiver(JdbcTemplate jdbcTemplate, TransactionOperations transactions, PaymentArchive archive,
+                    MeterRegistry meterRegistry, Clock clock, String[] statuses, Duration disputeWindow,
+                    int batchSize, int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        this.archive = archive;
+        this.clock = clock;
+        this.statuses = statuses;
+        this.disputeWindow = disputeWindow;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.archived = Counter.builder(ARCHIVED_METRIC)
+                .description("Settled payments moved from the hot tables to the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${payment.archive.cron:0 45 2 * * *}")
+    @UseWorkload(Workload.JOBS)
+    public void run() {
+        try {
+            int total = archiveSettled();
+            if (total > 0) {
+                log.info("Archived {} settled payment(s)", total);
+            }
+        } catch (DataAccessException | UncheckedIOException e) {
+            // Rows of the failed batch are still hot; the next run retries them
+            log.warn("Payment archiving stopped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Archives batches until none is full or {@code max-batches-per-run} is reached.
+     *
+     * @return the number of payments archived
+     */
+    public int archiveSettled() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(disputeWindow);
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transactions.execute(status -> archiveBatch(cutoff));
+            int count = moved != null ? moved : 0;
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<UUID> ids = jdbcTemplate.queryForList(SELECT_SQL, UUID.class,
+                statuses, Timestamp.valueOf(cutoff), batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String[] idArray = ids.stream().map(UUID::toString).toArray(String[]::new);
+        List<PaymentArchive.Entry> entries = jdbcTemplate.query(BUNDLE_SQL,
+                (rs, rowNum) -> new PaymentArchive.Entry(rs.getObject(1, UUID.class), rs.getString(2)),
+                (Object) idArray);
+        try {
+            archive.append(entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the payment archive", e);
+        }
+        for (String delete : DELETE_SQL) {
+            Object[] args = new Object[countPlaceholders(delete)];
+            Arrays.fill(args, idArray);
+            jdbcTemplate.update(delete, args);
+        }
+        archived.increment(entries.size());
+        return entries.size();
+    }
+
+    private static int countPlaceholders(String sql) {
+        return (int) sql.chars().filter(c -> c == '?').count();
+    }
+}
@@ -0,0 +1,336 @@
+package com.ahss.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Takes audit writes off the payment hot path. {@link #submit} journals the record and puts it
+ * on a bounded lock-free queue; a single flusher thread drains the queue with JDBC batch
+ * inserts every {@code flush-interval-ms}, or as soon as {@code batch-size} records are waiting.
+ *
+ * <p>Records submitted inside a transaction are journaled and fsynced just before it commits,
+ * so a crash right after the commit cannot lose the audit entry of a committed change, and are
+ * queued only after it commits, so the rows the entry references already exist when it is
+ * inserted. A rolled-back operation leaves no audit row (as with the old in-transaction save):
+ * its journaled record is discarded. Durability comes from the {@link AuditJournal}: a record
+ * that cannot be queued or inserted stays in its journal segment and is replayed, and inserts
+ * use {@code ON CONFLICT DO NOTHING} so replays are idempotent.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.audit.async", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AsyncAuditLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncAuditLogWriter.class);
+
+    static final String WRITTEN_METRIC = "payment.audit.written";
+    static final String DEFERRED_METRIC = "payment.audit.deferred";
+    static final String QUEUE_DEPTH_METRIC = "payment.audit.queue.depth";
+
+    static final String INSERT_SQL =
+            "INSERT INTO payment_audit_log (payment_audit_log_id, payment_request_id, payment_transaction_id, " +
+            "payment_refund_id, action, entity_type, old_status, new_status, changes, reason, created_by, " +
+            "user_agent, ip_address, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private record Entry(AuditRecord record, AuditJournal.Segment segment) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditJournal journal;
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Counter written;
+    private final Counter deferred;
+    private ScheduledExecutorService flusher;
+
+    public AsyncAuditLogWriter(JdbcTemplate jdbcTemplate,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${payment.audit.async.queue-capacity:10000}") int capacity,
+                               @Value("${payment.audit.async.batch-size:500}") int batchSize,
+                               @Value("${payment.audit.async.flush-interval-ms:200}") long flushIntervalMs,
+                               @Value("${payment.audit.async.journal-dir:data/audit-journal}") String journalDir) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.journal = new AuditJournal(Path.of(journalDir), objectMapper);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.written = Counter.builder(WRITTEN_METRIC)
+                .description("Audit records inserted by the async writer")
+                .register(meterRegistry);
+        this.deferred = Counter.builder(DEFERRED_METRIC)
+                .description("Audit records left in the journal for replay (queue full or insert failed)")
+                .register(meterRegistry);
+        Gauge.builder(QUEUE_DEPTH_METRIC, queued, AtomicInteger::get)
+                .description("Audit records waiting to be inserted")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-log-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        // Whatever this final flush cannot insert stays in the journal for the next start
+        flushQuietly();
+        journal.close();
+    }
+
+    /**
+     * Journals and queues the record. Inside a transaction the record is journaled before the
+     * commit, queued after it and discarded if the transaction rolls back.
+     */
+    public void submit(AuditRecord record) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new JournaledSubmit(record));
+        } else {
+            enqueue(record);
+        }
+    }
+
+    /**
+     * Journals a record for the surrounding transaction. If the journal cannot be written the
+     * record is inserted in the transaction instead, so it commits or rolls back with the change.
+     */
+    private final class JournaledSubmit implements TransactionSynchronization {
+
+        private final AuditRecord record;
+        private AuditJournal.Segment segment;
+
+        JournaledSubmit(AuditRecord record) {
+            this.record = record;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            try {
+                segment = journal.append(record);
+            } catch (IOException e) {
+                log.warn("Audit journal unavailable, writing audit record in the transaction: {}", e.getMessage());
+                insert(List.of(record));
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            if (segment != null) {
+                queue(record, segment);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (segment == null || status == STATUS_COMMITTED) {
+                return;
+            }
+            if (status == STATUS_ROLLED_BACK) {
+                try {
+                    journal.discard(segment, record);
+                } catch (IOException e) {
+                    log.error("Audit record {} of a rolled-back transaction could not be discarded: {}",
+                            record.id(), e.getMessage());
+                }
+            } else {
+                // Outcome unknown: replaying is safe, inserts are idempotent
+                journal.markForReplay(segment);
+            }
+            journal.release(segment);
+        }
+    }
+
+    void enqueue(AuditRecord record) {
+        AuditJournal.Segment segment;
+        try {
+            segment = journal.append(record);
+        } catch (IOException e) {
+            log.warn("Audit journal unavailable, writing audit record synchronously: {}", e.getMessage());
+            try {
+                insert(List.of(record));
+            } catch (RuntimeException insertFailure) {
+                // No transaction to fail: failing here would not undo the change, only hide it
+                log.error("Audit record {} for action {} lost: {}", record.id(), record.action(),
+                        insertFailure.getMessage());
+            }
+            return;
+        }
+        queue(record, segment);
+    }
+
+    private void queue(AuditRecord record, AuditJournal.Segment segment) {
+        if (!reserveSlot()) {
+            journal.markForReplay(segment);
+            journal.release(segment);
+            deferred.increment();
+            return;
+        }
+        queue.add(new Entry(record, segment));
+        if (queued.get() >= batchSize && flusher != null && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushRequested.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the final flush in stop() picks the record up
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Inserts everything queued so far, then replays journal segments awaiting replay if the
+     * database accepted the inserts. Runs on the flusher thread; callable directly in tests.
+     *
+     * @return the number of queued records inserted
+     */
+    synchronized int flush() throws IOException {
+        journal.rotate();
+        int inserted = 0;
+        boolean failed = false;
+        List<Entry> batch;
+        while (!(batch = drain()).isEmpty()) {
+            List<AuditRecord> records = batch.stream().map(Entry::record).toList();
+            try {
+                insert(records);
+                inserted += records.size();
+            } catch (DataAccessException e) {
+                failed = true;
+                batch.forEach(entry -> journal.markForReplay(entry.segment()));
+                deferred.increment(records.size());
+                log.warn("Audit batch of {} deferred to journal replay: {}", records.size(), e.getMessage());
+            } finally {
+                batch.forEach(entry -> journal.release(entry.segment()));
+            }
+        }
+        journal.reclaim();
+        if (!failed && journal.hasPendingReplay()) {
+            int replayed = journal.replay(this::insert, batchSize, AsyncAuditLogWriter::isTransient);
+            if (replayed > 0) {
+                log.info("Replayed {} audit records from the journal", replayed);
+            }
+        }
+        return inserted;
+    }
+
+    int queued() {
+        return queued.get();
+    }
+
+    /**
+     * Whether the failure says the database is unreachable or busy rather than that a record
+     * was rejected; replay stops on these instead of quarantining records.
+     */
+    static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Audit flush failed, records remain journaled: {}", e.getMessage());
+        }
+    }
+
+    private boolean reserveSlot() {
+        int current;
+        do {
+            current = queued.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!queued.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private List<Entry> drain() {
+        List<Entry> batch = new ArrayList<>(Math.min(batchSize, Math.max(queued.get(), 1)));
+        Entry entry;
+        while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+            batch.add(entry);
+            queued.decrementAndGet();
+        }
+        return batch;
+    }
+
+    private void insert(List<AuditRecord> records) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, records.size(), (ps, r) -> {
+            ps.setObject(1, r.id());
+            ps.setObject(2, r.paymentRequestId());
+            ps.setObject(3, r.paymentTransactionId());
+            ps.setObject(4, r.paymentRefundId());
+            ps.setString(5, r.action());
+            ps.setString(6, r.entityType());
+            ps.setString(7, r.oldStatus());
+            ps.setString(8, r.newStatus());
+            ps.setString(9, toJson(r));
+            ps.setString(10, r.description());
+            ps.setObject(11, r.userId(), Types.BIGINT);
+            ps.setString(12, r.userAgent());
+            ps.setString(13, r.ipAddress());
+            ps.setTimestamp(14, Timestamp.valueOf(r.createdAt()));
+        });
+        written.increment(records.size());
+    }
+
+    private String toJson(AuditRecord record) {
+        if (record.changeDetails() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(record.changeDetails());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Audit change details are not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.ahss.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only NDJSON journal that keeps queued audit records durable until they are in the
+ * database. Every record is appended to the current segment and fsynced before it is queued
+ * (for records written in a transaction, before the transaction commits); the
+ * flusher {@linkplain #rotate() rotates} segments each cycle and a sealed segment is deleted
+ * once all of its records have been inserted. Segments holding records that were not
+ * inserted (queue full, database error) and segments left behind by a previous process are
+ * replayed instead.
+ *
+ * <p>A record whose transaction rolls back after it was appended gets a
+ * {@linkplain #discard discard marker} in the same segment and is skipped on replay. A crash
+ * between the append and the commit leaves no marker, so that record is replayed even though
+ * the change it describes never committed: replay is at least once.
+ *
+ * <p>Records the database keeps rejecting during replay (a foreign key that no longer resolves,
+ * a value too long for its column) are moved to a segment of the same name under
+ * {@code quarantine/} so they cannot hold up the records behind them. Moving that file back
+ * into the journal directory replays it again.
+ */
+public class AuditJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+
+    static final String SUFFIX = ".ndjson";
+    static final String QUARANTINE_DIR = "quarantine";
+    static final String DISCARDED_PREFIX = "{\"discarded\":\"";
+
+    /**
+     * Inserts a batch of records; throws if the batch was not written.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(List<AuditRecord> batch);
+    }
+
+    /**
+     * One journal file. {@code pending} counts appended records not yet released by the
+     * flusher; once sealed with nothing pending the file can be deleted or replayed.
+     */
+    public static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicLong appended = new AtomicLong();
+        private volatile boolean sealed;
+        private volatile boolean needsReplay;
+
+        private Segment(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+
+        Path path() {
+            return path;
+        }
+    }
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+    private final Queue<Segment> sealedSegments = new ConcurrentLinkedQueue<>();
+    private final Queue<Path> replayQueue = new ConcurrentLinkedQueue<>();
+    private volatile Segment current;
+
+    public AuditJournal(Path directory, ObjectMapper objectMapper) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.objectMapper = objectMapper;
+        try (Stream<Path> leftovers = Files.list(directory)) {
+            leftovers.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .forEach(replayQueue::add);
+        }
+        this.current = openSegment();
+    }
+
+    /**
+     * Appends the record to the current segment, forces it to disk and returns that segment,
+     * which the caller must {@linkplain #release(Segment) release} once the record is in the
+     * database or {@linkplain #discard discarded}.
+     */
+    public Segment append(AuditRecord record) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((objectMapper.writeValueAsString(record) + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        while (true) {
+            Segment segment = current;
+            segment.pending.incrementAndGet();
+            if (segment.sealed) {
+                // Rotated between the read and the increment; the new segment is already current
+                segment.pending.decrementAndGet();
+                continue;
+            }
+            try {
+                while (line.hasRemaining()) {
+                    segment.channel.write(line);
+                }
+                segment.channel.force(false);
+                segment.appended.incrementAndGet();
+                return segment;
+            } catch (IOException e) {
+                segment.pending.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    /** Marks one record of the segment as done: inserted, or handed to {@link #markForReplay}. */
+    public void release(Segment segment) {
+        segment.pending.decrementAndGet();
+    }
+
+    /**
+     * Marks an appended record as never to be inserted because its transaction rolled back.
+     * The caller still releases the segment.
+     */
+    public void discard(Segment segment, AuditRecord record) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((DISCARDED_PREFIX + record.id() + "\"}\n")
+                .getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) {
+            segment.channel.write(line);
+        }
+        segment.channel.force(false);
+    }
+
+    /** Keeps the segment on disk for replay instead of deleting it once released. */
+    public void markForReplay(Segment segment) {
+        segment.needsReplay = true;
+    }
+
+    /** Seals the current segment, if anything was appended to it, and starts a new one. */
+    public void rotate() throws IOException {
+        Segment previous = current;
+        if (previous.appended.get() == 0) {
+            return;
+        }
+        current = openSegment();
+        previous.sealed = true;
+        previous.channel.force(false);
+        sealedSegments.add(previous);
+    }
+
+    /**
+     * Deletes sealed segments whose records have all been inserted and moves those marked for
+     * replay to the replay queue.
+     */
+    public void reclaim() throws IOException {
+        Iterator<Segment> it = sealedSegments.iterator();
+        while (it.hasNext()) {
+            Segment segment = it.next();
+            if (segment.pending.get() > 0) {
+                continue;
+            }
+            it.remove();
+            segment.channel.close();
+            if (segment.needsReplay) {
+                replayQueue.add(segment.path);
+            } else {
+                Files.deleteIfExists(segment.path);
+            }
+        }
+    }
+
+    /**
+     * Re-inserts the records of every segment awaiting replay, oldest first, deleting each
+     * segment once written. A batch that fails is retried one record at a time and the records
+     * that still fail are quarantined, unless {@code transientFailure} says the database itself
+     * is unavailable: then replay stops and the rest is left for the next call.
+     *
+     * @return the number of records replayed
+     */
+    public int replay(BatchWriter writer, int batchSize, Predicate<RuntimeException> transientFailure)
+            throws IOException {
+        int replayed = 0;
+        Path path;
+        while ((path = replayQueue.peek()) != null) {
+            Set<String> discarded = discardedIds(path);
+            List<String> lines = new ArrayList<>(batchSize);
+            List<AuditRecord> batch = new ArrayList<>(batchSize);
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank() || line.startsWith(DISCARDED_PREFIX)) {
+                        continue;
+                    }
+                    // A crash can leave a torn last line; everything before it is intact
+                    AuditRecord record;
+                    try {
+                        record = objectMapper.readValue(line, AuditRecord.class);
+                    } catch (IOException e) {
+                        continue;
+                    }
+                    if (record.id() != null && discarded.contains(record.id().toString())) {
+                        continue;
+                    }
+                    lines.add(line);
+                    batch.add(record);
+                    if (batch.size() == batchSize) {
+                        replayed += write(path, lines, batch, writer, transientFailure);
+                        lines = new ArrayList<>(batchSize);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                replayed += write(path, lines, batch, writer, transientFailure);
+            }
+            Files.deleteIfExists(path);
+            replayQueue.poll();
+        }
+        return replayed;
+    }
+
+    private static Set<String> discardedIds(Path segment) throws IOException {
+        Set<String> ids = new HashSet<>();
+        try (Stream<String> lines = Files.lines(segment, StandardCharsets.UTF_8)) {
+            lines.filter(line -> line.startsWith(DISCARDED_PREFIX) && line.endsWith("\"}"))
+                    .forEach(line -> ids.add(line.substring(DISCARDED_PREFIX.length(), line.length() - 2)));
+        }
+        return ids;
+    }
+
+    private int write(Path segment, List<String> lines, List<AuditRecord> batch, BatchWriter writer,
+                      Predicate<RuntimeException> transientFailure) throws IOException {
+        try {
+            writer.write(batch);
+            return batch.size();
+        } catch (RuntimeException e) {
+            if (transientFailure.test(e)) {
+                throw e;
+            }
+        }
+        // Something in the batch is rejected: find it row by row so the rest still goes in
+        int written = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                writer.write(List.of(batch.get(i)));
+                written++;
+            } catch (RuntimeException e) {
+                if (transientFailure.test(e)) {
+                    throw e;
+                }
+                quarantine(segment, lines.get(i), batch.get(i), e);
+            }
+        }
+        return written;
+    }
+
+    private void quarantine(Path segment, String line, AuditRecord record, RuntimeException cause)
+            throws IOException {
+        Path target = Files.createDirectories(directory.resolve(QUARANTINE_DIR)).resolve(segment.getFileName());
+        Files.writeString(target, line + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        log.error("Audit record {} for action {} rejected on replay, quarantined to {}: {}",
+                record.id(), record.action(), target, cause.getMessage());
+    }
+
+    public boolean hasPendingReplay() {
+        return !replayQueue.isEmpty();
+    }
+
+    @Override
+    public void close() throws IOException {
+        current.channel.force(false);
+        current.channel.close();
+        if (current.appended.get() == 0) {
+            Files.deleteIfExists(current.path);
+        }
+        for (Segment segment : sealedSegments) {
+            segment.channel.close();
+        }
+    }
+
+    private Segment openSegment() throws IOException {
+        return new Segment(directory.resolve("audit-" + sequence.incrementAndGet() + SUFFIX));
+    }
+}
@@ -0,0 +1,47 @@
+package com.ahss.audit;
+
+import com.ahss.entity.PaymentAuditLog;
+import com.ahss.util.UuidV7;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One {@code payment_audit_log} row as queued by {@link AsyncAuditLogWriter}. The id and
+ * timestamp are assigned when the record is created, so replaying it from the journal inserts
+ * the same primary key and is ignored if the row already exists.
+ */
+public record AuditRecord(UUID id,
+                          UUID paymentRequestId,
+                          UUID paymentTransactionId,
+                          UUID paymentRefundId,
+                          String action,
+                          String entityType,
+                          String oldStatus,
+                          String newStatus,
+                          Map<String, Object> changeDetails,
+                          String description,
+                          Long userId,
+                          String userAgent,
+                          String ipAddress,
+                          LocalDateTime createdAt) {
+
+    public static AuditRecord of(PaymentAuditLog auditLog) {
+        return new AuditRecord(
+                UuidV7.generate(),
+                auditLog.getPaymentRequestId(),
+                auditLog.getPaymentTransactionId(),
+                auditLog.getPaymentRefundId(),
+                auditLog.getAction(),
+                auditLog.getEntityType(),
+                auditLog.getOldStatus(),
+                auditLog.getNewStatus(),
+                auditLog.getChangeDetails(),
+                auditLog.getDescription(),
+                auditLog.getUserId(),
+                auditLog.getUserAgent(),
+                auditLog.getIpAddress(),
+                LocalDateTime.now());
+    }
+}
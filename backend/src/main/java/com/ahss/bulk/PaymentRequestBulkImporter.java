@@ -0,0 +1,168 @@
+package com.ahss.bulk;
+
+import com.ahss.dto.request.CreatePaymentRequestDto;
+import com.ahss.dto.response.BulkPaymentRequestResultDto;
+import com.ahss.service.PaymentRequestService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Creates payment requests from a newline-delimited JSON body, one
+ * {@link CreatePaymentRequestDto} per line, and streams one NDJSON result per non-blank line
+ * back as it goes. Lines are handled in chunks of {@code batch-size}: each chunk is validated
+ * and inserted by {@link PaymentRequestService#createPaymentRequests} in its own transaction,
+ * then its results are written and flushed, so only one chunk is held in memory.
+ *
+ * <p>If a chunk cannot be written its valid lines are reported FAILED and the import stops
+ * there; the caller resubmits from the first FAILED line. Earlier chunks stay committed.
+ */
+@Component
+public class PaymentRequestBulkImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentRequestBulkImporter.class);
+
+    static final String LINES_METRIC = "payment.request.bulk.lines";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** A line waiting for its chunk: either a parsed request or an already decided result. */
+    private record Pending(long line, CreatePaymentRequestDto request, BulkPaymentRequestResultDto result) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final ObjectWriter resultWriter;
+    private final PaymentRequestService paymentRequestService;
+    private final Map<BulkPaymentRequestResultDto.Status, Counter> lines =
+            new EnumMap<>(BulkPaymentRequestResultDto.Status.class);
+    private final int batchSize;
+    private final long maxLines;
+
+    public PaymentRequestBulkImporter(ObjectMapper objectMapper,
+                                      PaymentRequestService paymentRequestService,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${payment.bulk-create.batch-size:500}") int batchSize,
+                                      @Value("${payment.bulk-create.max-lines:100000}") long maxLines) {
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(CreatePaymentRequestDto.class);
+        // Results are flushed per chunk, not per line
+        this.resultWriter = objectMapper.writerFor(BulkPaymentRequestResultDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.paymentRequestService = paymentRequestService;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxLines = maxLines;
+        for (BulkPaymentRequestResultDto.Status status : BulkPaymentRequestResultDto.Status.values()) {
+            lines.put(status, Counter.builder(LINES_METRIC)
+                    .description("Bulk payment request lines, by outcome")
+                    .tag("status", status.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Imports an NDJSON body and writes the results to {@code out}, which is flushed after every
+     * chunk and left open.
+     *
+     * @param body the raw request body
+     * @param gzip whether the body is gzip-compressed
+     * @throws IOException when the body cannot be read or the results cannot be written
+     */
+    public void importRequests(InputStream body, boolean gzip, OutputStream out) throws IOException {
+        InputStream in = gzip ? new GZIPInputStream(body, BUFFER_SIZE) : body;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(null);
+
+        List<Pending> chunk = new ArrayList<>();
+        int requests = 0;
+        long lineNumber = 0;
+        long processed = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (++processed > maxLines) {
+                chunk.add(new Pending(lineNumber, null, BulkPaymentRequestResultDto.rejected(
+                        "Limit of " + maxLines + " lines reached; resubmit from this line")));
+                break;
+            }
+            try {
+                chunk.add(new Pending(lineNumber, requestReader.readValue(line), null));
+                requests++;
+            } catch (JsonProcessingException e) {
+                chunk.add(new Pending(lineNumber, null, BulkPaymentRequestResultDto.rejected(e.getOriginalMessage())));
+            }
+            if (requests >= batchSize) {
+                if (!writeChunk(chunk, json)) {
+                    return;
+                }
+                chunk.clear();
+                requests = 0;
+            }
+        }
+        writeChunk(chunk, json);
+    }
+
+    /**
+     * Creates the chunk's requests and writes the results in line order.
+     *
+     * @return false if the chunk failed and the import must stop
+     */
+    private boolean writeChunk(List<Pending> chunk, JsonGenerator json) throws IOException {
+        List<CreatePaymentRequestDto> requests = new ArrayList<>(chunk.size());
+        for (Pending pending : chunk) {
+            if (pending.request() != null) {
+                requests.add(pending.request());
+            }
+        }
+        List<BulkPaymentRequestResultDto> created = null;
+        String error = null;
+        if (!requests.isEmpty()) {
+            try {
+                created = paymentRequestService.createPaymentRequests(requests);
+            } catch (RuntimeException e) {
+                error = "Chunk could not be written: " + e.getMessage();
+                log.error("Bulk payment request chunk starting at line {} failed", chunk.get(0).line(), e);
+            }
+        }
+        int next = 0;
+        for (Pending pending : chunk) {
+            BulkPaymentRequestResultDto result = pending.result();
+            if (result == null) {
+                result = created != null ? created.get(next++) : BulkPaymentRequestResultDto.failed(error);
+            }
+            result.setLine(pending.line());
+            lines.get(result.getStatus()).increment();
+            resultWriter.writeValue(json, result);
+            json.writeRaw('\n');
+        }
+        json.flush();
+        return error == null;
+    }
+}
@@ -0,0 +1,129 @@
+package com.ahss.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache for RBAC and catalog reference data (tenants, products, modules,
+ * permissions, roles). These rows change rarely but are re-read on every admin page, so the
+ * services cache the DTOs they build, single lookups and whole listings alike.
+ *
+ * <p>Every write in the owning service calls {@link #invalidate(Region)}, which clears the
+ * written region and the regions whose DTOs embed it (a module rename shows up in products,
+ * permissions and roles). Regions are cleared immediately and again when the writing
+ * transaction completes, so neither a reader that reloaded the old rows in between nor an
+ * entry built from rows that were then rolled back survives. Entries also expire after
+ * {@code ttl-seconds}, which bounds staleness from writes made by other instances.
+ *
+ * <p>Cached values are shared between callers and must not be modified.
+ */
+@Component
+public class ReferenceDataCache {
+
+    static final String INVALIDATIONS_METRIC = "reference-data.cache.invalidations";
+
+    public enum Region {
+        TENANTS, PRODUCTS, MODULES, PERMISSIONS, ROLES;
+
+        String cacheName() {
+            return "reference-data." + name().toLowerCase();
+        }
+    }
+
+    /** Regions whose cached DTOs embed data from the key region. */
+    private static final Map<Region, Set<Region>> DEPENDENTS = new EnumMap<>(Map.of(
+            Region.TENANTS, EnumSet.of(Region.TENANTS),
+            // ModuleDto carries the product name
+            Region.PRODUCTS, EnumSet.of(Region.PRODUCTS, Region.MODULES),
+            // ProductDto embeds modules; permissions and their roles carry the module name
+            Region.MODULES, EnumSet.of(Region.MODULES, Region.PRODUCTS, Region.PERMISSIONS, Region.ROLES),
+            // Modules (and the products embedding them) and roles list their permissions
+            Region.PERMISSIONS, EnumSet.of(Region.PERMISSIONS, Region.MODULES, Region.PRODUCTS, Region.ROLES),
+            Region.ROLES, EnumSet.of(Region.ROLES)));
+
+    private final Map<Region, Cache<Object, Object>> caches = new EnumMap<>(Region.class);
+    private final Map<Region, Counter> invalidations = new EnumMap<>(Region.class);
+    private final boolean enabled;
+
+    public ReferenceDataCache(MeterRegistry meterRegistry,
+                              @Value("${app.cache.reference-data.enabled:true}") boolean enabled,
+                              @Value("${app.cache.reference-data.maximum-size:1000}") long maximumSize,
+                              @Value("${app.cache.reference-data.ttl-seconds:600}") long ttlSeconds) {
+        this.enabled = enabled;
+        for (Region region : Region.values()) {
+            Cache<Object, Object> cache = Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, region.cacheName());
+            caches.put(region, cache);
+            invalidations.put(region, Counter.builder(INVALIDATIONS_METRIC)
+                    .description("Reference data cache regions cleared by a write")
+                    .tag("cache", region.cacheName())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Returns the cached value for the key, loading and caching it on a miss. Lists are stored
+     * as unmodifiable copies; loaders must not return {@code null} (use {@code Optional}).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Region region, Object key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return (T) caches.get(region).get(key, k -> {
+            T value = loader.get();
+            return value instanceof List<?> list ? List.copyOf(list) : value;
+        });
+    }
+
+    /**
+     * Clears the region and its dependents now and, inside a transaction, again once it completes.
+     */
+    public void invalidate(Region region) {
+        clear(region);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear(region);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        caches.values().forEach(Cache::invalidateAll);
+    }
+
+    long size(Region region) {
+        Cache<Object, Object> cache = caches.get(region);
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private void clear(Region region) {
+        for (Region dependent : DEPENDENTS.get(region)) {
+            caches.get(dependent).invalidateAll();
+            invalidations.get(dependent).increment();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ahss.concurrency;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link RetryOnConflict}. Ordered ahead of the transaction interceptor (which runs at
+ * {@link Ordered#LOWEST_PRECEDENCE}), so every attempt gets its own transaction and the
+ * conflict, raised at commit, is seen here.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100)
+public class ConflictRetryAspect {
+
+    private final ConflictRetryExecutor executor;
+
+    public ConflictRetryAspect(ConflictRetryExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Around("@annotation(com.ahss.concurrency.RetryOnConflict) || @within(com.ahss.concurrency.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint pjp) throws Throwable {
+        MethodSignature signature = (MethodSignature) pjp.getSignature();
+        String operation = signature.getDeclaringType().getSimpleName() + "." + signature.getMethod().getName();
+        return executor.executeAttempts(operation, pjp::proceed);
+    }
+}
@@ -0,0 +1,139 @@
+package com.ahss.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleStateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write unit again when it loses an optimistic lock race, i.e. when a
+ * {@code @Version} check failed because another writer committed first. Each attempt starts a
+ * fresh transaction and re-reads the row, so the work is re-applied to the current state
+ * rather than overwriting it. Attempts are separated by a short jittered, doubling backoff.
+ *
+ * <p>Retrying only makes sense at the outermost transaction boundary: inside a caller's
+ * transaction the persistence context still holds the stale row. When a transaction is
+ * already active the unit runs once and a conflict propagates to whoever owns it.
+ *
+ * <p>{@code payment.optimistic_lock.attempts} counts attempts per operation by outcome
+ * ({@code committed}, {@code conflict}); {@code payment.optimistic_lock.exhausted} counts
+ * units that still conflicted on their last attempt.
+ */
+@Component
+public class ConflictRetryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(ConflictRetryExecutor.class);
+
+    static final String ATTEMPTS_METRIC = "payment.optimistic_lock.attempts";
+    static final String EXHAUSTED_METRIC = "payment.optimistic_lock.exhausted";
+
+    /**
+     * A unit of work that may throw anything, e.g. an intercepted method invocation.
+     */
+    @FunctionalInterface
+    interface Attempt<T> {
+        T run() throws Throwable;
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    @Autowired
+    public ConflictRetryExecutor(MeterRegistry meterRegistry,
+                                 @Value("${payment.optimistic-lock.max-attempts:3}") int maxAttempts,
+                                 @Value("${payment.optimistic-lock.backoff-ms:20}") long backoffMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+    }
+
+    /**
+     * Runs {@code action}, retrying it on an optimistic lock conflict.
+     *
+     * @param operation name the attempts are counted under
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        try {
+            return executeAttempts(operation, action::get);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            // A Supplier cannot throw checked exceptions
+            throw new IllegalStateException(t);
+        }
+    }
+
+    <T> T executeAttempts(String operation, Attempt<T> attempt) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return attempt.run();
+        }
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                T result = attempt.run();
+                attempts(operation, "committed").increment();
+                return result;
+            } catch (Throwable t) {
+                if (!isConflict(t)) {
+                    throw t;
+                }
+                attempts(operation, "conflict").increment();
+                if (attemptNumber >= maxAttempts) {
+                    Counter.builder(EXHAUSTED_METRIC)
+                            .description("Operations that still hit an optimistic lock conflict on their last attempt")
+                            .tag("operation", operation)
+                            .register(meterRegistry)
+                            .increment();
+                    log.warn("{} gave up after {} conflicting attempt(s): {}", operation, attemptNumber,
+                            t.getMessage());
+                    throw t;
+                }
+                log.debug("{} hit an optimistic lock conflict, retrying (attempt {} of {})", operation,
+                        attemptNumber + 1, maxAttempts);
+                backOff(attemptNumber, t);
+            }
+        }
+    }
+
+    private Counter attempts(String operation, String outcome) {
+        return Counter.builder(ATTEMPTS_METRIC)
+                .description("Optimistically locked operation attempts")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void backOff(int attemptNumber, Throwable conflict) throws Throwable {
+        if (backoffMs <= 0) {
+            return;
+        }
+        long ceiling = backoffMs << Math.min(attemptNumber - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    static boolean isConflict(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException
+                    || cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
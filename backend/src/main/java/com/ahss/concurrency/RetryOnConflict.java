@@ -0,0 +1,20 @@
+package com.ahss.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs the annotated method, transaction included, when it fails on an optimistic lock
+ * conflict. See {@link ConflictRetryExecutor} for when a conflict is retried.
+ *
+ * <p>Only for methods whose whole effect is their database transaction: anything else they do
+ * (gateway calls, published events) would be repeated on every attempt.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+}
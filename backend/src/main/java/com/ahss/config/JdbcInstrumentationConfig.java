@@ -0,0 +1,62 @@
+package com.ahss.config;
+
+import com.ahss.datasource.InstrumentedDataSource;
+import com.ahss.datasource.QueryCountFilter;
+import com.ahss.datasource.QueryMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts an {@link InstrumentedDataSource} in front of the application's {@code dataSource}
+ * bean (the routing proxy when the replica is enabled, otherwise the pool) and counts
+ * statements per HTTP request.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.datasource.instrumentation", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class JdbcInstrumentationConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public QueryMetrics queryMetrics(MeterRegistry meterRegistry,
+                                     @Value("${payment.datasource.instrumentation.slow-query-threshold-ms:500}") long slowQueryThresholdMs,
+                                     @Value("${payment.datasource.instrumentation.slow-query-sample-rate:1.0}") double slowQuerySampleRate,
+                                     @Value("${payment.datasource.instrumentation.repeated-query-threshold:10}") int repeatedQueryThreshold) {
+        return new QueryMetrics(meterRegistry, Duration.ofMillis(slowQueryThresholdMs), slowQuerySampleRate,
+                repeatedQueryThreshold);
+    }
+
+    @Bean
+    public static BeanPostProcessor instrumentDataSource(ObjectProvider<QueryMetrics> queryMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, queryMetrics.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(QueryMetrics queryMetrics) {
+        FilterRegistrationBean<QueryCountFilter> registration =
+                new FilterRegistrationBean<>(new QueryCountFilter(queryMetrics));
+        // Outside the security chain so statements run while authenticating are counted too
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 20);
+        return registration;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ahss.config;
+
+import com.ahss.maintenance.MaintenanceJob;
+import com.ahss.maintenance.MaintenanceJobScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "payment.jobs")
+public class MaintenanceJobConfig {
+
+    private long leaseSeconds = 60;
+    private int workerThreads = 2;
+
+    /**
+     * Schedules keyed by {@link MaintenanceJob#name()}; jobs not listed run unsharded every five minutes.
+     */
+    private Map<String, MaintenanceJobScheduler.Schedule> schedules = new LinkedHashMap<>();
+
+    public long getLeaseSeconds() {
+        return leaseSeconds;
+    }
+
+    public void setLeaseSeconds(long leaseSeconds) {
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public Map<String, MaintenanceJobScheduler.Schedule> getSchedules() {
+        return schedules;
+    }
+
+    public void setSchedules(Map<String, MaintenanceJobScheduler.Schedule> schedules) {
+        this.schedules = schedules;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "payment.jobs", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MaintenanceJobScheduler maintenanceJobScheduler(JdbcTemplate jdbcTemplate, List<MaintenanceJob> jobs,
+                                                           MeterRegistry meterRegistry) {
+        return new MaintenanceJobScheduler(jdbcTemplate, jobs, schedules, leaseSeconds, workerThreads, meterRegistry);
+    }
+}
@@ -0,0 +1,98 @@
+package com.ahss.config;
+
+import com.ahss.datasource.ReadYourWritesTracker;
+import com.ahss.datasource.ReplicaLagMonitor;
+import com.ahss.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+/**
+ * Splits {@code spring.datasource} into a primary and a replica pool when
+ * {@code payment.datasource.replica.enabled} is set. The application-wide {@link DataSource}
+ * becomes a lazy {@link ReplicaRoutingDataSource}: read-only transactions read from the
+ * replica, everything else (writes, Flyway, work outside a transaction) uses the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * With workload pools enabled, {@link WorkloadDataSourceConfig} provides the primary side
+     * instead: one pool per workload.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    @ConditionalOnProperty(prefix = "payment.datasource.workloads", name = "enabled", havingValue = "false",
+            matchIfMissing = true)
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("payment.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${payment.datasource.replica.url}") String url,
+                                              @Value("${payment.datasource.replica.username:${spring.datasource.username}}") String username,
+                                              @Value("${payment.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(new JdbcTemplate(replica), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${payment.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+                                 @Value("${payment.datasource.replica.read-your-writes-window-ms:5000}") long readYourWritesWindowMs) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor,
+                new ReadYourWritesTracker(Clock.systemUTC(), readYourWritesWindowMs), maxLagMs, meterRegistry);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Spring holds the JDBC connection for the whole EntityManager by default, which with
+     * open-in-view means one connection per request: a replica connection picked by the first
+     * read-only transaction would then serve later writes. Releasing it after each transaction
+     * lets every transaction be routed on its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ahss.config;
+
+import com.ahss.integration.webhook.GatewayAdmission;
+import com.ahss.integration.webhook.WebhookAdmissionFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "payment.webhooks.admission")
+public class WebhookAdmissionConfig {
+
+    private static final Map<String, String> GATEWAY_NAMES = Map.of(
+            "stripe", "Stripe",
+            "paypal", "PayPal",
+            "bank-transfer", "BankTransfer");
+
+    private boolean enabled = true;
+
+    /**
+     * Limits keyed by the gateway's webhook path segment; gateways not listed are not limited.
+     */
+    private Map<String, GatewayAdmission.Limits> gateways = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, GatewayAdmission.Limits> getGateways() {
+        return gateways;
+    }
+
+    public void setGateways(Map<String, GatewayAdmission.Limits> gateways) {
+        this.gateways = gateways;
+    }
+
+    @Bean
+    public FilterRegistrationBean<WebhookAdmissionFilter> webhookAdmissionFilter(MeterRegistry meterRegistry,
+                                                                                 ObjectMapper objectMapper) {
+        Map<String, GatewayAdmission> admissions = new HashMap<>();
+        gateways.forEach((segment, limits) -> admissions.put(segment,
+                new GatewayAdmission(GATEWAY_NAMES.getOrDefault(segment, segment), limits, meterRegistry)));
+
+        FilterRegistrationBean<WebhookAdmissionFilter> registration =
+                new FilterRegistrationBean<>(new WebhookAdmissionFilter(admissions, objectMapper));
+        registration.addUrlPatterns(WebhookAdmissionFilter.PATH_PREFIX + "*");
+        // Ahead of the security chain so shed requests cost as little as possible
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+}
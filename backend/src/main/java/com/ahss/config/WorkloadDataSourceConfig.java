@@ -0,0 +1,89 @@
+package com.ahss.config;
+
+import com.ahss.datasource.Workload;
+import com.ahss.datasource.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Splits the primary database connections into one Hikari pool per {@link Workload} when
+ * {@code payment.datasource.workloads.enabled} is set. The OLTP pool keeps
+ * {@code spring.datasource.hikari}; the reporting and jobs pools are configured under
+ * {@code payment.datasource.workloads.<workload>.hikari}.
+ *
+ * <p>The pools are combined in a {@link WorkloadRoutingDataSource} registered as
+ * {@code primaryDataSource}: with the replica enabled, {@link ReplicaDataSourceConfig} routes
+ * read-write work to it; otherwise it becomes the application-wide {@link DataSource} itself.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.datasource.workloads", name = "enabled", havingValue = "true")
+public class WorkloadDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource oltpDataSource(DataSourceProperties properties) {
+        return pool(properties, Workload.OLTP);
+    }
+
+    @Bean
+    @ConfigurationProperties("payment.datasource.workloads.reporting.hikari")
+    public HikariDataSource reportingDataSource(DataSourceProperties properties) {
+        return pool(properties, Workload.REPORTING);
+    }
+
+    @Bean
+    @ConfigurationProperties("payment.datasource.workloads.jobs.hikari")
+    public HikariDataSource jobsDataSource(DataSourceProperties properties) {
+        return pool(properties, Workload.JOBS);
+    }
+
+    @Bean
+    public DataSource primaryDataSource(@Qualifier("oltpDataSource") DataSource oltp,
+                                        @Qualifier("reportingDataSource") DataSource reporting,
+                                        @Qualifier("jobsDataSource") DataSource jobs,
+                                        MeterRegistry meterRegistry) {
+        return new WorkloadRoutingDataSource(
+                Map.of(Workload.OLTP, oltp, Workload.REPORTING, reporting, Workload.JOBS, jobs), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "payment.datasource.replica", name = "enabled", havingValue = "false",
+            matchIfMissing = true)
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary) {
+        return new LazyConnectionDataSourceProxy(primary);
+    }
+
+    /**
+     * Same reason as in {@link ReplicaDataSourceConfig}, which registers it when the replica
+     * is enabled: a connection held for the whole request would keep the first transaction's
+     * pool.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "payment.datasource.replica", name = "enabled", havingValue = "false",
+            matchIfMissing = true)
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Workload workload) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(workload.tag());
+        return dataSource;
+    }
+}
@@ -1,30 +1,46 @@
 package com.ahss.controller;
 
+import com.ahss.bulk.PaymentRequestBulkImporter;
 import com.ahss.dto.request.CreatePaymentRequestDto;
 import com.ahss.dto.request.CreateRefundDto;
 import com.ahss.dto.request.ProcessPaymentDto;
 import com.ahss.dto.request.UpdatePaymentRequestDto;
 import com.ahss.dto.response.ApiResponse;
+import com.ahss.dto.response.CursorPage;
 import com.ahss.dto.response.PaymentAuditLogDto;
 import com.ahss.dto.response.PaymentRefundDto;
+import com.ahss.dto.response.PaymentRefundSummaryDto;
 import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentTransactionDto;
+import com.ahss.dto.response.PaymentTransactionSummaryDto;
 import com.ahss.enums.PaymentRequestStatus;
 import com.ahss.enums.PaymentTransactionStatus;
+import com.ahss.exception.BadRequestException;
+import com.ahss.export.ExportFormat;
+import com.ahss.export.PaymentExporter;
 import com.ahss.service.PaymentAuditLogService;
 import com.ahss.service.PaymentRefundService;
 import com.ahss.service.PaymentRequestService;
 import com.ahss.service.PaymentTransactionService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -42,15 +58,23 @@ public class PaymentController {
 
   private final PaymentAuditLogService auditLogService;
 
+  private final PaymentExporter paymentExporter;
+
+  private final PaymentRequestBulkImporter paymentRequestBulkImporter;
+
   public PaymentController(
       PaymentRequestService paymentRequestService,
       PaymentTransactionService paymentTransactionService,
       PaymentRefundService paymentRefundService,
-      PaymentAuditLogService auditLogService) {
+      PaymentAuditLogService auditLogService,
+      PaymentExporter paymentExporter,
+      PaymentRequestBulkImporter paymentRequestBulkImporter) {
     this.paymentRequestService = paymentRequestService;
     this.paymentTransactionService = paymentTransactionService;
     this.paymentRefundService = paymentRefundService;
     this.auditLogService = auditLogService;
+    this.paymentExporter = paymentExporter;
+    this.paymentRequestBulkImporter = paymentRequestBulkImporter;
   }
 
   // ===== PAYMENT REQUESTS =====
@@ -122,6 +146,22 @@ public class PaymentController {
             "/api/v1/payments/requests/tenant/" + tenantId));
   }
 
+  @GetMapping("/requests/tenant/{tenantId}/search")
+  public ResponseEntity<ApiResponse<Page<PaymentRequestDto>>> searchPaymentRequestsByTenant(
+      @PathVariable Long tenantId,
+      @RequestParam String searchTerm,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "10") int size) {
+    Pageable pageable = PageRequest.of(page, size);
+    Page<PaymentRequestDto> requests =
+        paymentRequestService.searchPaymentRequestsByTenant(tenantId, searchTerm, pageable);
+    return ResponseEntity.ok(
+        ApiResponse.ok(
+            requests,
+            "Payment requests retrieved successfully",
+            "/api/v1/payments/requests/tenant/" + tenantId + "/search"));
+  }
+
   @GetMapping("/requests/status/{status}")
   public ResponseEntity<ApiResponse<Page<PaymentRequestDto>>> getPaymentRequestsByStatus(
       @PathVariable PaymentRequestStatus status,
@@ -154,6 +194,33 @@ public class PaymentController {
     }
   }
 
+  @PostMapping(
+      path = "/requests/bulk",
+      consumes = {
+        "application/x-ndjson",
+        MediaType.TEXT_PLAIN_VALUE,
+        MediaType.APPLICATION_OCTET_STREAM_VALUE
+      })
+  public void createPaymentRequests(
+      InputStream body,
+      @RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false)
+          String contentEncoding,
+      HttpServletResponse response)
+      throws IOException {
+    boolean gzip =
+        contentEncoding != null && contentEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    response.setContentType("application/x-ndjson");
+    response.setCharacterEncoding("UTF-8");
+    try {
+      paymentRequestBulkImporter.importRequests(body, gzip, response.getOutputStream());
+    } catch (IOException e) {
+      if (response.isCommitted()) {
+        throw e;
+      }
+      throw new BadRequestException("Failed to read bulk payment requests: " + e.getMessage());
+    }
+  }
+
   @PutMapping("/requests/{id}")
   public ResponseEntity<ApiResponse<PaymentRequestDto>> updatePaymentRequest(
       @PathVariable UUID id, @Valid @RequestBody UpdatePaymentRequestDto requestDto) {
@@ -184,6 +251,12 @@ public class PaymentController {
               null,
               "Payment request cancelled successfully",
               "/api/v1/payments/requests/" + id + "/cancel"));
+    } catch (BadRequestException | OptimisticLockingFailureException e) {
+      // Already final, or still contended after the service's retries
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(
+              ApiResponse.notOk(
+                  null, e.getMessage(), "/api/v1/payments/requests/" + id + "/cancel"));
     } catch (RuntimeException e) {
       return ResponseEntity.status(HttpStatus.NOT_FOUND)
           .body(
@@ -235,10 +308,10 @@ public class PaymentController {
   // ===== PAYMENT TRANSACTIONS =====
 
   @GetMapping("/transactions")
-  public ResponseEntity<ApiResponse<Page<PaymentTransactionDto>>> getAllTransactions(
+  public ResponseEntity<ApiResponse<Page<PaymentTransactionSummaryDto>>> getAllTransactions(
       @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size) {
     Pageable pageable = PageRequest.of(page, size);
-    Page<PaymentTransactionDto> transactions =
+    Page<PaymentTransactionSummaryDto> transactions =
         paymentTransactionService.getAllTransactions(pageable);
     return ResponseEntity.ok(
         ApiResponse.ok(
@@ -247,6 +320,41 @@ public class PaymentController {
             "/api/v1/payments/transactions"));
   }
 
+  @GetMapping("/transactions/scroll")
+  public ResponseEntity<ApiResponse<CursorPage<PaymentTransactionSummaryDto>>> scrollTransactions(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "10") int size,
+      @RequestParam(defaultValue = "false") boolean includeTotal) {
+    CursorPage<PaymentTransactionSummaryDto> transactions =
+        paymentTransactionService.scrollTransactions(cursor, size, includeTotal);
+    return ResponseEntity.ok(
+        ApiResponse.ok(
+            transactions,
+            "Payment transactions retrieved successfully",
+            "/api/v1/payments/transactions/scroll"));
+  }
+
+  @GetMapping("/transactions/export")
+  public void exportTransactions(
+      @RequestParam(defaultValue = "ndjson") String format,
+      @RequestParam(defaultValue = "false") boolean gzip,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime to,
+      @RequestParam(required = false) PaymentTransactionStatus status,
+      HttpServletResponse response)
+      throws IOException {
+    export(
+        PaymentExporter.Dataset.TRANSACTIONS,
+        format,
+        gzip,
+        from,
+        to,
+        status != null ? status.name() : null,
+        response);
+  }
+
   @GetMapping("/transactions/{id}")
   public ResponseEntity<ApiResponse<PaymentTransactionDto>> getTransactionById(
       @PathVariable UUID id) {
@@ -293,12 +401,12 @@ public class PaymentController {
   }
 
   @GetMapping("/transactions/request/{requestId}")
-  public ResponseEntity<ApiResponse<Page<PaymentTransactionDto>>> getTransactionsByRequest(
+  public ResponseEntity<ApiResponse<Page<PaymentTransactionSummaryDto>>> getTransactionsByRequest(
       @PathVariable UUID requestId,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "10") int size) {
     Pageable pageable = PageRequest.of(page, size);
-    Page<PaymentTransactionDto> transactions =
+    Page<PaymentTransactionSummaryDto> transactions =
         paymentTransactionService.getTransactionsByPaymentRequest(requestId, pageable);
     return ResponseEntity.ok(
         ApiResponse.ok(
@@ -308,12 +416,12 @@ public class PaymentController {
   }
 
   @GetMapping("/transactions/status/{status}")
-  public ResponseEntity<ApiResponse<Page<PaymentTransactionDto>>> getTransactionsByStatus(
+  public ResponseEntity<ApiResponse<Page<PaymentTransactionSummaryDto>>> getTransactionsByStatus(
       @PathVariable PaymentTransactionStatus status,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "10") int size) {
     Pageable pageable = PageRequest.of(page, size);
-    Page<PaymentTransactionDto> transactions =
+    Page<PaymentTransactionSummaryDto> transactions =
         paymentTransactionService.getTransactionsByStatus(status, pageable);
     return ResponseEntity.ok(
         ApiResponse.ok(
@@ -376,15 +484,50 @@ public class PaymentController {
   // ===== PAYMENT REFUNDS =====
 
   @GetMapping("/refunds")
-  public ResponseEntity<ApiResponse<Page<PaymentRefundDto>>> getAllRefunds(
+  public ResponseEntity<ApiResponse<Page<PaymentRefundSummaryDto>>> getAllRefunds(
       @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size) {
     Pageable pageable = PageRequest.of(page, size);
-    Page<PaymentRefundDto> refunds = paymentRefundService.getAllRefunds(pageable);
+    Page<PaymentRefundSummaryDto> refunds = paymentRefundService.getAllRefunds(pageable);
     return ResponseEntity.ok(
         ApiResponse.ok(
             refunds, "Payment refunds retrieved successfully", "/api/v1/payments/refunds"));
   }
 
+  @GetMapping("/refunds/scroll")
+  public ResponseEntity<ApiResponse<CursorPage<PaymentRefundSummaryDto>>> scrollRefunds(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "10") int size,
+      @RequestParam(defaultValue = "false") boolean includeTotal) {
+    CursorPage<PaymentRefundSummaryDto> refunds =
+        paymentRefundService.scrollRefunds(cursor, size, includeTotal);
+    return ResponseEntity.ok(
+        ApiResponse.ok(
+            refunds,
+            "Payment refunds retrieved successfully",
+            "/api/v1/payments/refunds/scroll"));
+  }
+
+  @GetMapping("/refunds/export")
+  public void exportRefunds(
+      @RequestParam(defaultValue = "ndjson") String format,
+      @RequestParam(defaultValue = "false") boolean gzip,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime to,
+      @RequestParam(required = false) PaymentTransactionStatus status,
+      HttpServletResponse response)
+      throws IOException {
+    export(
+        PaymentExporter.Dataset.REFUNDS,
+        format,
+        gzip,
+        from,
+        to,
+        status != null ? status.name() : null,
+        response);
+  }
+
   @GetMapping("/refunds/{id}")
   public ResponseEntity<ApiResponse<PaymentRefundDto>> getRefundById(@PathVariable UUID id) {
     Optional<PaymentRefundDto> refund = paymentRefundService.getRefundById(id);
@@ -426,12 +569,12 @@ public class PaymentController {
   }
 
   @GetMapping("/refunds/transaction/{transactionId}")
-  public ResponseEntity<ApiResponse<Page<PaymentRefundDto>>> getRefundsByTransaction(
+  public ResponseEntity<ApiResponse<Page<PaymentRefundSummaryDto>>> getRefundsByTransaction(
       @PathVariable UUID transactionId,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "10") int size) {
     Pageable pageable = PageRequest.of(page, size);
-    Page<PaymentRefundDto> refunds =
+    Page<PaymentRefundSummaryDto> refunds =
         paymentRefundService.getRefundsByTransaction(transactionId, pageable);
     return ResponseEntity.ok(
         ApiResponse.ok(
@@ -441,12 +584,13 @@ public class PaymentController {
   }
 
   @GetMapping("/refunds/status/{status}")
-  public ResponseEntity<ApiResponse<Page<PaymentRefundDto>>> getRefundsByStatus(
+  public ResponseEntity<ApiResponse<Page<PaymentRefundSummaryDto>>> getRefundsByStatus(
       @PathVariable PaymentTransactionStatus status,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "10") int size) {
     Pageable pageable = PageRequest.of(page, size);
-    Page<PaymentRefundDto> refunds = paymentRefundService.getRefundsByStatus(status, pageable);
+    Page<PaymentRefundSummaryDto> refunds =
+        paymentRefundService.getRefundsByStatus(status, pageable);
     return ResponseEntity.ok(
         ApiResponse.ok(
             refunds,
@@ -517,6 +661,34 @@ public class PaymentController {
             auditLogs, "Payment audit logs retrieved successfully", "/api/v1/payments/audit-logs"));
   }
 
+  @GetMapping("/audit-logs/scroll")
+  public ResponseEntity<ApiResponse<CursorPage<PaymentAuditLogDto>>> scrollAuditLogs(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "10") int size,
+      @RequestParam(defaultValue = "false") boolean includeTotal) {
+    CursorPage<PaymentAuditLogDto> auditLogs =
+        auditLogService.scrollAuditLogs(cursor, size, includeTotal);
+    return ResponseEntity.ok(
+        ApiResponse.ok(
+            auditLogs,
+            "Payment audit logs retrieved successfully",
+            "/api/v1/payments/audit-logs/scroll"));
+  }
+
+  @GetMapping("/audit-logs/export")
+  public void exportAuditLogs(
+      @RequestParam(defaultValue = "ndjson") String format,
+      @RequestParam(defaultValue = "false") boolean gzip,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime to,
+      @RequestParam(required = false) String action,
+      HttpServletResponse response)
+      throws IOException {
+    export(PaymentExporter.Dataset.AUDIT_LOGS, format, gzip, from, to, action, response);
+  }
+
   @GetMapping("/audit-logs/{id}")
   public ResponseEntity<ApiResponse<PaymentAuditLogDto>> getAuditLogById(@PathVariable UUID id) {
     Optional<PaymentAuditLogDto> auditLog = auditLogService.getAuditLogById(id);
@@ -615,19 +787,21 @@ public class PaymentController {
   @GetMapping("/stats/requests")
   public ResponseEntity<ApiResponse<Map<String, Object>>> getPaymentRequestStats() {
     try {
+      // One aggregate read for all statuses
+      Map<PaymentRequestStatus, Long> counts = paymentRequestService.getStatusCountBreakdown();
+      long pending = counts.getOrDefault(PaymentRequestStatus.PENDING, 0L);
+      long completed = counts.getOrDefault(PaymentRequestStatus.COMPLETED, 0L);
+      long failed = counts.getOrDefault(PaymentRequestStatus.FAILED, 0L);
+      long cancelled = counts.getOrDefault(PaymentRequestStatus.CANCELLED, 0L);
+      long expired = counts.getOrDefault(PaymentRequestStatus.EXPIRED, 0L);
       Map<String, Object> stats =
           Map.of(
-              "totalRequests",
-                  paymentRequestService.countByStatus(PaymentRequestStatus.PENDING)
-                      + paymentRequestService.countByStatus(PaymentRequestStatus.COMPLETED)
-                      + paymentRequestService.countByStatus(PaymentRequestStatus.FAILED)
-                      + paymentRequestService.countByStatus(PaymentRequestStatus.CANCELLED),
-              "pendingRequests", paymentRequestService.countByStatus(PaymentRequestStatus.PENDING),
-              "completedRequests",
-                  paymentRequestService.countByStatus(PaymentRequestStatus.COMPLETED),
-              "failedRequests", paymentRequestService.countByStatus(PaymentRequestStatus.FAILED),
-              "cancelledRequests",
-                  paymentRequestService.countByStatus(PaymentRequestStatus.CANCELLED));
+              "totalRequests", pending + completed + failed + cancelled + expired,
+              "pendingRequests", pending,
+              "completedRequests", completed,
+              "failedRequests", failed,
+              "cancelledRequests", cancelled,
+              "expiredRequests", expired);
       return ResponseEntity.ok(
           ApiResponse.ok(
               stats,
@@ -646,21 +820,18 @@ public class PaymentController {
   @GetMapping("/stats/transactions")
   public ResponseEntity<ApiResponse<Map<String, Object>>> getTransactionStats() {
     try {
+      Map<PaymentTransactionStatus, Long> counts = paymentTransactionService.getStatusCountBreakdown();
+      long pending = counts.getOrDefault(PaymentTransactionStatus.PENDING, 0L);
+      long successful = counts.getOrDefault(PaymentTransactionStatus.SUCCESS, 0L);
+      long failed = counts.getOrDefault(PaymentTransactionStatus.FAILED, 0L);
+      long cancelled = counts.getOrDefault(PaymentTransactionStatus.CANCELLED, 0L);
       Map<String, Object> stats =
           Map.of(
-              "totalTransactions",
-                  paymentTransactionService.countByStatus(PaymentTransactionStatus.PENDING)
-                      + paymentTransactionService.countByStatus(PaymentTransactionStatus.SUCCESS)
-                      + paymentTransactionService.countByStatus(PaymentTransactionStatus.FAILED)
-                      + paymentTransactionService.countByStatus(PaymentTransactionStatus.CANCELLED),
-              "pendingTransactions",
-                  paymentTransactionService.countByStatus(PaymentTransactionStatus.PENDING),
-              "successfulTransactions",
-                  paymentTransactionService.countByStatus(PaymentTransactionStatus.SUCCESS),
-              "failedTransactions",
-                  paymentTransactionService.countByStatus(PaymentTransactionStatus.FAILED),
-              "cancelledTransactions",
-                  paymentTransactionService.countByStatus(PaymentTransactionStatus.CANCELLED));
+              "totalTransactions", pending + successful + failed + cancelled,
+              "pendingTransactions", pending,
+              "successfulTransactions", successful,
+              "failedTransactions", failed,
+              "cancelledTransactions", cancelled);
       return ResponseEntity.ok(
           ApiResponse.ok(
               stats,
@@ -679,20 +850,18 @@ public class PaymentController {
   @GetMapping("/stats/refunds")
   public ResponseEntity<ApiResponse<Map<String, Object>>> getRefundStats() {
     try {
+      Map<PaymentTransactionStatus, Long> counts = paymentRefundService.getStatusCountBreakdown();
+      long pending = counts.getOrDefault(PaymentTransactionStatus.PENDING, 0L);
+      long successful = counts.getOrDefault(PaymentTransactionStatus.SUCCESS, 0L);
+      long failed = counts.getOrDefault(PaymentTransactionStatus.FAILED, 0L);
+      long cancelled = counts.getOrDefault(PaymentTransactionStatus.CANCELLED, 0L);
       Map<String, Object> stats =
           Map.of(
-              "totalRefunds",
-                  paymentRefundService.countByStatus(PaymentTransactionStatus.PENDING)
-                      + paymentRefundService.countByStatus(PaymentTransactionStatus.SUCCESS)
-                      + paymentRefundService.countByStatus(PaymentTransactionStatus.FAILED)
-                      + paymentRefundService.countByStatus(PaymentTransactionStatus.CANCELLED),
-              "pendingRefunds",
-                  paymentRefundService.countByStatus(PaymentTransactionStatus.PENDING),
-              "successfulRefunds",
-                  paymentRefundService.countByStatus(PaymentTransactionStatus.SUCCESS),
-              "failedRefunds", paymentRefundService.countByStatus(PaymentTransactionStatus.FAILED),
-              "cancelledRefunds",
-                  paymentRefundService.countByStatus(PaymentTransactionStatus.CANCELLED));
+              "totalRefunds", pending + successful + failed + cancelled,
+              "pendingRefunds", pending,
+              "successfulRefunds", successful,
+              "failedRefunds", failed,
+              "cancelledRefunds", cancelled);
       return ResponseEntity.ok(
           ApiResponse.ok(
               stats,
@@ -733,4 +902,41 @@ public class PaymentController {
                   "/api/v1/payments/stats/audit-logs"));
     }
   }
+
+  // Exports write to the response as rows are read, on the request thread, so no async timeout
+  // cuts a long one short; from is inclusive, to exclusive. Arguments are checked before
+  // anything is written.
+  private void export(
+      PaymentExporter.Dataset dataset,
+      String format,
+      boolean gzip,
+      LocalDateTime from,
+      LocalDateTime to,
+      String value,
+      HttpServletResponse response)
+      throws IOException {
+    ExportFormat exportFormat;
+    try {
+      exportFormat = ExportFormat.of(format);
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Unsupported export format: " + format);
+    }
+    if (from != null && to != null && !from.isBefore(to)) {
+      throw new BadRequestException("Export 'from' must be before 'to'");
+    }
+    String fileName = dataset.tag() + "." + exportFormat.extension() + (gzip ? ".gz" : "");
+    if (gzip) {
+      response.setContentType("application/gzip");
+    } else {
+      response.setContentType(exportFormat.contentType());
+      response.setCharacterEncoding("UTF-8");
+    }
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+    paymentExporter.export(
+        dataset,
+        exportFormat,
+        new PaymentExporter.Filter(from, to, value),
+        gzip,
+        response.getOutputStream());
+  }
 }
@@ -0,0 +1,262 @@
+package com.ahss.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Wraps connections so that every statement execution is timed and counted by
+ * {@link QueryMetrics}: {@code execute*} calls are timed, rows are counted as the result set
+ * is read (or taken from update counts), and bind parameters are kept for the slow-query log.
+ *
+ * <p>Extends {@link DelegatingDataSource} so pool metrics and health checks still unwrap to
+ * the pool underneath.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final QueryMetrics metrics;
+
+    public InstrumentedDataSource(DataSource target, QueryMetrics metrics) {
+        super(target);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** {@code unwrap}/{@code isWrapperFor} see the proxy first, then the driver's object. */
+    private static Object unwrapOrNull(Object proxy, Method method, Object[] args) {
+        if (args == null || args.length != 1 || !(args[0] instanceof Class<?> type) || !type.isInstance(proxy)) {
+            return null;
+        }
+        return method.getName().equals("unwrap") ? proxy : Boolean.TRUE;
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "unwrap", "isWrapperFor" -> {
+                    Object own = unwrapOrNull(proxy, method, args);
+                    if (own != null) {
+                        return own;
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class,
+                        new StatementHandler((Statement) result, null, (Connection) proxy));
+                case "prepareStatement" -> proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0], (Connection) proxy));
+                case "prepareCall" -> proxy(CallableStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0], (Connection) proxy));
+                default -> result;
+            };
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final Connection connection;
+        private Object[] parameters;
+        private String lastBatchSql;
+        private String lastQueryName;
+
+        StatementHandler(Statement target, String preparedSql, Connection connection) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                return execute(method, args);
+            }
+            switch (name) {
+                case "unwrap", "isWrapperFor" -> {
+                    Object own = unwrapOrNull(proxy, method, args);
+                    if (own != null) {
+                        return own;
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                case "clearParameters" -> parameters = null;
+                case "addBatch" -> {
+                    if (args != null && args.length == 1 && args[0] instanceof String sql) {
+                        lastBatchSql = sql;
+                    }
+                }
+                default -> {
+                    if (name.startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer index && metrics.capturesParameters()) {
+                        captureParameter(index, args[1]);
+                    }
+                }
+            }
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            if (name.equals("getResultSet") && result instanceof ResultSet resultSet && lastQueryName != null) {
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, lastQueryName));
+            }
+            return result;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String sql = preparedSql;
+            if (sql == null) {
+                sql = args != null && args.length > 0 && args[0] instanceof String s ? s : lastBatchSql;
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = InstrumentedDataSource.invoke(target, method, args);
+            } catch (Throwable t) {
+                metrics.recordExecution(sql, System.nanoTime() - start, false, parameters);
+                throw t;
+            }
+            String queryName = metrics.recordExecution(sql, System.nanoTime() - start, true, parameters);
+            lastQueryName = queryName;
+            if (result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, queryName));
+            }
+            long rows = switch (result) {
+                case Integer count -> Math.max(count, 0);
+                case Long count -> Math.max(count, 0);
+                case int[] counts -> Arrays.stream(counts).filter(c -> c > 0).asLongStream().sum();
+                case long[] counts -> Arrays.stream(counts).filter(c -> c > 0).sum();
+                case null, default -> -1;
+            };
+            if (rows >= 0) {
+                metrics.recordRows(queryName, rows);
+            }
+            return result;
+        }
+
+        private void captureParameter(int index, Object value) {
+            if (index < 1 || index > 10_000) {
+                return;
+            }
+            if (parameters == null || parameters.length <= index) {
+                parameters = Arrays.copyOf(parameters == null ? new Object[0] : parameters, Math.max(index + 1, 8));
+            }
+            parameters[index] = value;
+        }
+    }
+
+    /** Counts rows as they are read and records the total once the result set is done. */
+    private final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final String queryName;
+        private long rows;
+        private boolean recorded;
+
+        ResultSetHandler(ResultSet target, String queryName) {
+            this.target = target;
+            this.queryName = queryName;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "unwrap", "isWrapperFor" -> {
+                    Object own = unwrapOrNull(proxy, method, args);
+                    if (own != null) {
+                        return own;
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "close" -> record();
+                default -> {
+                }
+            }
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            if (method.getName().equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                } else {
+                    record();
+                }
+            }
+            return result;
+        }
+
+        private void record() {
+            if (!recorded) {
+                recorded = true;
+                metrics.recordRows(queryName, rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ahss.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the JDBC statements each HTTP request runs and hands the totals to
+ * {@link QueryMetrics}, tagged with the matched route pattern rather than the raw path.
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final QueryMetrics metrics;
+
+    public QueryCountFilter(QueryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryMetrics.RequestStatements statements = metrics.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metrics.finishRequest(statements, request.getMethod(),
+                    pattern != null ? pattern.toString() : UNKNOWN_URI);
+        }
+    }
+}
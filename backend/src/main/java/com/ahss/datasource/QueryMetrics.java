@@ -0,0 +1,243 @@
+package com.ahss.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records what {@link InstrumentedDataSource} sees: a latency histogram and a rows-returned
+ * summary per query name, statement counts per HTTP request, and a sampled log of slow
+ * statements with their bind parameters.
+ *
+ * <p>A query is named after the repository method that ran it ({@code
+ * PaymentAuditLogRepository.countByAction}), as set by {@link RepositoryQueryNameAspect}.
+ * Statements issued outside a repository call (flushes, lazy loads, {@code JdbcTemplate}) are
+ * named by statement kind and table, e.g. {@code select payment_audit_log}. Both keep the
+ * {@code query} tag bounded.
+ *
+ * <p>When one query name runs {@code repeated-query-threshold} times or more within a single
+ * request, the request is reported as a likely N+1 pattern.
+ */
+public class QueryMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryMetrics.class);
+
+    static final String QUERY_METRIC = "jdbc.query";
+    static final String ROWS_METRIC = "jdbc.query.rows";
+    static final String SLOW_METRIC = "jdbc.query.slow";
+    static final String REQUEST_STATEMENTS_METRIC = "jdbc.request.statements";
+    static final String REPEATED_METRIC = "jdbc.query.repeated";
+
+    private static final ThreadLocal<String> CURRENT_QUERY = new ThreadLocal<>();
+    private static final ThreadLocal<RequestStatements> CURRENT_REQUEST = new ThreadLocal<>();
+
+    private static final Pattern VERB = Pattern.compile("^\\s*(?:/\\*.*?\\*/\\s*)*\\{?\\s*(\\w+)", Pattern.DOTALL);
+    private static final Pattern FROM = Pattern.compile("\\bfrom\\s+([\\w.\"]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INTO = Pattern.compile("\\binto\\s+([\\w.\"]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern UPDATE = Pattern.compile("^\\s*update\\s+([\\w.\"]+)", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_CACHED_NAMES = 2_000;
+    private static final int MAX_PARAMETER_LENGTH = 64;
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final double slowSampleRate;
+    private final int repeatedQueryThreshold;
+    private final DoubleSupplier random;
+    private final Map<String, String> namesBySql = new ConcurrentHashMap<>();
+
+    public QueryMetrics(MeterRegistry meterRegistry, Duration slowThreshold, double slowSampleRate,
+                        int repeatedQueryThreshold) {
+        this(meterRegistry, slowThreshold, slowSampleRate, repeatedQueryThreshold, Math::random);
+    }
+
+    QueryMetrics(MeterRegistry meterRegistry, Duration slowThreshold, double slowSampleRate,
+                 int repeatedQueryThreshold, DoubleSupplier random) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowSampleRate = slowSampleRate;
+        this.repeatedQueryThreshold = repeatedQueryThreshold;
+        this.random = random;
+    }
+
+    /**
+     * Names the statements run by the current thread until {@link #exitQuery} is called.
+     *
+     * @return the name that was current before, to hand back to {@link #exitQuery}
+     */
+    public static String enterQuery(String name) {
+        String previous = CURRENT_QUERY.get();
+        CURRENT_QUERY.set(name);
+        return previous;
+    }
+
+    public static void exitQuery(String previous) {
+        if (previous == null) {
+            CURRENT_QUERY.remove();
+        } else {
+            CURRENT_QUERY.set(previous);
+        }
+    }
+
+    /** Bind parameters are only worth capturing when slow statements can be logged. */
+    boolean capturesParameters() {
+        return slowThresholdNanos > 0 && slowSampleRate > 0;
+    }
+
+    /**
+     * Records one executed statement (a batch counts once) and returns its query name.
+     */
+    String recordExecution(String sql, long nanos, boolean success, Object[] parameters) {
+        String name = queryName(sql);
+        Timer.builder(QUERY_METRIC)
+                .description("JDBC statement execution time")
+                .tag("query", name)
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        RequestStatements request = CURRENT_REQUEST.get();
+        if (request != null) {
+            request.record(name);
+        }
+        if (slowThresholdNanos > 0 && nanos >= slowThresholdNanos) {
+            Counter.builder(SLOW_METRIC)
+                    .description("JDBC statements slower than the slow-query threshold")
+                    .tag("query", name)
+                    .register(meterRegistry)
+                    .increment();
+            if (random.getAsDouble() < slowSampleRate) {
+                log.warn("Slow query {} took {} ms: {} parameters {}", name,
+                        TimeUnit.NANOSECONDS.toMillis(nanos), sql, formatParameters(parameters));
+            }
+        }
+        return name;
+    }
+
+    void recordRows(String name, long rows) {
+        DistributionSummary.builder(ROWS_METRIC)
+                .description("Rows returned or affected per JDBC statement")
+                .tag("query", name)
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    /**
+     * Starts counting the current thread's statements for one HTTP request.
+     */
+    RequestStatements beginRequest() {
+        RequestStatements statements = new RequestStatements();
+        CURRENT_REQUEST.set(statements);
+        return statements;
+    }
+
+    void finishRequest(RequestStatements statements, String method, String uri) {
+        CURRENT_REQUEST.remove();
+        DistributionSummary.builder(REQUEST_STATEMENTS_METRIC)
+                .description("JDBC statements executed per HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.total);
+        statements.byQuery.forEach((name, count) -> {
+            if (count >= repeatedQueryThreshold) {
+                Counter.builder(REPEATED_METRIC)
+                        .description("Requests that ran one query repeatedly, a likely N+1 pattern")
+                        .tag("query", name)
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("{} ran {} times during {} {}; likely an N+1 pattern", name, count, method, uri);
+            }
+        });
+    }
+
+    String queryName(String sql) {
+        String name = CURRENT_QUERY.get();
+        if (name != null) {
+            return name;
+        }
+        if (sql == null) {
+            return "unknown";
+        }
+        String cached = namesBySql.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String fingerprint = fingerprint(sql);
+        if (namesBySql.size() < MAX_CACHED_NAMES) {
+            namesBySql.put(sql, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Reduces a statement to its kind and main table, e.g. {@code update payment_request}.
+     */
+    static String fingerprint(String sql) {
+        Matcher verbMatcher = VERB.matcher(sql);
+        if (!verbMatcher.find()) {
+            return "other";
+        }
+        String verb = verbMatcher.group(1).toLowerCase(Locale.ROOT);
+        Matcher table = switch (verb) {
+            case "select", "with", "delete" -> FROM.matcher(sql);
+            case "insert", "merge" -> INTO.matcher(sql);
+            case "update" -> UPDATE.matcher(sql);
+            default -> null;
+        };
+        if (table == null) {
+            return verb.equals("call") ? verb : "other";
+        }
+        return table.find() ? verb + " " + table.group(1).replace("\"", "").toLowerCase(Locale.ROOT) : verb;
+    }
+
+    private static String formatParameters(Object[] parameters) {
+        if (parameters == null) {
+            return "[]";
+        }
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 1; i < parameters.length; i++) {
+            if (out.length() > 1) {
+                out.append(", ");
+            }
+            String value = String.valueOf(parameters[i]);
+            if (value.length() > MAX_PARAMETER_LENGTH) {
+                value = value.substring(0, MAX_PARAMETER_LENGTH) + "...";
+            }
+            out.append(i).append('=').append(value);
+        }
+        return out.append(']').toString();
+    }
+
+    /** Statement counts of one HTTP request; only touched by the request's thread. */
+    static final class RequestStatements {
+
+        private final Map<String, Integer> byQuery = new HashMap<>();
+        private int total;
+
+        void record(String name) {
+            total++;
+            byQuery.merge(name, 1, Integer::sum);
+        }
+
+        int total() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ahss.datasource;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers who committed a write recently so that their following reads stay on the primary
+ * until the replica has had time to replay it. Writers are identified by the authenticated
+ * user, or by the thread for unauthenticated and background work (saga consumers, jobs).
+ */
+public class ReadYourWritesTracker {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final Clock clock;
+    private final long windowMillis;
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Clock clock, long windowMillis) {
+        this.clock = clock;
+        this.windowMillis = windowMillis;
+    }
+
+    public void recordWrite(String writer) {
+        lastWriteAt.put(writer, clock.millis());
+        if (lastWriteAt.size() > PURGE_THRESHOLD) {
+            purgeExpired();
+        }
+    }
+
+    public boolean wroteRecently(String writer) {
+        Long writtenAt = lastWriteAt.get(writer);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (clock.millis() - writtenAt < windowMillis) {
+            return true;
+        }
+        lastWriteAt.remove(writer, writtenAt);
+        return false;
+    }
+
+    /** The writer key for the current thread. */
+    public String currentWriter() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "thread:" + Thread.currentThread().threadId();
+    }
+
+    int tracked() {
+        return lastWriteAt.size();
+    }
+
+    private void purgeExpired() {
+        long cutoff = clock.millis() - windowMillis;
+        lastWriteAt.values().removeIf(writtenAt -> writtenAt <= cutoff);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ahss.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Polls the replica for its replay lag. Until the first successful check, after a failed one,
+ * or while the lag is above the limit, {@link ReplicaRoutingDataSource} keeps reads on the
+ * primary.
+ *
+ * <p>An idle primary sends no WAL, so {@code pg_last_xact_replay_timestamp()} grows old without
+ * the replica being behind; the lag is reported as zero when everything received has been
+ * replayed.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String LAG_METRIC = "payment.datasource.replica.lag";
+    static final long UNKNOWN = -1;
+
+    static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final JdbcTemplate replica;
+    private volatile long lagMillis = UNKNOWN;
+
+    public ReplicaLagMonitor(JdbcTemplate replica, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        Gauge.builder(LAG_METRIC, this, monitor -> monitor.lagMillis)
+                .description("Replica replay lag in milliseconds; -1 when the replica is unreachable")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.datasource.replica.lag-check-interval-ms:1000}")
+    public void refresh() {
+        try {
+            Double lag = replica.queryForObject(LAG_SQL, Double.class);
+            lagMillis = lag == null ? UNKNOWN : Math.round(lag);
+        } catch (DataAccessException e) {
+            if (lagMillis != UNKNOWN) {
+                log.warn("Replica lag check failed, routing reads to the primary: {}", e.getMessage());
+            }
+            lagMillis = UNKNOWN;
+        }
+    }
+
+    public boolean isWithin(long maxLagMillis) {
+        long lag = lagMillis;
+        return lag != UNKNOWN && lag <= maxLagMillis;
+    }
+
+    /** Takes the replica out of rotation until the next successful check. */
+    public void markUnavailable() {
+        lagMillis = UNKNOWN;
+    }
+
+    public long lagMillis() {
+        return lagMillis;
+    }
+}
@@ -0,0 +1,138 @@
+package com.ahss.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to the replica pool and
+ * everything else to the primary. A read-only transaction still goes to the primary when the
+ * replica lags by more than {@code max-lag-ms}, cannot be reached, or the same writer committed
+ * a change within the read-your-writes window.
+ *
+ * <p>The decision is made when the connection is fetched, so this must sit behind a
+ * {@link LazyConnectionDataSourceProxy}: the transaction manager opens its connection before
+ * the transaction is marked read-only, and the proxy defers the fetch to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String ROUTE_METRIC = "payment.datasource.route";
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    enum Reason {
+        READ_ONLY(Route.REPLICA, "read-only"),
+        READ_WRITE(Route.PRIMARY, "read-write"),
+        RECENT_WRITE(Route.PRIMARY, "recent-write"),
+        REPLICA_LAG(Route.PRIMARY, "replica-lag"),
+        REPLICA_UNAVAILABLE(Route.PRIMARY, "replica-unavailable");
+
+        private final Route route;
+        private final String tag;
+
+        Reason(Route route, String tag) {
+            this.route = route;
+            this.tag = tag;
+        }
+
+        Route route() {
+            return route;
+        }
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker writesTracker;
+    private final long maxLagMillis;
+    private final Map<Reason, Counter> routed = new EnumMap<>(Reason.class);
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    DataSource replica,
+                                    ReplicaLagMonitor lagMonitor,
+                                    ReadYourWritesTracker writesTracker,
+                                    long maxLagMillis,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.writesTracker = writesTracker;
+        this.maxLagMillis = maxLagMillis;
+        for (Reason reason : Reason.values()) {
+            routed.put(reason, Counter.builder(ROUTE_METRIC)
+                    .description("Connections handed out, by target pool and reason")
+                    .tag("target", reason.route().name().toLowerCase())
+                    .tag("reason", reason.tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(username, password);
+    }
+
+    private Connection connect(String username, String password) throws SQLException {
+        Reason reason = decide();
+        if (reason.route() == Route.REPLICA) {
+            try {
+                Connection connection = open(replica, username, password);
+                routed.get(reason).increment();
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Replica connection failed, falling back to the primary: {}", e.getMessage());
+                lagMonitor.markUnavailable();
+                reason = Reason.REPLICA_UNAVAILABLE;
+            }
+        }
+        routed.get(reason).increment();
+        return open(primary, username, password);
+    }
+
+    Reason decide() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isSynchronizationActive()) {
+                String writer = writesTracker.currentWriter();
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        writesTracker.recordWrite(writer);
+                    }
+                });
+            }
+            return Reason.READ_WRITE;
+        }
+        if (writesTracker.wroteRecently(writesTracker.currentWriter())) {
+            return Reason.RECENT_WRITE;
+        }
+        if (!lagMonitor.isWithin(maxLagMillis)) {
+            return lagMonitor.lagMillis() == ReplicaLagMonitor.UNKNOWN ? Reason.REPLICA_UNAVAILABLE : Reason.REPLICA_LAG;
+        }
+        return Reason.READ_ONLY;
+    }
+
+    private static Connection open(DataSource target, String username, String password) throws SQLException {
+        return username == null ? target.getConnection() : target.getConnection(username, password);
+    }
+}
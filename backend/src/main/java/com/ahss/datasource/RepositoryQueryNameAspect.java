@@ -0,0 +1,53 @@
+package com.ahss.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Names the statements a Spring Data repository method runs after the repository and method,
+ * e.g. {@code PaymentAuditLogRepository.countByAction}. Inherited methods such as
+ * {@code findById} are named after the application's repository interface, not
+ * {@code CrudRepository}.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "payment.datasource.instrumentation", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class RepositoryQueryNameAspect {
+
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object nameQueries(ProceedingJoinPoint pjp) throws Throwable {
+        String name = repositoryName(pjp.getTarget()) + "." + pjp.getSignature().getName();
+        String previous = QueryMetrics.enterQuery(name);
+        try {
+            return pjp.proceed();
+        } finally {
+            QueryMetrics.exitQuery(previous);
+        }
+    }
+
+    private String repositoryName(Object target) {
+        if (target == null) {
+            return "Repository";
+        }
+        return repositoryNames.computeIfAbsent(target.getClass(), type -> {
+            for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+                if (Repository.class.isAssignableFrom(candidate)
+                        && !candidate.getName().startsWith("org.springframework.")) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return ClassUtils.getUserClass(type).getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.ahss.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method, and the transactions it starts, on the connection pool of the
+ * given workload. An enclosing workload wins over this one, so a job calling a reporting
+ * query stays in the jobs pool, and so does an enclosing transaction: a reporting read inside
+ * an OLTP write transaction runs on the OLTP pool with the rest of the transaction.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UseWorkload {
+
+    Workload value();
+}
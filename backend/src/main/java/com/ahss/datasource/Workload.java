@@ -0,0 +1,23 @@
+package com.ahss.datasource;
+
+/**
+ * Kinds of database work that get their own connection pool when
+ * {@code payment.datasource.workloads.enabled} is set, so one cannot use up the connections
+ * another needs.
+ */
+public enum Workload {
+
+    /** Checkout, the payment saga and anything not marked otherwise. */
+    OLTP,
+
+    /** Listings, searches, audit queries and summaries. */
+    REPORTING,
+
+    /** Maintenance jobs, archiving and partition upkeep. */
+    JOBS;
+
+    /** Pool name and metric tag. */
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
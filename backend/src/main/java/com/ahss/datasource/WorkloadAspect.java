@@ -0,0 +1,33 @@
+package com.ahss.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link UseWorkload}. Runs ahead of every other advice, the transaction interceptor
+ * included, so the workload is set before the transaction fetches its connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadAspect {
+
+    @Around("@annotation(com.ahss.datasource.UseWorkload) || @within(com.ahss.datasource.UseWorkload)")
+    public Object useWorkload(ProceedingJoinPoint pjp) throws Throwable {
+        MethodSignature signature = (MethodSignature) pjp.getSignature();
+        UseWorkload annotation = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), UseWorkload.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(pjp.getTarget().getClass(), UseWorkload.class);
+        }
+        if (annotation == null) {
+            return pjp.proceed();
+        }
+        return WorkloadContext.call(annotation.value(), pjp::proceed);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ahss.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The {@link Workload} of the current thread, read by {@link WorkloadRoutingDataSource} when
+ * a connection is fetched. Set by {@link WorkloadAspect} for {@link UseWorkload} methods, or
+ * directly for work that does not pass through a Spring proxy.
+ *
+ * <p>A transaction keeps the workload it started with: its connection is only fetched by the
+ * first statement, so switching workloads inside it would put every later statement,
+ * writes included, on the pool of whatever method happened to run first.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    /** A unit of work that may throw anything, e.g. a join point's {@code proceed}. */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run() throws Throwable;
+    }
+
+    private WorkloadContext() {
+    }
+
+    /**
+     * The workload set on this thread, or {@link Workload#OLTP} if none is.
+     */
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.OLTP;
+    }
+
+    /**
+     * Runs the work as the given workload unless the thread already has one or is already in
+     * a transaction, which stays on the workload it started with ({@link Workload#OLTP} if none).
+     */
+    public static <T> T call(Workload workload, Work<T> work) throws Throwable {
+        if (CURRENT.get() != null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.run();
+        }
+        CURRENT.set(workload);
+        try {
+            return work.run();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * {@link #call(Workload, Work)} for work without checked exceptions.
+     */
+    public static void run(Workload workload, Runnable work) {
+        try {
+            call(workload, () -> {
+                work.run();
+                return null;
+            });
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // Runnable cannot throw checked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ahss.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the current thread's {@link Workload}, so a burst
+ * of reporting queries or a long job waits on its own pool instead of the one checkout and
+ * the saga use. Pool waits show up per pool as {@code hikaricp.connections.acquire} and
+ * {@code hikaricp.connections.pending}, tagged with the workload's pool name.
+ *
+ * <p>Like {@link ReplicaRoutingDataSource} the pool is picked when the connection is fetched,
+ * so this sits behind a {@link LazyConnectionDataSourceProxy}.
+ */
+public class WorkloadRoutingDataSource extends AbstractDataSource {
+
+    static final String CONNECTIONS_METRIC = "payment.datasource.workload.connections";
+
+    private final Map<Workload, DataSource> pools;
+    private final Map<Workload, Counter> handedOut = new EnumMap<>(Workload.class);
+
+    public WorkloadRoutingDataSource(Map<Workload, DataSource> pools, MeterRegistry meterRegistry) {
+        this.pools = new EnumMap<>(pools);
+        for (Workload workload : Workload.values()) {
+            if (!this.pools.containsKey(workload)) {
+                throw new IllegalArgumentException("No connection pool for workload " + workload);
+            }
+            handedOut.put(workload, Counter.builder(CONNECTIONS_METRIC)
+                    .description("Connections handed out, by workload pool")
+                    .tag("workload", workload.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Workload workload = WorkloadContext.current();
+        Connection connection = pools.get(workload).getConnection();
+        handedOut.get(workload).increment();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Workload workload = WorkloadContext.current();
+        Connection connection = pools.get(workload).getConnection(username, password);
+        handedOut.get(workload).increment();
+        return connection;
+    }
+}
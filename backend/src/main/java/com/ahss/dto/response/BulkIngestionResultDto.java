@@ -0,0 +1,138 @@
+package com.ahss.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk NDJSON ingestion request: line counts per status, and a result for each
+ * rejected or failed line only, so the response does not grow with the accepted lines.
+ * Processing stops at the first batch that cannot be published; {@code resumeFromLine}
+ * then tells the caller where to resubmit from.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkIngestionResultDto {
+
+    public enum LineStatus {
+        ACCEPTED,
+        REJECTED,
+        FAILED
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class LineResult {
+
+        private long line;
+        private LineStatus status;
+        private String correlationId;
+        private String error;
+
+        public LineResult() {}
+
+        public LineResult(long line, LineStatus status, String correlationId, String error) {
+            this.line = line;
+            this.status = status;
+            this.correlationId = correlationId;
+            this.error = error;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public LineStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(LineStatus status) {
+            this.status = status;
+        }
+
+        public String getCorrelationId() {
+            return correlationId;
+        }
+
+        public void setCorrelationId(String correlationId) {
+            this.correlationId = correlationId;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+
+    private long accepted;
+    private long rejected;
+    private long failed;
+    private Long resumeFromLine;
+    private List<LineResult> results = new ArrayList<>();
+
+    public BulkIngestionResultDto() {}
+
+    /**
+     * Counts the line; rejected and failed lines are also listed in {@code results}.
+     */
+    public void add(LineResult result) {
+        switch (result.getStatus()) {
+            case ACCEPTED -> accepted++;
+            case REJECTED -> rejected++;
+            case FAILED -> failed++;
+        }
+        if (result.getStatus() != LineStatus.ACCEPTED) {
+            results.add(result);
+        }
+    }
+
+    public void addAccepted(long count) {
+        accepted += count;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(long accepted) {
+        this.accepted = accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public Long getResumeFromLine() {
+        return resumeFromLine;
+    }
+
+    public void setResumeFromLine(Long resumeFromLine) {
+        this.resumeFromLine = resumeFromLine;
+    }
+
+    public List<LineResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<LineResult> results) {
+        this.results = results;
+    }
+}
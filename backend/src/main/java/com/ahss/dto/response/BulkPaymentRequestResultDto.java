@@ -0,0 +1,102 @@
+package com.ahss.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one line of a bulk payment request creation: the generated id, code and token of
+ * a created request, or why the line was rejected or failed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkPaymentRequestResultDto {
+
+    public enum Status {
+        /** Inserted and committed. */
+        CREATED,
+        /** Invalid; nothing was written for this line. */
+        REJECTED,
+        /** Valid, but its chunk could not be written; safe to resubmit. */
+        FAILED
+    }
+
+    private long line;
+    private Status status;
+    private UUID id;
+    private String requestCode;
+    private String paymentToken;
+    private String error;
+
+    public BulkPaymentRequestResultDto() {}
+
+    public static BulkPaymentRequestResultDto created(UUID id, String requestCode, String paymentToken) {
+        BulkPaymentRequestResultDto result = new BulkPaymentRequestResultDto();
+        result.status = Status.CREATED;
+        result.id = id;
+        result.requestCode = requestCode;
+        result.paymentToken = paymentToken;
+        return result;
+    }
+
+    public static BulkPaymentRequestResultDto rejected(String error) {
+        BulkPaymentRequestResultDto result = new BulkPaymentRequestResultDto();
+        result.status = Status.REJECTED;
+        result.error = error;
+        return result;
+    }
+
+    public static BulkPaymentRequestResultDto failed(String error) {
+        BulkPaymentRequestResultDto result = new BulkPaymentRequestResultDto();
+        result.status = Status.FAILED;
+        result.error = error;
+        return result;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getRequestCode() {
+        return requestCode;
+    }
+
+    public void setRequestCode(String requestCode) {
+        this.requestCode = requestCode;
+    }
+
+    public String getPaymentToken() {
+        return paymentToken;
+    }
+
+    public void setPaymentToken(String paymentToken) {
+        this.paymentToken = paymentToken;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
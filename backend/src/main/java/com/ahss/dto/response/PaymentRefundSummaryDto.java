@@ -0,0 +1,79 @@
+package com.ahss.dto.response;
+
+import com.ahss.enums.PaymentTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of a refund listing, selected directly by the repository with a constructor
+ * expression. Leaves out the jsonb columns (gateway response, metadata) and error text;
+ * {@code /refunds/{id}} returns the full {@link PaymentRefundDto}.
+ */
+public class PaymentRefundSummaryDto {
+    private UUID id;
+    private String refundCode;
+    private UUID paymentTransactionId;
+    private BigDecimal refundAmount;
+    private String currency;
+    private String reason;
+    private PaymentTransactionStatus refundStatus;
+    private String gatewayName;
+    private String errorCode;
+    private LocalDateTime processedAt;
+    private LocalDateTime createdAt;
+
+    public PaymentRefundSummaryDto() {
+    }
+
+    public PaymentRefundSummaryDto(UUID id, String refundCode, UUID paymentTransactionId, BigDecimal refundAmount,
+                                   String currency, String reason, PaymentTransactionStatus refundStatus,
+                                   String gatewayName, String errorCode, LocalDateTime processedAt,
+                                   LocalDateTime createdAt) {
+        this.id = id;
+        this.refundCode = refundCode;
+        this.paymentTransactionId = paymentTransactionId;
+        this.refundAmount = refundAmount;
+        this.currency = currency;
+        this.reason = reason;
+        this.refundStatus = refundStatus;
+        this.gatewayName = gatewayName;
+        this.errorCode = errorCode;
+        this.processedAt = processedAt;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getRefundCode() { return refundCode; }
+    public void setRefundCode(String refundCode) { this.refundCode = refundCode; }
+
+    public UUID getPaymentTransactionId() { return paymentTransactionId; }
+    public void setPaymentTransactionId(UUID paymentTransactionId) { this.paymentTransactionId = paymentTransactionId; }
+
+    public BigDecimal getRefundAmount() { return refundAmount; }
+    public void setRefundAmount(BigDecimal refundAmount) { this.refundAmount = refundAmount; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    public PaymentTransactionStatus getRefundStatus() { return refundStatus; }
+    public void setRefundStatus(PaymentTransactionStatus refundStatus) { this.refundStatus = refundStatus; }
+
+    public String getGatewayName() { return gatewayName; }
+    public void setGatewayName(String gatewayName) { this.gatewayName = gatewayName; }
+
+    public String getErrorCode() { return errorCode; }
+    public void setErrorCode(String errorCode) { this.errorCode = errorCode; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,98 @@
+package com.ahss.dto.response;
+
+import com.ahss.enums.PaymentMethodType;
+import com.ahss.enums.PaymentTransactionStatus;
+import com.ahss.enums.PaymentTransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of a transaction listing, selected directly by the repository with a constructor
+ * expression. Leaves out the jsonb columns (gateway response, metadata, payment method details)
+ * and error text; {@code /transactions/{id}} returns the full {@link PaymentTransactionDto}.
+ */
+public class PaymentTransactionSummaryDto {
+    private UUID id;
+    private String transactionCode;
+    private String externalTransactionId;
+    private UUID paymentRequestId;
+    private PaymentTransactionType transactionType;
+    private PaymentTransactionStatus transactionStatus;
+    private BigDecimal amount;
+    private String currency;
+    private PaymentMethodType paymentMethod;
+    private String gatewayName;
+    private String errorCode;
+    private Integer retryCount;
+    private LocalDateTime processedAt;
+    private LocalDateTime createdAt;
+
+    public PaymentTransactionSummaryDto() {
+    }
+
+    public PaymentTransactionSummaryDto(UUID id, String transactionCode, String externalTransactionId,
+                                        UUID paymentRequestId, PaymentTransactionType transactionType,
+                                        PaymentTransactionStatus transactionStatus, BigDecimal amount,
+                                        String currency, PaymentMethodType paymentMethod, String gatewayName,
+                                        String errorCode, Integer retryCount, LocalDateTime processedAt,
+                                        LocalDateTime createdAt) {
+        this.id = id;
+        this.transactionCode = transactionCode;
+        this.externalTransactionId = externalTransactionId;
+        this.paymentRequestId = paymentRequestId;
+        this.transactionType = transactionType;
+        this.transactionStatus = transactionStatus;
+        this.amount = amount;
+        this.currency = currency;
+        this.paymentMethod = paymentMethod;
+        this.gatewayName = gatewayName;
+        this.errorCode = errorCode;
+        this.retryCount = retryCount;
+        this.processedAt = processedAt;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getTransactionCode() { return transactionCode; }
+    public void setTransactionCode(String transactionCode) { this.transactionCode = transactionCode; }
+
+    public String getExternalTransactionId() { return externalTransactionId; }
+    public void setExternalTransactionId(String externalTransactionId) { this.externalTransactionId = externalTransactionId; }
+
+    public UUID getPaymentRequestId() { return paymentRequestId; }
+    public void setPaymentRequestId(UUID paymentRequestId) { this.paymentRequestId = paymentRequestId; }
+
+    public PaymentTransactionType getTransactionType() { return transactionType; }
+    public void setTransactionType(PaymentTransactionType transactionType) { this.transactionType = transactionType; }
+
+    public PaymentTransactionStatus getTransactionStatus() { return transactionStatus; }
+    public void setTransactionStatus(PaymentTransactionStatus transactionStatus) { this.transactionStatus = transactionStatus; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public PaymentMethodType getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(PaymentMethodType paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public String getGatewayName() { return gatewayName; }
+    public void setGatewayName(String gatewayName) { this.gatewayName = gatewayName; }
+
+    public String getErrorCode() { return errorCode; }
+    public void setErrorCode(String errorCode) { this.errorCode = errorCode; }
+
+    public Integer getRetryCount() { return retryCount; }
+    public void setRetryCount(Integer retryCount) { this.retryCount = retryCount; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,19 @@
+package com.ahss.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a time-ordered {@link com.ahss.util.UuidV7} id in the application when the entity is
+ * persisted. The id is known before the INSERT, so Hibernate can group inserts into JDBC
+ * batches, and consecutive rows share index pages.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedUuidV7 {
+}
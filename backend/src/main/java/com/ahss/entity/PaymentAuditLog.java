@@ -13,7 +13,7 @@ import java.util.UUID;
 public class PaymentAuditLog {
 
     @Id
-    @GeneratedValue(generator = "uuid2")
+    @GeneratedUuidV7
     @JdbcTypeCode(SqlTypes.UUID)
     @Column(name = "payment_audit_log_id")
     private UUID id;
@@ -15,7 +15,7 @@ import java.util.UUID;
 public class PaymentRefund {
 
     @Id
-    @GeneratedValue(generator = "uuid2")
+    @GeneratedUuidV7
     @JdbcTypeCode(SqlTypes.UUID)
     @Column(name = "payment_refund_id")
     private UUID id;
@@ -67,6 +67,10 @@ public class PaymentRefund {
     @Column(columnDefinition = "jsonb")
     private Map<String, Object> metadata;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -251,6 +255,14 @@ public class PaymentRefund {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Long getCreatedBy() {
         return createdBy;
     }
@@ -16,7 +16,7 @@ import java.util.stream.Collectors;
 public class PaymentRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedUuidV7
     @JdbcTypeCode(SqlTypes.UUID)
     @Column(name = "payment_request_id")
     private UUID id;
@@ -76,6 +76,10 @@ public class PaymentRequest {
     @Column(columnDefinition = "jsonb")
     private Map<String, Object> metadata;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -319,6 +323,14 @@ public class PaymentRequest {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Long getCreatedBy() {
         return createdBy;
     }
@@ -17,7 +17,7 @@ import java.util.UUID;
 public class PaymentTransaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedUuidV7
     @JdbcTypeCode(SqlTypes.UUID)
     @Column(name = "payment_transaction_id")
     private UUID id;
@@ -80,6 +80,10 @@ public class PaymentTransaction {
     @Column(name = "max_retries", nullable = false)
     private Integer maxRetries = 3;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -286,6 +290,14 @@ public class PaymentTransaction {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Long getCreatedBy() {
         return createdBy;
     }
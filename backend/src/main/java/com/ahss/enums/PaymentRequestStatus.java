@@ -10,6 +10,7 @@ public enum PaymentRequestStatus {
     COMPLETED("Successfully completed"),
     FAILED("Payment failed"),
     CANCELLED("Cancelled by user/admin before payment"),
+    EXPIRED("Expired before payment was received"),
     VOIDED("Voided after successful payment"),
     REFUNDED("Full refund processed"),
     PARTIAL_REFUND("Partial refund processed"),
@@ -58,7 +59,7 @@ public enum PaymentRequestStatus {
      * Check if the payment request is in a final state
      */
     public boolean isFinalState() {
-        return this == COMPLETED || this == FAILED || this == CANCELLED || 
+        return this == COMPLETED || this == FAILED || this == CANCELLED || this == EXPIRED ||
                this == VOIDED || this == REFUNDED || this == REJECTED;
     }
 }
\ No newline at end of file
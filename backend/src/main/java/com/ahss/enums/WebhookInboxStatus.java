@@ -0,0 +1,20 @@
+package com.ahss.enums;
+
+/**
+ * Enum representing the processing state of a stored webhook delivery
+ */
+public enum WebhookInboxStatus {
+    PENDING("Stored and awaiting parsing and publishing"),
+    PUBLISHED("Parsed and published to the payment callbacks topic"),
+    FAILED("Payload could not be parsed and was set aside");
+
+    private final String description;
+
+    WebhookInboxStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
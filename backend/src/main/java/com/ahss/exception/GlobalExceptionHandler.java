@@ -1,6 +1,7 @@
 package com.ahss.exception;
 
 import com.ahss.dto.response.ApiResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -54,4 +55,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(ApiResponse.notOk(null, message, path));
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Object>> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex,
+            WebRequest request) {
+        // Still conflicting after the service's own retries; the client may retry later
+        String path = request.getDescription(false).replace("uri=", "");
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.notOk(null, "The resource was modified concurrently, please retry", path));
+    }
+}
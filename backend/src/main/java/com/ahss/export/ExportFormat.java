@@ -0,0 +1,40 @@
+package com.ahss.export;
+
+import java.util.Locale;
+
+/**
+ * Output formats of {@link PaymentExporter}.
+ */
+public enum ExportFormat {
+
+    /** One JSON object per line, with the field names of the listing DTOs. */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** RFC 4180 CSV with a header row. */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * The format with the given name, ignoring case.
+     *
+     * @throws IllegalArgumentException if there is none
+     */
+    public static ExportFormat of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
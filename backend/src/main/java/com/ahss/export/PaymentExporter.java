@@ -0,0 +1,385 @@
+package com.ahss.export;
+
+import com.ahss.datasource.UseWorkload;
+import com.ahss.datasource.Workload;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams transactions, refunds or audit log entries from a server-side cursor straight to an
+ * output stream, for exports too large to page through. The query runs in a read-only
+ * transaction, which Postgres needs to keep the cursor open and which sends it to the replica
+ * when one is configured, and fetches {@code payment.export.fetch-size} rows at a time. Each
+ * row is written as soon as it is read, so memory stays flat whatever the number of rows.
+ *
+ * <p>Rows come in creation order. Bounding {@code created_at} keeps a monthly export on its
+ * own partitions.
+ */
+@Component
+public class PaymentExporter {
+
+    static final String ROWS_METRIC = "payment.export.rows";
+    static final String DURATION_METRIC = "payment.export.duration";
+    static final int BUFFER_BYTES = 64 * 1024;
+
+    /** What an export reads; column names match the fields of the listing DTOs. */
+    public enum Dataset {
+        TRANSACTIONS("transactions", "payment_transaction", "payment_transaction_id",
+                "transaction_status = CAST(? AS payment_transaction_status)", List.of(
+                        text("id", "payment_transaction_id"),
+                        text("transactionCode", "transaction_code"),
+                        text("externalTransactionId", "external_transaction_id"),
+                        text("paymentRequestId", "payment_request_id"),
+                        text("transactionType", "transaction_type"),
+                        text("transactionStatus", "transaction_status"),
+                        number("amount", "amount"),
+                        text("currency", "currency"),
+                        text("paymentMethod", "payment_method"),
+                        text("gatewayName", "gateway_name"),
+                        text("errorCode", "error_code"),
+                        number("retryCount", "retry_count"),
+                        timestamp("processedAt", "processed_at"),
+                        timestamp("createdAt", "created_at"))),
+        REFUNDS("refunds", "payment_refund", "payment_refund_id",
+                "refund_status = CAST(? AS payment_transaction_status)", List.of(
+                        text("id", "payment_refund_id"),
+                        text("refundCode", "refund_code"),
+                        text("paymentTransactionId", "payment_transaction_id"),
+                        number("refundAmount", "refund_amount"),
+                        text("currency", "currency"),
+                        text("reason", "refund_reason"),
+                        text("refundStatus", "refund_status"),
+                        text("gatewayName", "gateway_name"),
+                        text("errorCode", "error_code"),
+                        timestamp("processedAt", "processed_at"),
+                        timestamp("createdAt", "created_at"))),
+        AUDIT_LOGS("audit-logs", "payment_audit_log", "payment_audit_log_id", "action = ?", List.of(
+                text("id", "payment_audit_log_id"),
+                text("paymentRequestId", "payment_request_id"),
+                text("paymentTransactionId", "payment_transaction_id"),
+                text("paymentRefundId", "payment_refund_id"),
+                text("action", "action"),
+                text("entityType", "entity_type"),
+                text("oldStatus", "old_status"),
+                text("newStatus", "new_status"),
+                json("changeDetails", "changes"),
+                text("description", "reason"),
+                number("userId", "created_by"),
+                text("userAgent", "user_agent"),
+                text("ipAddress", "ip_address"),
+                timestamp("createdAt", "created_at")));
+
+        private final String tag;
+        private final String table;
+        private final String idColumn;
+        private final String filterSql;
+        private final List<Column> columns;
+
+        Dataset(String tag, String table, String idColumn, String filterSql, List<Column> columns) {
+            this.tag = tag;
+            this.table = table;
+            this.idColumn = idColumn;
+            this.filterSql = filterSql;
+            this.columns = columns;
+        }
+
+        /** Name used in metrics and file names. */
+        public String tag() {
+            return tag;
+        }
+    }
+
+    /**
+     * Which rows to export.
+     *
+     * @param from  first creation time to include, or null for no lower bound
+     * @param to    creation time to stop before, or null for no upper bound
+     * @param value status to match (the action for audit logs), or null for all rows
+     */
+    public record Filter(LocalDateTime from, LocalDateTime to, String value) {
+    }
+
+    enum Kind {
+        TEXT, NUMBER, TIMESTAMP, JSON
+    }
+
+    record Column(String name, String sql, Kind kind) {
+
+        /** The value as it is written: plain numbers, ISO timestamps, JSON text; null if absent. */
+        String read(ResultSet rs, int index) throws SQLException {
+            return switch (kind) {
+                case TEXT, JSON -> rs.getString(index);
+                case NUMBER -> {
+                    BigDecimal number = rs.getBigDecimal(index);
+                    yield number != null ? number.toPlainString() : null;
+                }
+                case TIMESTAMP -> {
+                    Timestamp timestamp = rs.getTimestamp(index);
+                    yield timestamp != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp.toLocalDateTime()) : null;
+                }
+            };
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactions;
+    private final JsonFactory jsonFactory;
+    private final MeterRegistry meterRegistry;
+    private final int fetchSize;
+
+    @Autowired
+    public PaymentExporter(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${payment.export.fetch-size:1000}") int fetchSize) {
+        this(jdbcTemplate, readOnly(transactionManager), objectMapper.getFactory(), meterRegistry, fetchSize);
+    }
+
+    PaymentExporter(JdbcTemplate jdbcTemplate, TransactionOperations transactions, JsonFactory jsonFactory,
+                    MeterRegistry meterRegistry, int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        this.jsonFactory = jsonFactory;
+        this.meterRegistry = meterRegistry;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes the matching rows to {@code out}, gzip-compressed if asked, and flushes it. The
+     * stream is left open. A failure midway leaves a truncated export, which for gzip output
+     * also fails to decompress.
+     *
+     * @return the number of rows written
+     */
+    @UseWorkload(Workload.REPORTING)
+    public long export(Dataset dataset, ExportFormat format, Filter filter, boolean gzip, OutputStream out)
+            throws IOException {
+        List<Object> args = new ArrayList<>();
+        String sql = sql(dataset, filter, args);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        OutputStream sink = gzip ? new GZIPOutputStream(out, BUFFER_BYTES) : new BufferedOutputStream(out, BUFFER_BYTES);
+        RowWriter writer = format == ExportFormat.CSV
+                ? new CsvWriter(sink, dataset.columns)
+                : new NdjsonWriter(jsonFactory, sink, dataset.columns);
+        boolean completed = false;
+        try {
+            transactions.executeWithoutResult(status -> jdbcTemplate.query(cursor(sql, args),
+                    (ResultSetExtractor<Void>) rs -> {
+                        try {
+                            while (rs.next()) {
+                                writer.write(rs);
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return null;
+                    }));
+            writer.flush();
+            if (sink instanceof GZIPOutputStream compressed) {
+                compressed.finish();
+            }
+            sink.flush();
+            completed = true;
+            return writer.rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Counter.builder(ROWS_METRIC)
+                    .description("Rows written by payment exports")
+                    .tag("dataset", dataset.tag())
+                    .register(meterRegistry)
+                    .increment(writer.rows);
+            sample.stop(Timer.builder(DURATION_METRIC)
+                    .description("Time to stream a payment export")
+                    .tag("dataset", dataset.tag())
+                    .tag("format", format.extension())
+                    .tag("outcome", completed ? "completed" : "failed")
+                    .register(meterRegistry));
+        }
+    }
+
+    static String sql(Dataset dataset, Filter filter, List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.from() != null) {
+            conditions.add("created_at >= ?");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            conditions.add("created_at < ?");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        if (filter.value() != null) {
+            conditions.add(dataset.filterSql);
+            args.add(filter.value());
+        }
+        return "SELECT " + dataset.columns.stream().map(Column::sql).collect(Collectors.joining(", ")) +
+                " FROM " + dataset.table +
+                (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) +
+                " ORDER BY created_at, " + dataset.idColumn;
+    }
+
+    /** Forward-only and fetching {@code fetchSize} rows per round trip, so the driver uses a cursor. */
+    private PreparedStatementCreator cursor(String sql, List<Object> args) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        };
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static TransactionOperations readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private static Column text(String name, String sql) {
+        return new Column(name, sql, Kind.TEXT);
+    }
+
+    private static Column number(String name, String sql) {
+        return new Column(name, sql, Kind.NUMBER);
+    }
+
+    private static Column timestamp(String name, String sql) {
+        return new Column(name, sql, Kind.TIMESTAMP);
+    }
+
+    private static Column json(String name, String sql) {
+        return new Column(name, sql, Kind.JSON);
+    }
+
+    private abstract static class RowWriter {
+
+        final List<Column> columns;
+        long rows;
+
+        RowWriter(List<Column> columns) {
+            this.columns = columns;
+        }
+
+        final void write(ResultSet rs) throws SQLException, IOException {
+            writeRow(rs);
+            rows++;
+        }
+
+        abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+        abstract void flush() throws IOException;
+    }
+
+    private static final class NdjsonWriter extends RowWriter {
+
+        private final JsonGenerator json;
+
+        NdjsonWriter(JsonFactory factory, OutputStream out, List<Column> columns) throws IOException {
+            super(columns);
+            this.json = factory.createGenerator(out, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are separated explicitly, not by the default space between root values
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                Column column = columns.get(i);
+                String value = column.read(rs, i + 1);
+                json.writeFieldName(column.name());
+                if (value == null) {
+                    json.writeNull();
+                } else if (column.kind() == Kind.NUMBER) {
+                    json.writeNumber(value);
+                } else if (column.kind() == Kind.JSON) {
+                    json.writeRawValue(value);
+                } else {
+                    json.writeString(value);
+                }
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        void flush() throws IOException {
+            json.flush();
+        }
+    }
+
+    private static final class CsvWriter extends RowWriter {
+
+        private final Writer out;
+
+        CsvWriter(OutputStream out, List<Column> columns) throws IOException {
+            super(columns);
+            this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            this.out.write(columns.stream().map(Column::name).collect(Collectors.joining(",")));
+            this.out.write("\r\n");
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                String value = columns.get(i).read(rs, i + 1);
+                if (value != null) {
+                    out.write(csvField(value));
+                }
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
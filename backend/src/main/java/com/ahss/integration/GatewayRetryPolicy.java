@@ -0,0 +1,129 @@
+package com.ahss.integration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Bounded retry policy with full-jitter exponential backoff for outbound gateway calls.
+ * Only failures that are safe to repeat are retried: I/O errors and timeouts, HTTP 429 and
+ * HTTP 5xx. Callers must send an idempotency key (see {@link IdempotencyKeys}) so a retry of a
+ * request the gateway already executed is de-duplicated rather than applied twice.
+ */
+@Component
+public class GatewayRetryPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(GatewayRetryPolicy.class);
+
+    /**
+     * Pauses the calling thread between attempts; replaceable in tests.
+     */
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final Sleeper sleeper;
+
+    @Autowired
+    public GatewayRetryPolicy(
+            @Value("${payment.gateways.retry.max-attempts:3}") int maxAttempts,
+            @Value("${payment.gateways.retry.initial-backoff-ms:100}") long initialBackoffMs,
+            @Value("${payment.gateways.retry.max-backoff-ms:2000}") long maxBackoffMs) {
+        this(maxAttempts, initialBackoffMs, maxBackoffMs, Thread::sleep);
+    }
+
+    GatewayRetryPolicy(int maxAttempts, long initialBackoffMs, long maxBackoffMs, Sleeper sleeper) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(0, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Policy that performs a single attempt, used when an integrator is built without Spring.
+     */
+    public static GatewayRetryPolicy noRetry() {
+        return new GatewayRetryPolicy(1, 0, 0, millis -> {});
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Executes the call, retrying retryable failures until the attempt budget is spent.
+     *
+     * @param gateway the gateway name, for logging
+     * @param operation the operation name, for logging
+     * @param call the outbound call
+     * @return the call result
+     * @throws RuntimeException the last failure when it is not retryable or attempts are exhausted
+     */
+    public <T> T execute(String gateway, String operation, Supplier<T> call) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+                long delay = backoffMillis(attempt, e);
+                log.warn("{} {} attempt {}/{} failed ({}), retrying in {} ms",
+                        gateway, operation, attempt, maxAttempts, e.getMessage(), delay);
+                try {
+                    sleeper.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Whether the failure is transient and the request may be repeated with the same idempotency key.
+     */
+    public boolean isRetryable(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof HttpStatusCodeException statusException) {
+            int status = statusException.getStatusCode().value();
+            return status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500;
+        }
+        return false;
+    }
+
+    /**
+     * Full-jitter backoff: a random delay up to the exponential ceiling for the attempt.
+     * A gateway-supplied Retry-After (in seconds) is honoured as a floor, capped at the max backoff.
+     */
+    long backoffMillis(int attempt, RuntimeException e) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        long delay = ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+        if (e instanceof HttpStatusCodeException statusException && statusException.getResponseHeaders() != null) {
+            String retryAfter = statusException.getResponseHeaders().getFirst("Retry-After");
+            if (retryAfter != null) {
+                try {
+                    delay = Math.max(delay, Math.min(maxBackoffMs, Long.parseLong(retryAfter.trim()) * 1000));
+                } catch (NumberFormatException ignored) {
+                    // HTTP-date form is not worth parsing for sub-second budgets
+                }
+            }
+        }
+        return delay;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ahss.integration;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Derives deterministic idempotency keys for outbound gateway calls.
+ * The same transaction or refund always yields the same key, so a retried or re-submitted
+ * call is de-duplicated by the gateway instead of charging or refunding twice.
+ */
+public final class IdempotencyKeys {
+
+    private IdempotencyKeys() {}
+
+    /**
+     * Key for initiating a payment for the given transaction.
+     *
+     * @param transactionId the internal payment transaction id
+     * @return the idempotency key, or null when the transaction has no id yet
+     */
+    public static String forPayment(UUID transactionId) {
+        return transactionId != null ? "payment-" + transactionId : null;
+    }
+
+    /**
+     * Key for processing the given refund.
+     *
+     * @param refundId the internal payment refund id
+     * @return the idempotency key, or null when the refund has no id
+     */
+    public static String forRefund(UUID refundId) {
+        return refundId != null ? "refund-" + refundId : null;
+    }
+
+    /**
+     * Fallback key for refunds issued without a refund record, derived from the original
+     * transaction and the refunded amount.
+     *
+     * @param transactionId the original payment transaction id
+     * @param refundAmount the amount to refund
+     * @return the idempotency key, or null when the transaction has no id
+     */
+    public static String forRefund(UUID transactionId, BigDecimal refundAmount) {
+        if (transactionId == null) {
+            return null;
+        }
+        String amount = refundAmount != null ? refundAmount.stripTrailingZeros().toPlainString() : "full";
+        return "refund-" + transactionId + "-" + amount;
+    }
+}
@@ -1,18 +1,56 @@
 package com.ahss.integration;
 
+import com.ahss.integration.bank.BankTransferMessageParser;
+import com.ahss.integration.paypal.PayPalMessageParser;
+import com.ahss.integration.stripe.StripeMessageParser;
 import com.fasterxml.jackson.databind.JsonNode;
+
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
- * Simple factory to select a parser implementation based on payload structure.
+ * Registry of gateway payload parsers. This is the single place a raw gateway payload is turned
+ * into a {@link com.ahss.kafka.event.PaymentCallbackEvent}: webhook controllers look the parser up
+ * by the gateway of their endpoint and publish the canonical event. Shape sniffing via
+ * {@link #forPayload(JsonNode)} is only a fallback for payloads whose gateway is unknown, such
+ * as a raw payload put on the callbacks topic directly.
  */
 public class MessageParserFactory {
 
     private static final List<MessageParser> PARSERS = Arrays.asList(
-            new com.ahss.integration.stripe.StripeMessageParser(),
-            new com.ahss.integration.paypal.PayPalMessageParser(),
-            new com.ahss.integration.bank.BankTransferMessageParser());
+            new StripeMessageParser(),
+            new PayPalMessageParser(),
+            new BankTransferMessageParser());
+
+    private static final Map<String, MessageParser> BY_GATEWAY = new HashMap<>();
+
+    static {
+        register("Stripe", PARSERS.get(0));
+        register("PayPal", PARSERS.get(1));
+        register("BankTransfer", PARSERS.get(2));
+        register("bank-transfer", PARSERS.get(2));
+    }
+
+    private static void register(String gatewayName, MessageParser parser) {
+        BY_GATEWAY.put(normalize(gatewayName), parser);
+    }
+
+    private static String normalize(String gatewayName) {
+        return gatewayName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Constant-time lookup of the parser for a gateway.
+     *
+     * @param gatewayName the gateway name, case-insensitive (e.g. "Stripe", "PayPal", "BankTransfer")
+     * @return the parser, or null when the gateway is unknown
+     */
+    public static MessageParser forGateway(String gatewayName) {
+        return gatewayName != null ? BY_GATEWAY.get(normalize(gatewayName)) : null;
+    }
 
     public static MessageParser forPayload(JsonNode root) {
         for (MessageParser parser : PARSERS) {
@@ -22,4 +60,4 @@ public class MessageParserFactory {
         }
         return null;
     }
-}
\ No newline at end of file
+}
@@ -45,6 +45,20 @@ public interface PaymentIntegrator {
      */
     PaymentResponseDto processRefund(PaymentTransactionDto transaction, java.math.BigDecimal refundAmount);
 
+    /**
+     * Processes a refund for a completed payment, keyed by the internal refund record so that
+     * retries and re-submissions of the same refund are idempotent at the gateway.
+     *
+     * @param transaction the original payment transaction
+     * @param refundAmount the amount to refund
+     * @param refundId the internal refund id used to derive the idempotency key (may be null)
+     * @return the refund response
+     */
+    default PaymentResponseDto processRefund(PaymentTransactionDto transaction, java.math.BigDecimal refundAmount,
+            java.util.UUID refundId) {
+        return processRefund(transaction, refundAmount);
+    }
+
     /**
      * Tokenizes credit card information for secure storage and future use.
      *
@@ -4,6 +4,8 @@ import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentResponseDto;
 import com.ahss.dto.response.PaymentTransactionDto;
 import com.ahss.enums.PaymentMethodType;
+import com.ahss.integration.GatewayRetryPolicy;
+import com.ahss.integration.IdempotencyKeys;
 import com.ahss.integration.PaymentIntegrator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -19,6 +21,7 @@ import org.springframework.web.client.RestTemplate; // Assuming RestTemplate for
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Implementation of PaymentIntegrator for Bank Transfer channel. Handles conversion of internal
@@ -29,11 +32,29 @@ import java.util.Map;
 @Component
 public class BankTransferIntegrator implements PaymentIntegrator {
 
+  static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
+
   private final RestTemplate restTemplate;
   private final String transferApiUrl;
   private final String verifyApiUrl;
   private final String refundApiUrl;
   private final String apiKey; // Configurable for tests
+  private final GatewayRetryPolicy retryPolicy;
+
+  public BankTransferIntegrator(
+      RestTemplate restTemplate,
+      String transferApiUrl,
+      String verifyApiUrl,
+      String refundApiUrl,
+      String apiKey) {
+    this(
+        restTemplate,
+        transferApiUrl,
+        verifyApiUrl,
+        refundApiUrl,
+        apiKey,
+        GatewayRetryPolicy.noRetry());
+  }
 
   @Autowired
   public BankTransferIntegrator(
@@ -46,12 +67,14 @@ public class BankTransferIntegrator implements PaymentIntegrator {
       @Value(
               "${bankTransfer.refundApiUrl:https://api.banktransfer.example.com/v1/transfers/{id}/refund}")
           String refundApiUrl,
-      @Value("${bankTransfer.apiKey:defaultApiKey}") String apiKey) {
+      @Value("${bankTransfer.apiKey:defaultApiKey}") String apiKey,
+      GatewayRetryPolicy retryPolicy) {
     this.restTemplate = restTemplate;
     this.transferApiUrl = transferApiUrl;
     this.verifyApiUrl = verifyApiUrl;
     this.refundApiUrl = refundApiUrl;
     this.apiKey = apiKey;
+    this.retryPolicy = retryPolicy;
   }
 
   @Override
@@ -73,9 +96,17 @@ public class BankTransferIntegrator implements PaymentIntegrator {
     log.info("Bank Transfer request: {}", externalRequest);
     // Send HTTP request to bank transfer API
     BankTransferResponse externalResponse = null;
+    HttpEntity<BankTransferRequest> requestEntity =
+        new HttpEntity<>(
+            externalRequest, createHeaders(IdempotencyKeys.forPayment(transaction.getId())));
     try {
       externalResponse =
-          restTemplate.postForObject(transferApiUrl, externalRequest, BankTransferResponse.class);
+          retryPolicy.execute(
+              getGatewayName(),
+              "payment",
+              () ->
+                  restTemplate.postForObject(
+                      transferApiUrl, requestEntity, BankTransferResponse.class));
       log.info("Bank Transfer response: {}", externalResponse);
     } catch (Exception e) {
       log.error("Error occurred while processing Bank Transfer payment: {}", e.getMessage(), e);
@@ -87,6 +118,12 @@ public class BankTransferIntegrator implements PaymentIntegrator {
   @Override
   public PaymentResponseDto processRefund(
       PaymentTransactionDto transaction, BigDecimal refundAmount) {
+    return processRefund(transaction, refundAmount, null);
+  }
+
+  @Override
+  public PaymentResponseDto processRefund(
+      PaymentTransactionDto transaction, BigDecimal refundAmount, UUID refundId) {
     log.info(
         "Processing refund for transaction: {} with amount: {}", transaction.getId(), refundAmount);
 
@@ -105,9 +142,12 @@ public class BankTransferIntegrator implements PaymentIntegrator {
       // Replace {id} placeholder with actual transaction ID
       String refundUrl = refundApiUrl.replace("{id}", transaction.getExternalTransactionId());
 
-      // Create headers with API key
-      HttpHeaders headers = new HttpHeaders();
-      headers.setContentType(MediaType.APPLICATION_JSON);
+      // Create headers with API key and a key that makes retries safe
+      HttpHeaders headers =
+          createHeaders(
+              refundId != null
+                  ? IdempotencyKeys.forRefund(refundId)
+                  : IdempotencyKeys.forRefund(transaction.getId(), refundAmount));
       if (apiKey != null && !apiKey.isEmpty()) {
         headers.set("Authorization", "Bearer " + apiKey);
       }
@@ -117,7 +157,12 @@ public class BankTransferIntegrator implements PaymentIntegrator {
 
       // Send HTTP request to refund API
       BankTransferRefundResponse externalResponse =
-          restTemplate.postForObject(refundUrl, requestEntity, BankTransferRefundResponse.class);
+          retryPolicy.execute(
+              getGatewayName(),
+              "refund",
+              () ->
+                  restTemplate.postForObject(
+                      refundUrl, requestEntity, BankTransferRefundResponse.class));
       log.info("Received refund response from Bank Transfer API: {}", externalResponse);
 
       // Convert external response to internal PaymentResponseDto
@@ -144,6 +189,15 @@ public class BankTransferIntegrator implements PaymentIntegrator {
   }
 
   // Helper methods
+  private HttpHeaders createHeaders(String idempotencyKey) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    if (idempotencyKey != null) {
+      headers.set(IDEMPOTENCY_HEADER, idempotencyKey);
+    }
+    return headers;
+  }
+
   private BankTransferRequest convertToBankTransferRequest(
       PaymentRequestDto request, PaymentTransactionDto transaction) {
     BankTransferRequest btRequest = new BankTransferRequest();
@@ -29,9 +29,9 @@ public class BankTransferMessageParser implements MessageParser {
         if (eventType == null) eventType = text(root, "status");
         if (eventType == null) eventType = text(root, "event");
 
-        PaymentCallbackType mapped = PaymentCallbackType.PAYMENT_SUCCESS;
+        // Unknown event types stay unmapped and are ignored downstream
         BankTransferWebhookEventType t = BankTransferWebhookEventType.fromValue(eventType);
-        if (t != null) mapped = t.toCallbackType();
+        PaymentCallbackType mapped = t != null ? t.toCallbackType() : null;
 
         PaymentCallbackEvent evt = new PaymentCallbackEvent();
         evt.setType(mapped);
@@ -1,12 +1,16 @@
 package com.ahss.integration.bank;
 
 import com.ahss.dto.response.ApiResponse;
-import com.ahss.kafka.event.PaymentCallbackEvent;
-import com.ahss.kafka.event.PaymentCallbackType;
+import com.ahss.dto.response.BulkIngestionResultDto;
 import com.ahss.kafka.producer.PaymentCallbackProducer;
 import com.ahss.integration.webhook.BaseWebhookController;
+import com.ahss.integration.webhook.WebhookBulkIngestor;
+import com.ahss.integration.webhook.WebhookInbox;
+import com.ahss.integration.webhook.WebhookSignatureVerifier;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -14,7 +18,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.math.BigDecimal;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,8 +26,14 @@ import java.util.Map;
 @RequestMapping("/api/integrations/webhooks/bank-transfer")
 public class BankTransferWebhookController extends BaseWebhookController {
 
-    public BankTransferWebhookController(ObjectMapper objectMapper, PaymentCallbackProducer callbackProducer) {
-        super(objectMapper, callbackProducer);
+    private final WebhookBulkIngestor bulkIngestor;
+
+    public BankTransferWebhookController(ObjectMapper objectMapper, PaymentCallbackProducer callbackProducer,
+                                          WebhookInbox webhookInbox,
+                                          WebhookSignatureVerifier signatureVerifier,
+                                          WebhookBulkIngestor bulkIngestor) {
+        super(objectMapper, callbackProducer, webhookInbox, signatureVerifier);
+        this.bulkIngestor = bulkIngestor;
     }
 
     @PostMapping
@@ -38,61 +48,39 @@ public class BankTransferWebhookController extends BaseWebhookController {
         return handleWebhook(body, headers, "/api/integrations/webhooks/bank-transfer", "Bank Transfer webhook accepted");
     }
 
-    @Override
-    protected String gatewayName() { return "BankTransfer"; }
-
-    @Override
-    protected String extractEventType(JsonNode root) {
-        String v = text(root.get("event_type"));
-        if (v == null) v = text(root.get("status"));
-        if (v == null) v = text(root.get("event"));
-        return v;
-    }
-
-    @Override
-    protected PaymentCallbackType mapEventType(String eventType) {
-        BankTransferWebhookEventType t = BankTransferWebhookEventType.fromValue(eventType);
-        return t != null ? t.toCallbackType() : PaymentCallbackType.PAYMENT_SUCCESS;
+    /**
+     * Bulk settlement updates as newline-delimited JSON, one bank transfer event per line.
+     * Send {@code Content-Encoding: gzip} for compressed bodies. Unlike the single-event webhook
+     * this endpoint is not security-exempt and requires an authenticated caller.
+     */
+    @PostMapping(path = "/bulk", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<BulkIngestionResultDto>> handleBankTransferBulk(
+            InputStream body,
+            @RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            @RequestHeader(name = "X-Bank-Request-Id", required = false) String requestId
+    ) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-Bank-Request-Id", requestId);
+        return handleBulk(bulkIngestor, body, contentEncoding, headers, "/api/integrations/webhooks/bank-transfer/bulk");
     }
 
     @Override
-    protected void populateEvent(PaymentCallbackEvent event, JsonNode root) {
-        // Correlation and external IDs
-        event.setCorrelationId(text(root.get("id")));
-        String externalTxId = text(root.get("transaction_id"));
-        if (externalTxId == null) externalTxId = text(root.get("id"));
-        event.setExternalTransactionId(externalTxId);
-
-        // Amount and currency
-        BigDecimal amount = null;
-        JsonNode amtNode = root.path("amount");
-        if (amtNode.isNumber()) {
-            amount = BigDecimal.valueOf(amtNode.decimalValue().doubleValue());
-        } else if (amtNode.isObject()) {
-            String val = text(amtNode.get("value"));
-            if (val != null) {
-                try { amount = new BigDecimal(val); } catch (Exception ignored) {}
-            }
-        }
-        if (amount != null) event.setAmount(amount);
-        String currency = text(root.get("currency"));
-        if (currency == null) currency = text(amtNode.get("currency"));
-        event.setCurrency(currency);
-
-        // Errors
-        JsonNode err = root.path("error");
-        if (!err.isMissingNode() && !err.isNull()) {
-            event.setErrorCode(text(err.get("code")));
-            event.setErrorMessage(text(err.get("message")));
-        }
-    }
+    protected String gatewayName() { return "BankTransfer"; }
 
     @Override
     protected Map<String, Object> metadata(JsonNode root, Map<String, String> headers) {
         Map<String, Object> meta = new HashMap<>();
         meta.put("headers", headers);
         meta.put("reference", text(root.get("reference")));
-        meta.put("rawEventType", extractEventType(root));
+        meta.put("rawEventType", rawEventType(root));
         return meta;
     }
-}
\ No newline at end of file
+
+    private String rawEventType(JsonNode root) {
+        String v = text(root.get("event_type"));
+        if (v == null) v = text(root.get("status"));
+        if (v == null) v = text(root.get("event"));
+        return v;
+    }
+}
@@ -38,22 +38,29 @@ public final class PaymentChannelIntegrationEventTypeMapper {
         STRIPE_MAP.put(StripeWebhookEventType.PAYMENT_INTENT_CANCELED, PaymentCallbackType.PAYMENT_FAILED);
         STRIPE_MAP.put(StripeWebhookEventType.CHARGE_FAILED, PaymentCallbackType.PAYMENT_FAILED);
         STRIPE_MAP.put(StripeWebhookEventType.CHARGE_REFUNDED, PaymentCallbackType.REFUND_SUCCESS);
+        STRIPE_MAP.put(StripeWebhookEventType.CHARGE_REFUND_UPDATED, PaymentCallbackType.REFUND_SUCCESS);
         STRIPE_MAP.put(StripeWebhookEventType.REFUND_CREATED, PaymentCallbackType.REFUND_SUCCESS);
         STRIPE_MAP.put(StripeWebhookEventType.REFUND_UPDATED, PaymentCallbackType.REFUND_FAILED);
     }
 
     private PaymentChannelIntegrationEventTypeMapper() {}
 
+    /**
+     * @return the callback type, or null when the event type is unknown or has no mapping;
+     * such events must be ignored rather than treated as a payment outcome
+     */
     public static PaymentCallbackType mapPayPal(String eventType) {
         PayPalWebhookEventType t = PayPalWebhookEventType.fromValue(eventType);
-        if (t == null) return PaymentCallbackType.PAYMENT_SUCCESS; // keep controller default
-        return PAYPAL_MAP.getOrDefault(t, PaymentCallbackType.PAYMENT_SUCCESS);
+        return t != null ? PAYPAL_MAP.get(t) : null;
     }
 
+    /**
+     * @return the callback type, or null when the event type is unknown or has no mapping;
+     * such events must be ignored rather than treated as a payment outcome
+     */
     public static PaymentCallbackType mapStripe(String eventType) {
         StripeWebhookEventType t = StripeWebhookEventType.fromValue(eventType);
-        if (t == null) return PaymentCallbackType.PAYMENT_SUCCESS; // keep controller default
-        return STRIPE_MAP.getOrDefault(t, PaymentCallbackType.PAYMENT_SUCCESS);
+        return t != null ? STRIPE_MAP.get(t) : null;
     }
 
     /**
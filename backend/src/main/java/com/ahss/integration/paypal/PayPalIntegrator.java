@@ -4,15 +4,21 @@ import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentResponseDto;
 import com.ahss.dto.response.PaymentTransactionDto;
 import com.ahss.enums.PaymentMethodType;
+import com.ahss.integration.GatewayRetryPolicy;
+import com.ahss.integration.IdempotencyKeys;
 import com.ahss.integration.PaymentIntegrator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 /**
  * Implementation of PaymentIntegrator for PayPal processor. Handles conversion and outbound calls
@@ -22,6 +28,8 @@ import java.math.BigDecimal;
 @Component
 public class PayPalIntegrator implements PaymentIntegrator {
 
+  static final String IDEMPOTENCY_HEADER = "PayPal-Request-Id";
+
   private final RestTemplate restTemplate;
   private final String orderApiUrl; // Configurable for tests
   private final String refundApiUrl;
@@ -29,6 +37,26 @@ public class PayPalIntegrator implements PaymentIntegrator {
   private final String clientId;
   private final String clientSecret; // Configurable for tests
   private final ObjectMapper objectMapper;
+  private final GatewayRetryPolicy retryPolicy;
+
+  public PayPalIntegrator(
+      RestTemplate restTemplate,
+      String orderApiUrl,
+      String refundApiUrl,
+      String tokenApiUrl,
+      String clientId,
+      String clientSecret,
+      ObjectMapper objectMapper) {
+    this(
+        restTemplate,
+        orderApiUrl,
+        refundApiUrl,
+        tokenApiUrl,
+        clientId,
+        clientSecret,
+        objectMapper,
+        GatewayRetryPolicy.noRetry());
+  }
 
   @org.springframework.beans.factory.annotation.Autowired
   public PayPalIntegrator(
@@ -42,7 +70,8 @@ public class PayPalIntegrator implements PaymentIntegrator {
           String tokenApiUrl,
       @Value("${paypal.clientId:}") String clientId,
       @Value("${paypal.clientSecret:}") String clientSecret,
-      ObjectMapper objectMapper) {
+      ObjectMapper objectMapper,
+      GatewayRetryPolicy retryPolicy) {
     this.restTemplate = restTemplate;
     this.orderApiUrl = orderApiUrl;
     this.refundApiUrl = refundApiUrl;
@@ -50,6 +79,7 @@ public class PayPalIntegrator implements PaymentIntegrator {
     this.clientId = clientId;
     this.clientSecret = clientSecret;
     this.objectMapper = objectMapper;
+    this.retryPolicy = retryPolicy;
   }
 
   @Override
@@ -74,8 +104,14 @@ public class PayPalIntegrator implements PaymentIntegrator {
     }
     PayPalOrderRequest externalRequest = convertToPayPalOrderRequest(request, transaction);
     log.info("Sending payment request to PayPal: {}", externalRequest);
+    HttpEntity<PayPalOrderRequest> requestEntity =
+        new HttpEntity<>(
+            externalRequest, createHeaders(IdempotencyKeys.forPayment(transaction.getId())));
     PayPalOrderResponse externalResponse =
-        restTemplate.postForObject(orderApiUrl, externalRequest, PayPalOrderResponse.class);
+        retryPolicy.execute(
+            getGatewayName(),
+            "payment",
+            () -> restTemplate.postForObject(orderApiUrl, requestEntity, PayPalOrderResponse.class));
       assert externalResponse != null;
       log.info("Received response from PayPal: {}", externalResponse);
 
@@ -85,6 +121,12 @@ public class PayPalIntegrator implements PaymentIntegrator {
   @Override
   public PaymentResponseDto processRefund(
       PaymentTransactionDto transaction, BigDecimal refundAmount) {
+    return processRefund(transaction, refundAmount, null);
+  }
+
+  @Override
+  public PaymentResponseDto processRefund(
+      PaymentTransactionDto transaction, BigDecimal refundAmount, UUID refundId) {
     log.info("Processing refund for transaction: {} with amount: {}",
         transaction.getId(), refundAmount);
 
@@ -97,11 +139,22 @@ public class PayPalIntegrator implements PaymentIntegrator {
       // Expand capture_id from transaction external ID when present
       // PayPal refund endpoint: /v2/payments/captures/{capture_id}/refund
       String refundUrl = refundApiUrl.replace("{capture_id}", transaction.getExternalTransactionId());
-      PayPalRefundResponse refundResponse =
-          restTemplate.postForObject(
-              refundUrl,
+      HttpEntity<PayPalRefundRequest> requestEntity =
+          new HttpEntity<>(
               refundRequest,
-              PayPalRefundResponse.class);
+              createHeaders(
+                  refundId != null
+                      ? IdempotencyKeys.forRefund(refundId)
+                      : IdempotencyKeys.forRefund(transaction.getId(), refundAmount)));
+      PayPalRefundResponse refundResponse =
+          retryPolicy.execute(
+              getGatewayName(),
+              "refund",
+              () ->
+                  restTemplate.postForObject(
+                      refundUrl,
+                      requestEntity,
+                      PayPalRefundResponse.class));
       log.info("Received refund response from PayPal: {}", refundResponse);
 
       return convertRefundToPaymentResponse(refundResponse, transaction, refundAmount);
@@ -124,6 +177,15 @@ public class PayPalIntegrator implements PaymentIntegrator {
     throw new UnsupportedOperationException("Tokenization not supported for PayPal");
   }
 
+  private HttpHeaders createHeaders(String idempotencyKey) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    if (idempotencyKey != null) {
+      headers.set(IDEMPOTENCY_HEADER, idempotencyKey);
+    }
+    return headers;
+  }
+
   private PayPalOrderRequest convertToPayPalOrderRequest(
       PaymentRequestDto request, PaymentTransactionDto transaction) {
     PayPalOrderRequest orderRequest = new PayPalOrderRequest();
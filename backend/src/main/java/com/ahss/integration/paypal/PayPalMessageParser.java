@@ -11,6 +11,7 @@ import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Parser for PayPal webhook payloads.
@@ -26,14 +27,21 @@ public class PayPalMessageParser implements MessageParser {
     public PaymentCallbackEvent parse(JsonNode root) {
         String eventType = text(root, "event_type");
         JsonNode resource = root.path("resource");
-        String correlationId = text(root, "id");
-        String currency = text(resource.path("amount"), "currency_code");
-        String externalTxId = text(resource, "id");
+        String invoiceId = text(resource, "invoice_id");
 
         PaymentCallbackEvent evt = new PaymentCallbackEvent();
-        evt.setCorrelationId(correlationId);
+        evt.setType(PaymentChannelIntegrationEventTypeMapper.mapPayPal(eventType));
         evt.setGatewayName("PayPal");
-        evt.setExternalTransactionId(externalTxId);
+
+        // custom_id / invoice_id carry our own identifiers; fall back to the PayPal event id
+        String correlationId = text(resource, "custom_id");
+        if (correlationId == null) correlationId = invoiceId;
+        if (correlationId == null) correlationId = text(root, "id");
+        evt.setCorrelationId(correlationId != null ? correlationId : UUID.randomUUID().toString());
+        evt.setPaymentToken(invoiceId);
+        evt.setRequestCode(invoiceId);
+
+        evt.setExternalTransactionId(text(resource, "id"));
 
         java.math.BigDecimal amount = null;
         String valueStr = text(resource.path("amount"), "value");
@@ -41,19 +49,14 @@ public class PayPalMessageParser implements MessageParser {
             try { amount = new java.math.BigDecimal(valueStr); } catch (Exception ignored) {}
         }
         if (amount != null) evt.setAmount(amount);
-        evt.setCurrency(currency);
+        evt.setCurrency(text(resource.path("amount"), "currency_code"));
         evt.setGatewayResponse(toMap(root));
 
-        PaymentCallbackType mapped = PaymentChannelIntegrationEventTypeMapper.mapPayPal(eventType);
-        if (mapped != null) {
-            evt.setType(mapped);
-        } else {
-            evt.setType(PaymentCallbackType.PAYMENT_FAILED);
-        }
-
-        if (PaymentCallbackType.PAYMENT_FAILED.equals(evt.getType())) {
+        if (PaymentCallbackType.PAYMENT_FAILED.equals(evt.getType())
+                || PaymentCallbackType.REFUND_FAILED.equals(evt.getType())) {
             evt.setErrorCode(text(resource, "status"));
-            evt.setErrorMessage(text(resource, "reason_code"));
+            String reason = text(resource, "reason");
+            evt.setErrorMessage(reason != null ? reason : text(resource, "reason_code"));
         } else if (PaymentCallbackType.REFUND_SUCCESS.equals(evt.getType())) {
             evt.setExternalRefundId(text(resource, "id"));
         }
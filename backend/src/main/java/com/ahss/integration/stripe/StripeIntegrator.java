@@ -4,6 +4,8 @@ import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentResponseDto;
 import com.ahss.dto.response.PaymentTransactionDto;
 import com.ahss.enums.PaymentMethodType;
+import com.ahss.integration.GatewayRetryPolicy;
+import com.ahss.integration.IdempotencyKeys;
 import com.ahss.integration.PaymentIntegrator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,6 +20,7 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate; // Assuming RestTemplate for HTTP requests
 import java.math.BigDecimal;
+import java.util.UUID;
 
 /**
  * Implementation of PaymentIntegrator for Credit Card channel with tokenization support. Handles
@@ -28,6 +31,7 @@ import java.math.BigDecimal;
 public class StripeIntegrator implements PaymentIntegrator {
 
   private static final Logger log = LoggerFactory.getLogger(StripeIntegrator.class);
+  static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
 
   private final RestTemplate restTemplate;
   private final String tokenizationApiUrl; // Configurable for tests
@@ -35,6 +39,24 @@ public class StripeIntegrator implements PaymentIntegrator {
   private final String refundApiUrl;
   private final String apiKey; // Stripe API Key
   private ObjectMapper objectMapper;
+  private final GatewayRetryPolicy retryPolicy;
+
+  public StripeIntegrator(
+      RestTemplate restTemplate,
+      String tokenizationApiUrl,
+      String paymentApiUrl,
+      String refundApiUrl,
+      String apiKey,
+      ObjectMapper objectMapper) {
+    this(
+        restTemplate,
+        tokenizationApiUrl,
+        paymentApiUrl,
+        refundApiUrl,
+        apiKey,
+        objectMapper,
+        GatewayRetryPolicy.noRetry());
+  }
 
   @org.springframework.beans.factory.annotation.Autowired
   public StripeIntegrator(
@@ -44,13 +66,15 @@ public class StripeIntegrator implements PaymentIntegrator {
       @Value("${stripe.paymentApiUrl:https://api.stripe.com/v1/charges}") String paymentApiUrl,
       @Value("${stripe.refundApiUrl:https://api.stripe.com/v1/refunds}") String refundApiUrl,
       @Value("${stripe.apiKey:}") String apiKey,
-      ObjectMapper objectMapper) {
+      ObjectMapper objectMapper,
+      GatewayRetryPolicy retryPolicy) {
     this.restTemplate = restTemplate;
     this.tokenizationApiUrl = tokenizationApiUrl;
     this.paymentApiUrl = paymentApiUrl;
     this.refundApiUrl = refundApiUrl;
     this.apiKey = apiKey;
     this.objectMapper = objectMapper;
+    this.retryPolicy = retryPolicy;
   }
 
   @Override
@@ -78,13 +102,17 @@ public class StripeIntegrator implements PaymentIntegrator {
     CreditCardPaymentRequest externalRequest = convertToCreditCardRequest(request, transaction);
     log.info("Sending payment request to Stripe: {}", externalRequest);
 
-    // Create headers with authorization
+    // Create headers with authorization and a key that makes retries safe
     HttpHeaders headers = createAuthHeaders();
+    setIdempotencyKey(headers, IdempotencyKeys.forPayment(transaction.getId()));
     HttpEntity<CreditCardPaymentRequest> requestEntity = new HttpEntity<>(externalRequest, headers);
 
     // Send HTTP request to payment API
     CreditCardResponse externalResponse =
-        restTemplate.postForObject(paymentApiUrl, requestEntity, CreditCardResponse.class);
+        retryPolicy.execute(
+            getGatewayName(),
+            "payment",
+            () -> restTemplate.postForObject(paymentApiUrl, requestEntity, CreditCardResponse.class));
     log.info("Received response from Stripe: {}", externalResponse);
 
     // Convert external response to internal PaymentResponseDto
@@ -94,6 +122,12 @@ public class StripeIntegrator implements PaymentIntegrator {
   @Override
   public PaymentResponseDto processRefund(
       PaymentTransactionDto transaction, BigDecimal refundAmount) {
+    return processRefund(transaction, refundAmount, null);
+  }
+
+  @Override
+  public PaymentResponseDto processRefund(
+      PaymentTransactionDto transaction, BigDecimal refundAmount, UUID refundId) {
     log.info("Processing refund for transaction: {} with amount: {}",
         transaction.getId(), refundAmount);
 
@@ -106,14 +140,24 @@ public class StripeIntegrator implements PaymentIntegrator {
 
     log.info("Sending refund request to Stripe: {}", refundRequest);
 
-    // Create headers with authorization
+    // Create headers with authorization and a key that makes retries safe
     HttpHeaders headers = createAuthHeaders();
+    setIdempotencyKey(
+        headers,
+        refundId != null
+            ? IdempotencyKeys.forRefund(refundId)
+            : IdempotencyKeys.forRefund(transaction.getId(), refundAmount));
     HttpEntity<StripeRefundRequest> requestEntity = new HttpEntity<>(refundRequest, headers);
 
     try {
       // Send HTTP request to refund API
       StripeRefundResponse externalResponse =
-          restTemplate.postForObject(refundApiUrl, requestEntity, StripeRefundResponse.class);
+          retryPolicy.execute(
+              getGatewayName(),
+              "refund",
+              () ->
+                  restTemplate.postForObject(
+                      refundApiUrl, requestEntity, StripeRefundResponse.class));
       log.info("Received refund response from Stripe: {}", externalResponse);
 
       // Convert external response to internal PaymentResponseDto
@@ -158,6 +202,12 @@ public class StripeIntegrator implements PaymentIntegrator {
     return headers;
   }
 
+  private void setIdempotencyKey(HttpHeaders headers, String idempotencyKey) {
+    if (idempotencyKey != null) {
+      headers.set(IDEMPOTENCY_HEADER, idempotencyKey);
+    }
+  }
+
   private CreditCardPaymentRequest convertToCreditCardRequest(
       PaymentRequestDto request, PaymentTransactionDto transaction) {
     CreditCardPaymentRequest ccRequest = new CreditCardPaymentRequest();
@@ -11,6 +11,7 @@ import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Parser for Stripe webhook payloads.
@@ -26,38 +27,45 @@ public class StripeMessageParser implements MessageParser {
     public PaymentCallbackEvent parse(JsonNode root) {
         String stripeType = text(root, "type");
         JsonNode object = root.path("data").path("object");
-        String correlationId = text(root, "id");
-        String currency = text(object, "currency");
-        String externalTxId = text(object, "id");
+        JsonNode metadata = object.path("metadata");
+
+        PaymentCallbackEvent evt = new PaymentCallbackEvent();
+        evt.setType(PaymentChannelIntegrationEventTypeMapper.mapStripe(stripeType));
+        evt.setGatewayName("Stripe");
+
+        // Prefer our own correlation id echoed back in metadata, then the Stripe event id
+        String correlationId = text(metadata, "correlationId");
+        if (correlationId == null)
+            correlationId = text(root, "id");
+        evt.setCorrelationId(correlationId != null ? correlationId : UUID.randomUUID().toString());
+
+        evt.setPaymentToken(text(metadata, "paymentToken"));
+        evt.setRequestCode(text(metadata, "requestCode"));
+        evt.setPaymentRequestId(uuid(metadata, "paymentRequestId"));
+        evt.setPaymentTransactionId(uuid(metadata, "paymentTransactionId"));
+        evt.setPaymentRefundId(uuid(metadata, "paymentRefundId"));
+
+        evt.setExternalTransactionId(text(object, "id"));
+        evt.setExternalRefundId(text(object.path("refunds").path("data").path(0), "id"));
 
         Long amountInMinor = longVal(object, "amount_received");
         if (amountInMinor == null)
             amountInMinor = longVal(object, "amount");
-
-        PaymentCallbackEvent evt = new PaymentCallbackEvent();
-        evt.setCorrelationId(correlationId);
-        evt.setGatewayName("Stripe");
-        evt.setExternalTransactionId(externalTxId);
         if (amountInMinor != null)
             evt.setAmount(java.math.BigDecimal.valueOf(amountInMinor).movePointLeft(2));
-        evt.setCurrency(currency);
+        evt.setCurrency(text(object, "currency"));
         evt.setGatewayResponse(toMap(root));
 
-        PaymentCallbackType mapped = PaymentChannelIntegrationEventTypeMapper.mapStripe(stripeType);
-        if (mapped != null) {
-            evt.setType(mapped);
-        } else {
-            evt.setType(PaymentCallbackType.PAYMENT_FAILED);
-        }
-
-        if (PaymentCallbackType.PAYMENT_FAILED.equals(evt.getType())) {
-            String errCode = text(object.path("last_payment_error"), "code");
-            String errMsg = text(object.path("last_payment_error"), "message");
-            evt.setErrorCode(errCode);
-            evt.setErrorMessage(errMsg);
-        } else if (PaymentCallbackType.REFUND_SUCCESS.equals(evt.getType())) {
-            String refundId = text(object.path("refunds").path("data").path(0), "id");
-            evt.setExternalRefundId(refundId);
+        if (PaymentCallbackType.PAYMENT_FAILED.equals(evt.getType())
+                || PaymentCallbackType.REFUND_FAILED.equals(evt.getType())) {
+            JsonNode lastPaymentError = object.path("last_payment_error");
+            if (!lastPaymentError.isMissingNode()) {
+                evt.setErrorCode(text(lastPaymentError, "code"));
+                evt.setErrorMessage(text(lastPaymentError, "message"));
+            } else {
+                evt.setErrorCode(text(object, "failure_code"));
+                evt.setErrorMessage(text(object, "failure_message"));
+            }
         }
 
         Long createdEpoch = longVal(root, "created");
@@ -68,6 +76,15 @@ public class StripeMessageParser implements MessageParser {
         return evt;
     }
 
+    private UUID uuid(JsonNode node, String field) {
+        String val = text(node, field);
+        try {
+            return val != null ? UUID.fromString(val) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private String text(JsonNode node, String field) {
         if (node == null || field == null)
             return null;
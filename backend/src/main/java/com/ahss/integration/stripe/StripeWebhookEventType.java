@@ -9,6 +9,7 @@ public enum StripeWebhookEventType {
     PAYMENT_INTENT_CANCELED("payment_intent.canceled"),
     CHARGE_FAILED("charge.failed"),
     CHARGE_REFUNDED("charge.refunded"),
+    CHARGE_REFUND_UPDATED("charge.refund.updated"),
     REFUND_CREATED("refund.created"),
     REFUND_UPDATED("refund.updated");
 
@@ -1,59 +1,47 @@
 package com.ahss.integration.webhook;
 
 import com.ahss.dto.response.ApiResponse;
+import com.ahss.dto.response.BulkIngestionResultDto;
+import com.ahss.integration.MessageParser;
+import com.ahss.integration.MessageParserFactory;
 import com.ahss.kafka.event.PaymentCallbackEvent;
-import com.ahss.kafka.event.PaymentCallbackType;
 import com.ahss.kafka.producer.PaymentCallbackProducer;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Base controller providing shared helpers for webhook handling across payment
  * channels.
- * Subclasses define request mappings and channel-specific parsing logic.
+ * Subclasses define request mappings and channel-specific metadata; payload parsing
+ * is delegated to the gateway's {@link MessageParser}.
  */
 public abstract class BaseWebhookController {
 
     protected final ObjectMapper objectMapper;
     protected final PaymentCallbackProducer callbackProducer;
+    protected final WebhookInbox webhookInbox;
+    protected final WebhookSignatureVerifier signatureVerifier;
 
-    protected BaseWebhookController(ObjectMapper objectMapper, PaymentCallbackProducer callbackProducer) {
+    protected BaseWebhookController(ObjectMapper objectMapper, PaymentCallbackProducer callbackProducer,
+                                    WebhookInbox webhookInbox, WebhookSignatureVerifier signatureVerifier) {
         this.objectMapper = objectMapper;
         this.callbackProducer = callbackProducer;
+        this.webhookInbox = webhookInbox;
+        this.signatureVerifier = signatureVerifier;
     }
 
     protected String text(JsonNode node) {
         return node != null && !node.isNull() ? node.asText() : null;
     }
 
-    protected UUID parseUuid(JsonNode node) {
-        String val = text(node);
-        try {
-            return val != null ? UUID.fromString(val) : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    protected BigDecimal minorUnitsToMajor(long amountMinor) {
-        return BigDecimal.valueOf(amountMinor).movePointLeft(2);
-    }
-
-    protected Map<String, Object> toMap(JsonNode root) {
-        return objectMapper.convertValue(root, new TypeReference<Map<String, Object>>() {});
-    }
-
-    protected void attachGatewayResponse(PaymentCallbackEvent event, JsonNode root) {
-        event.setGatewayResponse(toMap(root));
-    }
-
     protected void sendCallback(PaymentCallbackEvent event) {
         callbackProducer.send(event);
     }
@@ -66,16 +54,39 @@ public abstract class BaseWebhookController {
         return ResponseEntity.badRequest().body(ApiResponse.notOk(null, messagePrefix + e.getMessage(), path));
     }
 
+    protected ResponseEntity<ApiResponse<Void>> unauthorized(String path, String message) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.notOk(null, message, path));
+    }
+
     // Abstract hooks for channel-specific behavior
     protected abstract String gatewayName();
 
-    protected abstract String extractEventType(JsonNode root);
+    protected abstract Map<String, Object> metadata(JsonNode root, Map<String, String> headers);
 
-    protected abstract PaymentCallbackType mapEventType(String eventType);
+    /**
+     * Parses a raw webhook body into a callback event using the gateway's parser from
+     * {@link MessageParserFactory}, the same one the callback consumer uses for raw payloads.
+     * Used on the request thread in sync mode and by {@link WebhookInboxProcessor} for
+     * deliveries stored in async mode.
+     */
+    protected PaymentCallbackEvent toCallbackEvent(String body, Map<String, String> headers) throws Exception {
+        return toCallbackEvent(objectMapper.readTree(body), headers);
+    }
 
-    protected abstract void populateEvent(PaymentCallbackEvent event, JsonNode root);
+    protected PaymentCallbackEvent toCallbackEvent(JsonNode root, Map<String, String> headers) {
+        MessageParser parser = MessageParserFactory.forGateway(gatewayName());
+        if (parser == null) {
+            throw new IllegalStateException("No message parser registered for gateway " + gatewayName());
+        }
+        PaymentCallbackEvent event = parser.parse(root);
+        event.setReceivedAt(LocalDateTime.now());
 
-    protected abstract Map<String, Object> metadata(JsonNode root, Map<String, String> headers);
+        Map<String, Object> meta = metadata(root, headers);
+        if (meta != null) {
+            event.setMetadata(meta);
+        }
+        return event;
+    }
 
     // Common processing pipeline for webhook handlers
     protected ResponseEntity<ApiResponse<Void>> handleWebhook(
@@ -83,26 +94,40 @@ public abstract class BaseWebhookController {
             Map<String, String> headers,
             String path,
             String successMessage) {
+        // Verify before touching the body so forged deliveries cost neither a parse nor a publish
+        WebhookSignatureVerifier.Result verification = signatureVerifier.verify(gatewayName(), body, headers);
+        if (!verification.isAccepted() && signatureVerifier.isEnforced()) {
+            return unauthorized(path, "Rejected " + gatewayName() + " webhook: " + verification);
+        }
         try {
-            JsonNode root = objectMapper.readTree(body);
-            String eventType = extractEventType(root);
-
-            PaymentCallbackEvent event = new PaymentCallbackEvent();
-            event.setType(mapEventType(eventType));
-            event.setGatewayName(gatewayName());
-            event.setReceivedAt(LocalDateTime.now());
-
-            populateEvent(event, root);
-            Map<String, Object> meta = metadata(root, headers);
-            if (meta != null) {
-                event.setMetadata(meta);
+            if (webhookInbox.isAsyncIngestion()) {
+                // Fast-ack: persist the raw delivery and let the inbox processor parse and publish it
+                webhookInbox.append(gatewayName(), body, headers);
+                return ok(path, successMessage);
             }
-
-            attachGatewayResponse(event, root);
-            sendCallback(event);
+            sendCallback(toCallbackEvent(body, headers));
             return ok(path, successMessage);
         } catch (Exception e) {
             return badRequest(path, "Failed to process " + gatewayName() + " webhook: ", e);
         }
     }
-}
\ No newline at end of file
+
+    // Bulk pipeline: one NDJSON delivery per line, published in producer batches
+    protected ResponseEntity<ApiResponse<BulkIngestionResultDto>> handleBulk(
+            WebhookBulkIngestor bulkIngestor,
+            InputStream body,
+            String contentEncoding,
+            Map<String, String> headers,
+            String path) {
+        try {
+            boolean gzip = contentEncoding != null && contentEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+            BulkIngestionResultDto result = bulkIngestor.ingest(body, gzip, root -> toCallbackEvent(root, headers));
+            String message = String.format("%s bulk ingestion: %d accepted, %d rejected, %d failed",
+                    gatewayName(), result.getAccepted(), result.getRejected(), result.getFailed());
+            return ResponseEntity.ok(ApiResponse.ok(result, message, path));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.notOk(null, "Failed to read " + gatewayName() + " bulk body: " + e.getMessage(), path));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.ahss.integration.webhook;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for one gateway's webhook traffic: a token bucket bounds the request rate
+ * and a bulkhead bounds how many requests may run, or wait to run, at once. A retry storm from
+ * one gateway therefore holds at most {@code maxConcurrent + maxQueue} servlet threads and
+ * is shed before it can starve the other gateways or the authenticated API.
+ */
+public class GatewayAdmission {
+
+    static final String SHED_METRIC = "webhook.admission.shed";
+    static final String QUEUE_DEPTH_METRIC = "webhook.admission.queue.depth";
+    static final String IN_FLIGHT_METRIC = "webhook.admission.in.flight";
+
+    /**
+     * Outcome of an admission attempt; {@code retryAfterSeconds} is set for rejections.
+     */
+    public record Decision(Outcome outcome, long retryAfterSeconds) {
+        static final Decision ADMITTED = new Decision(Outcome.ADMITTED, 0);
+
+        public boolean admitted() {
+            return outcome == Outcome.ADMITTED;
+        }
+    }
+
+    public enum Outcome {
+        ADMITTED,
+        RATE_LIMITED,
+        OVER_CAPACITY
+    }
+
+    /**
+     * Limits for one gateway.
+     */
+    public static class Limits {
+        private int maxConcurrent = 16;
+        private int maxQueue = 32;
+        private long maxWaitMs = 250;
+        private double ratePerSecond = 200;
+        private double burst = 400;
+        private long retryAfterSeconds = 1;
+
+        public int getMaxConcurrent() { return maxConcurrent; }
+        public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+        public int getMaxQueue() { return maxQueue; }
+        public void setMaxQueue(int maxQueue) { this.maxQueue = maxQueue; }
+        public long getMaxWaitMs() { return maxWaitMs; }
+        public void setMaxWaitMs(long maxWaitMs) { this.maxWaitMs = maxWaitMs; }
+        public double getRatePerSecond() { return ratePerSecond; }
+        public void setRatePerSecond(double ratePerSecond) { this.ratePerSecond = ratePerSecond; }
+        public double getBurst() { return burst; }
+        public void setBurst(double burst) { this.burst = burst; }
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+        public void setRetryAfterSeconds(long retryAfterSeconds) { this.retryAfterSeconds = retryAfterSeconds; }
+    }
+
+    private final String gateway;
+    private final Limits limits;
+    private final TokenBucket rateLimiter;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter rateLimited;
+    private final Counter overCapacity;
+
+    public GatewayAdmission(String gateway, Limits limits, MeterRegistry meterRegistry) {
+        this(gateway, limits, new TokenBucket(limits.getRatePerSecond(), limits.getBurst()), meterRegistry);
+    }
+
+    GatewayAdmission(String gateway, Limits limits, TokenBucket rateLimiter, MeterRegistry meterRegistry) {
+        this.gateway = gateway;
+        this.limits = limits;
+        this.rateLimiter = rateLimiter;
+        this.permits = new Semaphore(Math.max(1, limits.getMaxConcurrent()));
+        this.rateLimited = shedCounter(meterRegistry, Outcome.RATE_LIMITED);
+        this.overCapacity = shedCounter(meterRegistry, Outcome.OVER_CAPACITY);
+        Gauge.builder(QUEUE_DEPTH_METRIC, waiting, AtomicInteger::get)
+                .description("Webhook requests waiting for a gateway permit")
+                .tag("gateway", gateway)
+                .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, this, a -> Math.max(1, limits.getMaxConcurrent()) - a.permits.availablePermits())
+                .description("Webhook requests being processed")
+                .tag("gateway", gateway)
+                .register(meterRegistry);
+    }
+
+    public String getGateway() {
+        return gateway;
+    }
+
+    /**
+     * Admits the request or tells the caller when to retry. An admitted request must be
+     * paired with {@link #release()}.
+     */
+    public Decision admit() {
+        long waitNanos = rateLimiter.tryAcquire();
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            long seconds = waitNanos == Long.MAX_VALUE ? limits.getRetryAfterSeconds()
+                    : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            return new Decision(Outcome.RATE_LIMITED, seconds);
+        }
+        if (permits.tryAcquire()) {
+            return Decision.ADMITTED;
+        }
+        if (waiting.incrementAndGet() > limits.getMaxQueue()) {
+            waiting.decrementAndGet();
+            return shed();
+        }
+        try {
+            if (permits.tryAcquire(limits.getMaxWaitMs(), TimeUnit.MILLISECONDS)) {
+                return Decision.ADMITTED;
+            }
+            return shed();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return shed();
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    private Decision shed() {
+        overCapacity.increment();
+        return new Decision(Outcome.OVER_CAPACITY, limits.getRetryAfterSeconds());
+    }
+
+    private Counter shedCounter(MeterRegistry meterRegistry, Outcome reason) {
+        return Counter.builder(SHED_METRIC)
+                .description("Webhook requests shed by admission control")
+                .tag("gateway", gateway)
+                .tag("reason", reason.name())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ahss.integration.webhook;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter: holds up to {@code capacity} tokens and refills at
+ * {@code ratePerSecond}, so short bursts are absorbed while the sustained rate is bounded.
+ */
+class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double ratePerSecond, double capacity) {
+        this(ratePerSecond, capacity, System::nanoTime);
+    }
+
+    TokenBucket(double ratePerSecond, double capacity, LongSupplier nanoClock) {
+        this.capacity = Math.max(1, capacity);
+        this.tokensPerNano = ratePerSecond / NANOS_PER_SECOND;
+        this.nanoClock = nanoClock;
+        this.tokens = this.capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 when a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    synchronized long tryAcquire() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return tokensPerNano > 0 ? (long) Math.ceil((1 - tokens) / tokensPerNano) : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ahss.integration.webhook;
+
+import com.ahss.dto.response.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Applies {@link GatewayAdmission} to webhook requests before they reach a controller.
+ * The gateway is the first path segment after {@link #PATH_PREFIX}; paths of gateways
+ * without configured limits pass straight through. Rate-limited requests get 429 and
+ * over-capacity requests 503, both with {@code Retry-After}.
+ */
+public class WebhookAdmissionFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookAdmissionFilter.class);
+
+    public static final String PATH_PREFIX = "/api/integrations/webhooks/";
+
+    private final Map<String, GatewayAdmission> admissionsByPath;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param admissionsByPath admission control keyed by the gateway's path segment (e.g. "bank-transfer")
+     */
+    public WebhookAdmissionFilter(Map<String, GatewayAdmission> admissionsByPath, ObjectMapper objectMapper) {
+        this.admissionsByPath = Map.copyOf(admissionsByPath);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        GatewayAdmission admission = admissionsByPath.get(gatewaySegment(request.getRequestURI()));
+        if (admission == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        GatewayAdmission.Decision decision = admission.admit();
+        if (!decision.admitted()) {
+            reject(request, response, admission.getGateway(), decision);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            admission.release();
+        }
+    }
+
+    static String gatewaySegment(String uri) {
+        String rest = uri.substring(PATH_PREFIX.length());
+        int slash = rest.indexOf('/');
+        return slash >= 0 ? rest.substring(0, slash) : rest;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String gateway,
+                        GatewayAdmission.Decision decision) throws IOException {
+        boolean rateLimited = decision.outcome() == GatewayAdmission.Outcome.RATE_LIMITED;
+        HttpStatus status = rateLimited ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        log.debug("Shedding {} webhook: {}", gateway, decision.outcome());
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        String message = rateLimited
+                ? gateway + " webhook rate limit exceeded"
+                : gateway + " webhook capacity exceeded";
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.notOk(null, message, request.getRequestURI()));
+    }
+}
@@ -0,0 +1,150 @@
+package com.ahss.integration.webhook;
+
+import com.ahss.dto.response.BulkIngestionResultDto;
+import com.ahss.dto.response.BulkIngestionResultDto.LineResult;
+import com.ahss.dto.response.BulkIngestionResultDto.LineStatus;
+import com.ahss.kafka.event.PaymentCallbackEvent;
+import com.ahss.kafka.producer.PaymentCallbackProducer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams a newline-delimited JSON body (optionally gzip-compressed) line by line, parses each
+ * line into a callback event and publishes the events to the callbacks topic in producer batches.
+ * Only one batch is held in memory and accepted lines are only counted, so very large settlement
+ * files are ingested in a single call.
+ */
+@Component
+public class WebhookBulkIngestor {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookBulkIngestor.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Converts one parsed NDJSON line into a callback event.
+     */
+    @FunctionalInterface
+    public interface LineParser {
+        PaymentCallbackEvent parse(JsonNode root) throws Exception;
+    }
+
+    private final ObjectMapper objectMapper;
+    private final PaymentCallbackProducer callbackProducer;
+    private final int batchSize;
+    private final long maxLines;
+    private final long publishTimeoutMs;
+
+    public WebhookBulkIngestor(ObjectMapper objectMapper,
+                               PaymentCallbackProducer callbackProducer,
+                               @Value("${payment.webhooks.bulk.batch-size:500}") int batchSize,
+                               @Value("${payment.webhooks.bulk.max-lines:100000}") long maxLines,
+                               @Value("${payment.webhooks.bulk.publish-timeout-ms:30000}") long publishTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.callbackProducer = callbackProducer;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxLines = maxLines;
+        this.publishTimeoutMs = publishTimeoutMs;
+    }
+
+    /**
+     * Ingests an NDJSON body. Unparseable lines are rejected individually; if a batch cannot be
+     * published, its lines are marked failed and processing stops with {@code resumeFromLine} set.
+     *
+     * @param body the raw request body
+     * @param gzip whether the body is gzip-compressed
+     * @param parser converts each JSON line into a callback event
+     * @return line counts, with the rejected and failed lines ordered by line number
+     * @throws IOException when the body cannot be read or decompressed
+     */
+    public BulkIngestionResultDto ingest(InputStream body, boolean gzip, LineParser parser) throws IOException {
+        InputStream in = gzip ? new GZIPInputStream(body, BUFFER_SIZE) : body;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        BulkIngestionResultDto result = new BulkIngestionResultDto();
+        List<PaymentCallbackEvent> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        long processed = 0;
+        boolean publishFailed = false;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (++processed > maxLines) {
+                log.warn("Bulk ingestion stopped at line {}: limit of {} lines reached", lineNumber, maxLines);
+                result.setResumeFromLine(lineNumber);
+                break;
+            }
+            try {
+                PaymentCallbackEvent event = parser.parse(objectMapper.readTree(line));
+                batch.add(event);
+                batchLines.add(lineNumber);
+            } catch (Exception e) {
+                result.add(new LineResult(lineNumber, LineStatus.REJECTED, null, describe(e)));
+            }
+            if (batch.size() >= batchSize && !publish(batch, batchLines, result)) {
+                publishFailed = true;
+                break;
+            }
+        }
+        if (!publishFailed && !batch.isEmpty()) {
+            // a failed final batch moves the resume point back to its first line
+            publish(batch, batchLines, result);
+        }
+
+        result.getResults().sort(Comparator.comparingLong(LineResult::getLine));
+        log.info("Bulk ingestion finished: {} accepted, {} rejected, {} failed",
+                result.getAccepted(), result.getRejected(), result.getFailed());
+        return result;
+    }
+
+    private boolean publish(List<PaymentCallbackEvent> batch, List<Long> batchLines, BulkIngestionResultDto result) {
+        String error = null;
+        try {
+            callbackProducer.sendBatch(batch).get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Interrupted while publishing";
+        } catch (ExecutionException | TimeoutException e) {
+            error = "Publish failed: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        }
+
+        if (error == null) {
+            result.addAccepted(batch.size());
+        } else {
+            for (int i = 0; i < batch.size(); i++) {
+                result.add(new LineResult(batchLines.get(i), LineStatus.FAILED, batch.get(i).getCorrelationId(), error));
+            }
+            log.error("Bulk ingestion batch starting at line {} failed: {}", batchLines.get(0), error);
+            result.setResumeFromLine(batchLines.get(0));
+        }
+        batch.clear();
+        batchLines.clear();
+        return error == null;
+    }
+
+    private String describe(Exception e) {
+        return e instanceof JsonProcessingException jpe ? jpe.getOriginalMessage() : e.getMessage();
+    }
+}
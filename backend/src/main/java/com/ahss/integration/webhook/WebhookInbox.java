@@ -0,0 +1,49 @@
+package com.ahss.integration.webhook;
+
+import com.ahss.entity.WebhookInboxEvent;
+import com.ahss.repository.WebhookInboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entry point of the fast-ack ingestion mode. When {@code payment.webhooks.ingestion.mode=async}
+ * webhook controllers append the raw delivery here and acknowledge immediately; the
+ * {@link WebhookInboxProcessor} parses and publishes it off the request thread.
+ */
+@Component
+public class WebhookInbox {
+
+    public static final String MODE_ASYNC = "async";
+
+    private final WebhookInboxRepository repository;
+    private final boolean asyncIngestion;
+
+    public WebhookInbox(WebhookInboxRepository repository,
+                        @Value("${payment.webhooks.ingestion.mode:sync}") String mode) {
+        this.repository = repository;
+        this.asyncIngestion = MODE_ASYNC.equalsIgnoreCase(mode);
+    }
+
+    public boolean isAsyncIngestion() {
+        return asyncIngestion;
+    }
+
+    /**
+     * Durably stores the raw webhook body and headers. Once this returns the delivery
+     * survives a crash and will be published by the processor.
+     */
+    public WebhookInboxEvent append(String gatewayName, String body, Map<String, String> headers) {
+        Map<String, String> presentHeaders = new HashMap<>();
+        if (headers != null) {
+            headers.forEach((name, value) -> {
+                if (value != null) {
+                    presentHeaders.put(name, value);
+                }
+            });
+        }
+        return repository.save(new WebhookInboxEvent(gatewayName, body, presentHeaders));
+    }
+}
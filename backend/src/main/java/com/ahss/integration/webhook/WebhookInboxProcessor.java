@@ -0,0 +1,138 @@
+package com.ahss.integration.webhook;
+
+import com.ahss.entity.WebhookInboxEvent;
+import com.ahss.enums.WebhookInboxStatus;
+import com.ahss.kafka.event.PaymentCallbackEvent;
+import com.ahss.kafka.producer.PaymentCallbackProducer;
+import com.ahss.repository.WebhookInboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background pipeline for the fast-ack ingestion mode. Drains pending inbox rows in arrival
+ * order, parses them with the owning gateway's webhook handler, publishes the resulting
+ * callbacks as one producer batch and marks the rows published only after Kafka has
+ * acknowledged every record.
+ *
+ * <p>Rows are locked with {@code FOR UPDATE SKIP LOCKED} inside the batch transaction. If the
+ * process dies or Kafka is unavailable the transaction rolls back and the rows are picked up
+ * again, so delivery to Kafka is at-least-once and replay after a crash needs no manual step.
+ * Payloads that cannot be parsed are marked FAILED so they never block the queue.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.webhooks.ingestion", name = "mode", havingValue = WebhookInbox.MODE_ASYNC)
+public class WebhookInboxProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookInboxProcessor.class);
+
+    private final WebhookInboxRepository repository;
+    private final PaymentCallbackProducer callbackProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, BaseWebhookController> handlersByGateway = new HashMap<>();
+    private final int batchSize;
+    private final long publishTimeoutMs;
+
+    public WebhookInboxProcessor(WebhookInboxRepository repository,
+                                 PaymentCallbackProducer callbackProducer,
+                                 PlatformTransactionManager transactionManager,
+                                 List<BaseWebhookController> handlers,
+                                 @Value("${payment.webhooks.ingestion.batch-size:200}") int batchSize,
+                                 @Value("${payment.webhooks.ingestion.publish-timeout-ms:10000}") long publishTimeoutMs) {
+        this.repository = repository;
+        this.callbackProducer = callbackProducer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        handlers.forEach(handler -> handlersByGateway.put(handler.gatewayName(), handler));
+        this.batchSize = batchSize;
+        this.publishTimeoutMs = publishTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.webhooks.ingestion.poll-interval-ms:200}")
+    public void drain() {
+        try {
+            int processed;
+            do {
+                processed = processBatch();
+            } while (processed == batchSize);
+        } catch (Exception e) {
+            log.warn("Webhook inbox drain interrupted, pending deliveries will be retried: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Processes one batch of pending deliveries in a single transaction.
+     *
+     * @return the number of inbox rows consumed
+     */
+    public int processBatch() {
+        Integer processed = transactionTemplate.execute(status -> {
+            List<WebhookInboxEvent> batch = repository.lockPendingBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<PaymentCallbackEvent> events = new ArrayList<>(batch.size());
+            List<Long> parsedIds = new ArrayList<>(batch.size());
+            List<WebhookInboxEvent> failed = new ArrayList<>();
+            for (WebhookInboxEvent entry : batch) {
+                try {
+                    events.add(parse(entry));
+                    parsedIds.add(entry.getId());
+                } catch (Exception e) {
+                    log.error("Unparseable {} webhook in inbox row {}: {}",
+                            entry.getGatewayName(), entry.getId(), e.getMessage());
+                    entry.setStatus(WebhookInboxStatus.FAILED);
+                    entry.setLastError(e.getMessage());
+                    entry.setProcessedAt(now);
+                    failed.add(entry);
+                }
+            }
+
+            if (!events.isEmpty()) {
+                awaitAcks(events);
+                repository.updateStatus(parsedIds, WebhookInboxStatus.PUBLISHED, now);
+            }
+            if (!failed.isEmpty()) {
+                repository.saveAll(failed);
+            }
+            log.debug("Webhook inbox batch: {} published, {} failed", parsedIds.size(), failed.size());
+            return batch.size();
+        });
+        return processed != null ? processed : 0;
+    }
+
+    private PaymentCallbackEvent parse(WebhookInboxEvent entry) throws Exception {
+        BaseWebhookController handler = handlersByGateway.get(entry.getGatewayName());
+        if (handler == null) {
+            throw new IllegalStateException("No webhook handler for gateway " + entry.getGatewayName());
+        }
+        Map<String, String> headers = entry.getHeaders() != null ? entry.getHeaders() : Map.of();
+        PaymentCallbackEvent event = handler.toCallbackEvent(entry.getPayload(), headers);
+        event.setReceivedAt(entry.getReceivedAt());
+        return event;
+    }
+
+    private void awaitAcks(List<PaymentCallbackEvent> events) {
+        try {
+            callbackProducer.sendBatch(events).get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing webhook batch", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to publish webhook batch: " + e.getMessage(), e);
+        }
+    }
+}
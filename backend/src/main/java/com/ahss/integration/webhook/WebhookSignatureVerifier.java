@@ -0,0 +1,226 @@
+package com.ahss.integration.webhook;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies HMAC-SHA256 webhook signatures before a delivery is parsed or published.
+ *
+ * <p>Stripe and Bank Transfer sign deliveries as {@code t=<unix seconds>,v1=<hex hmac>} over
+ * {@code "<t>.<raw body>"}. Each configured {@code webhookSecret} may hold several comma-separated
+ * secrets so a new secret can be rolled out before the old one is retired; a signature matching
+ * any of them is accepted. Keys are derived once at startup and every thread keeps its own
+ * initialised {@link Mac} per key, so verification allocates no crypto state per request.
+ * Digests are compared in constant time.</p>
+ *
+ * <p>PayPal signs with a certificate chain rather than a shared secret, so it has no scheme here
+ * and its deliveries pass through unchanged.</p>
+ */
+@Component
+public class WebhookSignatureVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookSignatureVerifier.class);
+
+    static final String ALGORITHM = "HmacSHA256";
+    static final String REJECTED_METRIC = "webhook.signature.rejected";
+
+    /**
+     * Outcome of a verification; anything other than {@code VERIFIED} or {@code NOT_APPLICABLE} is a rejection.
+     */
+    public enum Result {
+        VERIFIED,
+        NOT_APPLICABLE,
+        MISSING_SIGNATURE,
+        MALFORMED_SIGNATURE,
+        TIMESTAMP_OUT_OF_TOLERANCE,
+        SIGNATURE_MISMATCH;
+
+        public boolean isAccepted() {
+            return this == VERIFIED || this == NOT_APPLICABLE;
+        }
+    }
+
+    /**
+     * A secret with one lazily initialised {@link Mac} per thread; {@code doFinal} resets the
+     * instance to its keyed state so it is reused for every subsequent request on that thread.
+     */
+    private static final class SigningKey {
+        private final ThreadLocal<Mac> mac;
+
+        SigningKey(byte[] secret) {
+            SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac m = Mac.getInstance(ALGORITHM);
+                    m.init(key);
+                    return m;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("HMAC-SHA256 is not available", e);
+                }
+            });
+        }
+
+        byte[] sign(byte[] timestamp, byte[] body) {
+            Mac m = mac.get();
+            m.update(timestamp);
+            m.update((byte) '.');
+            m.update(body);
+            return m.doFinal();
+        }
+    }
+
+    private record Scheme(String header, List<SigningKey> keys) {}
+
+    private final Map<String, Scheme> schemes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enforce;
+    private final long toleranceSeconds;
+    private final Clock clock;
+
+    @Autowired
+    public WebhookSignatureVerifier(
+            MeterRegistry meterRegistry,
+            @Value("${payment.gateways.stripe.webhookSecret:}") String stripeSecrets,
+            @Value("${payment.gateways.bankTransfer.webhookSecret:}") String bankTransferSecrets,
+            @Value("${payment.webhooks.signature.enforce:true}") boolean enforce,
+            @Value("${payment.webhooks.signature.tolerance-seconds:300}") long toleranceSeconds) {
+        this(meterRegistry, enforce, toleranceSeconds, Clock.systemUTC());
+        register("Stripe", "Stripe-Signature", stripeSecrets);
+        register("BankTransfer", "X-Bank-Signature", bankTransferSecrets);
+    }
+
+    WebhookSignatureVerifier(MeterRegistry meterRegistry, boolean enforce, long toleranceSeconds, Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.enforce = enforce;
+        this.toleranceSeconds = toleranceSeconds;
+        this.clock = clock;
+    }
+
+    /**
+     * Registers the signing scheme for a gateway. Blank secrets leave the gateway unverified.
+     *
+     * @param gatewayName the gateway name as reported by the webhook controller
+     * @param header the request header carrying the signature
+     * @param secrets one or more comma-separated secrets, all accepted while a rotation is in progress
+     */
+    void register(String gatewayName, String header, String secrets) {
+        List<SigningKey> keys = new ArrayList<>();
+        if (secrets != null) {
+            for (String secret : secrets.split(",")) {
+                if (!secret.isBlank()) {
+                    keys.add(new SigningKey(secret.trim().getBytes(StandardCharsets.UTF_8)));
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            log.warn("No webhook secret configured for {}; its signatures will not be verified", gatewayName);
+            return;
+        }
+        schemes.put(gatewayName, new Scheme(header, List.copyOf(keys)));
+    }
+
+    /**
+     * Whether a rejected signature should fail the request; when false rejections are only counted and logged.
+     */
+    public boolean isEnforced() {
+        return enforce;
+    }
+
+    /**
+     * Verifies the signature of a raw delivery without parsing its body.
+     *
+     * @param gatewayName the gateway the delivery was posted to
+     * @param body the raw request body exactly as received
+     * @param headers the request headers relevant to the gateway
+     * @return the verification outcome; rejections are counted per gateway and reason
+     */
+    public Result verify(String gatewayName, String body, Map<String, String> headers) {
+        Scheme scheme = schemes.get(gatewayName);
+        if (scheme == null) {
+            return Result.NOT_APPLICABLE;
+        }
+        Result result = check(scheme, body, headers != null ? headers.get(scheme.header()) : null);
+        if (!result.isAccepted()) {
+            rejectionCounter(gatewayName, result).increment();
+            log.warn("{} webhook signature rejected: {}{}", gatewayName, result, enforce ? "" : " (not enforced)");
+        }
+        return result;
+    }
+
+    private Result check(Scheme scheme, String body, String header) {
+        if (header == null || header.isBlank()) {
+            return Result.MISSING_SIGNATURE;
+        }
+        String timestamp = null;
+        List<byte[]> candidates = new ArrayList<>(2);
+        try {
+            for (String part : header.split(",")) {
+                int eq = part.indexOf('=');
+                if (eq <= 0) {
+                    continue;
+                }
+                String name = part.substring(0, eq).trim();
+                String value = part.substring(eq + 1).trim();
+                if ("t".equals(name)) {
+                    timestamp = value;
+                } else if ("v1".equals(name)) {
+                    candidates.add(HexFormat.of().parseHex(value));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return Result.MALFORMED_SIGNATURE;
+        }
+        if (timestamp == null || candidates.isEmpty()) {
+            return Result.MALFORMED_SIGNATURE;
+        }
+
+        long signedAt;
+        try {
+            signedAt = Long.parseLong(timestamp);
+        } catch (NumberFormatException e) {
+            return Result.MALFORMED_SIGNATURE;
+        }
+        if (toleranceSeconds > 0 && Math.abs(clock.instant().getEpochSecond() - signedAt) > toleranceSeconds) {
+            return Result.TIMESTAMP_OUT_OF_TOLERANCE;
+        }
+
+        byte[] timestampBytes = timestamp.getBytes(StandardCharsets.US_ASCII);
+        byte[] bodyBytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        boolean matched = false;
+        for (SigningKey key : scheme.keys()) {
+            byte[] expected = key.sign(timestampBytes, bodyBytes);
+            for (byte[] candidate : candidates) {
+                // no early exit, so the time taken does not reveal which key or candidate matched
+                matched |= MessageDigest.isEqual(expected, candidate);
+            }
+        }
+        return matched ? Result.VERIFIED : Result.SIGNATURE_MISMATCH;
+    }
+
+    private Counter rejectionCounter(String gatewayName, Result reason) {
+        return rejectionCounters.computeIfAbsent(gatewayName + ':' + reason, k ->
+                Counter.builder(REJECTED_METRIC)
+                        .description("Webhook deliveries rejected by signature verification")
+                        .tag("gateway", gatewayName)
+                        .tag("reason", reason.name())
+                        .register(meterRegistry));
+    }
+}
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Minimal base producer that serializes an event to JSON and sends to Kafka.
  * Concrete producers should delegate to {@link #sendJson(String, String, Object)}.
@@ -29,4 +31,18 @@ abstract class BaseJsonKafkaProducer {
             throw new RuntimeException("Failed to serialize event to JSON", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Serializes and sends the event, returning a future that completes once the broker
+     * acknowledges the record. Callers that must not lose events wait on the future.
+     */
+    protected CompletableFuture<?> sendJsonAsync(String topic, String key, Object event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            log.debug("Sending JSON payload to topic {}: {}", topic, payload);
+            return kafkaTemplate.send(topic, key, payload);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to serialize event to JSON", e));
+        }
+    }
+}
@@ -7,6 +7,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Component
 public class PaymentCallbackProducer extends BaseJsonKafkaProducer {
@@ -27,4 +30,17 @@ public class PaymentCallbackProducer extends BaseJsonKafkaProducer {
         String key = event.getCorrelationId() != null ? event.getCorrelationId() : null;
         sendJson(callbacksTopic, key, event);
     }
-}
\ No newline at end of file
+
+    /**
+     * Sends a batch of events in one go so the producer can pack them into few requests.
+     *
+     * @return a future completing when every event in the batch has been acknowledged
+     */
+    public CompletableFuture<Void> sendBatch(List<PaymentCallbackEvent> events) {
+        log.debug("Sending batch of {} payment callbacks", events.size());
+        CompletableFuture<?>[] acks = events.stream()
+                .map(event -> sendJsonAsync(callbacksTopic, event.getCorrelationId(), event))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(acks);
+    }
+}
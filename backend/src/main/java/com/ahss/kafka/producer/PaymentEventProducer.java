@@ -6,6 +6,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Component
 public class PaymentEventProducer extends BaseJsonKafkaProducer {
 
@@ -23,4 +26,15 @@ public class PaymentEventProducer extends BaseJsonKafkaProducer {
     public void send(PaymentDomainEvent event) {
         sendJson(eventsTopic, event.getCorrelationId(), event);
     }
+
+    /**
+     * Hands all events to the producer back to back so they share batches, and completes
+     * once the broker has acknowledged every one of them.
+     */
+    public CompletableFuture<Void> sendAll(List<PaymentDomainEvent> events) {
+        CompletableFuture<?>[] sends = events.stream()
+                .map(event -> sendJsonAsync(eventsTopic, event.getCorrelationId(), event))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(sends);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.ahss.maintenance;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Base for jobs that walk a table in UUID-keyed chunks, one transaction per chunk. Rows are
+ * visited in primary key order after the shard's checkpoint, which is the largest id of the
+ * last committed chunk.
+ *
+ * <p>Shards split rows by a hash of the id rather than by id range: the ids are UUIDv7, so
+ * ranges would put all recent rows in one shard. Subclass SQL adds
+ * {@link #shardAndCursor(String)} to its filter and binds, in order, the shard count, the
+ * shard, the cursor and then the chunk limit.
+ */
+public abstract class ChunkedMaintenanceJob<T> implements MaintenanceJob {
+
+    static final String FIRST_ID = "00000000-0000-0000-0000-000000000000";
+
+    protected final JdbcTemplate jdbcTemplate;
+    protected final Clock clock;
+    private final TransactionOperations transactions;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    protected ChunkedMaintenanceJob(JdbcTemplate jdbcTemplate, TransactionOperations transactions, Clock clock,
+                                    int batchSize, int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * SQL predicate keeping the rows of one shard that come after the cursor; binds the shard
+     * count, the shard and the cursor.
+     */
+    static String shardAndCursor(String idColumn) {
+        return "(hashtext(" + idColumn + "::text) & 2147483647) % ? = ? AND " + idColumn + " > CAST(? AS uuid)";
+    }
+
+    @Override
+    public boolean run(JobContext context) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        String cursor = context.checkpoint() != null ? context.checkpoint() : FIRST_ID;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            String after = cursor;
+            List<T> chunk = transactions.execute(
+                    status -> processChunk(now, context.shardCount(), context.shard(), after, batchSize));
+            if (chunk == null || chunk.isEmpty()) {
+                return true;
+            }
+            for (T item : chunk) {
+                // Canonical lower-case UUID strings sort like Postgres uuids
+                String id = idOf(item).toString();
+                if (id.compareTo(cursor) > 0) {
+                    cursor = id;
+                }
+            }
+            afterCommit(chunk);
+            if (!context.checkpoint(cursor, chunk.size())) {
+                return false;
+            }
+            if (chunk.size() < batchSize) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the job over all rows in the calling thread, without a lease, up to
+     * {@code max-batches-per-run} chunks. Must not be called inside a transaction, or the
+     * chunks would not commit on their own.
+     *
+     * @return the number of rows processed
+     */
+    protected int runUnsharded() {
+        LocalJobContext context = new LocalJobContext();
+        run(context);
+        return context.processed();
+    }
+
+    /**
+     * Processes up to {@code limit} rows of the shard after {@code after}, inside the chunk's
+     * transaction.
+     */
+    protected abstract List<T> processChunk(LocalDateTime now, int shardCount, int shard, String after, int limit);
+
+    protected abstract UUID idOf(T item);
+
+    /**
+     * Called once the chunk has committed, e.g. to publish events.
+     */
+    protected void afterCommit(List<T> chunk) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.ahss.maintenance;
+
+/**
+ * The shard a {@link MaintenanceJob} run owns and where it left off last time.
+ */
+public interface JobContext {
+
+    int shard();
+
+    int shardCount();
+
+    /**
+     * The cursor saved by the last {@link #checkpoint(String, int)} of this shard, or null to
+     * start from the beginning.
+     */
+    String checkpoint();
+
+    /**
+     * Records progress after a committed chunk and extends the lease.
+     *
+     * @return false if the lease has been lost or the node is shutting down; the job should
+     *         stop without doing more work
+     */
+    boolean checkpoint(String cursor, int processed);
+}
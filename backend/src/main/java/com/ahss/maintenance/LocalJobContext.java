@@ -0,0 +1,37 @@
+package com.ahss.maintenance;
+
+/**
+ * Unleased, single-shard context for running a job inline, e.g. from a service method.
+ * Progress lives only for the duration of the call.
+ */
+class LocalJobContext implements JobContext {
+
+    private String checkpoint;
+    private int processed;
+
+    @Override
+    public int shard() {
+        return 0;
+    }
+
+    @Override
+    public int shardCount() {
+        return 1;
+    }
+
+    @Override
+    public String checkpoint() {
+        return checkpoint;
+    }
+
+    @Override
+    public boolean checkpoint(String cursor, int processed) {
+        this.checkpoint = cursor;
+        this.processed += processed;
+        return true;
+    }
+
+    int processed() {
+        return processed;
+    }
+}
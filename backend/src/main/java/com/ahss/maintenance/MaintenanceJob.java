@@ -0,0 +1,24 @@
+package com.ahss.maintenance;
+
+/**
+ * A unit of background maintenance that {@link MaintenanceJobScheduler} runs under a lease,
+ * one shard at a time. Implementations must be idempotent: a shard whose lease expires while
+ * a node is still working on it is handed to another node, which resumes from the last
+ * checkpoint and may see the same rows again.
+ */
+public interface MaintenanceJob {
+
+    /**
+     * Stable job name, used as the key of the job's rows in {@code maintenance_job_lease} and
+     * under {@code payment.jobs.schedules}.
+     */
+    String name();
+
+    /**
+     * Works through the rows of {@code context.shard()} from {@code context.checkpoint()} on.
+     *
+     * @return true when the shard has nothing left to do, false when the run stopped early
+     *         (per-run limit reached or lease lost) and should be resumed from its checkpoint
+     */
+    boolean run(JobContext context);
+}
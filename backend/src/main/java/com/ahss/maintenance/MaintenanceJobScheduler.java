@@ -0,0 +1,350 @@
+package com.ahss.maintenance;
+
+import com.ahss.datasource.UseWorkload;
+import com.ahss.datasource.Workload;
+import com.ahss.datasource.WorkloadContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@link MaintenanceJob}s on every replica without duplicating work. Each job is
+ * split into {@code shards} rows of {@code maintenance_job_lease} (V33); a node runs a shard
+ * only while it holds the row's lease, claimed with {@code FOR UPDATE SKIP LOCKED} and
+ * extended at every checkpoint. More replicas therefore means more shards worked on at once,
+ * up to the shard count.
+ *
+ * <p>A shard that finishes is due again {@code interval-seconds} later. One that stops early
+ * keeps its checkpoint and is due immediately, so any node can pick it up where it stopped.
+ * If a node dies its leases run out after {@code lease-seconds} and the shards are claimed
+ * again from their last checkpoint. All times come from the database clock, so replica clock
+ * skew does not matter.
+ *
+ * <p>All replicas should use the same shard count per job: registering a different count
+ * resets the job's checkpoints.
+ */
+public class MaintenanceJobScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(MaintenanceJobScheduler.class);
+
+    static final String RUN_METRIC = "maintenance.job.run";
+    static final String PROCESSED_METRIC = "maintenance.job.processed";
+    static final String ACTIVE_METRIC = "maintenance.job.active";
+
+    static final String OUTCOME_FINISHED = "finished";
+    static final String OUTCOME_PARTIAL = "partial";
+    static final String OUTCOME_LEASE_LOST = "lease-lost";
+    static final String OUTCOME_FAILED = "failed";
+
+    static final String REGISTER_SQL =
+            "INSERT INTO maintenance_job_lease (job_name, shard, shard_count) " +
+            "SELECT ?, s, ? FROM generate_series(0, ? - 1) AS s " +
+            "ON CONFLICT (job_name, shard) DO UPDATE SET shard_count = EXCLUDED.shard_count, checkpoint = NULL " +
+            "WHERE maintenance_job_lease.shard_count <> EXCLUDED.shard_count";
+
+    static final String PRUNE_SQL = "DELETE FROM maintenance_job_lease WHERE job_name = ? AND shard >= ?";
+
+    static final String CLAIM_SQL =
+            "UPDATE maintenance_job_lease l SET owner = ?, " +
+            "lease_until = LOCALTIMESTAMP + ? * INTERVAL '1 second', last_started_at = LOCALTIMESTAMP " +
+            "FROM (SELECT job_name, shard FROM maintenance_job_lease " +
+            "WHERE job_name = ? AND next_run_at <= LOCALTIMESTAMP " +
+            "AND (lease_until IS NULL OR lease_until < LOCALTIMESTAMP) " +
+            "ORDER BY next_run_at LIMIT 1 FOR UPDATE SKIP LOCKED) due " +
+            "WHERE l.job_name = due.job_name AND l.shard = due.shard " +
+            "RETURNING l.shard, l.shard_count, l.checkpoint";
+
+    static final String CHECKPOINT_SQL =
+            "UPDATE maintenance_job_lease SET checkpoint = ?, lease_until = LOCALTIMESTAMP + ? * INTERVAL '1 second' " +
+            "WHERE job_name = ? AND shard = ? AND owner = ?";
+
+    static final String RELEASE_SQL =
+            "UPDATE maintenance_job_lease SET owner = NULL, lease_until = NULL, checkpoint = ?, " +
+            "next_run_at = LOCALTIMESTAMP + ? * INTERVAL '1 second', last_ended_at = LOCALTIMESTAMP, " +
+            "last_processed = ?, last_error = ? " +
+            "WHERE job_name = ? AND shard = ? AND owner = ?";
+
+    static final String RELEASE_ALL_SQL =
+            "UPDATE maintenance_job_lease SET owner = NULL, lease_until = NULL WHERE owner = ?";
+
+    /**
+     * How often and how widely one job runs; bound from {@code payment.jobs.schedules.<job>}.
+     */
+    public static class Schedule {
+        private boolean enabled = true;
+        private long intervalSeconds = 300;
+        private int shards = 1;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public long getIntervalSeconds() { return intervalSeconds; }
+        public void setIntervalSeconds(long intervalSeconds) { this.intervalSeconds = intervalSeconds; }
+        public int getShards() { return shards; }
+        public void setShards(int shards) { this.shards = shards; }
+    }
+
+    record Lease(int shard, int shardCount, String checkpoint) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<MaintenanceJob, Schedule> jobs = new LinkedHashMap<>();
+    private final long leaseSeconds;
+    private final String owner;
+    private final ExecutorService workers;
+    private final Semaphore permits;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile boolean registered;
+    private volatile boolean stopping;
+
+    public MaintenanceJobScheduler(JdbcTemplate jdbcTemplate, List<MaintenanceJob> jobs,
+                                   Map<String, Schedule> schedules, long leaseSeconds, int workerThreads,
+                                   MeterRegistry meterRegistry) {
+        this(jdbcTemplate, jobs, schedules, leaseSeconds, workerThreads, meterRegistry, defaultOwner(),
+                Executors.newFixedThreadPool(workerThreads, runnable -> {
+                    Thread thread = new Thread(runnable, "maintenance-job");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    MaintenanceJobScheduler(JdbcTemplate jdbcTemplate, List<MaintenanceJob> jobs, Map<String, Schedule> schedules,
+                            long leaseSeconds, int workerThreads, MeterRegistry meterRegistry, String owner,
+                            ExecutorService workers) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (MaintenanceJob job : jobs) {
+            Schedule schedule = schedules.getOrDefault(job.name(), new Schedule());
+            if (schedule.isEnabled() && schedule.getShards() > 0) {
+                this.jobs.put(job, schedule);
+            }
+        }
+        this.leaseSeconds = leaseSeconds;
+        this.owner = owner;
+        this.workers = workers;
+        this.permits = new Semaphore(workerThreads);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(ACTIVE_METRIC, active, AtomicInteger::get)
+                .description("Maintenance job shards running on this node")
+                .register(meterRegistry);
+    }
+
+    private static String defaultOwner() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Claims due shards, one per job per pass, until the workers are busy or nothing is due,
+     * and hands them to the worker pool.
+     */
+    @Scheduled(fixedDelayString = "${payment.jobs.poll-interval-ms:5000}")
+    @UseWorkload(Workload.JOBS)
+    public void poll() {
+        if (stopping) {
+            return;
+        }
+        try {
+            if (!registered) {
+                register();
+            }
+            boolean claimed = true;
+            while (claimed) {
+                claimed = false;
+                for (Map.Entry<MaintenanceJob, Schedule> entry : jobs.entrySet()) {
+                    if (!permits.tryAcquire()) {
+                        return;
+                    }
+                    Lease lease = claim(entry.getKey());
+                    if (lease == null) {
+                        permits.release();
+                        continue;
+                    }
+                    claimed = true;
+                    submit(entry.getKey(), entry.getValue(), lease);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Maintenance job poll failed, retrying on the next tick: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the lease rows for every enabled job and drops shards beyond its current count.
+     */
+    void register() {
+        for (Map.Entry<MaintenanceJob, Schedule> entry : jobs.entrySet()) {
+            String name = entry.getKey().name();
+            int shards = entry.getValue().getShards();
+            jdbcTemplate.update(REGISTER_SQL, name, shards, shards);
+            jdbcTemplate.update(PRUNE_SQL, name, shards);
+        }
+        registered = true;
+    }
+
+    Lease claim(MaintenanceJob job) {
+        List<Lease> leases = jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new Lease(rs.getInt(1), rs.getInt(2), rs.getString(3)),
+                owner, leaseSeconds, job.name());
+        return leases.isEmpty() ? null : leases.get(0);
+    }
+
+    private void submit(MaintenanceJob job, Schedule schedule, Lease lease) {
+        try {
+            workers.execute(() -> {
+                try {
+                    WorkloadContext.run(Workload.JOBS, () -> execute(job, schedule, lease));
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down: hand the shard straight back
+            permits.release();
+            release(job, lease, lease.checkpoint(), 0, 0, null);
+        }
+    }
+
+    void execute(MaintenanceJob job, Schedule schedule, Lease lease) {
+        ShardContext context = new ShardContext(job.name(), lease);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        active.incrementAndGet();
+        String outcome;
+        try {
+            boolean finished = job.run(context);
+            if (context.lost) {
+                outcome = OUTCOME_LEASE_LOST;
+                log.warn("Lost the lease on {} shard {}/{} after {} row(s)", job.name(), lease.shard(),
+                        lease.shardCount(), context.processed);
+            } else if (finished) {
+                outcome = OUTCOME_FINISHED;
+                release(job, lease, null, schedule.getIntervalSeconds(), context.processed, null);
+            } else {
+                outcome = OUTCOME_PARTIAL;
+                release(job, lease, context.cursor, 0, context.processed, null);
+            }
+        } catch (RuntimeException e) {
+            outcome = OUTCOME_FAILED;
+            log.error("Maintenance job {} shard {}/{} failed: {}", job.name(), lease.shard(), lease.shardCount(),
+                    e.getMessage(), e);
+            release(job, lease, context.cursor, schedule.getIntervalSeconds(), context.processed, e.getMessage());
+        } finally {
+            active.decrementAndGet();
+        }
+        sample.stop(Timer.builder(RUN_METRIC)
+                .description("Maintenance job shard runs")
+                .tag("job", job.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        if (context.processed > 0) {
+            Counter.builder(PROCESSED_METRIC)
+                    .description("Rows processed by maintenance jobs")
+                    .tag("job", job.name())
+                    .register(meterRegistry)
+                    .increment(context.processed);
+        }
+    }
+
+    private void release(MaintenanceJob job, Lease lease, String checkpoint, long delaySeconds, int processed,
+                         String error) {
+        try {
+            jdbcTemplate.update(RELEASE_SQL, checkpoint, delaySeconds, processed, error, job.name(), lease.shard(),
+                    owner);
+        } catch (DataAccessException e) {
+            // The lease runs out on its own and the shard is claimed again from its checkpoint
+            log.warn("Could not release {} shard {}: {}", job.name(), lease.shard(), e.getMessage());
+        }
+    }
+
+    /**
+     * Stops claiming, lets running chunks finish and hands this node's leases back so other
+     * replicas can resume the shards without waiting for them to expire.
+     */
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(leaseSeconds, TimeUnit.SECONDS)) {
+                log.warn("Maintenance jobs still running at shutdown; their leases will expire");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            jdbcTemplate.update(RELEASE_ALL_SQL, owner);
+        } catch (DataAccessException e) {
+            log.warn("Could not release maintenance job leases at shutdown: {}", e.getMessage());
+        }
+    }
+
+    String owner() {
+        return owner;
+    }
+
+    private class ShardContext implements JobContext {
+
+        private final String jobName;
+        private final Lease lease;
+        private String cursor;
+        private int processed;
+        private boolean lost;
+
+        ShardContext(String jobName, Lease lease) {
+            this.jobName = jobName;
+            this.lease = lease;
+            this.cursor = lease.checkpoint();
+        }
+
+        @Override
+        public int shard() {
+            return lease.shard();
+        }
+
+        @Override
+        public int shardCount() {
+            return lease.shardCount();
+        }
+
+        @Override
+        public String checkpoint() {
+            return lease.checkpoint();
+        }
+
+        @Override
+        public boolean checkpoint(String cursor, int processed) {
+            this.processed += processed;
+            this.cursor = cursor;
+            if (jdbcTemplate.update(CHECKPOINT_SQL, cursor, leaseSeconds, jobName, lease.shard(), owner) == 0) {
+                lost = true;
+                return false;
+            }
+            // Stop after this chunk; the shard is released as partial and due again right away
+            return !stopping;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.ahss.maintenance;
+
+import com.ahss.datasource.UseWorkload;
+import com.ahss.datasource.Workload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly range partitions of {@code payment_transaction} and
+ * {@code payment_audit_log} (see V31). On startup and then daily it creates the partitions
+ * for the current month and the configured number of months ahead, so inserts never hit a
+ * missing range, and detaches partitions older than the retention window.
+ *
+ * <p>Detaching uses {@code DETACH PARTITION ... CONCURRENTLY}: the rows leave the live table
+ * without a long lock or a DELETE, and the detached table stays in the database for archiving
+ * or dropping. Retention is off (0) by default. Detached transactions keep their
+ * {@code payment_transaction_key} row, so refunds and audit entries that reference them stay
+ * valid.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.partitioning", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentPartitionManager.class);
+
+    static final String TRANSACTION_TABLE = "payment_transaction";
+    static final String AUDIT_LOG_TABLE = "payment_audit_log";
+
+    private static final Pattern PARTITION_SUFFIX = Pattern.compile("_y(\\d{4})m(\\d{2})$");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final int monthsAhead;
+    private final Map<String, Integer> retentionMonths = new LinkedHashMap<>();
+
+    @Autowired
+    public PaymentPartitionManager(JdbcTemplate jdbcTemplate,
+                                   @Value("${payment.partitioning.months-ahead:3}") int monthsAhead,
+                                   @Value("${payment.partitioning.transaction.retention-months:0}") int transactionRetentionMonths,
+                                   @Value("${payment.partitioning.audit-log.retention-months:0}") int auditLogRetentionMonths) {
+        this(jdbcTemplate, Clock.systemDefaultZone(), monthsAhead, transactionRetentionMonths, auditLogRetentionMonths);
+    }
+
+    PaymentPartitionManager(JdbcTemplate jdbcTemplate, Clock clock, int monthsAhead,
+                            int transactionRetentionMonths, int auditLogRetentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.monthsAhead = monthsAhead;
+        retentionMonths.put(TRANSACTION_TABLE, transactionRetentionMonths);
+        retentionMonths.put(AUDIT_LOG_TABLE, auditLogRetentionMonths);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${payment.partitioning.cron:0 15 2 * * *}")
+    @UseWorkload(Workload.JOBS)
+    public void maintain() {
+        for (String table : retentionMonths.keySet()) {
+            try {
+                int created = ensurePartitions(table);
+                if (created > 0) {
+                    log.info("Created {} partition(s) for {}", created, table);
+                }
+                List<String> detached = detachExpiredPartitions(table);
+                if (!detached.isEmpty()) {
+                    log.info("Detached expired partitions of {}: {}", table, detached);
+                }
+            } catch (DataAccessException e) {
+                // Another instance may be doing the same work; the next run catches up
+                log.warn("Partition maintenance for {} failed: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Creates the missing partitions from the current month through {@code months-ahead}.
+     *
+     * @return the number of partitions created
+     */
+    public int ensurePartitions(String table) {
+        LocalDate currentMonth = LocalDate.now(clock).withDayOfMonth(1);
+        Integer created = jdbcTemplate.queryForObject(
+                "SELECT ensure_monthly_partitions(?::regclass, ?, ?)",
+                Integer.class, table, currentMonth, currentMonth.plusMonths(monthsAhead));
+        return created != null ? created : 0;
+    }
+
+    /**
+     * Detaches the partitions whose month lies entirely before the retention window.
+     *
+     * @return the names of the detached partitions
+     */
+    public List<String> detachExpiredPartitions(String table) {
+        int retention = retentionMonths.getOrDefault(table, 0);
+        if (retention <= 0) {
+            return List.of();
+        }
+        LocalDate oldestRetained = LocalDate.now(clock).withDayOfMonth(1).minusMonths(retention);
+
+        List<String> detached = new ArrayList<>();
+        for (String partition : listPartitions(table)) {
+            LocalDate month = partitionMonth(partition);
+            if (month != null && month.isBefore(oldestRetained)) {
+                // Names come from pg_inherits and the table from a fixed set, so concatenation is safe
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition + " CONCURRENTLY");
+                detached.add(partition);
+            }
+        }
+        return detached;
+    }
+
+    List<String> listPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = ?::regclass ORDER BY c.relname",
+                String.class, table);
+    }
+
+    static LocalDate partitionMonth(String partition) {
+        Matcher matcher = PARTITION_SUFFIX.matcher(partition);
+        if (!matcher.find()) {
+            return null;
+        }
+        return LocalDate.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), 1);
+    }
+}
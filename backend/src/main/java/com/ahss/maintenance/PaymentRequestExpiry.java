@@ -0,0 +1,163 @@
+package com.ahss.maintenance;
+
+import com.ahss.enums.PaymentRequestStatus;
+import com.ahss.kafka.event.PaymentDomainEvent;
+import com.ahss.kafka.producer.PaymentEventProducer;
+import com.ahss.util.UuidV7;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves PENDING payment requests whose {@code expires_at} has passed to EXPIRED in chunks.
+ * Each chunk is one transaction of two statements: an {@code UPDATE ... RETURNING} over the
+ * next {@code batch-size} due requests of the shard ({@code SKIP LOCKED}, so concurrent runs
+ * and payments in flight never block it), and a single {@code INSERT ... SELECT FROM unnest(...)}
+ * writing the chunk's audit rows. A {@code request.expired} event per request is published
+ * once the chunk has committed.
+ *
+ * <p>Events are sent after commit and not retried: a request that expired while the broker
+ * was unavailable is EXPIRED and audited, but its event is only logged as lost.
+ */
+@Component
+public class PaymentRequestExpiry extends ChunkedMaintenanceJob<PaymentRequestExpiry.Expired> {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentRequestExpiry.class);
+
+    static final String JOB_NAME = "expired-payment-requests";
+    static final String EXPIRED_METRIC = "payment.request.expired";
+    static final String EVENT_TYPE = "request.expired";
+    static final String AUDIT_ACTION = "EXPIRED";
+
+    static final String EXPIRE_SQL =
+            "WITH due AS (" +
+            "SELECT payment_request_id, status FROM payment_request " +
+            "WHERE status = 'PENDING' AND expires_at < ? AND " + shardAndCursor("payment_request_id") + " " +
+            "ORDER BY payment_request_id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "UPDATE payment_request r SET status = 'EXPIRED', version = r.version + 1 FROM due " +
+            "WHERE r.payment_request_id = due.payment_request_id " +
+            "RETURNING r.payment_request_id, due.status::text, r.request_code, r.tenant_id";
+
+    static final String AUDIT_SQL =
+            "INSERT INTO payment_audit_log (payment_audit_log_id, payment_request_id, action, entity_type, " +
+            "old_status, new_status, reason, created_at) " +
+            "SELECT a.id, a.payment_request_id, '" + AUDIT_ACTION + "', 'PAYMENT_REQUEST', a.old_status, " +
+            "'EXPIRED', 'Payment request expired', ? " +
+            "FROM unnest(CAST(? AS uuid[]), CAST(? AS uuid[]), CAST(? AS text[])) " +
+            "AS a(id, payment_request_id, old_status)";
+
+    record Expired(UUID id, String oldStatus, String requestCode, Long tenantId) {
+    }
+
+    private final PaymentEventProducer eventProducer;
+    private final Counter expired;
+
+    @Autowired
+    public PaymentRequestExpiry(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                PaymentEventProducer eventProducer,
+                                MeterRegistry meterRegistry,
+                                @Value("${payment.expiry.batch-size:500}") int batchSize,
+                                @Value("${payment.expiry.max-batches-per-run:200}") int maxBatchesPerRun) {
+        this(jdbcTemplate, new TransactionTemplate(transactionManager), eventProducer, meterRegistry,
+                Clock.systemDefaultZone(), batchSize, maxBatchesPerRun);
+    }
+
+    PaymentRequestExpiry(JdbcTemplate jdbcTemplate, TransactionOperations transactions,
+                         PaymentEventProducer eventProducer, MeterRegistry meterRegistry, Clock clock,
+                         int batchSize, int maxBatchesPerRun) {
+        super(jdbcTemplate, transactions, clock, batchSize, maxBatchesPerRun);
+        this.eventProducer = eventProducer;
+        this.expired = Counter.builder(EXPIRED_METRIC)
+                .description("Payment requests moved to EXPIRED by the expiry job")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return JOB_NAME;
+    }
+
+    /**
+     * Expires due requests across all shards in the calling thread, chunk by chunk until a
+     * chunk comes back partial or {@code max-batches-per-run} is reached. Must not be called
+     * inside a transaction, or the chunks would not commit on their own.
+     *
+     * @return the number of requests expired
+     */
+    public int expireDue() {
+        return runUnsharded();
+    }
+
+    @Override
+    protected List<Expired> processChunk(LocalDateTime now, int shardCount, int shard, String after, int limit) {
+        List<Expired> chunk = jdbcTemplate.query(EXPIRE_SQL,
+                (rs, rowNum) -> new Expired(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3),
+                        rs.getObject(4, Long.class)),
+                Timestamp.valueOf(now), shardCount, shard, after, limit);
+        if (chunk.isEmpty()) {
+            return chunk;
+        }
+        String[] auditIds = new String[chunk.size()];
+        String[] requestIds = new String[chunk.size()];
+        String[] oldStatuses = new String[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            auditIds[i] = UuidV7.generate().toString();
+            requestIds[i] = chunk.get(i).id().toString();
+            oldStatuses[i] = chunk.get(i).oldStatus();
+        }
+        jdbcTemplate.update(AUDIT_SQL, Timestamp.valueOf(now), auditIds, requestIds, oldStatuses);
+        return chunk;
+    }
+
+    @Override
+    protected UUID idOf(Expired request) {
+        return request.id();
+    }
+
+    @Override
+    protected void afterCommit(List<Expired> chunk) {
+        expired.increment(chunk.size());
+        publish(chunk);
+    }
+
+    private void publish(List<Expired> chunk) {
+        List<PaymentDomainEvent> events = chunk.stream().map(PaymentRequestExpiry::event).toList();
+        try {
+            eventProducer.sendAll(events).whenComplete((ignored, failure) -> {
+                if (failure != null) {
+                    log.warn("{} event(s) for expired payment requests not published: {}", events.size(),
+                            failure.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("{} event(s) for expired payment requests not published: {}", events.size(), e.getMessage());
+        }
+    }
+
+    private static PaymentDomainEvent event(Expired request) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("paymentRequestId", request.id());
+        payload.put("requestCode", request.requestCode());
+        payload.put("tenantId", request.tenantId());
+        payload.put("previousStatus", request.oldStatus());
+        payload.put("status", PaymentRequestStatus.EXPIRED.name());
+        return new PaymentDomainEvent(EVENT_TYPE, request.id().toString(), payload);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ahss.maintenance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fails refunds that have been PENDING for longer than
+ * {@code payment.stale.refund-timeout-minutes}, one {@code UPDATE ... RETURNING} per chunk
+ * instead of loading and saving each refund.
+ */
+@Component
+public class StaleRefundTimeout extends ChunkedMaintenanceJob<UUID> {
+
+    static final String JOB_NAME = "stale-refunds";
+    static final String ERROR_MESSAGE = "Refund timed out";
+
+    static final String TIMEOUT_SQL =
+            "WITH due AS (" +
+            "SELECT payment_refund_id FROM payment_refund " +
+            "WHERE refund_status = 'PENDING' AND created_at < ? AND " +
+            shardAndCursor("payment_refund_id") + " " +
+            "ORDER BY payment_refund_id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "UPDATE payment_refund r SET refund_status = 'FAILED', error_message = '" + ERROR_MESSAGE + "', " +
+            "version = r.version + 1 " +
+            "FROM due WHERE r.payment_refund_id = due.payment_refund_id " +
+            "RETURNING r.payment_refund_id";
+
+    private final int timeoutMinutes;
+
+    @Autowired
+    public StaleRefundTimeout(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${payment.stale.refund-timeout-minutes:1440}") int timeoutMinutes,
+                              @Value("${payment.stale.batch-size:500}") int batchSize,
+                              @Value("${payment.stale.max-batches-per-run:200}") int maxBatchesPerRun) {
+        this(jdbcTemplate, new TransactionTemplate(transactionManager), Clock.systemDefaultZone(),
+                timeoutMinutes, batchSize, maxBatchesPerRun);
+    }
+
+    StaleRefundTimeout(JdbcTemplate jdbcTemplate, TransactionOperations transactions, Clock clock,
+                       int timeoutMinutes, int batchSize, int maxBatchesPerRun) {
+        super(jdbcTemplate, transactions, clock, batchSize, maxBatchesPerRun);
+        this.timeoutMinutes = timeoutMinutes;
+    }
+
+    @Override
+    public String name() {
+        return JOB_NAME;
+    }
+
+    /**
+     * Fails stale refunds across all shards in the calling thread.
+     *
+     * @return the number of refunds failed
+     */
+    public int timeOutStale() {
+        return runUnsharded();
+    }
+
+    @Override
+    protected List<UUID> processChunk(LocalDateTime now, int shardCount, int shard, String after, int limit) {
+        return jdbcTemplate.queryForList(TIMEOUT_SQL, UUID.class,
+                Timestamp.valueOf(now.minusMinutes(timeoutMinutes)), shardCount, shard, after, limit);
+    }
+
+    @Override
+    protected UUID idOf(UUID id) {
+        return id;
+    }
+}
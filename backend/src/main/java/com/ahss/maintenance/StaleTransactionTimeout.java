@@ -0,0 +1,83 @@
+package com.ahss.maintenance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fails payment transactions that have been PENDING for longer than
+ * {@code payment.stale.transaction-timeout-minutes}, one {@code UPDATE ... RETURNING} per
+ * chunk. The scan is bounded by {@code created_at}, so only the partitions old enough to hold
+ * stale rows are read.
+ */
+@Component
+public class StaleTransactionTimeout extends ChunkedMaintenanceJob<UUID> {
+
+    static final String JOB_NAME = "stale-transactions";
+    static final String ERROR_MESSAGE = "Transaction timed out";
+
+    static final String TIMEOUT_SQL =
+            "WITH due AS (" +
+            "SELECT payment_transaction_id, created_at FROM payment_transaction " +
+            "WHERE transaction_status = 'PENDING' AND created_at < ? AND " +
+            shardAndCursor("payment_transaction_id") + " " +
+            "ORDER BY payment_transaction_id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "UPDATE payment_transaction t SET transaction_status = 'FAILED', error_message = '" + ERROR_MESSAGE + "', " +
+            "version = t.version + 1 " +
+            "FROM due WHERE t.payment_transaction_id = due.payment_transaction_id " +
+            "AND t.created_at = due.created_at " +
+            "RETURNING t.payment_transaction_id";
+
+    private final int timeoutMinutes;
+
+    @Autowired
+    public StaleTransactionTimeout(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${payment.stale.transaction-timeout-minutes:1440}") int timeoutMinutes,
+                                   @Value("${payment.stale.batch-size:500}") int batchSize,
+                                   @Value("${payment.stale.max-batches-per-run:200}") int maxBatchesPerRun) {
+        this(jdbcTemplate, new TransactionTemplate(transactionManager), Clock.systemDefaultZone(),
+                timeoutMinutes, batchSize, maxBatchesPerRun);
+    }
+
+    StaleTransactionTimeout(JdbcTemplate jdbcTemplate, TransactionOperations transactions, Clock clock,
+                            int timeoutMinutes, int batchSize, int maxBatchesPerRun) {
+        super(jdbcTemplate, transactions, clock, batchSize, maxBatchesPerRun);
+        this.timeoutMinutes = timeoutMinutes;
+    }
+
+    @Override
+    public String name() {
+        return JOB_NAME;
+    }
+
+    /**
+     * Fails stale transactions across all shards in the calling thread.
+     *
+     * @return the number of transactions failed
+     */
+    public int timeOutStale() {
+        return runUnsharded();
+    }
+
+    @Override
+    protected List<UUID> processChunk(LocalDateTime now, int shardCount, int shard, String after, int limit) {
+        return jdbcTemplate.queryForList(TIMEOUT_SQL, UUID.class,
+                Timestamp.valueOf(now.minusMinutes(timeoutMinutes)), shardCount, shard, after, limit);
+    }
+
+    @Override
+    protected UUID idOf(UUID id) {
+        return id;
+    }
+}
@@ -13,6 +13,9 @@ import java.util.Optional;
 @Repository
 public interface ModuleRepository extends JpaRepository<Module, Long> {
     
+    @Query("SELECT m FROM Module m JOIN FETCH m.product WHERE m.moduleStatus = :status")
+    List<Module> findAllActive(@Param("status") ModuleStatus status);
+    
     @Query("SELECT m FROM Module m WHERE m.product.id = :productId AND m.moduleStatus = :status")
     List<Module> findActiveByProductId(@Param("productId") Long productId, @Param("status") ModuleStatus status);
     
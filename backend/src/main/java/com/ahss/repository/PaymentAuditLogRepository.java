@@ -24,9 +24,17 @@ public interface PaymentAuditLogRepository extends JpaRepository<PaymentAuditLog
     @Query("SELECT pal FROM PaymentAuditLog pal WHERE pal.paymentTransactionId = :paymentTransactionId ORDER BY pal.createdAt DESC")
     List<PaymentAuditLog> findByPaymentTransactionIdOrderByCreatedAtDesc(@Param("paymentTransactionId") UUID paymentTransactionId);
 
+    @Query(value = "SELECT pal FROM PaymentAuditLog pal WHERE pal.paymentTransactionId = :paymentTransactionId ORDER BY pal.createdAt DESC",
+           countQuery = "SELECT COUNT(pal) FROM PaymentAuditLog pal WHERE pal.paymentTransactionId = :paymentTransactionId")
+    Page<PaymentAuditLog> findByPaymentTransactionIdOrderByCreatedAtDesc(@Param("paymentTransactionId") UUID paymentTransactionId, Pageable pageable);
+
     @Query("SELECT pal FROM PaymentAuditLog pal WHERE pal.paymentRefundId = :paymentRefundId ORDER BY pal.createdAt DESC")
     List<PaymentAuditLog> findByPaymentRefundIdOrderByCreatedAtDesc(@Param("paymentRefundId") UUID paymentRefundId);
 
+    @Query(value = "SELECT pal FROM PaymentAuditLog pal WHERE pal.paymentRefundId = :paymentRefundId ORDER BY pal.createdAt DESC",
+           countQuery = "SELECT COUNT(pal) FROM PaymentAuditLog pal WHERE pal.paymentRefundId = :paymentRefundId")
+    Page<PaymentAuditLog> findByPaymentRefundIdOrderByCreatedAtDesc(@Param("paymentRefundId") UUID paymentRefundId, Pageable pageable);
+
     @Query("SELECT pal FROM PaymentAuditLog pal WHERE pal.action = :action ORDER BY pal.createdAt DESC")
     List<PaymentAuditLog> findByActionOrderByCreatedAtDesc(@Param("action") String action);
 
@@ -73,19 +81,23 @@ public interface PaymentAuditLogRepository extends JpaRepository<PaymentAuditLog
     @Query("SELECT pal FROM PaymentAuditLog pal WHERE pal.ipAddress = :ipAddress ORDER BY pal.createdAt DESC")
     List<PaymentAuditLog> findByIpAddressOrderByCreatedAtDesc(@Param("ipAddress") String ipAddress);
 
+    @Query(value = "SELECT pal FROM PaymentAuditLog pal WHERE pal.ipAddress = :ipAddress ORDER BY pal.createdAt DESC",
+           countQuery = "SELECT COUNT(pal) FROM PaymentAuditLog pal WHERE pal.ipAddress = :ipAddress")
+    Page<PaymentAuditLog> findByIpAddressOrderByCreatedAtDesc(@Param("ipAddress") String ipAddress, Pageable pageable);
+
     @Query("SELECT pal FROM PaymentAuditLog pal WHERE " +
-           "pal.action LIKE CONCAT('%', :searchTerm, '%') " +
-           "OR LOWER(pal.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR pal.oldStatus LIKE CONCAT('%', :searchTerm, '%') " +
-           "OR pal.newStatus LIKE CONCAT('%', :searchTerm, '%') " +
+           "pal.action ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pal.description ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pal.oldStatus ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pal.newStatus ILIKE CONCAT('%', :searchTerm, '%') " +
            "ORDER BY pal.createdAt DESC")
     Page<PaymentAuditLog> searchAuditLogs(@Param("searchTerm") String searchTerm, Pageable pageable);
 
     @Query("SELECT pal FROM PaymentAuditLog pal WHERE pal.paymentRequestId = :paymentRequestId AND " +
-           "(pal.action LIKE CONCAT('%', :searchTerm, '%') " +
-           "OR LOWER(pal.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR pal.oldStatus LIKE CONCAT('%', :searchTerm, '%') " +
-           "OR pal.newStatus LIKE CONCAT('%', :searchTerm, '%')) " +
+           "(pal.action ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pal.description ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pal.oldStatus ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pal.newStatus ILIKE CONCAT('%', :searchTerm, '%')) " +
            "ORDER BY pal.createdAt DESC")
     Page<PaymentAuditLog> searchAuditLogsByPaymentRequest(@Param("paymentRequestId") UUID paymentRequestId,
                                                          @Param("searchTerm") String searchTerm, 
@@ -129,4 +141,13 @@ public interface PaymentAuditLogRepository extends JpaRepository<PaymentAuditLog
 
     @Query("SELECT pal FROM PaymentAuditLog pal WHERE pal.paymentRequestId IN :paymentRequestIds ORDER BY pal.createdAt DESC")
     List<PaymentAuditLog> findByPaymentRequestIdsOrderByCreatedAtDesc(@Param("paymentRequestIds") List<UUID> paymentRequestIds);
-}
\ No newline at end of file
+
+    // Keyset pagination on (created_at DESC, id DESC); pass KeysetCursor.probe(size) as the limit
+    @Query("SELECT pal FROM PaymentAuditLog pal ORDER BY pal.createdAt DESC, pal.id DESC")
+    List<PaymentAuditLog> scrollFirst(Pageable limit);
+
+    @Query("SELECT pal FROM PaymentAuditLog pal WHERE pal.createdAt <= :createdAt " +
+           "AND (pal.createdAt < :createdAt OR (pal.createdAt = :createdAt AND pal.id < :id)) " +
+           "ORDER BY pal.createdAt DESC, pal.id DESC")
+    List<PaymentAuditLog> scrollAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable limit);
+}
@@ -1,5 +1,6 @@
 package com.ahss.repository;
 
+import com.ahss.dto.response.PaymentRefundSummaryDto;
 import com.ahss.entity.PaymentRefund;
 import com.ahss.enums.PaymentTransactionStatus;
 import org.springframework.data.domain.Page;
@@ -18,6 +19,15 @@ import java.util.UUID;
 @Repository
 public interface PaymentRefundRepository extends JpaRepository<PaymentRefund, UUID> {
 
+    /** Constructor expression for list rows; the jsonb columns are never read. */
+    String SUMMARY_SELECT = "SELECT new com.ahss.dto.response.PaymentRefundSummaryDto(" +
+           "pr.id, pr.refundCode, pr.paymentTransactionId, pr.refundAmount, pr.currency, pr.reason, " +
+           "pr.refundStatus, pr.gatewayName, pr.errorCode, pr.processedAt, pr.createdAt) " +
+           "FROM PaymentRefund pr ";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(pr) FROM PaymentRefund pr")
+    Page<PaymentRefundSummaryDto> findSummaries(Pageable pageable);
+
     @Query("SELECT pr FROM PaymentRefund pr WHERE pr.refundCode = :refundCode")
     Optional<PaymentRefund> findByRefundCode(@Param("refundCode") String refundCode);
 
@@ -27,18 +37,27 @@ public interface PaymentRefundRepository extends JpaRepository<PaymentRefund, UU
     @Query("SELECT pr FROM PaymentRefund pr WHERE pr.paymentTransactionId = :paymentTransactionId")
     List<PaymentRefund> findByPaymentTransactionId(@Param("paymentTransactionId") UUID paymentTransactionId);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pr.paymentTransactionId = :paymentTransactionId",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRefund pr WHERE pr.paymentTransactionId = :paymentTransactionId")
+    Page<PaymentRefundSummaryDto> findSummariesByPaymentTransactionId(@Param("paymentTransactionId") UUID paymentTransactionId, Pageable pageable);
+
     @Query("SELECT pr FROM PaymentRefund pr WHERE pr.paymentTransactionId = :paymentTransactionId ORDER BY pr.createdAt DESC")
     List<PaymentRefund> findByPaymentTransactionIdOrderByCreatedAtDesc(@Param("paymentTransactionId") UUID paymentTransactionId);
 
     @Query("SELECT pr FROM PaymentRefund pr WHERE pr.refundStatus = :status")
     List<PaymentRefund> findByRefundStatus(@Param("status") PaymentTransactionStatus status);
 
-    @Query("SELECT pr FROM PaymentRefund pr WHERE pr.refundStatus = :status")
-    Page<PaymentRefund> findByRefundStatus(@Param("status") PaymentTransactionStatus status, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE pr.refundStatus = :status",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRefund pr WHERE pr.refundStatus = :status")
+    Page<PaymentRefundSummaryDto> findSummariesByRefundStatus(@Param("status") PaymentTransactionStatus status, Pageable pageable);
 
     @Query("SELECT pr FROM PaymentRefund pr WHERE pr.gatewayName = :gatewayName")
     List<PaymentRefund> findByGatewayName(@Param("gatewayName") String gatewayName);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pr.gatewayName = :gatewayName",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRefund pr WHERE pr.gatewayName = :gatewayName")
+    Page<PaymentRefundSummaryDto> findSummariesByGatewayName(@Param("gatewayName") String gatewayName, Pageable pageable);
+
     @Query("SELECT pr FROM PaymentRefund pr WHERE pr.gatewayName = :gatewayName AND pr.refundStatus = :status")
     List<PaymentRefund> findByGatewayNameAndStatus(@Param("gatewayName") String gatewayName, 
                                                   @Param("status") PaymentTransactionStatus status);
@@ -47,33 +66,59 @@ public interface PaymentRefundRepository extends JpaRepository<PaymentRefund, UU
     List<PaymentRefund> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, 
                                               @Param("endDate") LocalDateTime endDate);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pr.createdAt BETWEEN :startDate AND :endDate",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRefund pr WHERE pr.createdAt BETWEEN :startDate AND :endDate")
+    Page<PaymentRefundSummaryDto> findSummariesByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Pageable pageable);
+
     @Query("SELECT pr FROM PaymentRefund pr WHERE pr.processedAt BETWEEN :startDate AND :endDate")
     List<PaymentRefund> findByProcessedAtBetween(@Param("startDate") LocalDateTime startDate, 
                                                 @Param("endDate") LocalDateTime endDate);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pr.processedAt BETWEEN :startDate AND :endDate",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRefund pr WHERE pr.processedAt BETWEEN :startDate AND :endDate")
+    Page<PaymentRefundSummaryDto> findSummariesByProcessedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Pageable pageable);
+
     @Query("SELECT pr FROM PaymentRefund pr WHERE pr.refundAmount BETWEEN :minAmount AND :maxAmount")
     List<PaymentRefund> findByRefundAmountBetween(@Param("minAmount") BigDecimal minAmount, 
                                                  @Param("maxAmount") BigDecimal maxAmount);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pr.refundAmount BETWEEN :minAmount AND :maxAmount",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRefund pr WHERE pr.refundAmount BETWEEN :minAmount AND :maxAmount")
+    Page<PaymentRefundSummaryDto> findSummariesByRefundAmountBetween(@Param("minAmount") BigDecimal minAmount, @Param("maxAmount") BigDecimal maxAmount, Pageable pageable);
+
     @Query("SELECT pr FROM PaymentRefund pr WHERE pr.currency = :currency")
     List<PaymentRefund> findByCurrency(@Param("currency") String currency);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pr.currency = :currency",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRefund pr WHERE pr.currency = :currency")
+    Page<PaymentRefundSummaryDto> findSummariesByCurrency(@Param("currency") String currency, Pageable pageable);
+
     @Query("SELECT pr FROM PaymentRefund pr WHERE pr.errorCode = :errorCode")
     List<PaymentRefund> findByErrorCode(@Param("errorCode") String errorCode);
 
-    @Query("SELECT pr FROM PaymentRefund pr WHERE LOWER(pr.reason) LIKE LOWER(CONCAT('%', :reason, '%'))")
+    @Query(value = SUMMARY_SELECT + "WHERE pr.errorCode = :errorCode",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRefund pr WHERE pr.errorCode = :errorCode")
+    Page<PaymentRefundSummaryDto> findSummariesByErrorCode(@Param("errorCode") String errorCode, Pageable pageable);
+
+    @Query("SELECT pr FROM PaymentRefund pr WHERE pr.reason ILIKE CONCAT('%', :reason, '%')")
     List<PaymentRefund> findByReasonContaining(@Param("reason") String reason);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pr.reason ILIKE CONCAT('%', :reason, '%')",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRefund pr WHERE pr.reason ILIKE CONCAT('%', :reason, '%')")
+    Page<PaymentRefundSummaryDto> findSummariesByReasonContaining(@Param("reason") String reason, Pageable pageable);
+
     @Query("SELECT pr FROM PaymentRefund pr WHERE pr.refundStatus = :status AND pr.createdAt < :cutoffTime")
     List<PaymentRefund> findStaleRefunds(@Param("status") PaymentTransactionStatus status, 
                                         @Param("cutoffTime") LocalDateTime cutoffTime);
 
-    @Query("SELECT pr FROM PaymentRefund pr WHERE " +
-           "pr.refundCode LIKE CONCAT('%', :searchTerm, '%') " +
-           "OR pr.externalRefundId LIKE CONCAT('%', :searchTerm, '%') " +
-           "OR pr.gatewayName LIKE CONCAT('%', :searchTerm, '%') " +
-           "OR LOWER(pr.reason) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    Page<PaymentRefund> searchRefunds(@Param("searchTerm") String searchTerm, Pageable pageable);
+    String SEARCH_WHERE = "WHERE pr.refundCode ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pr.externalRefundId ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pr.gatewayName ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pr.reason ILIKE CONCAT('%', :searchTerm, '%')";
+
+    @Query(value = SUMMARY_SELECT + SEARCH_WHERE,
+           countQuery = "SELECT COUNT(pr) FROM PaymentRefund pr " + SEARCH_WHERE)
+    Page<PaymentRefundSummaryDto> searchSummaries(@Param("searchTerm") String searchTerm, Pageable pageable);
 
     @Query("SELECT COUNT(pr) > 0 FROM PaymentRefund pr WHERE pr.refundCode = :refundCode")
     boolean existsByRefundCode(@Param("refundCode") String refundCode);
@@ -110,6 +155,16 @@ public interface PaymentRefundRepository extends JpaRepository<PaymentRefund, UU
     @Query("SELECT pr FROM PaymentRefund pr WHERE pr.createdBy = :userId")
     List<PaymentRefund> findByCreatedBy(@Param("userId") Long userId);
 
-    @Query("SELECT pr FROM PaymentRefund pr WHERE pr.createdBy = :userId")
-    Page<PaymentRefund> findByCreatedBy(@Param("userId") Long userId, Pageable pageable);
-}
\ No newline at end of file
+    @Query(value = SUMMARY_SELECT + "WHERE pr.createdBy = :userId",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRefund pr WHERE pr.createdBy = :userId")
+    Page<PaymentRefundSummaryDto> findSummariesByCreatedBy(@Param("userId") Long userId, Pageable pageable);
+
+    // Keyset pagination on (created_at DESC, id DESC); pass KeysetCursor.probe(size) as the limit
+    @Query(SUMMARY_SELECT + "ORDER BY pr.createdAt DESC, pr.id DESC")
+    List<PaymentRefundSummaryDto> scrollFirst(Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE pr.createdAt <= :createdAt " +
+           "AND (pr.createdAt < :createdAt OR (pr.createdAt = :createdAt AND pr.id < :id)) " +
+           "ORDER BY pr.createdAt DESC, pr.id DESC")
+    List<PaymentRefundSummaryDto> scrollAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable limit);
+}
@@ -52,6 +52,10 @@ public interface PaymentRequestRepository extends JpaRepository<PaymentRequest,
     List<PaymentRequest> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, 
                                                @Param("endDate") LocalDateTime endDate);
 
+    @Query(value = "SELECT pr FROM PaymentRequest pr WHERE pr.createdAt BETWEEN :startDate AND :endDate",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRequest pr WHERE pr.createdAt BETWEEN :startDate AND :endDate")
+    Page<PaymentRequest> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Pageable pageable);
+
     @Query("SELECT pr FROM PaymentRequest pr WHERE pr.tenantId = :tenantId AND pr.createdAt BETWEEN :startDate AND :endDate")
     List<PaymentRequest> findByTenantIdAndCreatedAtBetween(@Param("tenantId") Long tenantId,
                                                           @Param("startDate") LocalDateTime startDate, 
@@ -61,21 +65,30 @@ public interface PaymentRequestRepository extends JpaRepository<PaymentRequest,
     List<PaymentRequest> findByAmountBetween(@Param("minAmount") BigDecimal minAmount, 
                                             @Param("maxAmount") BigDecimal maxAmount);
 
+    @Query(value = "SELECT pr FROM PaymentRequest pr WHERE pr.amount BETWEEN :minAmount AND :maxAmount",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRequest pr WHERE pr.amount BETWEEN :minAmount AND :maxAmount")
+    Page<PaymentRequest> findByAmountBetween(@Param("minAmount") BigDecimal minAmount, @Param("maxAmount") BigDecimal maxAmount, Pageable pageable);
+
     @Query("SELECT pr FROM PaymentRequest pr WHERE pr.currency = :currency")
     List<PaymentRequest> findByCurrency(@Param("currency") String currency);
 
+    @Query(value = "SELECT pr FROM PaymentRequest pr WHERE pr.currency = :currency",
+           countQuery = "SELECT COUNT(pr) FROM PaymentRequest pr WHERE pr.currency = :currency")
+    Page<PaymentRequest> findByCurrency(@Param("currency") String currency, Pageable pageable);
+
+    // Searches use ILIKE on the bare columns so the trigram index from V29 applies
     @Query("SELECT pr FROM PaymentRequest pr WHERE " +
-           "LOWER(pr.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(pr.payerName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(pr.payerEmail) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR pr.requestCode LIKE CONCAT('%', :searchTerm, '%')")
+           "pr.title ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pr.payerName ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pr.payerEmail ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pr.requestCode ILIKE CONCAT('%', :searchTerm, '%')")
     Page<PaymentRequest> searchPaymentRequests(@Param("searchTerm") String searchTerm, Pageable pageable);
 
     @Query("SELECT pr FROM PaymentRequest pr WHERE pr.tenantId = :tenantId AND (" +
-           "LOWER(pr.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(pr.payerName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(pr.payerEmail) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR pr.requestCode LIKE CONCAT('%', :searchTerm, '%'))")
+           "pr.title ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pr.payerName ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pr.payerEmail ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pr.requestCode ILIKE CONCAT('%', :searchTerm, '%'))")
     Page<PaymentRequest> searchPaymentRequestsByTenant(@Param("tenantId") Long tenantId,
                                                       @Param("searchTerm") String searchTerm, 
                                                       Pageable pageable);
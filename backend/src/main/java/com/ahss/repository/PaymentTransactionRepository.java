@@ -1,5 +1,6 @@
 package com.ahss.repository;
 
+import com.ahss.dto.response.PaymentTransactionSummaryDto;
 import com.ahss.entity.PaymentTransaction;
 import com.ahss.enums.PaymentMethodType;
 import com.ahss.enums.PaymentTransactionStatus;
@@ -20,6 +21,16 @@ import java.util.UUID;
 @Repository
 public interface PaymentTransactionRepository extends JpaRepository<PaymentTransaction, UUID> {
 
+    /** Constructor expression for list rows; the jsonb columns are never read. */
+    String SUMMARY_SELECT = "SELECT new com.ahss.dto.response.PaymentTransactionSummaryDto(" +
+           "pt.id, pt.transactionCode, pt.externalTransactionId, pt.paymentRequestId, pt.transactionType, " +
+           "pt.transactionStatus, pt.amount, pt.currency, pt.paymentMethod, pt.gatewayName, pt.errorCode, " +
+           "pt.retryCount, pt.processedAt, pt.createdAt) " +
+           "FROM PaymentTransaction pt ";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(pt) FROM PaymentTransaction pt")
+    Page<PaymentTransactionSummaryDto> findSummaries(Pageable pageable);
+
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.transactionCode = :transactionCode")
     Optional<PaymentTransaction> findByTransactionCode(@Param("transactionCode") String transactionCode);
 
@@ -29,18 +40,27 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.paymentRequestId = :paymentRequestId")
     List<PaymentTransaction> findByPaymentRequestId(@Param("paymentRequestId") UUID paymentRequestId);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pt.paymentRequestId = :paymentRequestId",
+           countQuery = "SELECT COUNT(pt) FROM PaymentTransaction pt WHERE pt.paymentRequestId = :paymentRequestId")
+    Page<PaymentTransactionSummaryDto> findSummariesByPaymentRequestId(@Param("paymentRequestId") UUID paymentRequestId, Pageable pageable);
+
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.paymentRequestId = :paymentRequestId ORDER BY pt.createdAt DESC")
     List<PaymentTransaction> findByPaymentRequestIdOrderByCreatedAtDesc(@Param("paymentRequestId") UUID paymentRequestId);
 
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.transactionStatus = :status")
     List<PaymentTransaction> findByTransactionStatus(@Param("status") PaymentTransactionStatus status);
 
-    @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.transactionStatus = :status")
-    Page<PaymentTransaction> findByTransactionStatus(@Param("status") PaymentTransactionStatus status, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE pt.transactionStatus = :status",
+           countQuery = "SELECT COUNT(pt) FROM PaymentTransaction pt WHERE pt.transactionStatus = :status")
+    Page<PaymentTransactionSummaryDto> findSummariesByTransactionStatus(@Param("status") PaymentTransactionStatus status, Pageable pageable);
 
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.transactionType = :type")
     List<PaymentTransaction> findByTransactionType(@Param("type") PaymentTransactionType type);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pt.transactionType = :type",
+           countQuery = "SELECT COUNT(pt) FROM PaymentTransaction pt WHERE pt.transactionType = :type")
+    Page<PaymentTransactionSummaryDto> findSummariesByTransactionType(@Param("type") PaymentTransactionType type, Pageable pageable);
+
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.transactionType = :type AND pt.transactionStatus = :status")
     List<PaymentTransaction> findByTransactionTypeAndStatus(@Param("type") PaymentTransactionType type, 
                                                            @Param("status") PaymentTransactionStatus status);
@@ -48,9 +68,17 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.paymentMethod = :paymentMethod")
     List<PaymentTransaction> findByPaymentMethod(@Param("paymentMethod") PaymentMethodType paymentMethod);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pt.paymentMethod = :paymentMethod",
+           countQuery = "SELECT COUNT(pt) FROM PaymentTransaction pt WHERE pt.paymentMethod = :paymentMethod")
+    Page<PaymentTransactionSummaryDto> findSummariesByPaymentMethod(@Param("paymentMethod") PaymentMethodType paymentMethod, Pageable pageable);
+
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.gatewayName = :gatewayName")
     List<PaymentTransaction> findByGatewayName(@Param("gatewayName") String gatewayName);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pt.gatewayName = :gatewayName",
+           countQuery = "SELECT COUNT(pt) FROM PaymentTransaction pt WHERE pt.gatewayName = :gatewayName")
+    Page<PaymentTransactionSummaryDto> findSummariesByGatewayName(@Param("gatewayName") String gatewayName, Pageable pageable);
+
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.gatewayName = :gatewayName AND pt.transactionStatus = :status")
     List<PaymentTransaction> findByGatewayNameAndStatus(@Param("gatewayName") String gatewayName, 
                                                        @Param("status") PaymentTransactionStatus status);
@@ -59,20 +87,40 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
     List<PaymentTransaction> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, 
                                                    @Param("endDate") LocalDateTime endDate);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pt.createdAt BETWEEN :startDate AND :endDate",
+           countQuery = "SELECT COUNT(pt) FROM PaymentTransaction pt WHERE pt.createdAt BETWEEN :startDate AND :endDate")
+    Page<PaymentTransactionSummaryDto> findSummariesByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Pageable pageable);
+
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.processedAt BETWEEN :startDate AND :endDate")
     List<PaymentTransaction> findByProcessedAtBetween(@Param("startDate") LocalDateTime startDate, 
                                                      @Param("endDate") LocalDateTime endDate);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pt.processedAt BETWEEN :startDate AND :endDate",
+           countQuery = "SELECT COUNT(pt) FROM PaymentTransaction pt WHERE pt.processedAt BETWEEN :startDate AND :endDate")
+    Page<PaymentTransactionSummaryDto> findSummariesByProcessedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Pageable pageable);
+
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.amount BETWEEN :minAmount AND :maxAmount")
     List<PaymentTransaction> findByAmountBetween(@Param("minAmount") BigDecimal minAmount, 
                                                 @Param("maxAmount") BigDecimal maxAmount);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pt.amount BETWEEN :minAmount AND :maxAmount",
+           countQuery = "SELECT COUNT(pt) FROM PaymentTransaction pt WHERE pt.amount BETWEEN :minAmount AND :maxAmount")
+    Page<PaymentTransactionSummaryDto> findSummariesByAmountBetween(@Param("minAmount") BigDecimal minAmount, @Param("maxAmount") BigDecimal maxAmount, Pageable pageable);
+
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.currency = :currency")
     List<PaymentTransaction> findByCurrency(@Param("currency") String currency);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pt.currency = :currency",
+           countQuery = "SELECT COUNT(pt) FROM PaymentTransaction pt WHERE pt.currency = :currency")
+    Page<PaymentTransactionSummaryDto> findSummariesByCurrency(@Param("currency") String currency, Pageable pageable);
+
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.errorCode = :errorCode")
     List<PaymentTransaction> findByErrorCode(@Param("errorCode") String errorCode);
 
+    @Query(value = SUMMARY_SELECT + "WHERE pt.errorCode = :errorCode",
+           countQuery = "SELECT COUNT(pt) FROM PaymentTransaction pt WHERE pt.errorCode = :errorCode")
+    Page<PaymentTransactionSummaryDto> findSummariesByErrorCode(@Param("errorCode") String errorCode, Pageable pageable);
+
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.transactionStatus = :status AND pt.createdAt < :cutoffTime")
     List<PaymentTransaction> findStaleTransactions(@Param("status") PaymentTransactionStatus status, 
                                                   @Param("cutoffTime") LocalDateTime cutoffTime);
@@ -82,11 +130,13 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
                                                                    @Param("type") PaymentTransactionType type,
                                                                    @Param("status") PaymentTransactionStatus status);
 
-    @Query("SELECT pt FROM PaymentTransaction pt WHERE " +
-           "pt.transactionCode LIKE CONCAT('%', :searchTerm, '%') " +
-           "OR pt.externalTransactionId LIKE CONCAT('%', :searchTerm, '%') " +
-           "OR pt.gatewayName LIKE CONCAT('%', :searchTerm, '%')")
-    Page<PaymentTransaction> searchTransactions(@Param("searchTerm") String searchTerm, Pageable pageable);
+    String SEARCH_WHERE = "WHERE pt.transactionCode ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pt.externalTransactionId ILIKE CONCAT('%', :searchTerm, '%') " +
+           "OR pt.gatewayName ILIKE CONCAT('%', :searchTerm, '%')";
+
+    @Query(value = SUMMARY_SELECT + SEARCH_WHERE,
+           countQuery = "SELECT COUNT(pt) FROM PaymentTransaction pt " + SEARCH_WHERE)
+    Page<PaymentTransactionSummaryDto> searchSummaries(@Param("searchTerm") String searchTerm, Pageable pageable);
 
     @Query("SELECT COUNT(pt) > 0 FROM PaymentTransaction pt WHERE pt.transactionCode = :transactionCode")
     boolean existsByTransactionCode(@Param("transactionCode") String transactionCode);
@@ -120,4 +170,13 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
 
     @Query("SELECT pt FROM PaymentTransaction pt WHERE pt.transactionStatus IN :statuses ORDER BY pt.createdAt DESC")
     List<PaymentTransaction> findRecentByStatuses(@Param("statuses") List<PaymentTransactionStatus> statuses, Pageable pageable);
-}
\ No newline at end of file
+
+    // Keyset pagination on (created_at DESC, id DESC); pass KeysetCursor.probe(size) as the limit
+    @Query(SUMMARY_SELECT + "ORDER BY pt.createdAt DESC, pt.id DESC")
+    List<PaymentTransactionSummaryDto> scrollFirst(Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE pt.createdAt <= :createdAt " +
+           "AND (pt.createdAt < :createdAt OR (pt.createdAt = :createdAt AND pt.id < :id)) " +
+           "ORDER BY pt.createdAt DESC, pt.id DESC")
+    List<PaymentTransactionSummaryDto> scrollAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable limit);
+}
@@ -15,6 +15,9 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     @Query("SELECT r FROM Role r LEFT JOIN FETCH r.permissions WHERE r.id = :id AND r.roleStatus = 'ACTIVE'")
     Optional<Role> findWithPermissions(@Param("id") Long id);
     
+    @Query("SELECT DISTINCT r FROM Role r LEFT JOIN FETCH r.permissions WHERE r.roleStatus = 'ACTIVE'")
+    List<Role> findAllActiveWithPermissions();
+    
     @Query("SELECT COUNT(r) > 0 FROM Role r WHERE r.name = :name AND r.roleStatus = 'ACTIVE'")
     boolean existsByName(@Param("name") String name);
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.ahss.repository;
+
+import com.ahss.entity.WebhookInboxEvent;
+import com.ahss.enums.WebhookInboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEvent, Long> {
+
+    /**
+     * Locks the oldest pending deliveries; rows locked by another instance are skipped so
+     * several replicas can drain the inbox concurrently without double-publishing.
+     */
+    @Query(value = "SELECT * FROM webhook_inbox WHERE status = 'PENDING' " +
+                   "ORDER BY webhook_inbox_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<WebhookInboxEvent> lockPendingBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE WebhookInboxEvent w SET w.status = :status, w.processedAt = :processedAt WHERE w.id IN :ids")
+    int updateStatus(@Param("ids") List<Long> ids,
+                     @Param("status") WebhookInboxStatus status,
+                     @Param("processedAt") LocalDateTime processedAt);
+
+    @Query("SELECT COUNT(w) FROM WebhookInboxEvent w WHERE w.status = :status")
+    long countByStatus(@Param("status") WebhookInboxStatus status);
+}
@@ -1,5 +1,6 @@
 package com.ahss.service;
 
+import com.ahss.dto.response.CursorPage;
 import com.ahss.dto.response.PaymentAuditLogDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -12,22 +13,33 @@ import java.util.UUID;
 
 public interface PaymentAuditLogService {
 
-    PaymentAuditLogDto logPaymentRequestAction(UUID paymentRequestId, String action, String oldStatus, 
-                                              String newStatus, String description, Map<String, Object> changeDetails,
-                                              Long userId, String userAgent, String ipAddress);
+    /**
+     * Records an audit entry for the payment request. With the async writer enabled (the default) the
+     * row is inserted shortly after the caller's transaction commits rather than inside it; the same
+     * applies to the transaction and refund variants.
+     */
+    void logPaymentRequestAction(UUID paymentRequestId, String action, String oldStatus, 
+                                 String newStatus, String description, Map<String, Object> changeDetails,
+                                 Long userId, String userAgent, String ipAddress);
 
-    PaymentAuditLogDto logTransactionAction(UUID paymentTransactionId, String action, String oldStatus, 
-                                           String newStatus, String description, Map<String, Object> changeDetails,
-                                           Long userId, String userAgent, String ipAddress);
+    void logTransactionAction(UUID paymentTransactionId, String action, String oldStatus, 
+                              String newStatus, String description, Map<String, Object> changeDetails,
+                              Long userId, String userAgent, String ipAddress);
 
-    PaymentAuditLogDto logRefundAction(UUID paymentRefundId, String action, String oldStatus, 
-                                      String newStatus, String description, Map<String, Object> changeDetails,
-                                      Long userId, String userAgent, String ipAddress);
+    void logRefundAction(UUID paymentRefundId, String action, String oldStatus, 
+                         String newStatus, String description, Map<String, Object> changeDetails,
+                         Long userId, String userAgent, String ipAddress);
 
     Optional<PaymentAuditLogDto> getAuditLogById(UUID id);
 
     Page<PaymentAuditLogDto> getAllAuditLogs(Pageable pageable);
 
+    /**
+     * Newest-first keyset page of audit logs; pass the previous page's {@code nextCursor} to continue.
+     * The total is only counted when {@code includeTotal} is set.
+     */
+    CursorPage<PaymentAuditLogDto> scrollAuditLogs(String cursor, int size, boolean includeTotal);
+
     Page<PaymentAuditLogDto> getAuditLogsByPaymentRequest(UUID paymentRequestId, Pageable pageable);
 
     Page<PaymentAuditLogDto> getAuditLogsByTransaction(UUID paymentTransactionId, Pageable pageable);
@@ -1,7 +1,9 @@
 package com.ahss.service;
 
 import com.ahss.dto.request.CreateRefundDto;
+import com.ahss.dto.response.CursorPage;
 import com.ahss.dto.response.PaymentRefundDto;
+import com.ahss.dto.response.PaymentRefundSummaryDto;
 import com.ahss.enums.PaymentTransactionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,27 +27,33 @@ public interface PaymentRefundService {
 
     Optional<PaymentRefundDto> getRefundByExternalId(String externalRefundId);
 
-    Page<PaymentRefundDto> getAllRefunds(Pageable pageable);
+    Page<PaymentRefundSummaryDto> getAllRefunds(Pageable pageable);
 
-    Page<PaymentRefundDto> getRefundsByTransaction(UUID paymentTransactionId, Pageable pageable);
+    /**
+     * Newest-first keyset page of refunds; pass the previous page's {@code nextCursor} to continue.
+     * The total is only counted when {@code includeTotal} is set.
+     */
+    CursorPage<PaymentRefundSummaryDto> scrollRefunds(String cursor, int size, boolean includeTotal);
 
-    Page<PaymentRefundDto> getRefundsByStatus(PaymentTransactionStatus status, Pageable pageable);
+    Page<PaymentRefundSummaryDto> getRefundsByTransaction(UUID paymentTransactionId, Pageable pageable);
 
-    Page<PaymentRefundDto> getRefundsByGateway(String gatewayName, Pageable pageable);
+    Page<PaymentRefundSummaryDto> getRefundsByStatus(PaymentTransactionStatus status, Pageable pageable);
 
-    Page<PaymentRefundDto> getRefundsCreatedBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+    Page<PaymentRefundSummaryDto> getRefundsByGateway(String gatewayName, Pageable pageable);
 
-    Page<PaymentRefundDto> getRefundsProcessedBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+    Page<PaymentRefundSummaryDto> getRefundsCreatedBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
-    Page<PaymentRefundDto> getRefundsByAmountRange(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable);
+    Page<PaymentRefundSummaryDto> getRefundsProcessedBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
-    Page<PaymentRefundDto> getRefundsByCurrency(String currency, Pageable pageable);
+    Page<PaymentRefundSummaryDto> getRefundsByAmountRange(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable);
 
-    Page<PaymentRefundDto> getRefundsByErrorCode(String errorCode, Pageable pageable);
+    Page<PaymentRefundSummaryDto> getRefundsByCurrency(String currency, Pageable pageable);
 
-    Page<PaymentRefundDto> getRefundsByReason(String reason, Pageable pageable);
+    Page<PaymentRefundSummaryDto> getRefundsByErrorCode(String errorCode, Pageable pageable);
 
-    Page<PaymentRefundDto> searchRefunds(String searchTerm, Pageable pageable);
+    Page<PaymentRefundSummaryDto> getRefundsByReason(String reason, Pageable pageable);
+
+    Page<PaymentRefundSummaryDto> searchRefunds(String searchTerm, Pageable pageable);
 
     List<PaymentRefundDto> getStaleRefunds(LocalDateTime cutoffTime);
 
@@ -75,6 +83,8 @@ public interface PaymentRefundService {
 
     Long countByStatus(PaymentTransactionStatus status);
 
+    Map<PaymentTransactionStatus, Long> getStatusCountBreakdown();
+
     Long countByTransaction(UUID paymentTransactionId);
 
     BigDecimal sumRefundAmountByStatusAndCurrency(PaymentTransactionStatus status, String currency);
@@ -85,7 +95,7 @@ public interface PaymentRefundService {
 
     Map<String, BigDecimal> getRefundAmountByCurrency();
 
-    void processStaleRefunds();
+    int processStaleRefunds();
 
     void syncRefundStatusWithGateway(UUID id);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.ahss.service;
 
 import com.ahss.dto.request.CreatePaymentRequestDto;
 import com.ahss.dto.request.UpdatePaymentRequestDto;
+import com.ahss.dto.response.BulkPaymentRequestResultDto;
 import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentSummaryDto;
 import com.ahss.enums.PaymentRequestStatus;
@@ -11,6 +12,7 @@ import org.springframework.data.domain.Pageable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,6 +20,14 @@ public interface PaymentRequestService {
 
     PaymentRequestDto createPaymentRequest(CreatePaymentRequestDto createDto);
 
+    /**
+     * Validates the requests in parallel and inserts the valid ones, with their audit entries,
+     * in JDBC batches in one transaction.
+     *
+     * @return one result per request, in the same order; lines are left for the caller to set
+     */
+    List<BulkPaymentRequestResultDto> createPaymentRequests(List<CreatePaymentRequestDto> createDtos);
+
     Optional<PaymentRequestDto> getPaymentRequestById(UUID id);
 
     Optional<PaymentRequestDto> getPaymentRequestByCode(String requestCode);
@@ -44,6 +54,8 @@ public interface PaymentRequestService {
 
     Page<PaymentRequestDto> searchPaymentRequests(String searchTerm, Pageable pageable);
 
+    Page<PaymentRequestDto> searchPaymentRequestsByTenant(Long tenantId, String searchTerm, Pageable pageable);
+
     List<PaymentRequestDto> getExpiredPaymentRequests();
 
     List<PaymentRequestDto> getRecentPaymentRequestsByStatus(PaymentRequestStatus status, int limit);
@@ -62,6 +74,8 @@ public interface PaymentRequestService {
 
     Long countByStatus(PaymentRequestStatus status);
 
+    Map<PaymentRequestStatus, Long> getStatusCountBreakdown();
+
     Long countByTenantAndStatus(Long tenantId, PaymentRequestStatus status);
 
     BigDecimal sumAmountByStatusAndCurrency(PaymentRequestStatus status, String currency);
@@ -70,5 +84,5 @@ public interface PaymentRequestService {
 
     PaymentSummaryDto getPaymentSummaryBetween(Long tenantId, LocalDateTime startDate, LocalDateTime endDate);
 
-    void processExpiredPaymentRequests();
+    int processExpiredPaymentRequests();
 }
\ No newline at end of file
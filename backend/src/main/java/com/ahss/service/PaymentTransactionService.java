@@ -1,7 +1,9 @@
 package com.ahss.service;
 
 import com.ahss.dto.request.ProcessPaymentDto;
+import com.ahss.dto.response.CursorPage;
 import com.ahss.dto.response.PaymentTransactionDto;
+import com.ahss.dto.response.PaymentTransactionSummaryDto;
 import com.ahss.enums.PaymentMethodType;
 import com.ahss.enums.PaymentTransactionStatus;
 import com.ahss.enums.PaymentTransactionType;
@@ -25,29 +27,35 @@ public interface PaymentTransactionService {
 
     Optional<PaymentTransactionDto> getTransactionByExternalId(String externalTransactionId);
 
-    Page<PaymentTransactionDto> getAllTransactions(Pageable pageable);
+    Page<PaymentTransactionSummaryDto> getAllTransactions(Pageable pageable);
 
-    Page<PaymentTransactionDto> getTransactionsByPaymentRequest(UUID paymentRequestId, Pageable pageable);
+    /**
+     * Newest-first keyset page of transactions; pass the previous page's {@code nextCursor} to continue.
+     * The total is only counted when {@code includeTotal} is set.
+     */
+    CursorPage<PaymentTransactionSummaryDto> scrollTransactions(String cursor, int size, boolean includeTotal);
 
-    Page<PaymentTransactionDto> getTransactionsByStatus(PaymentTransactionStatus status, Pageable pageable);
+    Page<PaymentTransactionSummaryDto> getTransactionsByPaymentRequest(UUID paymentRequestId, Pageable pageable);
 
-    Page<PaymentTransactionDto> getTransactionsByType(PaymentTransactionType type, Pageable pageable);
+    Page<PaymentTransactionSummaryDto> getTransactionsByStatus(PaymentTransactionStatus status, Pageable pageable);
 
-    Page<PaymentTransactionDto> getTransactionsByPaymentMethod(PaymentMethodType paymentMethod, Pageable pageable);
+    Page<PaymentTransactionSummaryDto> getTransactionsByType(PaymentTransactionType type, Pageable pageable);
 
-    Page<PaymentTransactionDto> getTransactionsByGateway(String gatewayName, Pageable pageable);
+    Page<PaymentTransactionSummaryDto> getTransactionsByPaymentMethod(PaymentMethodType paymentMethod, Pageable pageable);
 
-    Page<PaymentTransactionDto> getTransactionsCreatedBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+    Page<PaymentTransactionSummaryDto> getTransactionsByGateway(String gatewayName, Pageable pageable);
 
-    Page<PaymentTransactionDto> getTransactionsProcessedBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+    Page<PaymentTransactionSummaryDto> getTransactionsCreatedBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
-    Page<PaymentTransactionDto> getTransactionsByAmountRange(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable);
+    Page<PaymentTransactionSummaryDto> getTransactionsProcessedBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
-    Page<PaymentTransactionDto> getTransactionsByCurrency(String currency, Pageable pageable);
+    Page<PaymentTransactionSummaryDto> getTransactionsByAmountRange(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable);
 
-    Page<PaymentTransactionDto> getTransactionsByErrorCode(String errorCode, Pageable pageable);
+    Page<PaymentTransactionSummaryDto> getTransactionsByCurrency(String currency, Pageable pageable);
 
-    Page<PaymentTransactionDto> searchTransactions(String searchTerm, Pageable pageable);
+    Page<PaymentTransactionSummaryDto> getTransactionsByErrorCode(String errorCode, Pageable pageable);
+
+    Page<PaymentTransactionSummaryDto> searchTransactions(String searchTerm, Pageable pageable);
 
     List<PaymentTransactionDto> getStaleTransactions(LocalDateTime cutoffTime);
 
@@ -69,6 +77,8 @@ public interface PaymentTransactionService {
 
     Long countByStatus(PaymentTransactionStatus status);
 
+    Map<PaymentTransactionStatus, Long> getStatusCountBreakdown();
+
     Long countByType(PaymentTransactionType type);
 
     Long countByPaymentMethod(PaymentMethodType paymentMethod);
@@ -79,7 +89,7 @@ public interface PaymentTransactionService {
 
     Map<String, BigDecimal> getTransactionAmountByCurrency();
 
-    void processStaleTransactions();
+    int processStaleTransactions();
 
     void syncTransactionStatusWithGateway(UUID id);
 }
\ No newline at end of file
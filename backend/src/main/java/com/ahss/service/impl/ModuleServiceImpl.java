@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ahss.cache.ReferenceDataCache;
+import com.ahss.cache.ReferenceDataCache.Region;
 import com.ahss.dto.ModuleDto;
 import com.ahss.dto.PermissionDto;
 import com.ahss.entity.Module;
@@ -27,31 +29,34 @@ public class ModuleServiceImpl implements ModuleService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ReferenceDataCache cache;
+
     @Override
     @Transactional(readOnly = true)
     public List<ModuleDto> getAllActiveModules() {
-        return moduleRepository.findAll()
+        return cache.get(Region.MODULES, "active", () -> moduleRepository.findAllActive(ModuleStatus.ACTIVE)
                 .stream()
-                .filter(module -> module.getModuleStatus() == ModuleStatus.ACTIVE)
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ModuleDto> getModulesByProductId(Long productId) {
-        return moduleRepository.findActiveByProductId(productId, ModuleStatus.ACTIVE)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return cache.get(Region.MODULES, "product:" + productId,
+                () -> moduleRepository.findActiveByProductId(productId, ModuleStatus.ACTIVE)
+                        .stream()
+                        .map(this::convertToDto)
+                        .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<ModuleDto> getModuleById(Long id) {
-        return moduleRepository.findById(id)
+        return cache.get(Region.MODULES, id, () -> moduleRepository.findById(id)
                 .filter(module -> module.getModuleStatus() == ModuleStatus.ACTIVE)
-                .map(this::convertToDto);
+                .map(this::convertToDto));
     }
 
     @Override
@@ -71,6 +76,7 @@ public class ModuleServiceImpl implements ModuleService {
         Module module = convertToEntity(moduleDto, product);
         module.setModuleStatus(ModuleStatus.ACTIVE);
         Module savedModule = moduleRepository.save(module);
+        cache.invalidate(Region.MODULES);
         return convertToDto(savedModule);
     }
 
@@ -93,6 +99,7 @@ public class ModuleServiceImpl implements ModuleService {
         existingModule.setDescription(moduleDto.getDescription());
         
         Module updatedModule = moduleRepository.save(existingModule);
+        cache.invalidate(Region.MODULES);
         return convertToDto(updatedModule);
     }
 
@@ -103,6 +110,7 @@ public class ModuleServiceImpl implements ModuleService {
         
         module.setModuleStatus(ModuleStatus.INACTIVE);
         moduleRepository.save(module);
+        cache.invalidate(Region.MODULES);
     }
 
     @Override
@@ -112,6 +120,7 @@ public class ModuleServiceImpl implements ModuleService {
         
         module.setModuleStatus(ModuleStatus.ACTIVE);
         moduleRepository.save(module);
+        cache.invalidate(Region.MODULES);
     }
 
     @Override
@@ -121,6 +130,7 @@ public class ModuleServiceImpl implements ModuleService {
         
         module.setModuleStatus(ModuleStatus.INACTIVE);
         moduleRepository.save(module);
+        cache.invalidate(Region.MODULES);
     }
 
     @Override
@@ -1,12 +1,17 @@
 package com.ahss.service.impl;
 
+import com.ahss.audit.AsyncAuditLogWriter;
+import com.ahss.audit.AuditRecord;
+import com.ahss.datasource.UseWorkload;
+import com.ahss.datasource.Workload;
+import com.ahss.dto.response.CursorPage;
 import com.ahss.dto.response.PaymentAuditLogDto;
 import com.ahss.entity.PaymentAuditLog;
 import com.ahss.repository.PaymentAuditLogRepository;
 import com.ahss.service.PaymentAuditLogService;
+import com.ahss.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,24 +31,27 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
     @Autowired
     private PaymentAuditLogRepository auditLogRepository;
 
+    // Absent when payment.audit.async.enabled=false; audit rows are then saved in the caller's transaction
+    @Autowired(required = false)
+    private AsyncAuditLogWriter asyncAuditLogWriter;
+
     @Override
-    public PaymentAuditLogDto logPaymentRequestAction(UUID paymentRequestId, String action, String oldStatus,
-                                                     String newStatus, String description, Map<String, Object> changeDetails,
-                                                     Long userId, String userAgent, String ipAddress) {
+    public void logPaymentRequestAction(UUID paymentRequestId, String action, String oldStatus,
+                                        String newStatus, String description, Map<String, Object> changeDetails,
+                                        Long userId, String userAgent, String ipAddress) {
         PaymentAuditLog auditLog = PaymentAuditLog.createPaymentRequestAudit(
                 paymentRequestId, action, oldStatus, newStatus, description, userId);
         auditLog.setChangeDetails(changeDetails);
         auditLog.setUserAgent(userAgent);
         auditLog.setIpAddress(ipAddress);
         
-        PaymentAuditLog savedAuditLog = auditLogRepository.save(auditLog);
-        return convertToDto(savedAuditLog);
+        write(auditLog);
     }
 
     @Override
-    public PaymentAuditLogDto logTransactionAction(UUID paymentTransactionId, String action, String oldStatus,
-                                                  String newStatus, String description, Map<String, Object> changeDetails,
-                                                  Long userId, String userAgent, String ipAddress) {
+    public void logTransactionAction(UUID paymentTransactionId, String action, String oldStatus,
+                                     String newStatus, String description, Map<String, Object> changeDetails,
+                                     Long userId, String userAgent, String ipAddress) {
         PaymentAuditLog auditLog = PaymentAuditLog.createTransactionAudit(
                 null, paymentTransactionId, action, description, userId);
         auditLog.setOldStatus(oldStatus);
@@ -52,14 +60,13 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
         auditLog.setUserAgent(userAgent);
         auditLog.setIpAddress(ipAddress);
         
-        PaymentAuditLog savedAuditLog = auditLogRepository.save(auditLog);
-        return convertToDto(savedAuditLog);
+        write(auditLog);
     }
 
     @Override
-    public PaymentAuditLogDto logRefundAction(UUID paymentRefundId, String action, String oldStatus,
-                                             String newStatus, String description, Map<String, Object> changeDetails,
-                                             Long userId, String userAgent, String ipAddress) {
+    public void logRefundAction(UUID paymentRefundId, String action, String oldStatus,
+                                String newStatus, String description, Map<String, Object> changeDetails,
+                                Long userId, String userAgent, String ipAddress) {
         PaymentAuditLog auditLog = PaymentAuditLog.createRefundAudit(
                 null, paymentRefundId, action, description, userId);
         auditLog.setOldStatus(oldStatus);
@@ -68,8 +75,7 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
         auditLog.setUserAgent(userAgent);
         auditLog.setIpAddress(ipAddress);
         
-        PaymentAuditLog savedAuditLog = auditLogRepository.save(auditLog);
-        return convertToDto(savedAuditLog);
+        write(auditLog);
     }
 
     @Override
@@ -81,6 +87,7 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentAuditLogDto> getAllAuditLogs(Pageable pageable) {
         return auditLogRepository.findAll(pageable)
                 .map(this::convertToDto);
@@ -88,6 +95,21 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
+    public CursorPage<PaymentAuditLogDto> scrollAuditLogs(String cursor, int size, boolean includeTotal) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.clampSize(size);
+        List<PaymentAuditLog> rows = after == null
+                ? auditLogRepository.scrollFirst(KeysetCursor.probe(pageSize))
+                : auditLogRepository.scrollAfter(after.createdAt(), after.id(), KeysetCursor.probe(pageSize));
+        Long total = includeTotal ? auditLogRepository.count() : null;
+        return KeysetCursor.toPage(rows, pageSize, PaymentAuditLog::getCreatedAt, PaymentAuditLog::getId,
+                this::convertToDto, total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentAuditLogDto> getAuditLogsByPaymentRequest(UUID paymentRequestId, Pageable pageable) {
         return auditLogRepository.findByPaymentRequestIdOrderByCreatedAtDesc(paymentRequestId, pageable)
                 .map(this::convertToDto);
@@ -95,20 +117,23 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentAuditLogDto> getAuditLogsByTransaction(UUID paymentTransactionId, Pageable pageable) {
-        List<PaymentAuditLog> auditLogs = auditLogRepository.findByPaymentTransactionIdOrderByCreatedAtDesc(paymentTransactionId);
-        return convertListToPage(auditLogs, pageable);
+        return auditLogRepository.findByPaymentTransactionIdOrderByCreatedAtDesc(paymentTransactionId, pageable)
+                .map(this::convertToDto);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentAuditLogDto> getAuditLogsByRefund(UUID paymentRefundId, Pageable pageable) {
-        List<PaymentAuditLog> auditLogs = auditLogRepository.findByPaymentRefundIdOrderByCreatedAtDesc(paymentRefundId);
-        return convertListToPage(auditLogs, pageable);
+        return auditLogRepository.findByPaymentRefundIdOrderByCreatedAtDesc(paymentRefundId, pageable)
+                .map(this::convertToDto);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentAuditLogDto> getAuditLogsByAction(String action, Pageable pageable) {
         return auditLogRepository.findByActionOrderByCreatedAtDesc(action, pageable)
                 .map(this::convertToDto);
@@ -116,6 +141,7 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentAuditLogDto> getAuditLogsByUser(Long userId, Pageable pageable) {
         return auditLogRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
                 .map(this::convertToDto);
@@ -123,6 +149,7 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentAuditLogDto> getAuditLogsCreatedBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
         return auditLogRepository.findByCreatedAtBetweenOrderByCreatedAtDesc(startDate, endDate, pageable)
                 .map(this::convertToDto);
@@ -130,13 +157,15 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentAuditLogDto> getAuditLogsByIpAddress(String ipAddress, Pageable pageable) {
-        List<PaymentAuditLog> auditLogs = auditLogRepository.findByIpAddressOrderByCreatedAtDesc(ipAddress);
-        return convertListToPage(auditLogs, pageable);
+        return auditLogRepository.findByIpAddressOrderByCreatedAtDesc(ipAddress, pageable)
+                .map(this::convertToDto);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentAuditLogDto> searchAuditLogs(String searchTerm, Pageable pageable) {
         return auditLogRepository.searchAuditLogs(searchTerm, pageable)
                 .map(this::convertToDto);
@@ -144,6 +173,7 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public List<PaymentAuditLogDto> getSystemActions() {
         List<PaymentAuditLog> auditLogs = auditLogRepository.findSystemActionsOrderByCreatedAtDesc();
         return auditLogs.stream()
@@ -153,6 +183,7 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public List<PaymentAuditLogDto> getUserActions() {
         List<PaymentAuditLog> auditLogs = auditLogRepository.findUserActionsOrderByCreatedAtDesc();
         return auditLogs.stream()
@@ -162,6 +193,7 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public List<PaymentAuditLogDto> getStatusChanges() {
         List<PaymentAuditLog> auditLogs = auditLogRepository.findStatusChangesOrderByCreatedAtDesc();
         return auditLogs.stream()
@@ -201,6 +233,7 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public List<String> getDistinctActions() {
         return auditLogRepository.findDistinctActions();
     }
@@ -233,6 +266,7 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
 
     @Override
     @Transactional
+    @UseWorkload(Workload.JOBS)
     public void cleanupOldAuditLogs(LocalDateTime cutoffDate) {
         // Find and delete audit logs older than cutoff date
         List<PaymentAuditLog> oldLogs = auditLogRepository.findAll().stream()
@@ -244,19 +278,12 @@ public class PaymentAuditLogServiceImpl implements PaymentAuditLogService {
         }
     }
 
-    private Page<PaymentAuditLogDto> convertListToPage(List<PaymentAuditLog> auditLogs, Pageable pageable) {
-        List<PaymentAuditLogDto> dtos = auditLogs.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), dtos.size());
-        
-        if (start > dtos.size()) {
-            return new PageImpl<>(List.of(), pageable, dtos.size());
+    private void write(PaymentAuditLog auditLog) {
+        if (asyncAuditLogWriter != null) {
+            asyncAuditLogWriter.submit(AuditRecord.of(auditLog));
+        } else {
+            auditLogRepository.save(auditLog);
         }
-        
-        return new PageImpl<>(dtos.subList(start, end), pageable, dtos.size());
     }
 
     private PaymentAuditLogDto convertToDto(PaymentAuditLog entity) {
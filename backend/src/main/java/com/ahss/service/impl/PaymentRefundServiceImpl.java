@@ -1,7 +1,12 @@
 package com.ahss.service.impl;
 
+import com.ahss.concurrency.RetryOnConflict;
+import com.ahss.datasource.UseWorkload;
+import com.ahss.datasource.Workload;
 import com.ahss.dto.request.CreateRefundDto;
+import com.ahss.dto.response.CursorPage;
 import com.ahss.dto.response.PaymentRefundDto;
+import com.ahss.dto.response.PaymentRefundSummaryDto;
 import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentResponseDto;
 import com.ahss.dto.response.PaymentTransactionDto;
@@ -12,6 +17,7 @@ import com.ahss.enums.PaymentRequestStatus;
 import com.ahss.enums.PaymentTransactionStatus;
 import com.ahss.integration.PaymentIntegrator;
 import com.ahss.integration.PaymentIntegratorFactory;
+import com.ahss.maintenance.StaleRefundTimeout;
 import com.ahss.repository.PaymentRefundRepository;
 import com.ahss.repository.PaymentRequestRepository;
 import com.ahss.repository.PaymentTransactionRepository;
@@ -20,14 +26,16 @@ import com.ahss.exception.ResourceNotFoundException;
 import com.ahss.service.PaymentAuditLogService;
 import com.ahss.service.PaymentRefundService;
 import com.ahss.service.PaymentRequestService;
+import com.ahss.stats.PaymentStats;
+import com.ahss.util.KeysetCursor;
 import com.ahss.util.SecurityUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -36,6 +44,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -50,6 +59,8 @@ public class PaymentRefundServiceImpl implements PaymentRefundService {
     private final PaymentIntegratorFactory integratorFactory;
     private final PaymentRequestService paymentRequestService;
     private final PaymentAuditLogService auditLogService;
+    private final StaleRefundTimeout staleRefundTimeout;
+    private final PaymentStats paymentStats;
 
     public PaymentRefundServiceImpl(
             PaymentRefundRepository paymentRefundRepository,
@@ -57,13 +68,17 @@ public class PaymentRefundServiceImpl implements PaymentRefundService {
             PaymentRequestRepository paymentRequestRepository,
             PaymentIntegratorFactory integratorFactory,
             PaymentRequestService paymentRequestService,
-            PaymentAuditLogService auditLogService) {
+            PaymentAuditLogService auditLogService,
+            StaleRefundTimeout staleRefundTimeout,
+            PaymentStats paymentStats) {
         this.paymentRefundRepository = paymentRefundRepository;
         this.paymentTransactionRepository = paymentTransactionRepository;
         this.paymentRequestRepository = paymentRequestRepository;
         this.integratorFactory = integratorFactory;
         this.paymentRequestService = paymentRequestService;
         this.auditLogService = auditLogService;
+        this.staleRefundTimeout = staleRefundTimeout;
+        this.paymentStats = paymentStats;
     }
 
     @Override
@@ -158,7 +173,8 @@ public class PaymentRefundServiceImpl implements PaymentRefundService {
             // Call the payment gateway to process the refund
             log.info("Calling gateway to process refund of {} {} for transaction {}",
                     refund.getRefundAmount(), refund.getCurrency(), transactionDto.getId());
-            PaymentResponseDto gatewayResponse = integrator.processRefund(transactionDto, refund.getRefundAmount());
+            PaymentResponseDto gatewayResponse = integrator.processRefund(transactionDto, refund.getRefundAmount(),
+                    refund.getId());
 
             // Update refund with gateway response
             if (gatewayResponse.isSuccess()) {
@@ -269,82 +285,96 @@ public class PaymentRefundServiceImpl implements PaymentRefundService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PaymentRefundDto> getAllRefunds(Pageable pageable) {
-        return paymentRefundRepository.findAll(pageable)
-                .map(this::convertToDto);
+    @UseWorkload(Workload.REPORTING)
+    public Page<PaymentRefundSummaryDto> getAllRefunds(Pageable pageable) {
+        return paymentRefundRepository.findSummaries(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PaymentRefundDto> getRefundsByTransaction(UUID paymentTransactionId, Pageable pageable) {
-        List<PaymentRefund> refunds = paymentRefundRepository.findByPaymentTransactionId(paymentTransactionId);
-        return convertListToPage(refunds, pageable);
+    @UseWorkload(Workload.REPORTING)
+    public CursorPage<PaymentRefundSummaryDto> scrollRefunds(String cursor, int size, boolean includeTotal) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.clampSize(size);
+        List<PaymentRefundSummaryDto> rows = after == null
+                ? paymentRefundRepository.scrollFirst(KeysetCursor.probe(pageSize))
+                : paymentRefundRepository.scrollAfter(after.createdAt(), after.id(), KeysetCursor.probe(pageSize));
+        Long total = includeTotal ? paymentRefundRepository.count() : null;
+        return KeysetCursor.toPage(rows, pageSize, PaymentRefundSummaryDto::getCreatedAt,
+                PaymentRefundSummaryDto::getId, Function.identity(), total);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PaymentRefundDto> getRefundsByStatus(PaymentTransactionStatus status, Pageable pageable) {
-        return paymentRefundRepository.findByRefundStatus(status, pageable)
-                .map(this::convertToDto);
+    @UseWorkload(Workload.REPORTING)
+    public Page<PaymentRefundSummaryDto> getRefundsByTransaction(UUID paymentTransactionId, Pageable pageable) {
+        return paymentRefundRepository.findSummariesByPaymentTransactionId(paymentTransactionId, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
+    public Page<PaymentRefundSummaryDto> getRefundsByStatus(PaymentTransactionStatus status, Pageable pageable) {
+        return paymentRefundRepository.findSummariesByRefundStatus(status, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PaymentRefundDto> getRefundsByGateway(String gatewayName, Pageable pageable) {
-        List<PaymentRefund> refunds = paymentRefundRepository.findByGatewayName(gatewayName);
-        return convertListToPage(refunds, pageable);
+    @UseWorkload(Workload.REPORTING)
+    public Page<PaymentRefundSummaryDto> getRefundsByGateway(String gatewayName, Pageable pageable) {
+        return paymentRefundRepository.findSummariesByGatewayName(gatewayName, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PaymentRefundDto> getRefundsCreatedBetween(LocalDateTime startDate, LocalDateTime endDate,
+    @UseWorkload(Workload.REPORTING)
+    public Page<PaymentRefundSummaryDto> getRefundsCreatedBetween(LocalDateTime startDate, LocalDateTime endDate,
             Pageable pageable) {
-        List<PaymentRefund> refunds = paymentRefundRepository.findByCreatedAtBetween(startDate, endDate);
-        return convertListToPage(refunds, pageable);
+        return paymentRefundRepository.findSummariesByCreatedAtBetween(startDate, endDate, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PaymentRefundDto> getRefundsProcessedBetween(LocalDateTime startDate, LocalDateTime endDate,
+    @UseWorkload(Workload.REPORTING)
+    public Page<PaymentRefundSummaryDto> getRefundsProcessedBetween(LocalDateTime startDate, LocalDateTime endDate,
             Pageable pageable) {
-        List<PaymentRefund> refunds = paymentRefundRepository.findByProcessedAtBetween(startDate, endDate);
-        return convertListToPage(refunds, pageable);
+        return paymentRefundRepository.findSummariesByProcessedAtBetween(startDate, endDate, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PaymentRefundDto> getRefundsByAmountRange(BigDecimal minAmount, BigDecimal maxAmount,
+    @UseWorkload(Workload.REPORTING)
+    public Page<PaymentRefundSummaryDto> getRefundsByAmountRange(BigDecimal minAmount, BigDecimal maxAmount,
             Pageable pageable) {
-        List<PaymentRefund> refunds = paymentRefundRepository.findByRefundAmountBetween(minAmount, maxAmount);
-        return convertListToPage(refunds, pageable);
+        return paymentRefundRepository.findSummariesByRefundAmountBetween(minAmount, maxAmount, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PaymentRefundDto> getRefundsByCurrency(String currency, Pageable pageable) {
-        List<PaymentRefund> refunds = paymentRefundRepository.findByCurrency(currency);
-        return convertListToPage(refunds, pageable);
+    @UseWorkload(Workload.REPORTING)
+    public Page<PaymentRefundSummaryDto> getRefundsByCurrency(String currency, Pageable pageable) {
+        return paymentRefundRepository.findSummariesByCurrency(currency, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PaymentRefundDto> getRefundsByErrorCode(String errorCode, Pageable pageable) {
-        List<PaymentRefund> refunds = paymentRefundRepository.findByErrorCode(errorCode);
-        return convertListToPage(refunds, pageable);
+    @UseWorkload(Workload.REPORTING)
+    public Page<PaymentRefundSummaryDto> getRefundsByErrorCode(String errorCode, Pageable pageable) {
+        return paymentRefundRepository.findSummariesByErrorCode(errorCode, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PaymentRefundDto> getRefundsByReason(String reason, Pageable pageable) {
-        List<PaymentRefund> refunds = paymentRefundRepository.findByReasonContaining(reason);
-        return convertListToPage(refunds, pageable);
+    @UseWorkload(Workload.REPORTING)
+    public Page<PaymentRefundSummaryDto> getRefundsByReason(String reason, Pageable pageable) {
+        return paymentRefundRepository.findSummariesByReasonContaining(reason, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PaymentRefundDto> searchRefunds(String searchTerm, Pageable pageable) {
-        return paymentRefundRepository.searchRefunds(searchTerm, pageable)
-                .map(this::convertToDto);
+    @UseWorkload(Workload.REPORTING)
+    public Page<PaymentRefundSummaryDto> searchRefunds(String searchTerm, Pageable pageable) {
+        return paymentRefundRepository.searchSummaries(searchTerm, pageable);
     }
 
     @Override
@@ -386,6 +416,7 @@ public class PaymentRefundServiceImpl implements PaymentRefundService {
     }
 
     @Override
+    @RetryOnConflict
     public PaymentRefundDto updateRefundStatus(UUID id, PaymentTransactionStatus status, String reason) {
         PaymentRefund refund = paymentRefundRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment refund not found with id: " + id));
@@ -397,6 +428,7 @@ public class PaymentRefundServiceImpl implements PaymentRefundService {
     }
 
     @Override
+    @RetryOnConflict
     public PaymentRefundDto markAsProcessed(UUID id, String externalRefundId, Map<String, Object> gatewayResponse) {
         PaymentRefund refund = paymentRefundRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment refund not found with id: " + id));
@@ -411,6 +443,7 @@ public class PaymentRefundServiceImpl implements PaymentRefundService {
     }
 
     @Override
+    @RetryOnConflict
     public PaymentRefundDto markAsFailed(UUID id, String errorCode, String errorMessage) {
         PaymentRefund refund = paymentRefundRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment refund not found with id: " + id));
@@ -424,6 +457,7 @@ public class PaymentRefundServiceImpl implements PaymentRefundService {
     }
 
     @Override
+    @RetryOnConflict
     public PaymentRefundDto retryRefund(UUID id) {
         PaymentRefund refund = paymentRefundRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment refund not found with id: " + id));
@@ -437,6 +471,7 @@ public class PaymentRefundServiceImpl implements PaymentRefundService {
     }
 
     @Override
+    @RetryOnConflict
     public void cancelRefund(UUID id, String reason) {
         PaymentRefund refund = paymentRefundRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment refund not found with id: " + id));
@@ -484,7 +519,13 @@ public class PaymentRefundServiceImpl implements PaymentRefundService {
     @Override
     @Transactional(readOnly = true)
     public Long countByStatus(PaymentTransactionStatus status) {
-        return paymentRefundRepository.countByRefundStatus(status);
+        return paymentStats.count(PaymentStats.Subject.REFUND, status.name());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<PaymentTransactionStatus, Long> getStatusCountBreakdown() {
+        return paymentStats.countByStatus(PaymentStats.Subject.REFUND, PaymentTransactionStatus.class);
     }
 
     @Override
@@ -520,16 +561,10 @@ public class PaymentRefundServiceImpl implements PaymentRefundService {
     }
 
     @Override
-    public void processStaleRefunds() {
-        LocalDateTime cutoffTime = LocalDateTime.now().minusHours(24);
-        List<PaymentRefund> staleRefunds = paymentRefundRepository.findStaleRefunds(PaymentTransactionStatus.PENDING,
-                cutoffTime);
-
-        for (PaymentRefund refund : staleRefunds) {
-            refund.setRefundStatus(PaymentTransactionStatus.FAILED);
-            refund.setErrorMessage("Refund timed out");
-            paymentRefundRepository.save(refund);
-        }
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int processStaleRefunds() {
+        // Set-based and chunked, each chunk in its own transaction; normally run by the job scheduler
+        return staleRefundTimeout.timeOutStale();
     }
 
     @Override
@@ -537,21 +572,6 @@ public class PaymentRefundServiceImpl implements PaymentRefundService {
         // Implementation would sync with payment gateway
     }
 
-    private Page<PaymentRefundDto> convertListToPage(List<PaymentRefund> refunds, Pageable pageable) {
-        List<PaymentRefundDto> dtos = refunds.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), dtos.size());
-
-        if (start > dtos.size()) {
-            return new PageImpl<>(List.of(), pageable, dtos.size());
-        }
-
-        return new PageImpl<>(dtos.subList(start, end), pageable, dtos.size());
-    }
-
     private PaymentRefundDto convertToDto(PaymentRefund entity) {
         PaymentRefundDto dto = new PaymentRefundDto();
         dto.setId(entity.getId());
@@ -1,27 +1,48 @@
 package com.ahss.service.impl;
 
+import com.ahss.archive.PaymentArchive;
+import com.ahss.concurrency.RetryOnConflict;
+import com.ahss.datasource.UseWorkload;
+import com.ahss.datasource.Workload;
 import com.ahss.dto.request.CreatePaymentRequestDto;
 import com.ahss.dto.request.UpdatePaymentRequestDto;
+import com.ahss.dto.response.BulkPaymentRequestResultDto;
 import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentSummaryDto;
 import com.ahss.entity.PaymentRequest;
 import com.ahss.enums.PaymentRequestStatus;
 import com.ahss.enums.PaymentMethodType;
+import com.ahss.exception.BadRequestException;
+import com.ahss.maintenance.PaymentRequestExpiry;
 import com.ahss.repository.PaymentRequestRepository;
 import com.ahss.service.PaymentRequestService;
 import com.ahss.service.PaymentAuditLogService;
+import com.ahss.stats.PaymentStats;
+import com.ahss.util.UuidV7;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,12 +50,44 @@ import java.util.stream.Collectors;
 @Transactional
 public class PaymentRequestServiceImpl implements PaymentRequestService {
 
+    static final String BULK_INSERT_SQL =
+            "INSERT INTO payment_request (payment_request_id, request_code, payment_token, title, amount, currency, " +
+            "payer_name, payer_email, payer_phone, allowed_payment_methods, pre_selected_payment_method, status, " +
+            "expires_at, tenant_id, metadata, version, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS text[]), CAST(? AS payment_method_type), " +
+            "CAST(? AS payment_request_status), ?, ?, CAST(? AS jsonb), 0, ?, ?)";
+
+    static final String BULK_AUDIT_SQL =
+            "INSERT INTO payment_audit_log (payment_audit_log_id, payment_request_id, action, entity_type, " +
+            "new_status, reason, created_at) VALUES (?, ?, 'CREATED', 'PAYMENT_REQUEST', ?, ?, ?)";
+
+    static final String EXISTING_TENANTS_SQL =
+            "SELECT tenant_id FROM tenant WHERE tenant_id = ANY(CAST(? AS bigint[]))";
+
     @Autowired
     private PaymentRequestRepository paymentRequestRepository;
 
     @Autowired
     private PaymentAuditLogService auditLogService;
 
+    @Autowired
+    private PaymentArchive paymentArchive;
+
+    @Autowired
+    private PaymentRequestExpiry paymentRequestExpiry;
+
+    @Autowired
+    private PaymentStats paymentStats;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Override
     public PaymentRequestDto createPaymentRequest(CreatePaymentRequestDto createDto) {
         PaymentRequest paymentRequest = convertToEntity(createDto);
@@ -56,10 +109,47 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
         return convertToDto(savedRequest);
     }
 
+    @Override
+    public List<BulkPaymentRequestResultDto> createPaymentRequests(List<CreatePaymentRequestDto> createDtos) {
+        // OLTP pool: the caller is waiting on this request, and the small jobs pool is left to
+        // the scheduled expiry, compaction and archiving runs
+        // Bean validation is CPU-only and independent per request
+        List<String> errors = createDtos.parallelStream().map(this::validationError).toList();
+        Set<Long> tenants = existingTenants(createDtos, errors);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PaymentRequest> created = new ArrayList<>();
+        List<BulkPaymentRequestResultDto> results = new ArrayList<>(createDtos.size());
+        for (int i = 0; i < createDtos.size(); i++) {
+            CreatePaymentRequestDto dto = createDtos.get(i);
+            if (errors.get(i) != null) {
+                results.add(BulkPaymentRequestResultDto.rejected(errors.get(i)));
+            } else if (!tenants.contains(dto.getTenantId())) {
+                results.add(BulkPaymentRequestResultDto.rejected("tenantId: Tenant not found"));
+            } else {
+                PaymentRequest request = convertToEntity(dto);
+                request.setId(UuidV7.generate());
+                request.setRequestCode(bulkRequestCode(request.getId(), now));
+                request.setPaymentToken(UUID.randomUUID().toString().replace("-", ""));
+                request.setCreatedAt(now);
+                request.setUpdatedAt(now);
+                created.add(request);
+                results.add(BulkPaymentRequestResultDto.created(
+                        request.getId(), request.getRequestCode(), request.getPaymentToken()));
+            }
+        }
+        if (!created.isEmpty()) {
+            insertCreated(created, Timestamp.valueOf(now));
+        }
+        return results;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<PaymentRequestDto> getPaymentRequestById(UUID id) {
+        // Settled payments past the dispute window have been moved to the cold archive
         return paymentRequestRepository.findById(id)
+                .or(() -> paymentArchive.findPaymentRequest(id))
                 .map(this::convertToDto);
     }
 
@@ -78,6 +168,7 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
     }
 
     @Override
+    @RetryOnConflict
     public PaymentRequestDto updatePaymentRequest(UUID id, UpdatePaymentRequestDto updateDto) {
         PaymentRequest existingRequest = paymentRequestRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment request not found with id: " + id));
@@ -125,6 +216,7 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentRequestDto> getAllPaymentRequests(Pageable pageable) {
         return paymentRequestRepository.findAll(pageable)
                 .map(this::convertToDto);
@@ -132,6 +224,7 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentRequestDto> getPaymentRequestsByStatus(PaymentRequestStatus status, Pageable pageable) {
         return paymentRequestRepository.findByStatus(status, pageable)
                 .map(this::convertToDto);
@@ -139,6 +232,7 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentRequestDto> getPaymentRequestsByTenant(Long tenantId, Pageable pageable) {
         return paymentRequestRepository.findByTenantId(tenantId, pageable)
                 .map(this::convertToDto);
@@ -146,6 +240,7 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentRequestDto> getPaymentRequestsByPayerEmail(String payerEmail, Pageable pageable) {
         return paymentRequestRepository.findByPayerEmail(payerEmail, pageable)
                 .map(this::convertToDto);
@@ -153,32 +248,44 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentRequestDto> getPaymentRequestsCreatedBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
-        List<PaymentRequest> requests = paymentRequestRepository.findByCreatedAtBetween(startDate, endDate);
-        return convertListToPage(requests, pageable);
+        return paymentRequestRepository.findByCreatedAtBetween(startDate, endDate, pageable)
+                .map(this::convertToDto);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentRequestDto> getPaymentRequestsByAmountRange(BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable) {
-        List<PaymentRequest> requests = paymentRequestRepository.findByAmountBetween(minAmount, maxAmount);
-        return convertListToPage(requests, pageable);
+        return paymentRequestRepository.findByAmountBetween(minAmount, maxAmount, pageable)
+                .map(this::convertToDto);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentRequestDto> getPaymentRequestsByCurrency(String currency, Pageable pageable) {
-        List<PaymentRequest> requests = paymentRequestRepository.findByCurrency(currency);
-        return convertListToPage(requests, pageable);
+        return paymentRequestRepository.findByCurrency(currency, pageable)
+                .map(this::convertToDto);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public Page<PaymentRequestDto> searchPaymentRequests(String searchTerm, Pageable pageable) {
         return paymentRequestRepository.searchPaymentRequests(searchTerm, pageable)
                 .map(this::convertToDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
+    public Page<PaymentRequestDto> searchPaymentRequestsByTenant(Long tenantId, String searchTerm, Pageable pageable) {
+        return paymentRequestRepository.searchPaymentRequestsByTenant(tenantId, searchTerm, pageable)
+                .map(this::convertToDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<PaymentRequestDto> getExpiredPaymentRequests() {
@@ -200,9 +307,14 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
     }
 
     @Override
+    @RetryOnConflict
     public PaymentRequestDto cancelPaymentRequest(UUID id, String reason) {
         PaymentRequest paymentRequest = paymentRequestRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment request not found with id: " + id));
+        // Also catches a payment that completed concurrently: the retried attempt sees it here
+        if (paymentRequest.getStatus().isFinalState()) {
+            throw new BadRequestException("Payment request " + id + " is already " + paymentRequest.getStatus());
+        }
 
         String oldStatus = paymentRequest.getStatus().toString();
         paymentRequest.setStatus(PaymentRequestStatus.CANCELLED);
@@ -225,12 +337,13 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
     }
 
     @Override
+    @RetryOnConflict
     public PaymentRequestDto expirePaymentRequest(UUID id) {
         PaymentRequest paymentRequest = paymentRequestRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment request not found with id: " + id));
 
         String oldStatus = paymentRequest.getStatus().toString();
-        paymentRequest.setStatus(PaymentRequestStatus.CANCELLED); // Using CANCELLED as there's no EXPIRED
+        paymentRequest.setStatus(PaymentRequestStatus.EXPIRED);
         PaymentRequest updatedRequest = paymentRequestRepository.save(paymentRequest);
 
         // Log the expiration
@@ -238,7 +351,7 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
             id,
             "EXPIRED",
             oldStatus,
-            PaymentRequestStatus.CANCELLED.toString(),
+            PaymentRequestStatus.EXPIRED.toString(),
             "Payment request expired",
             null,
             null,
@@ -250,6 +363,7 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
     }
 
     @Override
+    @RetryOnConflict
     public PaymentRequestDto markAsPaid(UUID id, LocalDateTime paidAt) {
         PaymentRequest paymentRequest = paymentRequestRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment request not found with id: " + id));
@@ -276,6 +390,7 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
     }
 
     @Override
+    @RetryOnConflict
     public PaymentRequestDto updateStatus(UUID id, PaymentRequestStatus newStatus, String reason) {
         PaymentRequest paymentRequest = paymentRequestRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment request not found with id: " + id));
@@ -314,7 +429,13 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
     @Override
     @Transactional(readOnly = true)
     public Long countByStatus(PaymentRequestStatus status) {
-        return paymentRequestRepository.countByStatus(status);
+        return paymentStats.count(PaymentStats.Subject.REQUEST, status.name());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<PaymentRequestStatus, Long> getStatusCountBreakdown() {
+        return paymentStats.countByStatus(PaymentStats.Subject.REQUEST, PaymentRequestStatus.class);
     }
 
     @Override
@@ -331,56 +452,58 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public PaymentSummaryDto getPaymentSummary(Long tenantId) {
-        PaymentSummaryDto summary = new PaymentSummaryDto();
-        
-        // Set payment request counts - using simplified approach
-        summary.setTotalPaymentRequests(paymentRequestRepository.countByTenantIdAndStatus(tenantId, PaymentRequestStatus.PENDING) +
-                                       paymentRequestRepository.countByTenantIdAndStatus(tenantId, PaymentRequestStatus.COMPLETED) +
-                                       paymentRequestRepository.countByTenantIdAndStatus(tenantId, PaymentRequestStatus.FAILED));
-        summary.setPendingPaymentRequests(paymentRequestRepository.countByTenantIdAndStatus(tenantId, PaymentRequestStatus.PENDING));
-        summary.setCompletedPaymentRequests(paymentRequestRepository.countByTenantIdAndStatus(tenantId, PaymentRequestStatus.COMPLETED));
-        summary.setFailedPaymentRequests(paymentRequestRepository.countByTenantIdAndStatus(tenantId, PaymentRequestStatus.FAILED));
-        
-        // Set amounts - using simplified approach with USD currency
-        summary.setTotalAmount(paymentRequestRepository.sumAmountByStatusAndCurrency(PaymentRequestStatus.COMPLETED, "USD"));
-        summary.setPendingAmount(paymentRequestRepository.sumAmountByStatusAndCurrency(PaymentRequestStatus.PENDING, "USD"));
-        summary.setCompletedAmount(paymentRequestRepository.sumAmountByStatusAndCurrency(PaymentRequestStatus.COMPLETED, "USD"));
-        
-        return summary;
+        return summarize(paymentStats.totals(PaymentStats.Subject.REQUEST, tenantId, null, null));
     }
 
     @Override
     @Transactional(readOnly = true)
+    @UseWorkload(Workload.REPORTING)
     public PaymentSummaryDto getPaymentSummaryBetween(Long tenantId, LocalDateTime startDate, LocalDateTime endDate) {
-        // Implementation would be similar to getPaymentSummary but with date filters
-        return getPaymentSummary(tenantId); // Simplified for now
+        // The aggregates are per day of creation, so the range covers whole days
+        LocalDate from = startDate != null ? startDate.toLocalDate() : null;
+        LocalDate to = endDate != null ? endDate.toLocalDate() : null;
+        return summarize(paymentStats.totals(PaymentStats.Subject.REQUEST, tenantId, from, to));
     }
 
     @Override
-    public void processExpiredPaymentRequests() {
-        List<PaymentRequestStatus> expirableStatuses = List.of(PaymentRequestStatus.PENDING, PaymentRequestStatus.DRAFT);
-        List<PaymentRequest> expiredRequests = paymentRequestRepository.findExpiredPaymentRequests(LocalDateTime.now(), expirableStatuses);
-        for (PaymentRequest request : expiredRequests) {
-            if (request.getStatus() == PaymentRequestStatus.PENDING) {
-                expirePaymentRequest(request.getId());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int processExpiredPaymentRequests() {
+        // Set-based and chunked, each chunk in its own transaction; only PENDING requests expire
+        return paymentRequestExpiry.expireDue();
+    }
+
+    private PaymentSummaryDto summarize(List<PaymentStats.Totals> totals) {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        Map<String, BigDecimal> completedByCurrency = new LinkedHashMap<>();
+        BigDecimal pendingUsd = BigDecimal.ZERO;
+        BigDecimal completedUsd = BigDecimal.ZERO;
+        for (PaymentStats.Totals row : totals) {
+            byStatus.merge(row.status(), row.count(), Long::sum);
+            if (PaymentRequestStatus.COMPLETED.name().equals(row.status())) {
+                completedByCurrency.merge(row.currency(), row.amount(), BigDecimal::add);
+                if ("USD".equals(row.currency())) {
+                    completedUsd = completedUsd.add(row.amount());
+                }
+            } else if (PaymentRequestStatus.PENDING.name().equals(row.status()) && "USD".equals(row.currency())) {
+                pendingUsd = pendingUsd.add(row.amount());
             }
         }
-    }
 
-    private Page<PaymentRequestDto> convertListToPage(List<PaymentRequest> requests, Pageable pageable) {
-        List<PaymentRequestDto> dtos = requests.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), dtos.size());
-        
-        if (start > dtos.size()) {
-            return new PageImpl<>(List.of(), pageable, dtos.size());
-        }
-        
-        return new PageImpl<>(dtos.subList(start, end), pageable, dtos.size());
+        PaymentSummaryDto summary = new PaymentSummaryDto();
+        summary.setTotalPaymentRequests(byStatus.values().stream().mapToLong(Long::longValue).sum());
+        summary.setPendingPaymentRequests(byStatus.getOrDefault(PaymentRequestStatus.PENDING.name(), 0L));
+        summary.setCompletedPaymentRequests(byStatus.getOrDefault(PaymentRequestStatus.COMPLETED.name(), 0L));
+        summary.setFailedPaymentRequests(byStatus.getOrDefault(PaymentRequestStatus.FAILED.name(), 0L));
+        summary.setExpiredPaymentRequests(byStatus.getOrDefault(PaymentRequestStatus.EXPIRED.name(), 0L));
+        // Amount fields stay in USD; other currencies show up in the currency breakdown
+        summary.setTotalAmount(completedUsd);
+        summary.setPendingAmount(pendingUsd);
+        summary.setCompletedAmount(completedUsd);
+        summary.setCurrencyBreakdown(completedByCurrency);
+        summary.setStatusBreakdown(byStatus);
+        return summary;
     }
 
     private PaymentRequestDto convertToDto(PaymentRequest entity) {
@@ -408,6 +531,83 @@ public class PaymentRequestServiceImpl implements PaymentRequestService {
         return dto;
     }
 
+    private String validationError(CreatePaymentRequestDto dto) {
+        if (dto == null) {
+            return "Empty payment request";
+        }
+        Set<ConstraintViolation<CreatePaymentRequestDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private Set<Long> existingTenants(List<CreatePaymentRequestDto> createDtos, List<String> errors) {
+        // One lookup per chunk, so an unknown tenant rejects its line instead of failing the batch on the FK
+        Set<Long> requested = new HashSet<>();
+        for (int i = 0; i < createDtos.size(); i++) {
+            if (errors.get(i) == null) {
+                requested.add(createDtos.get(i).getTenantId());
+            }
+        }
+        if (requested.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(EXISTING_TENANTS_SQL, Long.class,
+                (Object) requested.toArray(new Long[0])));
+    }
+
+    private void insertCreated(List<PaymentRequest> requests, Timestamp now) {
+        jdbcTemplate.batchUpdate(BULK_INSERT_SQL, requests, requests.size(), (ps, request) -> {
+            ps.setObject(1, request.getId());
+            ps.setString(2, request.getRequestCode());
+            ps.setString(3, request.getPaymentToken());
+            ps.setString(4, request.getTitle());
+            ps.setBigDecimal(5, request.getAmount());
+            ps.setString(6, request.getCurrency());
+            ps.setString(7, request.getPayerName());
+            ps.setString(8, request.getPayerEmail());
+            ps.setString(9, request.getPayerPhone());
+            ps.setObject(10, Arrays.stream(request.getAllowedPaymentMethods()).map(Enum::name).toArray(String[]::new));
+            ps.setString(11, request.getPreSelectedPaymentMethod() != null
+                    ? request.getPreSelectedPaymentMethod().name() : null);
+            ps.setString(12, request.getStatus().name());
+            ps.setTimestamp(13, request.getExpiresAt() != null ? Timestamp.valueOf(request.getExpiresAt()) : null);
+            ps.setLong(14, request.getTenantId());
+            ps.setString(15, toJson(request.getMetadata()));
+            ps.setTimestamp(16, now);
+            ps.setTimestamp(17, now);
+        });
+        jdbcTemplate.batchUpdate(BULK_AUDIT_SQL, requests, requests.size(), (ps, request) -> {
+            ps.setObject(1, UuidV7.generate());
+            ps.setObject(2, request.getId());
+            ps.setString(3, request.getStatus().name());
+            ps.setString(4, "Payment request created");
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Invalid metadata: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    // The entity's own code is derived from the clock and repeats within a batch; the random
+    // bits of the UUIDv7 id do not
+    private static String bulkRequestCode(UUID id, LocalDateTime now) {
+        return "PR-" + now.getYear() + "-"
+                + Long.toString(id.getLeastSignificantBits() & 0x3FFF_FFFF_FFFF_FFFFL, 36).toUpperCase();
+    }
+
     private PaymentRequest convertToEntity(CreatePaymentRequestDto dto) {
         PaymentRequest entity = new PaymentRequest();
         entity.setTitle(dto.getTitle());
@@ -1,9 +1,14 @@
 package com.ahss.service.impl;
 
+import com.ahss.concurrency.RetryOnConflict;
+import com.ahss.datasource.UseWorkload;
+import com.ahss.datasource.Workload;
 import com.ahss.dto.request.ProcessPaymentDto;
+import com.ahss.dto.response.CursorPage;
 import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentResponseDto;
 import com.ahss.dto.response.PaymentTransactionDto;
+import com.ahss.dto.response.PaymentTransactionSummaryDto;
 import com.ahss.entity.PaymentTransaction;
 import com.ahss.enums.PaymentTransactionStatus;
 import com.ahss.enums.PaymentTransactionType;
@@ -13,18 +18,21 @@ import com.ahss.integration.PaymentIntegratorFactory;
 import com.ahss.integration.PaymentResponseAdapter;
 import com.ahss.kafka.event.PaymentCallbackEvent;
 import com.ahss.kafka.producer.PaymentCallbackProducer;
+import com.ahss.maintenance.StaleTransactionTimeout;
 import com.ahss.repository.PaymentTransactionRepository;
 import com.ahss.service.PaymentTransactionService;
 import com.ahss.service.PaymentAuditLogService;
 import com.ahss.service.PaymentRequestService;
+import com.ahss.stats.PaymentStats;
+import com.ahss.util.KeysetCursor;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -33,6 +41,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -52,19 +61,27 @@ public class PaymentTransactionServiceImpl implements PaymentTransactionService
   private final PaymentCallbackProducer paymentCallbackProducer;
   private final ObjectMapper objectMapper;
 
+  private final StaleTransactionTimeout staleTransactionTimeout;
+
+  private final PaymentStats paymentStats;
+
   public PaymentTransactionServiceImpl(
       PaymentTransactionRepository paymentTransactionRepository,
       PaymentAuditLogService auditLogService,
       PaymentRequestService paymentRequestService,
       PaymentIntegratorFactory integratorFactory,
       PaymentCallbackProducer paymentCallbackProducer,
-      ObjectMapper objectMapper) {
+      ObjectMapper objectMapper,
+      StaleTransactionTimeout staleTransactionTimeout,
+      PaymentStats paymentStats) {
     this.paymentTransactionRepository = paymentTransactionRepository;
     this.auditLogService = auditLogService;
     this.paymentRequestService = paymentRequestService;
     this.integratorFactory = integratorFactory;
     this.paymentCallbackProducer = paymentCallbackProducer;
     this.objectMapper = objectMapper;
+    this.staleTransactionTimeout = staleTransactionTimeout;
+    this.paymentStats = paymentStats;
   }
 
   @Override
@@ -162,103 +179,120 @@ public class PaymentTransactionServiceImpl implements PaymentTransactionService
 
   @Override
   @Transactional(readOnly = true)
-  public Page<PaymentTransactionDto> getAllTransactions(Pageable pageable) {
-    return paymentTransactionRepository.findAll(pageable).map(this::convertToDto);
+  @UseWorkload(Workload.REPORTING)
+  public Page<PaymentTransactionSummaryDto> getAllTransactions(Pageable pageable) {
+    return paymentTransactionRepository.findSummaries(pageable);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  @UseWorkload(Workload.REPORTING)
+  public CursorPage<PaymentTransactionSummaryDto> scrollTransactions(
+      String cursor, int size, boolean includeTotal) {
+    KeysetCursor after = KeysetCursor.decode(cursor);
+    int pageSize = KeysetCursor.clampSize(size);
+    List<PaymentTransactionSummaryDto> rows =
+        after == null
+            ? paymentTransactionRepository.scrollFirst(KeysetCursor.probe(pageSize))
+            : paymentTransactionRepository.scrollAfter(
+                after.createdAt(), after.id(), KeysetCursor.probe(pageSize));
+    Long total = includeTotal ? paymentTransactionRepository.count() : null;
+    return KeysetCursor.toPage(
+        rows,
+        pageSize,
+        PaymentTransactionSummaryDto::getCreatedAt,
+        PaymentTransactionSummaryDto::getId,
+        Function.identity(),
+        total);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public Page<PaymentTransactionDto> getTransactionsByPaymentRequest(
+  @UseWorkload(Workload.REPORTING)
+  public Page<PaymentTransactionSummaryDto> getTransactionsByPaymentRequest(
       UUID paymentRequestId, Pageable pageable) {
-    List<PaymentTransaction> transactions =
-        paymentTransactionRepository.findByPaymentRequestId(paymentRequestId);
-    return convertListToPage(transactions, pageable);
+    return paymentTransactionRepository.findSummariesByPaymentRequestId(paymentRequestId, pageable);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public Page<PaymentTransactionDto> getTransactionsByStatus(
+  @UseWorkload(Workload.REPORTING)
+  public Page<PaymentTransactionSummaryDto> getTransactionsByStatus(
       PaymentTransactionStatus status, Pageable pageable) {
-    return paymentTransactionRepository
-        .findByTransactionStatus(status, pageable)
-        .map(this::convertToDto);
+    return paymentTransactionRepository.findSummariesByTransactionStatus(status, pageable);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public Page<PaymentTransactionDto> getTransactionsByType(
+  @UseWorkload(Workload.REPORTING)
+  public Page<PaymentTransactionSummaryDto> getTransactionsByType(
       PaymentTransactionType type, Pageable pageable) {
-    List<PaymentTransaction> transactions =
-        paymentTransactionRepository.findByTransactionType(type);
-    return convertListToPage(transactions, pageable);
+    return paymentTransactionRepository.findSummariesByTransactionType(type, pageable);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public Page<PaymentTransactionDto> getTransactionsByPaymentMethod(
+  @UseWorkload(Workload.REPORTING)
+  public Page<PaymentTransactionSummaryDto> getTransactionsByPaymentMethod(
       PaymentMethodType paymentMethod, Pageable pageable) {
-    List<PaymentTransaction> transactions =
-        paymentTransactionRepository.findByPaymentMethod(paymentMethod);
-    return convertListToPage(transactions, pageable);
+    return paymentTransactionRepository.findSummariesByPaymentMethod(paymentMethod, pageable);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public Page<PaymentTransactionDto> getTransactionsByGateway(
+  @UseWorkload(Workload.REPORTING)
+  public Page<PaymentTransactionSummaryDto> getTransactionsByGateway(
       String gatewayName, Pageable pageable) {
-    List<PaymentTransaction> transactions =
-        paymentTransactionRepository.findByGatewayName(gatewayName);
-    return convertListToPage(transactions, pageable);
+    return paymentTransactionRepository.findSummariesByGatewayName(gatewayName, pageable);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public Page<PaymentTransactionDto> getTransactionsCreatedBetween(
+  @UseWorkload(Workload.REPORTING)
+  public Page<PaymentTransactionSummaryDto> getTransactionsCreatedBetween(
       LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
-    List<PaymentTransaction> transactions =
-        paymentTransactionRepository.findByCreatedAtBetween(startDate, endDate);
-    return convertListToPage(transactions, pageable);
+    return paymentTransactionRepository
+        .findSummariesByCreatedAtBetween(startDate, endDate, pageable);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public Page<PaymentTransactionDto> getTransactionsProcessedBetween(
+  @UseWorkload(Workload.REPORTING)
+  public Page<PaymentTransactionSummaryDto> getTransactionsProcessedBetween(
       LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
-    List<PaymentTransaction> transactions =
-        paymentTransactionRepository.findByProcessedAtBetween(startDate, endDate);
-    return convertListToPage(transactions, pageable);
+    return paymentTransactionRepository
+        .findSummariesByProcessedAtBetween(startDate, endDate, pageable);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public Page<PaymentTransactionDto> getTransactionsByAmountRange(
+  @UseWorkload(Workload.REPORTING)
+  public Page<PaymentTransactionSummaryDto> getTransactionsByAmountRange(
       BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable) {
-    List<PaymentTransaction> transactions =
-        paymentTransactionRepository.findByAmountBetween(minAmount, maxAmount);
-    return convertListToPage(transactions, pageable);
+    return paymentTransactionRepository
+        .findSummariesByAmountBetween(minAmount, maxAmount, pageable);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public Page<PaymentTransactionDto> getTransactionsByCurrency(String currency, Pageable pageable) {
-    List<PaymentTransaction> transactions = paymentTransactionRepository.findByCurrency(currency);
-    return convertListToPage(transactions, pageable);
+  @UseWorkload(Workload.REPORTING)
+  public Page<PaymentTransactionSummaryDto> getTransactionsByCurrency(String currency, Pageable pageable) {
+    return paymentTransactionRepository.findSummariesByCurrency(currency, pageable);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public Page<PaymentTransactionDto> getTransactionsByErrorCode(
+  @UseWorkload(Workload.REPORTING)
+  public Page<PaymentTransactionSummaryDto> getTransactionsByErrorCode(
       String errorCode, Pageable pageable) {
-    List<PaymentTransaction> transactions = paymentTransactionRepository.findByErrorCode(errorCode);
-    return convertListToPage(transactions, pageable);
+    return paymentTransactionRepository.findSummariesByErrorCode(errorCode, pageable);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public Page<PaymentTransactionDto> searchTransactions(String searchTerm, Pageable pageable) {
-    return paymentTransactionRepository
-        .searchTransactions(searchTerm, pageable)
-        .map(this::convertToDto);
+  @UseWorkload(Workload.REPORTING)
+  public Page<PaymentTransactionSummaryDto> searchTransactions(String searchTerm, Pageable pageable) {
+    return paymentTransactionRepository.searchSummaries(searchTerm, pageable);
   }
 
   @Override
@@ -280,6 +314,7 @@ public class PaymentTransactionServiceImpl implements PaymentTransactionService
   }
 
   @Override
+  @RetryOnConflict
   public PaymentTransactionDto updateTransactionStatus(
       UUID id, PaymentTransactionStatus status, String reason) {
     PaymentTransaction transaction =
@@ -296,6 +331,7 @@ public class PaymentTransactionServiceImpl implements PaymentTransactionService
   }
 
   @Override
+  @RetryOnConflict
   public PaymentTransactionDto markAsProcessed(
       UUID id, String externalTransactionId, Map<String, Object> gatewayResponse) {
     PaymentTransaction transaction =
@@ -313,6 +349,7 @@ public class PaymentTransactionServiceImpl implements PaymentTransactionService
   }
 
   @Override
+  @RetryOnConflict
   public PaymentTransactionDto markAsFailed(UUID id, String errorCode, String errorMessage) {
     PaymentTransaction transaction =
         paymentTransactionRepository
@@ -330,6 +367,7 @@ public class PaymentTransactionServiceImpl implements PaymentTransactionService
   }
 
   @Override
+  @RetryOnConflict
   public PaymentTransactionDto retryTransaction(UUID id) {
     PaymentTransaction transaction =
         paymentTransactionRepository
@@ -353,6 +391,7 @@ public class PaymentTransactionServiceImpl implements PaymentTransactionService
   }
 
   @Override
+  @RetryOnConflict
   public void cancelTransaction(UUID id, String reason) {
     PaymentTransaction transaction =
         paymentTransactionRepository
@@ -380,7 +419,13 @@ public class PaymentTransactionServiceImpl implements PaymentTransactionService
   @Override
   @Transactional(readOnly = true)
   public Long countByStatus(PaymentTransactionStatus status) {
-    return paymentTransactionRepository.countByTransactionStatus(status);
+    return paymentStats.count(PaymentStats.Subject.TRANSACTION, status.name());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Map<PaymentTransactionStatus, Long> getStatusCountBreakdown() {
+    return paymentStats.countByStatus(PaymentStats.Subject.TRANSACTION, PaymentTransactionStatus.class);
   }
 
   @Override
@@ -418,8 +463,10 @@ public class PaymentTransactionServiceImpl implements PaymentTransactionService
   }
 
   @Override
-  public void processStaleTransactions() {
-    // Implementation would process stale transactions
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public int processStaleTransactions() {
+    // Set-based and chunked, each chunk in its own transaction; normally run by the job scheduler
+    return staleTransactionTimeout.timeOutStale();
   }
 
   @Override
@@ -434,21 +481,6 @@ public class PaymentTransactionServiceImpl implements PaymentTransactionService
     // For now, just log the action
   }
 
-  private Page<PaymentTransactionDto> convertListToPage(
-      List<PaymentTransaction> transactions, Pageable pageable) {
-    List<PaymentTransactionDto> dtos =
-        transactions.stream().map(this::convertToDto).collect(Collectors.toList());
-
-    int start = (int) pageable.getOffset();
-    int end = Math.min((start + pageable.getPageSize()), dtos.size());
-
-    if (start > dtos.size()) {
-      return new PageImpl<>(List.of(), pageable, dtos.size());
-    }
-
-    return new PageImpl<>(dtos.subList(start, end), pageable, dtos.size());
-  }
-
   private PaymentTransactionDto convertToDto(PaymentTransaction entity) {
     PaymentTransactionDto dto = new PaymentTransactionDto();
     dto.setId(entity.getId());
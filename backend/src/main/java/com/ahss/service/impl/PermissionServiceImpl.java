@@ -1,5 +1,7 @@
 package com.ahss.service.impl;
 
+import com.ahss.cache.ReferenceDataCache;
+import com.ahss.cache.ReferenceDataCache.Region;
 import com.ahss.dto.PermissionDto;
 import com.ahss.entity.Permission;
 import com.ahss.repository.PermissionRepository;
@@ -19,20 +21,23 @@ public class PermissionServiceImpl implements PermissionService {
     @Autowired
     private PermissionRepository permissionRepository;
 
+    @Autowired
+    private ReferenceDataCache cache;
+
     @Override
     @Transactional(readOnly = true)
     public List<PermissionDto> getAllActivePermissions() {
-        return permissionRepository.findAllOrderByName()
+        return cache.get(Region.PERMISSIONS, "active", () -> permissionRepository.findAllOrderByName()
                 .stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<PermissionDto> getPermissionById(Long id) {
-        return permissionRepository.findById(id)
-                .map(this::convertToDto);
+        return cache.get(Region.PERMISSIONS, id, () -> permissionRepository.findById(id)
+                .map(this::convertToDto));
     }
 
     @Override
@@ -43,6 +48,7 @@ public class PermissionServiceImpl implements PermissionService {
         
         Permission permission = convertToEntity(permissionDto);
         Permission savedPermission = permissionRepository.save(permission);
+        cache.invalidate(Region.PERMISSIONS);
         return convertToDto(savedPermission);
     }
 
@@ -61,6 +67,7 @@ public class PermissionServiceImpl implements PermissionService {
         existingPermission.setDescription(permissionDto.getDescription());
         
         Permission updatedPermission = permissionRepository.save(existingPermission);
+        cache.invalidate(Region.PERMISSIONS);
         return convertToDto(updatedPermission);
     }
 
@@ -70,6 +77,7 @@ public class PermissionServiceImpl implements PermissionService {
                 .orElseThrow(() -> new IllegalArgumentException("Permission not found with id: " + id));
         
         permissionRepository.delete(permission);
+        cache.invalidate(Region.PERMISSIONS);
     }
 
     @Override
@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ahss.cache.ReferenceDataCache;
+import com.ahss.cache.ReferenceDataCache.Region;
 import com.ahss.dto.ProductDto;
 import com.ahss.entity.Product;
 import com.ahss.entity.ProductStatus;
@@ -25,21 +27,24 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private ModuleService moduleService;
 
+    @Autowired
+    private ReferenceDataCache cache;
+
     @Override
     @Transactional(readOnly = true)
     public List<ProductDto> getAllActiveProducts() {
-        return productRepository.findAllActive(ProductStatus.ACTIVE)
+        return cache.get(Region.PRODUCTS, "active", () -> productRepository.findAllActive(ProductStatus.ACTIVE)
                 .stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<ProductDto> getProductById(Long id) {
-        return productRepository.findById(id)
+        return cache.get(Region.PRODUCTS, id, () -> productRepository.findById(id)
                 .filter(product -> product.getProductStatus() == ProductStatus.ACTIVE)
-                .map(this::convertToDto);
+                .map(this::convertToDto));
     }
 
     @Override
@@ -51,6 +56,7 @@ public class ProductServiceImpl implements ProductService {
         Product product = convertToEntity(productDto);
         product.setProductStatus(ProductStatus.ACTIVE);
         Product savedProduct = productRepository.save(product);
+        cache.invalidate(Region.PRODUCTS);
         return convertToDto(savedProduct);
     }
 
@@ -73,6 +79,7 @@ public class ProductServiceImpl implements ProductService {
         existingProduct.setDescription(productDto.getDescription());
         
         Product updatedProduct = productRepository.save(existingProduct);
+        cache.invalidate(Region.PRODUCTS);
         return convertToDto(updatedProduct);
     }
 
@@ -83,6 +90,7 @@ public class ProductServiceImpl implements ProductService {
         
         product.setProductStatus(ProductStatus.INACTIVE);
         productRepository.save(product);
+        cache.invalidate(Region.PRODUCTS);
     }
 
     @Override
@@ -92,6 +100,7 @@ public class ProductServiceImpl implements ProductService {
         
         product.setProductStatus(ProductStatus.ACTIVE);
         productRepository.save(product);
+        cache.invalidate(Region.PRODUCTS);
     }
 
     @Override
@@ -101,6 +110,7 @@ public class ProductServiceImpl implements ProductService {
         
         product.setProductStatus(ProductStatus.INACTIVE);
         productRepository.save(product);
+        cache.invalidate(Region.PRODUCTS);
     }
 
     @Override
@@ -1,5 +1,7 @@
 package com.ahss.service.impl;
 
+import com.ahss.cache.ReferenceDataCache;
+import com.ahss.cache.ReferenceDataCache.Region;
 import com.ahss.dto.PermissionDto;
 import com.ahss.dto.RoleDto;
 import com.ahss.entity.Module;
@@ -27,22 +29,24 @@ public class RoleServiceImpl implements RoleService {
     @Autowired
     private PermissionRepository permissionRepository;
 
+    @Autowired
+    private ReferenceDataCache cache;
+
     @Override
     @Transactional(readOnly = true)
     public List<RoleDto> getAllActiveRoles() {
-        return roleRepository.findAll()
+        return cache.get(Region.ROLES, "active", () -> roleRepository.findAllActiveWithPermissions()
                 .stream()
-                .filter(role -> role.getRoleStatus() != null && role.getRoleStatus().name().equals("ACTIVE"))
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<RoleDto> getRoleById(Long id) {
-        return roleRepository.findWithPermissions(id)
+        return cache.get(Region.ROLES, id, () -> roleRepository.findWithPermissions(id)
                 .filter(role -> role.getRoleStatus() != null && role.getRoleStatus().name().equals("ACTIVE"))
-                .map(this::convertToDto);
+                .map(this::convertToDto));
     }
 
     @Override
@@ -53,6 +57,7 @@ public class RoleServiceImpl implements RoleService {
         
         Role role = convertToEntity(roleDto);
         Role savedRole = roleRepository.save(role);
+        cache.invalidate(Region.ROLES);
         return convertToDto(savedRole);
     }
 
@@ -75,6 +80,7 @@ public class RoleServiceImpl implements RoleService {
         existingRole.setDescription(roleDto.getDescription());
         
         Role updatedRole = roleRepository.save(existingRole);
+        cache.invalidate(Region.ROLES);
         return convertToDto(updatedRole);
     }
 
@@ -85,6 +91,7 @@ public class RoleServiceImpl implements RoleService {
         
         role.setRoleStatus(com.ahss.entity.RoleStatus.INACTIVE);
         roleRepository.save(role);
+        cache.invalidate(Region.ROLES);
     }
 
     @Override
@@ -93,6 +100,7 @@ public class RoleServiceImpl implements RoleService {
                 .orElseThrow(() -> new IllegalArgumentException("Role not found with id: " + id));
         role.setRoleStatus(com.ahss.entity.RoleStatus.ACTIVE);
         roleRepository.save(role);
+        cache.invalidate(Region.ROLES);
     }
 
     @Override
@@ -102,6 +110,7 @@ public class RoleServiceImpl implements RoleService {
         
         role.setRoleStatus(com.ahss.entity.RoleStatus.INACTIVE);
         roleRepository.save(role);
+        cache.invalidate(Region.ROLES);
     }
 
     @Override
@@ -134,6 +143,7 @@ public class RoleServiceImpl implements RoleService {
         
         role.getPermissions().addAll(newPermissions);
         Role updatedRole = roleRepository.save(role);
+        cache.invalidate(Region.ROLES);
         return convertToDto(updatedRole);
     }
 
@@ -150,6 +160,7 @@ public class RoleServiceImpl implements RoleService {
         role.getPermissions().removeAll(permissionsToRemove);
         
         Role updatedRole = roleRepository.save(role);
+        cache.invalidate(Region.ROLES);
         return convertToDto(updatedRole);
     }
 
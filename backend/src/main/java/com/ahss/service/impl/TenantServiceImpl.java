@@ -1,5 +1,7 @@
 package com.ahss.service.impl;
 
+import com.ahss.cache.ReferenceDataCache;
+import com.ahss.cache.ReferenceDataCache.Region;
 import com.ahss.dto.TenantDto;
 import com.ahss.entity.Tenant;
 import com.ahss.entity.TenantStatus;
@@ -21,45 +23,48 @@ public class TenantServiceImpl implements TenantService {
     @Autowired
     private TenantRepository tenantRepository;
 
+    @Autowired
+    private ReferenceDataCache cache;
+
     @Override
     @Transactional(readOnly = true)
     public List<TenantDto> getAllTenants() {
-        return tenantRepository.findAll()
+        return cache.get(Region.TENANTS, "all", () -> tenantRepository.findAll()
                 .stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TenantDto> getTenantsByStatus(TenantStatus status) {
-        return tenantRepository.findByStatus(status)
+        return cache.get(Region.TENANTS, status, () -> tenantRepository.findByStatus(status)
                 .stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TenantDto> getTenantsByType(TenantType type) {
-        return tenantRepository.findByType(type)
+        return cache.get(Region.TENANTS, type, () -> tenantRepository.findByType(type)
                 .stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<TenantDto> getTenantById(Long id) {
-        return tenantRepository.findById(id)
-                .map(this::convertToDto);
+        return cache.get(Region.TENANTS, id, () -> tenantRepository.findById(id)
+                .map(this::convertToDto));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<TenantDto> getTenantByCode(String code) {
-        return tenantRepository.findByCode(code)
-                .map(this::convertToDto);
+        return cache.get(Region.TENANTS, "code:" + code, () -> tenantRepository.findByCode(code)
+                .map(this::convertToDto));
     }
 
     @Override
@@ -70,6 +75,7 @@ public class TenantServiceImpl implements TenantService {
         
         Tenant tenant = convertToEntity(tenantDto);
         tenant = tenantRepository.save(tenant);
+        cache.invalidate(Region.TENANTS);
         return convertToDto(tenant);
     }
 
@@ -89,6 +95,7 @@ public class TenantServiceImpl implements TenantService {
         existingTenant.setStatus(tenantDto.getStatus());
         
         existingTenant = tenantRepository.save(existingTenant);
+        cache.invalidate(Region.TENANTS);
         return convertToDto(existingTenant);
     }
 
@@ -98,6 +105,7 @@ public class TenantServiceImpl implements TenantService {
             throw new RuntimeException("Tenant not found with id: " + id);
         }
         tenantRepository.deleteById(id);
+        cache.invalidate(Region.TENANTS);
     }
 
     @Override
@@ -106,6 +114,7 @@ public class TenantServiceImpl implements TenantService {
                 .orElseThrow(() -> new RuntimeException("Tenant not found with id: " + id));
         tenant.setStatus(TenantStatus.ACTIVE);
         tenantRepository.save(tenant);
+        cache.invalidate(Region.TENANTS);
     }
 
     @Override
@@ -114,6 +123,7 @@ public class TenantServiceImpl implements TenantService {
                 .orElseThrow(() -> new RuntimeException("Tenant not found with id: " + id));
         tenant.setStatus(TenantStatus.INACTIVE);
         tenantRepository.save(tenant);
+        cache.invalidate(Region.TENANTS);
     }
 
     @Override
@@ -122,6 +132,7 @@ public class TenantServiceImpl implements TenantService {
                 .orElseThrow(() -> new RuntimeException("Tenant not found with id: " + id));
         tenant.setStatus(TenantStatus.SUSPENDED);
         tenantRepository.save(tenant);
+        cache.invalidate(Region.TENANTS);
     }
 
     @Override
@@ -0,0 +1,124 @@
+package com.ahss.stats;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads payment counts and amounts from the aggregates kept by the V35 triggers instead of
+ * counting the payment tables. Every read adds the compacted {@code payment_stats_daily} rows
+ * to the {@code payment_stats_delta} rows not folded in yet, in one statement, so results are
+ * exact and their cost depends on the number of days, currencies and statuses rather than on
+ * the number of payments.
+ *
+ * <p>Uses the calling transaction's connection, so reads in a read-only transaction go to the
+ * replica when one is configured.
+ */
+@Component
+public class PaymentStats {
+
+    /** What a row counts; matches {@code payment_stats_daily.subject}. */
+    public enum Subject {
+        REQUEST, TRANSACTION, REFUND
+    }
+
+    /** Count and amount of one status in one currency. */
+    public record Totals(String status, String currency, long count, BigDecimal amount) {
+    }
+
+    static final String COUNT_SQL =
+            "SELECT COALESCE(sum(payment_count), 0) FROM (" +
+            "SELECT payment_count FROM payment_stats_daily WHERE subject = ? AND status = ? " +
+            "UNION ALL " +
+            "SELECT payment_count FROM payment_stats_delta WHERE subject = ? AND status = ?) s";
+
+    static final String STATUS_COUNTS_SQL =
+            "SELECT status, sum(payment_count) FROM (" +
+            "SELECT status, payment_count FROM payment_stats_daily WHERE subject = ? " +
+            "UNION ALL " +
+            "SELECT status, payment_count FROM payment_stats_delta WHERE subject = ?) s " +
+            "GROUP BY status";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentStats(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Number of payments of the subject currently in the status, across all tenants.
+     */
+    public long count(Subject subject, String status) {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class,
+                subject.name(), status, subject.name(), status);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Number of payments of the subject in every status, across all tenants, in one read;
+     * statuses without payments are counted as zero.
+     */
+    public <S extends Enum<S>> Map<S, Long> countByStatus(Subject subject, Class<S> statusType) {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query(STATUS_COUNTS_SQL,
+                (RowCallbackHandler) rs -> counts.put(rs.getString(1), rs.getLong(2)),
+                subject.name(), subject.name());
+        Map<S, Long> byStatus = new EnumMap<>(statusType);
+        for (S status : statusType.getEnumConstants()) {
+            byStatus.put(status, counts.getOrDefault(status.name(), 0L));
+        }
+        return byStatus;
+    }
+
+    /**
+     * Counts and amounts per status and currency.
+     *
+     * @param tenantId only this tenant's payments, or null for all tenants
+     * @param from     first day of creation to include, or null for no lower bound
+     * @param to       last day of creation to include, or null for no upper bound
+     */
+    public List<Totals> totals(Subject subject, Long tenantId, LocalDate from, LocalDate to) {
+        List<Object> args = new ArrayList<>();
+        String filter = filter(subject, tenantId, from, to, args);
+        List<Object> bothTables = new ArrayList<>(args);
+        bothTables.addAll(args);
+        return jdbcTemplate.query(totalsSql(filter),
+                (rs, rowNum) -> new Totals(rs.getString(1), rs.getString(2), rs.getLong(3), rs.getBigDecimal(4)),
+                bothTables.toArray());
+    }
+
+    static String totalsSql(String filter) {
+        return "SELECT status, currency, sum(payment_count), sum(amount_total) FROM (" +
+                "SELECT status, currency, payment_count, amount_total FROM payment_stats_daily WHERE " + filter + " " +
+                "UNION ALL " +
+                "SELECT status, currency, payment_count, amount_total FROM payment_stats_delta WHERE " + filter + ") s " +
+                "GROUP BY status, currency";
+    }
+
+    private static String filter(Subject subject, Long tenantId, LocalDate from, LocalDate to, List<Object> args) {
+        StringBuilder filter = new StringBuilder("subject = ?");
+        args.add(subject.name());
+        if (tenantId != null) {
+            filter.append(" AND tenant_id = ?");
+            args.add(tenantId);
+        }
+        if (from != null) {
+            filter.append(" AND day >= ?");
+            args.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            filter.append(" AND day <= ?");
+            args.add(Date.valueOf(to));
+        }
+        return filter.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.ahss.stats;
+
+import com.ahss.maintenance.JobContext;
+import com.ahss.maintenance.MaintenanceJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Folds {@code payment_stats_delta} rows into {@code payment_stats_daily}, oldest first, one
+ * chunk per transaction: the chunk is deleted, summed per key and upserted in a single
+ * statement, so readers see it in exactly one of the two tables. Keeps the delta table, which
+ * every statistics read scans, down to what was written since the last run.
+ *
+ * <p>Shards split the deltas by id; locked rows are skipped, so an overlapping run never
+ * waits on or double-counts another.
+ */
+@Component
+public class PaymentStatsCompaction implements MaintenanceJob {
+
+    static final String JOB_NAME = "payment-stats-compaction";
+
+    static final String COMPACT_SQL =
+            "WITH moved AS (" +
+            "DELETE FROM payment_stats_delta WHERE delta_id IN (" +
+            "SELECT delta_id FROM payment_stats_delta WHERE delta_id % ? = ? " +
+            "ORDER BY delta_id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING subject, tenant_id, day, currency, status, payment_count, amount_total), " +
+            "merged AS (" +
+            "INSERT INTO payment_stats_daily AS d (subject, tenant_id, day, currency, status, payment_count, amount_total) " +
+            "SELECT subject, tenant_id, day, currency, status, sum(payment_count), sum(amount_total) FROM moved " +
+            "GROUP BY subject, tenant_id, day, currency, status " +
+            "ON CONFLICT (subject, tenant_id, day, currency, status) DO UPDATE SET " +
+            "payment_count = d.payment_count + EXCLUDED.payment_count, " +
+            "amount_total = d.amount_total + EXCLUDED.amount_total) " +
+            "SELECT count(*) FROM moved";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactions;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    @Autowired
+    public PaymentStatsCompaction(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${payment.stats.compaction.batch-size:5000}") int batchSize,
+                                  @Value("${payment.stats.compaction.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this(jdbcTemplate, new TransactionTemplate(transactionManager), batchSize, maxBatchesPerRun);
+    }
+
+    PaymentStatsCompaction(JdbcTemplate jdbcTemplate, TransactionOperations transactions,
+                           int batchSize, int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Override
+    public String name() {
+        return JOB_NAME;
+    }
+
+    @Override
+    public boolean run(JobContext context) {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transactions.execute(status -> jdbcTemplate.queryForObject(COMPACT_SQL, Integer.class,
+                    context.shardCount(), context.shard(), batchSize));
+            if (moved == null || moved == 0) {
+                return true;
+            }
+            // Deltas are deleted as they are folded in, so there is no cursor to resume from
+            if (!context.checkpoint(null, moved)) {
+                return false;
+            }
+            if (moved < batchSize) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
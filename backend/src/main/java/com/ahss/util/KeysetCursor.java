@@ -0,0 +1,86 @@
+package com.ahss.util;
+
+import com.ahss.dto.response.CursorPage;
+import com.ahss.exception.BadRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Position in a listing ordered by {@code (created_at DESC, id DESC)}: the key of the last row
+ * returned. Clients receive it as an opaque URL-safe token and hand it back to fetch the next
+ * page, which the repository reads with a seek predicate instead of an OFFSET.
+ */
+public record KeysetCursor(LocalDateTime createdAt, UUID id) {
+
+    public static final int DEFAULT_SIZE = 10;
+    public static final int MAX_SIZE = 100;
+
+    private static final String VERSION = "v1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        String raw = VERSION + "|" + createdAt + "|" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for a blank token (first page)
+     * @throws BadRequestException if the token was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Clamps a requested page size to {@code [1, MAX_SIZE]}.
+     */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Limit for the seek query: one row more than the page so the presence of a next page is
+     * known without a count.
+     */
+    public static Pageable probe(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * Builds the page from rows fetched with {@link #probe(int)}.
+     */
+    public static <E, D> CursorPage<D> toPage(List<E> rows, int size,
+                                             Function<E, LocalDateTime> createdAt,
+                                             Function<E, UUID> id,
+                                             Function<E, D> mapper,
+                                             Long totalElements) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String next = null;
+        if (hasNext) {
+            E last = page.get(page.size() - 1);
+            next = new KeysetCursor(createdAt.apply(last), id.apply(last)).encode();
+        }
+        return new CursorPage<>(page.stream().map(mapper).toList(), size, next, totalElements);
+    }
+}
@@ -0,0 +1,27 @@
+-- =====================================================
+-- Webhook Inbox Migration
+-- Version: V28
+-- Description: Append-only log of raw gateway webhook deliveries.
+--              Webhooks are acknowledged once the raw payload is stored here;
+--              a background processor parses and publishes them in batches.
+-- =====================================================
+
+CREATE TABLE webhook_inbox (
+    webhook_inbox_id BIGSERIAL PRIMARY KEY,
+    gateway_name VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    headers JSONB,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING'
+        CHECK (status IN ('PENDING', 'PUBLISHED', 'FAILED')),
+    last_error TEXT,
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
+-- Pending rows are drained in id (arrival) order; a partial index keeps the scan
+-- proportional to the backlog rather than the whole log
+CREATE INDEX idx_webhook_inbox_pending ON webhook_inbox(webhook_inbox_id) WHERE status = 'PENDING';
+CREATE INDEX idx_webhook_inbox_received_at ON webhook_inbox(received_at DESC);
+
+COMMENT ON TABLE webhook_inbox IS 'Raw webhook deliveries awaiting or after asynchronous parsing and publishing';
+COMMENT ON COLUMN webhook_inbox.payload IS 'Request body exactly as received from the gateway';
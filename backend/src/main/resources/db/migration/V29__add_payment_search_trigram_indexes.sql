@@ -0,0 +1,42 @@
+-- =====================================================
+-- Payment Search Trigram Indexes
+-- Version: V29
+-- Description: GIN trigram indexes for the free-text payment searches.
+--              The search queries match with ILIKE '%term%', which a btree
+--              cannot serve; pg_trgm indexes can, for terms of 3+ characters.
+--              A multicolumn GIN index is equally effective for conditions on
+--              any subset of its columns, so each table needs only one.
+-- =====================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+-- Lets tenant_id (a plain scalar) sit in the same GIN index as the trigram columns
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- Serves both the global and the tenant-scoped payment request search
+CREATE INDEX idx_payment_request_search_trgm ON payment_request USING gin (
+    tenant_id,
+    title gin_trgm_ops,
+    payer_name gin_trgm_ops,
+    payer_email gin_trgm_ops,
+    request_code gin_trgm_ops
+);
+
+CREATE INDEX idx_payment_transaction_search_trgm ON payment_transaction USING gin (
+    transaction_code gin_trgm_ops,
+    external_transaction_id gin_trgm_ops,
+    gateway_name gin_trgm_ops
+);
+
+CREATE INDEX idx_payment_refund_search_trgm ON payment_refund USING gin (
+    refund_code gin_trgm_ops,
+    external_refund_id gin_trgm_ops,
+    gateway_name gin_trgm_ops,
+    refund_reason gin_trgm_ops
+);
+
+CREATE INDEX idx_payment_audit_log_search_trgm ON payment_audit_log USING gin (
+    action gin_trgm_ops,
+    reason gin_trgm_ops,
+    old_status gin_trgm_ops,
+    new_status gin_trgm_ops
+);
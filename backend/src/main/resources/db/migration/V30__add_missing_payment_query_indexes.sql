@@ -0,0 +1,75 @@
+-- =====================================================
+-- Missing Payment Query Indexes
+-- Version: V30
+-- Description: Indexes for repository queries that had no usable index, as
+--              reported by QueryPlanRegressionIntegrationTest. Where a query
+--              filters on one column and orders by created_at, the index is
+--              (column, created_at DESC) so the page is read in order without
+--              a sort; those composites replace the single-column indexes
+--              they lead with.
+-- =====================================================
+
+-- ---------- payment_request ----------
+DROP INDEX IF EXISTS idx_payment_request_status;
+DROP INDEX IF EXISTS idx_payment_request_tenant_id;
+
+CREATE INDEX idx_payment_request_status_created_at ON payment_request(status, created_at DESC);
+CREATE INDEX idx_payment_request_tenant_status ON payment_request(tenant_id, status);
+CREATE INDEX idx_payment_request_tenant_created_at ON payment_request(tenant_id, created_at DESC);
+CREATE INDEX idx_payment_request_currency_status ON payment_request(currency, status);
+CREATE INDEX idx_payment_request_amount ON payment_request(amount);
+
+-- ---------- payment_transaction ----------
+DROP INDEX IF EXISTS idx_payment_transaction_status;
+DROP INDEX IF EXISTS idx_payment_transaction_payment_request_id;
+
+CREATE INDEX idx_payment_transaction_status_created_at ON payment_transaction(transaction_status, created_at DESC);
+CREATE INDEX idx_payment_transaction_request_created_at ON payment_transaction(payment_request_id, created_at DESC);
+CREATE INDEX idx_payment_transaction_gateway_status ON payment_transaction(gateway_name, transaction_status);
+CREATE INDEX idx_payment_transaction_currency_status ON payment_transaction(currency, transaction_status);
+CREATE INDEX idx_payment_transaction_payment_method ON payment_transaction(payment_method);
+CREATE INDEX idx_payment_transaction_processed_at ON payment_transaction(processed_at);
+CREATE INDEX idx_payment_transaction_amount ON payment_transaction(amount);
+CREATE INDEX idx_payment_transaction_error_code ON payment_transaction(error_code) WHERE error_code IS NOT NULL;
+
+-- ---------- payment_refund ----------
+DROP INDEX IF EXISTS idx_payment_refund_status;
+DROP INDEX IF EXISTS idx_payment_refund_transaction_id;
+
+CREATE INDEX idx_payment_refund_status_created_at ON payment_refund(refund_status, created_at DESC);
+CREATE INDEX idx_payment_refund_transaction_created_at ON payment_refund(payment_transaction_id, created_at DESC);
+CREATE INDEX idx_payment_refund_gateway_status ON payment_refund(gateway_name, refund_status);
+CREATE INDEX idx_payment_refund_currency_status ON payment_refund(currency, refund_status);
+CREATE INDEX idx_payment_refund_external_id ON payment_refund(external_refund_id);
+CREATE INDEX idx_payment_refund_processed_at ON payment_refund(processed_at);
+CREATE INDEX idx_payment_refund_amount ON payment_refund(refund_amount);
+CREATE INDEX idx_payment_refund_error_code ON payment_refund(error_code) WHERE error_code IS NOT NULL;
+CREATE INDEX idx_payment_refund_created_by ON payment_refund(created_by);
+
+-- ---------- payment_audit_log ----------
+DROP INDEX IF EXISTS idx_payment_audit_log_payment_request_id;
+DROP INDEX IF EXISTS idx_payment_audit_log_transaction_id;
+DROP INDEX IF EXISTS idx_payment_audit_log_action;
+DROP INDEX IF EXISTS idx_payment_audit_log_created_by;
+
+CREATE INDEX idx_payment_audit_log_request_created_at ON payment_audit_log(payment_request_id, created_at DESC);
+CREATE INDEX idx_payment_audit_log_transaction_created_at ON payment_audit_log(payment_transaction_id, created_at DESC);
+-- V23 recreated payment_refund_id without re-adding its index
+CREATE INDEX idx_payment_audit_log_refund_created_at ON payment_audit_log(payment_refund_id, created_at DESC);
+CREATE INDEX idx_payment_audit_log_action_created_at ON payment_audit_log(action, created_at DESC);
+CREATE INDEX idx_payment_audit_log_created_by_created_at ON payment_audit_log(created_by, created_at DESC);
+CREATE INDEX idx_payment_audit_log_ip_created_at ON payment_audit_log(ip_address, created_at DESC);
+CREATE INDEX idx_payment_audit_log_status_change ON payment_audit_log(old_status, new_status, created_at DESC);
+CREATE INDEX idx_payment_audit_log_status_changed_at ON payment_audit_log(created_at DESC)
+    WHERE old_status <> new_status;
+
+-- ---------- keyset scroll (created_at DESC, id DESC) ----------
+-- The scroll queries bound created_at <= :createdAt so the seek is an index
+-- condition; the id tiebreak makes the ordering match the index exactly.
+DROP INDEX IF EXISTS idx_payment_transaction_created_at;
+DROP INDEX IF EXISTS idx_payment_refund_created_at;
+DROP INDEX IF EXISTS idx_payment_audit_log_created_at;
+
+CREATE INDEX idx_payment_transaction_created_at_id ON payment_transaction(created_at DESC, payment_transaction_id DESC);
+CREATE INDEX idx_payment_refund_created_at_id ON payment_refund(created_at DESC, payment_refund_id DESC);
+CREATE INDEX idx_payment_audit_log_created_at_id ON payment_audit_log(created_at DESC, payment_audit_log_id DESC);
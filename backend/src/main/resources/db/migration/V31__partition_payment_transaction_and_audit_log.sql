@@ -0,0 +1,200 @@
+-- =====================================================
+-- Monthly Partitioning for Payment Transactions and Audit Log
+-- Version: V31
+-- Description: Rebuilds payment_transaction and payment_audit_log as tables
+--              range-partitioned by month on created_at. Queries bounded on
+--              created_at only touch the matching partitions, and retention
+--              becomes DETACH PARTITION instead of a large DELETE.
+--
+--              A unique constraint on a partitioned table must include the
+--              partition key, so payment_transaction can no longer be the
+--              target of foreign keys or enforce a globally unique
+--              transaction_code. payment_transaction_key takes over both
+--              roles: a trigger keeps one row per transaction in it, refunds
+--              and audit rows reference it, and its UNIQUE transaction_code
+--              still rejects duplicates.
+--
+--              Partitions are created by ensure_monthly_partitions(), here
+--              for existing data plus three months ahead, and afterwards by
+--              PaymentPartitionManager.
+-- =====================================================
+
+-- ---------- partition helper ----------
+-- Creates the monthly partitions <parent>_yYYYYmMM covering from_month..to_month
+-- (inclusive) that do not exist yet. Returns the number created.
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(parent REGCLASS, from_month DATE, to_month DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_month)::date;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= to_month LOOP
+        partition_name := format('%s_y%sm%s', parent::text, to_char(month_start, 'YYYY'), to_char(month_start, 'MM'));
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %s FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, parent, month_start, (month_start + INTERVAL '1 month')::date);
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ---------- payment_transaction_key ----------
+CREATE TABLE payment_transaction_key (
+    payment_transaction_id UUID PRIMARY KEY,
+    transaction_code VARCHAR(50) NOT NULL UNIQUE,
+    created_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO payment_transaction_key (payment_transaction_id, transaction_code, created_at)
+SELECT payment_transaction_id, transaction_code, created_at FROM payment_transaction;
+
+ALTER TABLE payment_refund DROP CONSTRAINT fk_payment_refund_transaction_id;
+ALTER TABLE payment_refund DROP CONSTRAINT fk_payment_refund_refund_transaction_id;
+ALTER TABLE payment_audit_log DROP CONSTRAINT fk_payment_audit_log_transaction_id;
+
+ALTER TABLE payment_refund
+ADD CONSTRAINT fk_payment_refund_transaction_id
+FOREIGN KEY (payment_transaction_id) REFERENCES payment_transaction_key(payment_transaction_id) ON DELETE RESTRICT;
+
+ALTER TABLE payment_refund
+ADD CONSTRAINT fk_payment_refund_refund_transaction_id
+FOREIGN KEY (refund_transaction_id) REFERENCES payment_transaction_key(payment_transaction_id) ON DELETE RESTRICT;
+
+COMMENT ON TABLE payment_transaction_key IS 'One row per payment transaction; unique transaction codes and FK target for the partitioned payment_transaction';
+
+-- ---------- payment_transaction ----------
+ALTER TABLE payment_transaction RENAME TO payment_transaction_unpartitioned;
+
+CREATE TABLE payment_transaction (
+    LIKE payment_transaction_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS
+) PARTITION BY RANGE (created_at);
+
+SELECT ensure_monthly_partitions(
+    'payment_transaction',
+    COALESCE((SELECT min(created_at) FROM payment_transaction_unpartitioned), CURRENT_TIMESTAMP)::date,
+    GREATEST((SELECT max(created_at) FROM payment_transaction_unpartitioned), CURRENT_TIMESTAMP + INTERVAL '3 months')::date
+);
+
+INSERT INTO payment_transaction SELECT * FROM payment_transaction_unpartitioned;
+
+DROP TABLE payment_transaction_unpartitioned;
+
+ALTER TABLE payment_transaction
+ADD CONSTRAINT payment_transaction_pkey PRIMARY KEY (payment_transaction_id, created_at);
+
+ALTER TABLE payment_transaction
+ADD CONSTRAINT fk_payment_transaction_payment_request_id
+FOREIGN KEY (payment_request_id) REFERENCES payment_request(payment_request_id) ON DELETE RESTRICT;
+
+ALTER TABLE payment_transaction
+ADD CONSTRAINT fk_payment_transaction_created_by
+FOREIGN KEY (created_by) REFERENCES users(user_id) ON DELETE SET NULL;
+
+CREATE OR REPLACE FUNCTION sync_payment_transaction_key()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO payment_transaction_key (payment_transaction_id, transaction_code, created_at)
+        VALUES (NEW.payment_transaction_id, NEW.transaction_code, NEW.created_at);
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE payment_transaction_key
+        SET transaction_code = NEW.transaction_code
+        WHERE payment_transaction_id = NEW.payment_transaction_id;
+    ELSE
+        DELETE FROM payment_transaction_key WHERE payment_transaction_id = OLD.payment_transaction_id;
+        RETURN OLD;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER sync_payment_transaction_key
+    AFTER INSERT OR UPDATE OF transaction_code OR DELETE ON payment_transaction
+    FOR EACH ROW
+    EXECUTE FUNCTION sync_payment_transaction_key();
+
+CREATE TRIGGER update_payment_transaction_updated_at
+    BEFORE UPDATE ON payment_transaction
+    FOR EACH ROW
+    EXECUTE FUNCTION update_payment_updated_at_column();
+
+CREATE INDEX idx_payment_transaction_code ON payment_transaction(transaction_code);
+CREATE INDEX idx_payment_transaction_type ON payment_transaction(transaction_type);
+CREATE INDEX idx_payment_transaction_external_id ON payment_transaction(external_transaction_id);
+CREATE INDEX idx_payment_transaction_retry_count ON payment_transaction(retry_count);
+CREATE INDEX idx_payment_transaction_max_retries ON payment_transaction(max_retries);
+CREATE INDEX idx_payment_transaction_status_created_at ON payment_transaction(transaction_status, created_at DESC);
+CREATE INDEX idx_payment_transaction_request_created_at ON payment_transaction(payment_request_id, created_at DESC);
+CREATE INDEX idx_payment_transaction_gateway_status ON payment_transaction(gateway_name, transaction_status);
+CREATE INDEX idx_payment_transaction_currency_status ON payment_transaction(currency, transaction_status);
+CREATE INDEX idx_payment_transaction_payment_method ON payment_transaction(payment_method);
+CREATE INDEX idx_payment_transaction_processed_at ON payment_transaction(processed_at);
+CREATE INDEX idx_payment_transaction_amount ON payment_transaction(amount);
+CREATE INDEX idx_payment_transaction_error_code ON payment_transaction(error_code) WHERE error_code IS NOT NULL;
+CREATE INDEX idx_payment_transaction_created_at_id ON payment_transaction(created_at DESC, payment_transaction_id DESC);
+CREATE INDEX idx_payment_transaction_search_trgm ON payment_transaction USING gin (
+    transaction_code gin_trgm_ops,
+    external_transaction_id gin_trgm_ops,
+    gateway_name gin_trgm_ops
+);
+
+COMMENT ON TABLE payment_transaction IS 'Stores all payment-related transactions (partitioned monthly by created_at)';
+
+-- ---------- payment_audit_log ----------
+ALTER TABLE payment_audit_log RENAME TO payment_audit_log_unpartitioned;
+
+CREATE TABLE payment_audit_log (
+    LIKE payment_audit_log_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS
+) PARTITION BY RANGE (created_at);
+
+SELECT ensure_monthly_partitions(
+    'payment_audit_log',
+    COALESCE((SELECT min(created_at) FROM payment_audit_log_unpartitioned), CURRENT_TIMESTAMP)::date,
+    GREATEST((SELECT max(created_at) FROM payment_audit_log_unpartitioned), CURRENT_TIMESTAMP + INTERVAL '3 months')::date
+);
+
+INSERT INTO payment_audit_log SELECT * FROM payment_audit_log_unpartitioned;
+
+DROP TABLE payment_audit_log_unpartitioned;
+
+ALTER TABLE payment_audit_log
+ADD CONSTRAINT payment_audit_log_pkey PRIMARY KEY (payment_audit_log_id, created_at);
+
+ALTER TABLE payment_audit_log
+ADD CONSTRAINT fk_payment_audit_log_payment_request_id
+FOREIGN KEY (payment_request_id) REFERENCES payment_request(payment_request_id) ON DELETE CASCADE;
+
+ALTER TABLE payment_audit_log
+ADD CONSTRAINT fk_payment_audit_log_transaction_id
+FOREIGN KEY (payment_transaction_id) REFERENCES payment_transaction_key(payment_transaction_id) ON DELETE CASCADE;
+
+ALTER TABLE payment_audit_log
+ADD CONSTRAINT payment_audit_log_payment_refund_id_fkey
+FOREIGN KEY (payment_refund_id) REFERENCES payment_refund(payment_refund_id);
+
+ALTER TABLE payment_audit_log
+ADD CONSTRAINT fk_payment_audit_log_created_by
+FOREIGN KEY (created_by) REFERENCES users(user_id) ON DELETE SET NULL;
+
+CREATE INDEX idx_payment_audit_log_request_created_at ON payment_audit_log(payment_request_id, created_at DESC);
+CREATE INDEX idx_payment_audit_log_transaction_created_at ON payment_audit_log(payment_transaction_id, created_at DESC);
+CREATE INDEX idx_payment_audit_log_refund_created_at ON payment_audit_log(payment_refund_id, created_at DESC);
+CREATE INDEX idx_payment_audit_log_action_created_at ON payment_audit_log(action, created_at DESC);
+CREATE INDEX idx_payment_audit_log_created_by_created_at ON payment_audit_log(created_by, created_at DESC);
+CREATE INDEX idx_payment_audit_log_ip_created_at ON payment_audit_log(ip_address, created_at DESC);
+CREATE INDEX idx_payment_audit_log_status_change ON payment_audit_log(old_status, new_status, created_at DESC);
+CREATE INDEX idx_payment_audit_log_status_changed_at ON payment_audit_log(created_at DESC)
+    WHERE old_status <> new_status;
+CREATE INDEX idx_payment_audit_log_created_at_id ON payment_audit_log(created_at DESC, payment_audit_log_id DESC);
+CREATE INDEX idx_payment_audit_log_search_trgm ON payment_audit_log USING gin (
+    action gin_trgm_ops,
+    reason gin_trgm_ops,
+    old_status gin_trgm_ops,
+    new_status gin_trgm_ops
+);
+
+COMMENT ON TABLE payment_audit_log IS 'Comprehensive audit trail for payment operations (partitioned monthly by created_at)';
@@ -0,0 +1,14 @@
+-- =====================================================
+-- EXPIRED Payment Request Status
+-- Version: V32
+-- Description: Requests whose expires_at passed while PENDING used to be
+--              marked CANCELLED. They now get their own EXPIRED status,
+--              set in bulk by the expiry job. The partial index below
+--              covers the PENDING requests that can expire; V33 replaces
+--              it with an id-keyed one for the sharded expiry scan.
+-- =====================================================
+
+ALTER TYPE payment_request_status ADD VALUE IF NOT EXISTS 'EXPIRED' AFTER 'CANCELLED';
+
+CREATE INDEX idx_payment_request_pending_expires_at ON payment_request(expires_at)
+    WHERE status = 'PENDING' AND expires_at IS NOT NULL;
@@ -0,0 +1,50 @@
+-- =====================================================
+-- Maintenance Job Leases
+-- Version: V33
+-- Description: One row per shard of each background maintenance job
+--              (payment request expiry, stale transaction and refund
+--              timeouts). A replica runs a shard only while it holds the
+--              row's lease, so jobs run once across the cluster and their
+--              shards spread over the replicas. checkpoint is the last id
+--              a shard committed, so an interrupted run resumes there.
+--
+--              The jobs walk their rows in id order per shard, so the
+--              partial indexes below are keyed by id; the V32 expires_at
+--              index is replaced.
+-- =====================================================
+
+CREATE TABLE maintenance_job_lease (
+    job_name VARCHAR(100) NOT NULL,
+    shard INTEGER NOT NULL,
+    shard_count INTEGER NOT NULL,
+
+    -- Lease
+    owner VARCHAR(255),
+    lease_until TIMESTAMP,
+    next_run_at TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP,
+    checkpoint VARCHAR(100),
+
+    -- Last run
+    last_started_at TIMESTAMP,
+    last_ended_at TIMESTAMP,
+    last_processed INTEGER,
+    last_error TEXT,
+
+    PRIMARY KEY (job_name, shard),
+    CHECK (shard >= 0 AND shard < shard_count)
+);
+
+CREATE INDEX idx_maintenance_job_lease_owner ON maintenance_job_lease(owner) WHERE owner IS NOT NULL;
+
+DROP INDEX IF EXISTS idx_payment_request_pending_expires_at;
+
+CREATE INDEX idx_payment_request_pending_id ON payment_request(payment_request_id) INCLUDE (expires_at)
+    WHERE status = 'PENDING' AND expires_at IS NOT NULL;
+
+CREATE INDEX idx_payment_transaction_pending_id ON payment_transaction(payment_transaction_id) INCLUDE (created_at)
+    WHERE transaction_status = 'PENDING';
+
+CREATE INDEX idx_payment_refund_pending_id ON payment_refund(payment_refund_id) INCLUDE (created_at)
+    WHERE refund_status = 'PENDING';
+
+COMMENT ON TABLE maintenance_job_lease IS 'Leases, checkpoints and last-run state of sharded maintenance jobs';
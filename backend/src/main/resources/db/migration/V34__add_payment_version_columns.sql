@@ -0,0 +1,18 @@
+-- =====================================================
+-- Optimistic Locking Versions
+-- Version: V34
+-- Description: version columns for payment_request, payment_transaction
+--              and payment_refund, mapped with JPA @Version. An update
+--              only applies if the row still has the version that was read,
+--              so concurrent saga handlers and API calls detect each other
+--              instead of overwriting. Bulk SQL updates (expiry, stale
+--              timeouts) increment the column too.
+-- =====================================================
+
+ALTER TABLE payment_request ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE payment_transaction ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE payment_refund ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN payment_request.version IS 'Optimistic lock version, incremented on every update';
+COMMENT ON COLUMN payment_transaction.version IS 'Optimistic lock version, incremented on every update';
+COMMENT ON COLUMN payment_refund.version IS 'Optimistic lock version, incremented on every update';
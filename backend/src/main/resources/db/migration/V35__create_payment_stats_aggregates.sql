@@ -0,0 +1,236 @@
+-- =====================================================
+-- Incrementally Maintained Payment Statistics
+-- Version: V35
+-- Description: Payment counts and amounts per subject (REQUEST,
+--              TRANSACTION, REFUND), tenant, day of creation, currency
+--              and status, so dashboard statistics and payment summaries
+--              read a handful of rows instead of counting the payment
+--              tables.
+--
+--              Statement-level triggers on the payment tables append one
+--              net delta row per changed key to payment_stats_delta; they
+--              see every writer (JPA, the bulk expiry and timeout UPDATEs,
+--              archiving DELETEs) and never update a shared row, so
+--              concurrent payments do not contend on a counter. The
+--              payment-stats-compaction job folds the deltas into
+--              payment_stats_daily. Readers add up both tables, so they
+--              are exact whether or not the deltas have been folded yet.
+--
+--              Detaching a payment_transaction partition fires no trigger;
+--              its transactions stay counted.
+-- =====================================================
+
+CREATE TABLE payment_stats_daily (
+    subject VARCHAR(20) NOT NULL,
+    tenant_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    payment_count BIGINT NOT NULL DEFAULT 0,
+    amount_total NUMERIC(19,2) NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (subject, tenant_id, day, currency, status),
+    CHECK (subject IN ('REQUEST', 'TRANSACTION', 'REFUND'))
+);
+
+CREATE TABLE payment_stats_delta (
+    delta_id BIGSERIAL PRIMARY KEY,
+    subject VARCHAR(20) NOT NULL,
+    tenant_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    payment_count BIGINT NOT NULL,
+    amount_total NUMERIC(19,2) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP
+);
+
+COMMENT ON TABLE payment_stats_daily IS 'Compacted payment counts and amounts per subject, tenant, day, currency and status';
+COMMENT ON TABLE payment_stats_delta IS 'Changes to payment_stats_daily not yet folded in by the compaction job';
+COMMENT ON COLUMN payment_stats_daily.day IS 'Day the request, transaction or refund was created';
+
+-- ---------- payment_request ----------
+CREATE OR REPLACE FUNCTION record_payment_request_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO payment_stats_delta (subject, tenant_id, day, currency, status, payment_count, amount_total)
+        SELECT 'REQUEST', n.tenant_id, n.created_at::date, n.currency, n.status::text, count(*), sum(n.amount)
+        FROM new_rows n
+        GROUP BY 2, 3, 4, 5;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO payment_stats_delta (subject, tenant_id, day, currency, status, payment_count, amount_total)
+        SELECT 'REQUEST', o.tenant_id, o.created_at::date, o.currency, o.status::text, -count(*), -sum(o.amount)
+        FROM old_rows o
+        GROUP BY 2, 3, 4, 5;
+    ELSE
+        INSERT INTO payment_stats_delta (subject, tenant_id, day, currency, status, payment_count, amount_total)
+        SELECT 'REQUEST', c.tenant_id, c.day, c.currency, c.status, sum(c.n), sum(c.amount)
+        FROM old_rows o
+        JOIN new_rows n ON n.payment_request_id = o.payment_request_id
+        CROSS JOIN LATERAL (VALUES
+            (n.tenant_id, n.created_at::date, n.currency, n.status::text, 1, n.amount),
+            (o.tenant_id, o.created_at::date, o.currency, o.status::text, -1, -o.amount)
+        ) AS c (tenant_id, day, currency, status, n, amount)
+        WHERE (o.tenant_id, o.currency, o.status, o.amount) IS DISTINCT FROM (n.tenant_id, n.currency, n.status, n.amount)
+        GROUP BY 2, 3, 4, 5
+        HAVING sum(c.n) <> 0 OR sum(c.amount) <> 0;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables allow one event per trigger
+CREATE TRIGGER record_payment_request_stats_insert
+    AFTER INSERT ON payment_request
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_payment_request_stats();
+
+CREATE TRIGGER record_payment_request_stats_update
+    AFTER UPDATE ON payment_request
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_payment_request_stats();
+
+CREATE TRIGGER record_payment_request_stats_delete
+    AFTER DELETE ON payment_request
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_payment_request_stats();
+
+-- ---------- payment_transaction ----------
+-- The tenant comes from the payment request
+CREATE OR REPLACE FUNCTION record_payment_transaction_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO payment_stats_delta (subject, tenant_id, day, currency, status, payment_count, amount_total)
+        SELECT 'TRANSACTION', r.tenant_id, n.created_at::date, n.currency, n.transaction_status::text,
+               count(*), sum(n.amount)
+        FROM new_rows n
+        JOIN payment_request r ON r.payment_request_id = n.payment_request_id
+        GROUP BY 2, 3, 4, 5;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO payment_stats_delta (subject, tenant_id, day, currency, status, payment_count, amount_total)
+        SELECT 'TRANSACTION', r.tenant_id, o.created_at::date, o.currency, o.transaction_status::text,
+               -count(*), -sum(o.amount)
+        FROM old_rows o
+        JOIN payment_request r ON r.payment_request_id = o.payment_request_id
+        GROUP BY 2, 3, 4, 5;
+    ELSE
+        INSERT INTO payment_stats_delta (subject, tenant_id, day, currency, status, payment_count, amount_total)
+        SELECT 'TRANSACTION', r.tenant_id, c.day, c.currency, c.status, sum(c.n), sum(c.amount)
+        FROM old_rows o
+        JOIN new_rows n ON n.payment_transaction_id = o.payment_transaction_id
+        JOIN payment_request r ON r.payment_request_id = n.payment_request_id
+        CROSS JOIN LATERAL (VALUES
+            (n.created_at::date, n.currency, n.transaction_status::text, 1, n.amount),
+            (o.created_at::date, o.currency, o.transaction_status::text, -1, -o.amount)
+        ) AS c (day, currency, status, n, amount)
+        WHERE (o.currency, o.transaction_status, o.amount) IS DISTINCT FROM (n.currency, n.transaction_status, n.amount)
+        GROUP BY 2, 3, 4, 5
+        HAVING sum(c.n) <> 0 OR sum(c.amount) <> 0;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER record_payment_transaction_stats_insert
+    AFTER INSERT ON payment_transaction
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_payment_transaction_stats();
+
+CREATE TRIGGER record_payment_transaction_stats_update
+    AFTER UPDATE ON payment_transaction
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_payment_transaction_stats();
+
+CREATE TRIGGER record_payment_transaction_stats_delete
+    AFTER DELETE ON payment_transaction
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_payment_transaction_stats();
+
+-- ---------- payment_refund ----------
+-- The tenant comes from the refunded transaction's payment request; payment_transaction_key
+-- gives the transaction's created_at so the lookup hits one partition
+CREATE OR REPLACE FUNCTION record_payment_refund_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO payment_stats_delta (subject, tenant_id, day, currency, status, payment_count, amount_total)
+        SELECT 'REFUND', r.tenant_id, n.created_at::date, n.currency, n.refund_status::text,
+               count(*), sum(n.refund_amount)
+        FROM new_rows n
+        JOIN payment_transaction_key k ON k.payment_transaction_id = n.payment_transaction_id
+        JOIN payment_transaction t ON t.payment_transaction_id = k.payment_transaction_id AND t.created_at = k.created_at
+        JOIN payment_request r ON r.payment_request_id = t.payment_request_id
+        GROUP BY 2, 3, 4, 5;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO payment_stats_delta (subject, tenant_id, day, currency, status, payment_count, amount_total)
+        SELECT 'REFUND', r.tenant_id, o.created_at::date, o.currency, o.refund_status::text,
+               -count(*), -sum(o.refund_amount)
+        FROM old_rows o
+        JOIN payment_transaction_key k ON k.payment_transaction_id = o.payment_transaction_id
+        JOIN payment_transaction t ON t.payment_transaction_id = k.payment_transaction_id AND t.created_at = k.created_at
+        JOIN payment_request r ON r.payment_request_id = t.payment_request_id
+        GROUP BY 2, 3, 4, 5;
+    ELSE
+        INSERT INTO payment_stats_delta (subject, tenant_id, day, currency, status, payment_count, amount_total)
+        SELECT 'REFUND', r.tenant_id, c.day, c.currency, c.status, sum(c.n), sum(c.amount)
+        FROM old_rows o
+        JOIN new_rows n ON n.payment_refund_id = o.payment_refund_id
+        JOIN payment_transaction_key k ON k.payment_transaction_id = n.payment_transaction_id
+        JOIN payment_transaction t ON t.payment_transaction_id = k.payment_transaction_id AND t.created_at = k.created_at
+        JOIN payment_request r ON r.payment_request_id = t.payment_request_id
+        CROSS JOIN LATERAL (VALUES
+            (n.created_at::date, n.currency, n.refund_status::text, 1, n.refund_amount),
+            (o.created_at::date, o.currency, o.refund_status::text, -1, -o.refund_amount)
+        ) AS c (day, currency, status, n, amount)
+        WHERE (o.currency, o.refund_status, o.refund_amount) IS DISTINCT FROM (n.currency, n.refund_status, n.refund_amount)
+        GROUP BY 2, 3, 4, 5
+        HAVING sum(c.n) <> 0 OR sum(c.amount) <> 0;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER record_payment_refund_stats_insert
+    AFTER INSERT ON payment_refund
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_payment_refund_stats();
+
+CREATE TRIGGER record_payment_refund_stats_update
+    AFTER UPDATE ON payment_refund
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_payment_refund_stats();
+
+CREATE TRIGGER record_payment_refund_stats_delete
+    AFTER DELETE ON payment_refund
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_payment_refund_stats();
+
+-- ---------- backfill ----------
+INSERT INTO payment_stats_daily (subject, tenant_id, day, currency, status, payment_count, amount_total)
+SELECT 'REQUEST', tenant_id, created_at::date, currency, status::text, count(*), sum(amount)
+FROM payment_request
+GROUP BY 2, 3, 4, 5;
+
+INSERT INTO payment_stats_daily (subject, tenant_id, day, currency, status, payment_count, amount_total)
+SELECT 'TRANSACTION', r.tenant_id, t.created_at::date, t.currency, t.transaction_status::text, count(*), sum(t.amount)
+FROM payment_transaction t
+JOIN payment_request r ON r.payment_request_id = t.payment_request_id
+GROUP BY 2, 3, 4, 5;
+
+INSERT INTO payment_stats_daily (subject, tenant_id, day, currency, status, payment_count, amount_total)
+SELECT 'REFUND', r.tenant_id, f.created_at::date, f.currency, f.refund_status::text, count(*), sum(f.refund_amount)
+FROM payment_refund f
+JOIN payment_transaction t ON t.payment_transaction_id = f.payment_transaction_id
+JOIN payment_request r ON r.payment_request_id = t.payment_request_id
+GROUP BY 2, 3, 4, 5;
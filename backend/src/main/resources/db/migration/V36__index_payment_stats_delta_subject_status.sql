@@ -0,0 +1,11 @@
+-- =====================================================
+-- Payment Stats Delta Index
+-- Version: V36
+-- Description: the stats endpoints read every status of a subject in one
+--              grouped query over payment_stats_daily and
+--              payment_stats_delta. The daily table is covered by its
+--              primary key; this index covers the delta rows that the
+--              compaction job has not folded in yet.
+-- =====================================================
+
+CREATE INDEX idx_payment_stats_delta_subject_status ON payment_stats_delta (subject, status);
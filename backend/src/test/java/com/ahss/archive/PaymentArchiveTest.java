@@ -0,0 +1,228 @@
+package com.ahss.archive;
+
+import com.ahss.entity.PaymentRequest;
+import com.ahss.enums.PaymentMethodType;
+import com.ahss.enums.PaymentRequestStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Payment Archive")
+@Owner("backend")
+class PaymentArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Archived payments are found by id and unknown ids miss")
+    @Story("Archive lookup")
+    void append_thenFind() throws IOException {
+        PaymentArchive archive = archive(1 << 20);
+        List<UUID> ids = new ArrayList<>();
+        List<PaymentArchive.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            entries.add(entry(id, "Payment " + i));
+        }
+        archive.append(entries);
+
+        for (int i = 0; i < ids.size(); i++) {
+            ArchivedPayment payment = archive.find(ids.get(i)).orElseThrow();
+            assertEquals("Payment " + i, payment.request().get("title").asText());
+            assertEquals(1, payment.transactions().size());
+        }
+        assertTrue(archive.find(UUID.randomUUID()).isEmpty());
+        assertEquals(50.0, meterRegistry.get(PaymentArchive.LOOKUP_METRIC).tag("result", "hit").counter().count());
+        archive.close();
+    }
+
+    @Test
+    @DisplayName("The archive directory is only created by the first append")
+    @Story("Archive lookup")
+    void missingDirectory_isCreatedOnFirstAppend() throws IOException {
+        Path archiveDir = dir.resolve("payment-archive");
+        PaymentArchive archive = new PaymentArchive(objectMapper, meterRegistry, archiveDir.toString(), 1 << 20);
+
+        assertFalse(Files.exists(archiveDir));
+        assertTrue(archive.find(UUID.randomUUID()).isEmpty());
+        assertEquals(0, archive.segmentCount());
+
+        UUID id = UUID.randomUUID();
+        archive.append(List.of(entry(id, "Payment")));
+        assertTrue(Files.isDirectory(archiveDir));
+        assertTrue(archive.find(id).isPresent());
+        archive.close();
+    }
+
+    @Test
+    @DisplayName("Segments and their indexes are reloaded after a restart")
+    @Story("Archive lookup")
+    void reopen_loadsExistingSegments() throws IOException {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        PaymentArchive archive = archive(1 << 20);
+        archive.append(List.of(entry(first, "First")));
+        archive.append(List.of(entry(second, "Second")));
+        archive.close();
+
+        PaymentArchive reopened = archive(1 << 20);
+
+        assertEquals("First", reopened.find(first).orElseThrow().request().get("title").asText());
+        assertEquals("Second", reopened.find(second).orElseThrow().request().get("title").asText());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("A full segment is rolled over and a re-archived payment resolves to its newest copy")
+    @Story("Segment rollover")
+    void rollover_and_newestCopyWins() throws IOException {
+        UUID id = UUID.randomUUID();
+        PaymentArchive archive = archive(64);
+        archive.append(List.of(entry(id, "Old")));
+        archive.append(List.of(entry(UUID.randomUUID(), "Other")));
+        archive.append(List.of(entry(id, "New")));
+
+        assertEquals(3, archive.segmentCount());
+        assertEquals("New", archive.find(id).orElseThrow().request().get("title").asText());
+        archive.close();
+
+        PaymentArchive reopened = archive(64);
+        assertEquals("New", reopened.find(id).orElseThrow().request().get("title").asText());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Batches appended to one segment are merged into its index; a re-archived payment resolves to its newest copy")
+    @Story("Archive lookup")
+    void appendsToOneSegment_mergeIndex() throws IOException {
+        PaymentArchive archive = archive(1 << 20);
+        List<UUID> ids = new ArrayList<>();
+        for (int batch = 0; batch < 5; batch++) {
+            List<PaymentArchive.Entry> entries = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                UUID id = UUID.randomUUID();
+                ids.add(id);
+                entries.add(entry(id, "Payment " + ids.size()));
+            }
+            archive.append(entries);
+        }
+        archive.append(List.of(entry(ids.get(42), "Re-archived")));
+
+        assertEquals(1, archive.segmentCount());
+        for (int i = 0; i < ids.size(); i++) {
+            String title = archive.find(ids.get(i)).orElseThrow().request().get("title").asText();
+            assertEquals(i == 42 ? "Re-archived" : "Payment " + (i + 1), title);
+        }
+        archive.close();
+    }
+
+    @Test
+    @DisplayName("A torn index entry left by a crash is ignored")
+    @Story("Crash safety")
+    void tornIndexTail_isIgnored() throws IOException {
+        UUID id = UUID.randomUUID();
+        PaymentArchive archive = archive(1 << 20);
+        archive.append(List.of(entry(id, "Intact")));
+        archive.close();
+        Path index = files(PaymentArchive.INDEX_SUFFIX).get(0);
+        Files.write(index, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        PaymentArchive reopened = archive(1 << 20);
+
+        assertEquals("Intact", reopened.find(id).orElseThrow().request().get("title").asText());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("A whole segment reads as one NDJSON gzip stream")
+    @Story("Segment format")
+    void segment_isConcatenatedGzip() throws IOException {
+        PaymentArchive archive = archive(1 << 20);
+        archive.append(List.of(entry(UUID.randomUUID(), "A"), entry(UUID.randomUUID(), "B")));
+        archive.close();
+
+        String ndjson;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(files(PaymentArchive.DATA_SUFFIX).get(0)))) {
+            ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals(2, ndjson.lines().count());
+    }
+
+    @Test
+    @DisplayName("The archived request row is rebuilt as a PaymentRequest")
+    @Story("Archive lookup")
+    void findPaymentRequest_mapsColumns() throws IOException {
+        UUID id = UUID.randomUUID();
+        PaymentArchive archive = archive(1 << 20);
+        archive.append(List.of(entry(id, "Invoice")));
+
+        PaymentRequest request = archive.findPaymentRequest(id).orElseThrow();
+
+        assertEquals(id, request.getId());
+        assertEquals("Invoice", request.getTitle());
+        assertEquals(new BigDecimal("125.50"), request.getAmount());
+        assertEquals(PaymentRequestStatus.COMPLETED, request.getStatus());
+        assertArrayEquals(new PaymentMethodType[]{PaymentMethodType.CREDIT_CARD, PaymentMethodType.PAYPAL},
+                request.getAllowedPaymentMethods());
+        assertEquals(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 123456000), request.getPaidAt());
+        assertEquals("web", request.getMetadata().get("channel"));
+        assertEquals(7L, request.getCreatedBy());
+        assertNull(request.getPayerPhone());
+        archive.close();
+    }
+
+    private PaymentArchive archive(long maxSegmentBytes) throws IOException {
+        return new PaymentArchive(objectMapper, meterRegistry, dir.toString(), maxSegmentBytes);
+    }
+
+    /** A bundle shaped like the archiver's to_jsonb output. */
+    private static PaymentArchive.Entry entry(UUID id, String title) {
+        String json = "{\"request\":{\"payment_request_id\":\"" + id + "\",\"request_code\":\"PR-1\"," +
+                "\"payment_token\":\"tok\",\"title\":\"" + title + "\",\"amount\":125.50,\"currency\":\"USD\"," +
+                "\"payer_phone\":null,\"allowed_payment_methods\":[\"CREDIT_CARD\",\"PAYPAL\"]," +
+                "\"status\":\"COMPLETED\",\"paid_at\":\"2025-01-02T03:04:05.123456\",\"tenant_id\":1," +
+                "\"metadata\":{\"channel\":\"web\"},\"created_at\":\"2025-01-01T00:00:00\"," +
+                "\"updated_at\":\"2025-01-02T03:04:05\",\"created_by\":7,\"updated_by\":null}," +
+                "\"transactions\":[{\"payment_transaction_id\":\"" + UUID.randomUUID() + "\"}]," +
+                "\"refunds\":[],\"auditLogs\":[]}";
+        return new PaymentArchive.Entry(id, json);
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+}
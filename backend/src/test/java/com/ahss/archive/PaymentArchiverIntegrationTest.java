@@ -0,0 +1,94 @@
+package com.ahss.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the archiver SQL against the seeded payments: settled requests leave every hot table
+ * and come back from the archive with their transactions and audit entries.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Epic("Payment Lifecycle")
+@Feature("Payment Archive")
+@Owner("backend")
+class PaymentArchiverIntegrationTest {
+
+    @TempDir
+    Path archiveDir;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Settled payments are moved to the archive and deleted from the hot tables")
+    @Story("Archive settled payments")
+    void archivesSettledPayments() throws Exception {
+        List<UUID> completed = completedIds();
+        assertFalse(completed.isEmpty(), "seed data should contain completed payments");
+        Integer pendingBefore = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM payment_request WHERE status = 'PENDING'", Integer.class);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PaymentArchive archive = new PaymentArchive(new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry, archiveDir.toString(), 1 << 20);
+        PaymentArchiver archiver = new PaymentArchiver(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                archive, meterRegistry, Clock.systemDefaultZone(), new String[]{"COMPLETED"}, Duration.ZERO, 50, 10);
+
+        int archived = archiver.archiveSettled();
+
+        List<UUID> remaining = completedIds();
+        List<UUID> moved = completed.stream().filter(id -> !remaining.contains(id)).toList();
+        assertFalse(moved.isEmpty());
+        assertEquals(moved.size(), archived);
+        assertEquals(pendingBefore, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM payment_request WHERE status = 'PENDING'", Integer.class));
+        for (UUID id : remaining) {
+            // Only payments with work still in flight stay hot
+            assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM payment_transaction t LEFT JOIN payment_refund f " +
+                    "ON f.payment_transaction_id = t.payment_transaction_id WHERE t.payment_request_id = ? " +
+                    "AND (t.transaction_status IN ('PENDING', 'PROCESSING') " +
+                    "OR f.refund_status IN ('PENDING', 'PROCESSING')))", Boolean.class, id));
+        }
+        for (UUID id : moved) {
+            ArchivedPayment payment = archive.find(id).orElseThrow();
+            assertEquals(id, payment.id());
+            assertNotNull(payment.transactions());
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM payment_transaction WHERE payment_request_id = ?", Integer.class, id));
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM payment_audit_log WHERE payment_request_id = ?", Integer.class, id));
+            assertEquals(id, archive.findPaymentRequest(id).orElseThrow().getId());
+        }
+        archive.close();
+    }
+
+    private List<UUID> completedIds() {
+        return jdbcTemplate.queryForList(
+                "SELECT payment_request_id FROM payment_request WHERE status = 'COMPLETED'", UUID.class);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ahss.archive;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Payment Archive")
+@Owner("backend")
+class PaymentArchiverTest {
+
+    private static final Clock JUNE_2025 = Clock.fixed(Instant.parse("2025-06-30T00:00:00Z"), ZoneOffset.UTC);
+    private static final String[] STATUSES = {"COMPLETED", "REFUNDED"};
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PaymentArchive archive = mock(PaymentArchive.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("A batch is selected past the dispute window, archived, then deleted children first")
+    @Story("Archive settled payments")
+    void archivesBatch_thenDeletes() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(jdbcTemplate.queryForList(eq(PaymentArchiver.SELECT_SQL), eq(UUID.class), any(), any(), any()))
+                .thenReturn(List.of(first, second));
+        List<PaymentArchive.Entry> bundles = List.of(
+                new PaymentArchive.Entry(first, "{}"), new PaymentArchive.Entry(second, "{}"));
+        when(jdbcTemplate.query(eq(PaymentArchiver.BUNDLE_SQL), any(RowMapper.class), any(Object.class)))
+                .thenReturn(bundles);
+
+        int archived = archiver(10).archiveSettled();
+
+        assertEquals(2, archived);
+        verify(jdbcTemplate).queryForList(PaymentArchiver.SELECT_SQL, UUID.class, STATUSES,
+                Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 0, 0)), 10);
+        InOrder order = inOrder(archive, jdbcTemplate);
+        order.verify(archive).append(bundles);
+        for (String delete : PaymentArchiver.DELETE_SQL) {
+            order.verify(jdbcTemplate).update(eq(delete), any(Object[].class));
+        }
+        String[] ids = {first.toString(), second.toString()};
+        List<Object[]> deleteArgs = mockingDetails(jdbcTemplate).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("update"))
+                .map(invocation -> (Object[]) invocation.getRawArguments()[1])
+                .toList();
+        assertEquals(PaymentArchiver.DELETE_SQL.size(), deleteArgs.size());
+        for (Object[] args : deleteArgs) {
+            for (Object arg : args) {
+                assertArrayEquals(ids, (String[]) arg);
+            }
+        }
+        assertEquals(2.0, meterRegistry.get(PaymentArchiver.ARCHIVED_METRIC).counter().count());
+    }
+
+    @Test
+    @DisplayName("Full batches are followed by another until one comes back partial")
+    @Story("Archive settled payments")
+    void loopsUntilPartialBatch() {
+        when(jdbcTemplate.queryForList(eq(PaymentArchiver.SELECT_SQL), eq(UUID.class), any(), any(), any()))
+                .thenReturn(List.of(UUID.randomUUID()), List.of(UUID.randomUUID()), List.of());
+        when(jdbcTemplate.query(eq(PaymentArchiver.BUNDLE_SQL), any(RowMapper.class), any(Object.class)))
+                .thenAnswer(inv -> List.of(new PaymentArchive.Entry(UUID.randomUUID(), "{}")));
+
+        assertEquals(2, archiver(1).archiveSettled());
+        verify(jdbcTemplate, times(3)).queryForList(eq(PaymentArchiver.SELECT_SQL), eq(UUID.class), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("When the archive cannot be written nothing is deleted")
+    @Story("Archive settled payments")
+    void archiveFailure_keepsRows() throws Exception {
+        when(jdbcTemplate.queryForList(eq(PaymentArchiver.SELECT_SQL), eq(UUID.class), any(), any(), any()))
+                .thenReturn(List.of(UUID.randomUUID()));
+        when(jdbcTemplate.query(eq(PaymentArchiver.BUNDLE_SQL), any(RowMapper.class), any(Object.class)))
+                .thenReturn(List.of(new PaymentArchive.Entry(UUID.randomUUID(), "{}")));
+        doThrow(new IOException("disk full")).when(archive).append(anyList());
+
+        archiver(10).run();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    private PaymentArchiver archiver(int batchSize) {
+        return new PaymentArchiver(jdbcTemplate, TransactionOperations.withoutTransaction(), archive, meterRegistry,
+                JUNE_2025, STATUSES, Duration.ofDays(180), batchSize, 5);
+    }
+}
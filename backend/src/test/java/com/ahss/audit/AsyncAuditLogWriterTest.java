@@ -0,0 +1,307 @@
+package com.ahss.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Audit Logs")
+@Owner("backend")
+class AsyncAuditLogWriterTest {
+
+    @TempDir
+    Path journalDir;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<UUID> inserted = new ArrayList<>();
+
+    @Test
+    @DisplayName("Queued records are written in one JDBC batch and their journal segment is removed")
+    @Story("Batched audit inserts")
+    void flush_writesBatch_andReclaimsJournal() throws Exception {
+        recordInserts();
+        AsyncAuditLogWriter writer = writer(100);
+        AuditRecord first = record("CREATE");
+        AuditRecord second = record("UPDATE");
+
+        writer.enqueue(first);
+        writer.enqueue(second);
+        assertEquals(2, writer.queued());
+
+        assertEquals(2, writer.flush());
+        assertEquals(List.of(first.id(), second.id()), inserted);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(AsyncAuditLogWriter.INSERT_SQL), anyCollection(), eq(2), any());
+        assertEquals(2.0, meterRegistry.get(AsyncAuditLogWriter.WRITTEN_METRIC).counter().count());
+
+        writer.flush();
+        assertEquals(1, journalFiles().size(), "only the open segment should remain");
+    }
+
+    @Test
+    @DisplayName("A failed insert keeps the records journaled and replays them once the database is back")
+    @Story("Durable audit journal")
+    void failedInsert_isReplayedFromJournal() throws Exception {
+        AsyncAuditLogWriter writer = writer(100);
+        AuditRecord record = record("PAYMENT_SUCCESS");
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        writer.enqueue(record);
+        assertEquals(0, writer.flush());
+        assertEquals(1.0, meterRegistry.get(AsyncAuditLogWriter.DEFERRED_METRIC).counter().count());
+
+        reset(jdbcTemplate);
+        recordInserts();
+        writer.flush();
+
+        assertEquals(List.of(record.id()), inserted);
+        assertEquals(1, journalFiles().size());
+    }
+
+    @Test
+    @DisplayName("A record the database rejects is quarantined on replay and the records around it are inserted")
+    @Story("Durable audit journal")
+    @SuppressWarnings("unchecked")
+    void rejectedRecord_isQuarantined_andReplayMovesOn() throws Exception {
+        AsyncAuditLogWriter writer = writer(100);
+        AuditRecord first = record("CREATE");
+        AuditRecord rejected = record("UPDATE");
+        AuditRecord last = record("DELETE");
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    Collection<AuditRecord> batch = inv.getArgument(1);
+                    if (batch.stream().anyMatch(r -> r.id().equals(rejected.id()))) {
+                        throw new DataIntegrityViolationException("violates foreign key constraint");
+                    }
+                    batch.forEach(r -> inserted.add(r.id()));
+                    return new int[][]{};
+                });
+
+        writer.enqueue(first);
+        writer.enqueue(rejected);
+        writer.enqueue(last);
+        assertEquals(0, writer.flush());
+        writer.flush();
+
+        assertEquals(List.of(first.id(), last.id()), inserted);
+        Path quarantine = journalDir.resolve(AuditJournal.QUARANTINE_DIR);
+        List<String> quarantined;
+        try (Stream<Path> files = Files.list(quarantine)) {
+            quarantined = files.flatMap(file -> {
+                try {
+                    return Files.readAllLines(file).stream();
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            }).toList();
+        }
+        assertEquals(1, quarantined.size());
+        assertTrue(quarantined.get(0).contains(rejected.id().toString()));
+
+        // Replay is not stuck: later records still go in
+        AuditRecord next = record("PAYMENT_SUCCESS");
+        writer.enqueue(next);
+        writer.flush();
+        assertEquals(List.of(first.id(), last.id(), next.id()), inserted);
+        assertEquals(2, journalFiles().size(), "only the open segment and the quarantine should remain");
+    }
+
+    @Test
+    @DisplayName("Replay stops without quarantining anything while the database is unreachable")
+    @Story("Durable audit journal")
+    void unreachableDatabase_stopsReplay() throws Exception {
+        AuditRecord record = record("REFUND_SUCCESS");
+        writer(100).enqueue(record);
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        AsyncAuditLogWriter restarted = writer(100);
+        assertThrows(DataAccessResourceFailureException.class, restarted::flush);
+
+        assertFalse(Files.exists(journalDir.resolve(AuditJournal.QUARANTINE_DIR)));
+        reset(jdbcTemplate);
+        recordInserts();
+        restarted.flush();
+        assertEquals(List.of(record.id()), inserted);
+    }
+
+    @Test
+    @DisplayName("Records journaled by a process that died before flushing are inserted after restart")
+    @Story("Durable audit journal")
+    void crashedProcess_journalIsReplayedOnStart() throws Exception {
+        AuditRecord record = record("REFUND_SUCCESS");
+        writer(100).enqueue(record);
+        // no flush and no stop(): the process is gone with the record still queued
+
+        recordInserts();
+        AsyncAuditLogWriter restarted = writer(100);
+        restarted.flush();
+
+        assertEquals(List.of(record.id()), inserted);
+    }
+
+    @Test
+    @DisplayName("When the queue is full the record stays in the journal instead of blocking the caller")
+    @Story("Bounded queue")
+    void fullQueue_defersToJournal() throws Exception {
+        recordInserts();
+        AsyncAuditLogWriter writer = writer(1);
+        AuditRecord queued = record("CREATE");
+        AuditRecord overflow = record("UPDATE");
+
+        writer.enqueue(queued);
+        writer.enqueue(overflow);
+
+        assertEquals(1, writer.queued());
+        assertEquals(1.0, meterRegistry.get(AsyncAuditLogWriter.DEFERRED_METRIC).counter().count());
+        writer.flush();
+        assertTrue(inserted.containsAll(List.of(queued.id(), overflow.id())));
+    }
+
+    @Test
+    @DisplayName("Inside a transaction the record is journaled before commit and queued only after it")
+    @Story("Batched audit inserts")
+    void submit_journalsBeforeCommit_queuesAfter() throws Exception {
+        AsyncAuditLogWriter writer = writer(100);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.submit(record("CREATE"));
+            assertEquals(0, writer.queued());
+            assertTrue(journalLines().isEmpty());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            assertEquals(1, journalLines().size());
+            assertEquals(0, writer.queued());
+
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            assertEquals(1, writer.queued());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("A process that dies right after the commit still has the audit record journaled for replay")
+    @Story("Durable audit journal")
+    void crashAfterCommit_recordIsReplayed() throws Exception {
+        AuditRecord record = record("PAYMENT_SUCCESS");
+        AsyncAuditLogWriter writer = writer(100);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.submit(record);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.beforeCommit(false));
+            // The transaction commits, then the process is gone before afterCommit runs
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(0, writer.queued());
+
+        recordInserts();
+        writer(100).flush();
+
+        assertEquals(List.of(record.id()), inserted);
+    }
+
+    @Test
+    @DisplayName("A journaled record whose transaction rolls back is never inserted, even when its segment is replayed")
+    @Story("Durable audit journal")
+    void rolledBack_recordIsDiscarded() throws Exception {
+        AsyncAuditLogWriter writer = writer(100);
+        AuditRecord rolledBack = record("CREATE");
+        AuditRecord committed = record("UPDATE");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.submit(rolledBack);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        // A failed insert marks the shared segment for replay
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        writer.enqueue(committed);
+        assertEquals(0, writer.flush());
+
+        reset(jdbcTemplate);
+        recordInserts();
+        writer.flush();
+
+        assertEquals(List.of(committed.id()), inserted);
+    }
+
+    private AsyncAuditLogWriter writer(int capacity) throws IOException {
+        return new AsyncAuditLogWriter(jdbcTemplate, objectMapper, meterRegistry, capacity, 500, 200,
+                journalDir.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordInserts() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    Collection<AuditRecord> batch = inv.getArgument(1);
+                    batch.forEach(r -> inserted.add(r.id()));
+                    return new int[][]{};
+                });
+    }
+
+    private static AuditRecord record(String action) {
+        return new AuditRecord(UUID.randomUUID(), UUID.randomUUID(), null, null, action, "PAYMENT_REQUEST",
+                null, "PENDING", Map.of("amount", 10), "test", 1L, "UA", "127.0.0.1", LocalDateTime.now());
+    }
+
+    private List<String> journalLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Path file : journalFiles()) {
+            if (Files.isRegularFile(file)) {
+                lines.addAll(Files.readAllLines(file));
+            }
+        }
+        return lines;
+    }
+
+    private List<Path> journalFiles() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.toList();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.ahss.bulk;
+
+import com.ahss.dto.request.CreatePaymentRequestDto;
+import com.ahss.dto.response.BulkPaymentRequestResultDto;
+import com.ahss.service.PaymentRequestService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Bulk Payment Requests")
+@Owner("backend")
+class PaymentRequestBulkImporterTest {
+
+    private static final String LINE = "{\"title\":\"Invoice\",\"amount\":42.00,\"tenantId\":1}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final PaymentRequestService paymentRequestService = mock(PaymentRequestService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentRequestBulkImporter importer =
+            new PaymentRequestBulkImporter(objectMapper, paymentRequestService, meterRegistry, 2, 5);
+
+    @Test
+    @DisplayName("Lines are created in chunks and every non-blank line gets a result, in order")
+    @Story("Chunked creation")
+    @SuppressWarnings("unchecked")
+    void chunks_andReportsEveryLine() throws Exception {
+        when(paymentRequestService.createPaymentRequests(anyList())).thenAnswer(invocation ->
+                ((List<CreatePaymentRequestDto>) invocation.getArgument(0)).stream()
+                        .map(dto -> BulkPaymentRequestResultDto.created(UUID.randomUUID(), "PR-2026-A", "token"))
+                        .toList());
+
+        List<JsonNode> results = run(LINE + "\n\n{not json\n" + LINE + "\n" + LINE + "\n", false);
+
+        assertEquals(4, results.size());
+        assertEquals(List.of(1L, 3L, 4L, 5L), results.stream().map(result -> result.get("line").asLong()).toList());
+        assertEquals("CREATED", results.get(0).get("status").asText());
+        assertEquals("REJECTED", results.get(1).get("status").asText());
+        assertFalse(results.get(0).has("error"));
+        assertEquals("PR-2026-A", results.get(3).get("requestCode").asText());
+        verify(paymentRequestService, times(2)).createPaymentRequests(anyList());
+        assertEquals(3.0, meterRegistry.get(PaymentRequestBulkImporter.LINES_METRIC).tag("status", "created")
+                .counter().count());
+        assertEquals(1.0, meterRegistry.get(PaymentRequestBulkImporter.LINES_METRIC).tag("status", "rejected")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("A chunk that cannot be written fails its lines and stops the import")
+    @Story("Chunked creation")
+    void failedChunk_stops() throws Exception {
+        when(paymentRequestService.createPaymentRequests(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        List<JsonNode> results = run(LINE + "\n" + LINE + "\n" + LINE + "\n", true);
+
+        assertEquals(2, results.size());
+        assertEquals("FAILED", results.get(1).get("status").asText());
+        assertTrue(results.get(1).get("error").asText().contains("connection reset"));
+        verify(paymentRequestService, times(1)).createPaymentRequests(anyList());
+    }
+
+    @Test
+    @DisplayName("Lines past the limit are not read; the first one says where to resubmit")
+    @Story("Line limit")
+    void lineLimit_rejectsRest() throws Exception {
+        when(paymentRequestService.createPaymentRequests(anyList())).thenReturn(
+                List.of(BulkPaymentRequestResultDto.rejected("tenantId: Tenant not found")));
+
+        List<JsonNode> results = run("x\nx\nx\nx\n" + LINE + "\n" + LINE + "\n" + LINE + "\n", false);
+
+        assertEquals(6, results.size());
+        assertEquals(6, results.get(5).get("line").asLong());
+        assertEquals("Limit of 5 lines reached; resubmit from this line", results.get(5).get("error").asText());
+        verify(paymentRequestService).createPaymentRequests(argThat(requests -> requests.size() == 1));
+    }
+
+    private List<JsonNode> run(String body, boolean gzip) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importer.importRequests(new ByteArrayInputStream(bytes), gzip, out);
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        assertTrue(ndjson.endsWith("\n"));
+        return ndjson.lines().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }).toList();
+    }
+}
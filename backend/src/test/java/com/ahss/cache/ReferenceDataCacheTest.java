@@ -0,0 +1,131 @@
+package com.ahss.cache;
+
+import com.ahss.cache.ReferenceDataCache.Region;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("IAM")
+@Feature("Reference Data Cache")
+@Owner("backend")
+class ReferenceDataCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("A cached value is loaded once and the hit is recorded")
+    @Story("Cache reads")
+    void get_loadsOnce_andRecordsHits() {
+        ReferenceDataCache cache = cache(true, 100);
+
+        assertEquals(Optional.of("admin"), cache.get(Region.ROLES, 1L, () -> load(Optional.of("admin"))));
+        assertEquals(Optional.of("admin"), cache.get(Region.ROLES, 1L, () -> load(Optional.of("other"))));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "reference-data.roles")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Cached lists are unmodifiable copies of what the loader returned")
+    @Story("Cache reads")
+    void get_storesUnmodifiableListCopy() {
+        ReferenceDataCache cache = cache(true, 100);
+        List<String> loaded = new ArrayList<>(List.of("a", "b"));
+
+        List<String> cached = cache.get(Region.TENANTS, "all", () -> loaded);
+        loaded.add("c");
+
+        assertEquals(List.of("a", "b"), cached);
+        assertThrows(UnsupportedOperationException.class, () -> cached.add("d"));
+    }
+
+    @Test
+    @DisplayName("A module write clears the regions whose DTOs embed modules but not tenants")
+    @Story("Invalidation")
+    void invalidate_clearsDependentRegions() {
+        ReferenceDataCache cache = cache(true, 100);
+        for (Region region : Region.values()) {
+            cache.get(region, "active", () -> load(List.of(region.name())));
+        }
+
+        cache.invalidate(Region.MODULES);
+
+        assertEquals(0, cache.size(Region.MODULES));
+        assertEquals(0, cache.size(Region.PRODUCTS));
+        assertEquals(0, cache.size(Region.PERMISSIONS));
+        assertEquals(0, cache.size(Region.ROLES));
+        assertEquals(1, cache.size(Region.TENANTS));
+        assertEquals(1.0, meterRegistry.get(ReferenceDataCache.INVALIDATIONS_METRIC)
+                .tag("cache", "reference-data.products").counter().count());
+    }
+
+    @Test
+    @DisplayName("Inside a transaction the region is cleared again once it completes")
+    @Story("Invalidation")
+    void invalidate_clearsAgainAfterCompletion() {
+        ReferenceDataCache cache = cache(true, 100);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(Region.TENANTS);
+            // a concurrent reader repopulates the region before the write commits
+            cache.get(Region.TENANTS, 1L, () -> load(Optional.of("stale")));
+            assertEquals(1, cache.size(Region.TENANTS));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            assertEquals(0, cache.size(Region.TENANTS));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Regions are bounded by maximum-size")
+    @Story("Eviction")
+    void get_evictsBeyondMaximumSize() {
+        ReferenceDataCache cache = cache(true, 10);
+        for (long id = 0; id < 50; id++) {
+            long key = id;
+            cache.get(Region.PERMISSIONS, key, () -> load(Optional.of(key)));
+        }
+
+        assertTrue(cache.size(Region.PERMISSIONS) <= 10);
+    }
+
+    @Test
+    @DisplayName("When disabled every read goes to the loader")
+    @Story("Cache reads")
+    void disabled_alwaysLoads() {
+        ReferenceDataCache cache = cache(false, 100);
+
+        cache.get(Region.PRODUCTS, 1L, () -> load(Optional.empty()));
+        cache.get(Region.PRODUCTS, 1L, () -> load(Optional.empty()));
+
+        assertEquals(2, loads.get());
+    }
+
+    private ReferenceDataCache cache(boolean enabled, long maximumSize) {
+        return new ReferenceDataCache(meterRegistry, enabled, maximumSize, 600);
+    }
+
+    private <T> T load(T value) {
+        loads.incrementAndGet();
+        return value;
+    }
+}
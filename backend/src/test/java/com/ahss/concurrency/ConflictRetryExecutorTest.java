@@ -0,0 +1,128 @@
+package com.ahss.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Optimistic Locking")
+@Owner("backend")
+class ConflictRetryExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConflictRetryExecutor executor = new ConflictRetryExecutor(meterRegistry, 3, 0);
+
+    @Test
+    @DisplayName("A conflicting attempt is retried until one commits")
+    @Story("Retry on conflict")
+    void conflict_isRetried() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.execute("op", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, attempts("conflict"));
+        assertEquals(1.0, attempts("committed"));
+    }
+
+    @Test
+    @DisplayName("The last conflict is rethrown once the attempts are used up")
+    @Story("Retry on conflict")
+    void exhausted_rethrowsConflict() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> executor.execute("op", () -> {
+            calls.incrementAndGet();
+            throw conflict();
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.get(ConflictRetryExecutor.EXHAUSTED_METRIC).tag("operation", "op")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("Other failures are not retried")
+    @Story("Retry on conflict")
+    void otherFailure_isNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> executor.execute("op", () -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("bad");
+        }));
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Inside a caller's transaction the unit runs once and the conflict propagates")
+    @Story("Retry on conflict")
+    void insideTransaction_runsOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> executor.execute("op", () -> {
+                calls.incrementAndGet();
+                throw conflict();
+            }));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(1, calls.get());
+        assertTrue(meterRegistry.find(ConflictRetryExecutor.ATTEMPTS_METRIC).counters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("@RetryOnConflict methods are retried through the aspect and counted by method")
+    @Story("Retry on conflict")
+    void annotatedMethod_isRetriedByAspect() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Contended());
+        factory.addAspect(new ConflictRetryAspect(executor));
+        Contended proxy = factory.getProxy();
+
+        assertEquals(2, proxy.update());
+        assertEquals(1.0, meterRegistry.get(ConflictRetryExecutor.ATTEMPTS_METRIC)
+                .tag("operation", "Contended.update").tag("outcome", "conflict").counter().count());
+    }
+
+    private double attempts(String outcome) {
+        return meterRegistry.get(ConflictRetryExecutor.ATTEMPTS_METRIC).tag("operation", "op")
+                .tag("outcome", outcome).counter().count();
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("PaymentRequest", "id");
+    }
+
+    static class Contended {
+
+        private int calls;
+
+        @RetryOnConflict
+        public int update() {
+            if (++calls == 1) {
+                throw conflict();
+            }
+            return calls;
+        }
+    }
+}
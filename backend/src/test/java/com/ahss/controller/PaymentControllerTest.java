@@ -4,12 +4,20 @@ import com.ahss.dto.request.CreatePaymentRequestDto;
 import com.ahss.dto.request.CreateRefundDto;
 import com.ahss.dto.request.ProcessPaymentDto;
 import com.ahss.dto.request.UpdatePaymentRequestDto;
+import com.ahss.dto.response.CursorPage;
 import com.ahss.dto.response.PaymentAuditLogDto;
 import com.ahss.dto.response.PaymentRefundDto;
+import com.ahss.dto.response.PaymentRefundSummaryDto;
 import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentTransactionDto;
+import com.ahss.dto.response.PaymentTransactionSummaryDto;
 import com.ahss.enums.PaymentMethodType;
 import com.ahss.enums.PaymentRequestStatus;
+import com.ahss.enums.PaymentTransactionStatus;
+import com.ahss.exception.BadRequestException;
+import com.ahss.bulk.PaymentRequestBulkImporter;
+import com.ahss.export.ExportFormat;
+import com.ahss.export.PaymentExporter;
 import com.ahss.service.PaymentRequestService;
 import com.ahss.service.PaymentTransactionService;
 import com.ahss.service.PaymentRefundService;
@@ -35,7 +43,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -66,6 +78,10 @@ class PaymentControllerTest {
     private PaymentRefundService paymentRefundService;
     @MockBean
     private PaymentAuditLogService auditLogService;
+    @MockBean
+    private PaymentExporter paymentExporter;
+    @MockBean
+    private PaymentRequestBulkImporter paymentRequestBulkImporter;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -98,6 +114,15 @@ class PaymentControllerTest {
         return dto;
     }
 
+    private PaymentTransactionSummaryDto transactionSummary(UUID id) {
+        PaymentTransactionSummaryDto dto = new PaymentTransactionSummaryDto();
+        dto.setId(id);
+        dto.setTransactionCode("TX-" + id);
+        dto.setAmount(new BigDecimal("123.45"));
+        dto.setCurrency("USD");
+        return dto;
+    }
+
     @Test
     @DisplayName("POST /payments/requests returns 201 with payload")
     @Story("Create payment request")
@@ -528,10 +553,10 @@ class PaymentControllerTest {
     @Severity(SeverityLevel.NORMAL)
     void list_transactions_returns_200() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<PaymentTransactionDto> page = Allure.step(
+        Page<PaymentTransactionSummaryDto> page = Allure.step(
                 "Create page of payment transactions",
                 () -> new org.springframework.data.domain.PageImpl<>(
-                        List.of(transactionDto(UUID.randomUUID())), pageable, 1));
+                        List.of(transactionSummary(UUID.randomUUID())), pageable, 1));
         Allure.step(
                 "Stub getAllTransactions to return page of payment transactions",
                 () -> when(paymentTransactionService.getAllTransactions(eq(pageable))).thenReturn(page));
@@ -553,6 +578,111 @@ class PaymentControllerTest {
                 result.getResponse().getContentAsString());
     }
 
+    @Test
+    @Story("Scroll transactions returns 200 with cursor payload")
+    @Severity(SeverityLevel.NORMAL)
+    void scroll_transactions_returns_200() throws Exception {
+        CursorPage<PaymentTransactionSummaryDto> page = Allure.step(
+                "Create cursor page of payment transactions",
+                () -> new CursorPage<>(List.of(transactionSummary(UUID.randomUUID())), 1, "next-token", null));
+        Allure.step(
+                "Stub scrollTransactions to return cursor page",
+                () -> when(paymentTransactionService.scrollTransactions(eq("abc"), eq(1), eq(false))).thenReturn(page));
+
+        var result = Allure.step(
+                "GET /api/v1/payments/transactions/scroll",
+                () -> mockMvc
+                        .perform(
+                                get("/api/v1/payments/transactions/scroll").param("cursor", "abc").param("size", "1"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.success", is(true)))
+                        .andExpect(jsonPath("$.data.nextCursor", is("next-token")))
+                        .andExpect(jsonPath("$.data.hasNext", is(true)))
+                        .andExpect(jsonPath("$.path", is("/api/v1/payments/transactions/scroll")))
+                        .andReturn());
+        Allure.addAttachment(
+                "Response Body",
+                MediaType.APPLICATION_JSON_VALUE,
+                result.getResponse().getContentAsString());
+    }
+
+    @Test
+    @Story("Export transactions streams the exporter's output as an attachment")
+    @Severity(SeverityLevel.NORMAL)
+    void export_transactions_streams_attachment() throws Exception {
+        PaymentExporter.Filter filter = new PaymentExporter.Filter(
+                LocalDateTime.of(2026, 9, 1, 0, 0), LocalDateTime.of(2026, 10, 1, 0, 0), "SUCCESS");
+        Allure.step(
+                "Stub exporter to write one CSV row",
+                () -> when(paymentExporter.export(eq(PaymentExporter.Dataset.TRANSACTIONS), eq(ExportFormat.CSV),
+                        eq(filter), eq(false), any(OutputStream.class))).thenAnswer(invocation -> {
+                            invocation.getArgument(4, OutputStream.class)
+                                    .write("id\r\nabc\r\n".getBytes(StandardCharsets.UTF_8));
+                            return 1L;
+                        }));
+
+        var result = Allure.step(
+                "GET /api/v1/payments/transactions/export",
+                () -> mockMvc
+                        .perform(get("/api/v1/payments/transactions/export")
+                                .param("format", "csv")
+                                .param("from", "2026-09-01T00:00:00")
+                                .param("to", "2026-10-01T00:00:00")
+                                .param("status", PaymentTransactionStatus.SUCCESS.name()))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Type", containsString("text/csv")))
+                        .andExpect(header().string("Content-Disposition",
+                                "attachment; filename=\"transactions.csv\""))
+                        .andExpect(content().string("id\r\nabc\r\n"))
+                        .andReturn());
+        Allure.addAttachment("Response Body", "text/csv", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    @Story("Bulk create passes the gzip body to the importer and streams its NDJSON results")
+    @Severity(SeverityLevel.NORMAL)
+    void bulk_create_streams_ndjson_results() throws Exception {
+        Allure.step(
+                "Stub importer to write one result line",
+                () -> doAnswer(invocation -> {
+                    invocation.getArgument(2, OutputStream.class).write(
+                            "{\"line\":1,\"status\":\"CREATED\"}\n".getBytes(StandardCharsets.UTF_8));
+                    return null;
+                }).when(paymentRequestBulkImporter).importRequests(any(InputStream.class), eq(true), any(OutputStream.class)));
+
+        var result = Allure.step(
+                "POST /api/v1/payments/requests/bulk",
+                () -> mockMvc
+                        .perform(post("/api/v1/payments/requests/bulk")
+                                .contentType("application/x-ndjson")
+                                .header("Content-Encoding", "gzip")
+                                .content(new byte[] {1, 2, 3}))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Type", containsString("application/x-ndjson")))
+                        .andExpect(content().string("{\"line\":1,\"status\":\"CREATED\"}\n"))
+                        .andReturn());
+        Allure.addAttachment("Response Body", "application/x-ndjson", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    @Story("Export with an unknown format or empty range returns 400 without exporting")
+    @Severity(SeverityLevel.NORMAL)
+    void export_invalid_arguments_returns_400() throws Exception {
+        Allure.step(
+                "GET /api/v1/payments/audit-logs/export?format=xml",
+                () -> mockMvc
+                        .perform(get("/api/v1/payments/audit-logs/export").param("format", "xml"))
+                        .andExpect(status().isBadRequest()));
+        Allure.step(
+                "GET /api/v1/payments/refunds/export with from after to",
+                () -> mockMvc
+                        .perform(get("/api/v1/payments/refunds/export")
+                                .param("from", "2026-10-01T00:00:00")
+                                .param("to", "2026-09-01T00:00:00"))
+                        .andExpect(status().isBadRequest()));
+        verifyNoInteractions(paymentExporter);
+    }
+
     @Test
     @Story("Retry transaction returns 200 when retried")
     @Severity(SeverityLevel.NORMAL)
@@ -583,10 +713,10 @@ class PaymentControllerTest {
     @Severity(SeverityLevel.NORMAL)
     void list_refunds_returns_200() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<PaymentRefundDto> page = Allure.step(
+        Page<PaymentRefundSummaryDto> page = Allure.step(
                 "Create page of payment refunds",
                 () -> new org.springframework.data.domain.PageImpl<>(
-                        List.of(new com.ahss.dto.response.PaymentRefundDto()), pageable, 1));
+                        List.of(new PaymentRefundSummaryDto()), pageable, 1));
         Allure.step(
                 "Stub getAllRefunds to return page of payment refunds",
                 () -> when(paymentRefundService.getAllRefunds(eq(pageable))).thenReturn(page));
@@ -661,8 +791,8 @@ class PaymentControllerTest {
     void refunds_by_transaction_returns_200() throws Exception {
         UUID tx = UUID.randomUUID();
         Pageable pageable = PageRequest.of(0, 10);
-        org.springframework.data.domain.Page<com.ahss.dto.response.PaymentRefundDto> page = new org.springframework.data.domain.PageImpl<>(
-                List.of(new com.ahss.dto.response.PaymentRefundDto()), pageable, 1);
+        org.springframework.data.domain.Page<PaymentRefundSummaryDto> page = new org.springframework.data.domain.PageImpl<>(
+                List.of(new PaymentRefundSummaryDto()), pageable, 1);
         when(paymentRefundService.getRefundsByTransaction(eq(tx), eq(pageable))).thenReturn(page);
 
         mockMvc
@@ -680,10 +810,10 @@ class PaymentControllerTest {
     @Severity(SeverityLevel.MINOR)
     void refunds_by_status_returns_200() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<PaymentRefundDto> page = Allure.step(
+        Page<PaymentRefundSummaryDto> page = Allure.step(
                 "Create page of payment refunds",
                 () -> new org.springframework.data.domain.PageImpl<>(
-                        List.of(new com.ahss.dto.response.PaymentRefundDto()), pageable, 1));
+                        List.of(new PaymentRefundSummaryDto()), pageable, 1));
         Allure.step(
                 "Stub getRefundsByStatus to return page of payment refunds",
                 () -> when(paymentRefundService.getRefundsByStatus(
@@ -813,21 +943,9 @@ class PaymentControllerTest {
     @Severity(SeverityLevel.MINOR)
     void payment_request_stats_returns_200() throws Exception {
         Allure.step(
-                "Stub countByStatus to return 2 pending payment requests",
-                () -> when(paymentRequestService.countByStatus(eq(PaymentRequestStatus.PENDING)))
-                        .thenReturn(2L));
-        Allure.step(
-                "Stub countByStatus to return 3 approved payment requests",
-                () -> when(paymentRequestService.countByStatus(eq(PaymentRequestStatus.APPROVED)))
-                        .thenReturn(3L));
-        Allure.step(
-                "Stub countByStatus to return 1 rejected payment requests",
-                () -> when(paymentRequestService.countByStatus(eq(PaymentRequestStatus.REJECTED)))
-                        .thenReturn(1L));
-        Allure.step(
-                "Stub countByStatus to return 0 cancelled payment requests",
-                () -> when(paymentRequestService.countByStatus(eq(PaymentRequestStatus.CANCELLED)))
-                        .thenReturn(0L));
+                "Stub getStatusCountBreakdown to return 2 pending and 1 failed payment requests",
+                () -> when(paymentRequestService.getStatusCountBreakdown())
+                        .thenReturn(Map.of(PaymentRequestStatus.PENDING, 2L, PaymentRequestStatus.FAILED, 1L)));
 
         var result = Allure.step(
                 "GET /api/v1/payments/stats/requests",
@@ -835,7 +953,8 @@ class PaymentControllerTest {
                         .perform(get("/api/v1/payments/stats/requests"))
                         .andExpect(status().isOk())
                         .andExpect(jsonPath("$.success", is(true)))
-                        .andExpect(jsonPath("$.data.totalRequests", is(2)))
+                        .andExpect(jsonPath("$.data.totalRequests", is(3)))
+                        .andExpect(jsonPath("$.data.pendingRequests", is(2)))
                         .andExpect(jsonPath("$.path", is("/api/v1/payments/stats/requests"))));
     }
 
@@ -844,8 +963,8 @@ class PaymentControllerTest {
     @Severity(SeverityLevel.MINOR)
     void payment_request_stats_returns_500_on_error() throws Exception {
         Allure.step(
-                "Stub countByStatus to throw RuntimeException",
-                () -> when(paymentRequestService.countByStatus(any()))
+                "Stub getStatusCountBreakdown to throw RuntimeException",
+                () -> when(paymentRequestService.getStatusCountBreakdown())
                         .thenThrow(new RuntimeException("boom")));
 
         var result = Allure.step(
@@ -863,25 +982,13 @@ class PaymentControllerTest {
     @Severity(SeverityLevel.MINOR)
     void transaction_stats_returns_200() throws Exception {
         Allure.step(
-                "Stub countByStatus to return 1 pending payment transaction",
-                () -> when(paymentTransactionService.countByStatus(
-                        eq(com.ahss.enums.PaymentTransactionStatus.PENDING)))
-                        .thenReturn(1L));
-        Allure.step(
-                "Stub countByStatus to return 4 successful payment transactions",
-                () -> when(paymentTransactionService.countByStatus(
-                        eq(com.ahss.enums.PaymentTransactionStatus.SUCCESS)))
-                        .thenReturn(4L));
-        Allure.step(
-                "Stub countByStatus to return 2 failed payment transactions",
-                () -> when(paymentTransactionService.countByStatus(
-                        eq(com.ahss.enums.PaymentTransactionStatus.FAILED)))
-                        .thenReturn(2L));
-        Allure.step(
-                "Stub countByStatus to return 1 cancelled payment transaction",
-                () -> when(paymentTransactionService.countByStatus(
-                        eq(com.ahss.enums.PaymentTransactionStatus.CANCELLED)))
-                        .thenReturn(1L));
+                "Stub getStatusCountBreakdown to return 1 pending, 4 successful, 2 failed and 1 cancelled transactions",
+                () -> when(paymentTransactionService.getStatusCountBreakdown())
+                        .thenReturn(Map.of(
+                                com.ahss.enums.PaymentTransactionStatus.PENDING, 1L,
+                                com.ahss.enums.PaymentTransactionStatus.SUCCESS, 4L,
+                                com.ahss.enums.PaymentTransactionStatus.FAILED, 2L,
+                                com.ahss.enums.PaymentTransactionStatus.CANCELLED, 1L)));
 
         var result = Allure.step(
                 "GET /api/v1/payments/stats/transactions",
@@ -898,25 +1005,12 @@ class PaymentControllerTest {
     @Severity(SeverityLevel.MINOR)
     void refund_stats_returns_200() throws Exception {
         Allure.step(
-                "Stub countByStatus to return 0 pending payment refunds",
-                () -> when(paymentRefundService.countByStatus(
-                        eq(com.ahss.enums.PaymentTransactionStatus.PENDING)))
-                        .thenReturn(0L));
-        Allure.step(
-                "Stub countByStatus to return 2 successful payment refunds",
-                () -> when(paymentRefundService.countByStatus(
-                        eq(com.ahss.enums.PaymentTransactionStatus.SUCCESS)))
-                        .thenReturn(2L));
-        Allure.step(
-                "Stub countByStatus to return 1 failed payment refund",
-                () -> when(paymentRefundService.countByStatus(
-                        eq(com.ahss.enums.PaymentTransactionStatus.FAILED)))
-                        .thenReturn(1L));
-        Allure.step(
-                "Stub countByStatus to return 1 cancelled payment refund",
-                () -> when(paymentRefundService.countByStatus(
-                        eq(com.ahss.enums.PaymentTransactionStatus.CANCELLED)))
-                        .thenReturn(1L));
+                "Stub getStatusCountBreakdown to return 2 successful, 1 failed and 1 cancelled refunds",
+                () -> when(paymentRefundService.getStatusCountBreakdown())
+                        .thenReturn(Map.of(
+                                com.ahss.enums.PaymentTransactionStatus.SUCCESS, 2L,
+                                com.ahss.enums.PaymentTransactionStatus.FAILED, 1L,
+                                com.ahss.enums.PaymentTransactionStatus.CANCELLED, 1L)));
 
         var result = Allure.step(
                 "GET /api/v1/payments/stats/refunds",
@@ -1050,6 +1144,35 @@ class PaymentControllerTest {
                 result.getResponse().getContentAsString());
     }
 
+    @Test
+    @Story("Search payment requests by tenant returns 200 with page")
+    @Severity(SeverityLevel.NORMAL)
+    void search_payment_requests_by_tenant_returns_200() throws Exception {
+        Long tenantId = 10L;
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<PaymentRequestDto> page = new org.springframework.data.domain.PageImpl<>(
+                List.of(requestDto(UUID.randomUUID())), pageable, 1);
+        when(paymentRequestService.searchPaymentRequestsByTenant(eq(tenantId), eq("acme"), eq(pageable)))
+                .thenReturn(page);
+
+        var result = Allure.step(
+                "GET /api/v1/payments/requests/tenant/" + tenantId + "/search",
+                () -> mockMvc
+                        .perform(
+                                get("/api/v1/payments/requests/tenant/" + tenantId + "/search")
+                                        .param("searchTerm", "acme"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.success", is(true)))
+                        .andExpect(jsonPath("$.data.totalElements", is(1)))
+                        .andExpect(
+                                jsonPath("$.path", is("/api/v1/payments/requests/tenant/" + tenantId + "/search")))
+                        .andReturn());
+        Allure.addAttachment(
+                "Response Body",
+                MediaType.APPLICATION_JSON_VALUE,
+                result.getResponse().getContentAsString());
+    }
+
     @Test
     @Story("Get payment requests by status returns 200 with page")
     @Severity(SeverityLevel.NORMAL)
@@ -1106,6 +1229,26 @@ class PaymentControllerTest {
         verify(paymentRequestService, times(1)).cancelPaymentRequest(eq(id), anyString());
     }
 
+    @Test
+    @Story("Cancel payment request returns 409 when already final")
+    @Severity(SeverityLevel.MINOR)
+    void cancel_payment_request_already_final_returns_409() throws Exception {
+        UUID id = UUID.randomUUID();
+        Allure.step(
+                "Stub cancelPaymentRequest to reject a completed request",
+                () -> doThrow(new BadRequestException("Payment request " + id + " is already COMPLETED"))
+                        .when(paymentRequestService)
+                        .cancelPaymentRequest(eq(id), anyString()));
+
+        Allure.step(
+                "PATCH /api/v1/payments/requests/" + id + "/cancel",
+                () -> mockMvc
+                        .perform(patch("/api/v1/payments/requests/" + id + "/cancel"))
+                        .andExpect(status().isConflict())
+                        .andExpect(jsonPath("$.success", is(false)))
+                        .andExpect(jsonPath("$.message", containsString("already COMPLETED"))));
+    }
+
     @Test
     @Story("Cancel payment request returns 404 when missing")
     @Severity(SeverityLevel.MINOR)
@@ -1295,10 +1438,10 @@ class PaymentControllerTest {
     void get_transactions_by_request_returns_200() throws Exception {
         UUID requestId = UUID.randomUUID();
         Pageable pageable = Allure.step("Create pageable", () -> PageRequest.of(0, 10));
-        Page<PaymentTransactionDto> page = Allure.step(
+        Page<PaymentTransactionSummaryDto> page = Allure.step(
                 "Create page of transactions",
                 () -> new org.springframework.data.domain.PageImpl<>(
-                        List.of(transactionDto(UUID.randomUUID())), pageable, 1));
+                        List.of(transactionSummary(UUID.randomUUID())), pageable, 1));
         Allure.step(
                 "Stub service to return page of transactions for requestId=" + requestId,
                 () -> when(paymentTransactionService.getTransactionsByPaymentRequest(
@@ -1331,10 +1474,10 @@ class PaymentControllerTest {
     @Severity(SeverityLevel.NORMAL)
     void get_transactions_by_status_returns_200() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<PaymentTransactionDto> page = Allure.step(
+        Page<PaymentTransactionSummaryDto> page = Allure.step(
                 "Create page of transactions",
                 () -> new org.springframework.data.domain.PageImpl<>(
-                        List.of(transactionDto(UUID.randomUUID())), pageable, 1));
+                        List.of(transactionSummary(UUID.randomUUID())), pageable, 1));
         Allure.step(
                 "Stub service to return page of transactions for status=SUCCESS",
                 () -> when(paymentTransactionService.getTransactionsByStatus(
@@ -1666,8 +1809,8 @@ class PaymentControllerTest {
     @Severity(SeverityLevel.MINOR)
     void transaction_stats_returns_500_on_error() throws Exception {
         Allure.step(
-                "Stub countByStatus to throw RuntimeException",
-                () -> when(paymentTransactionService.countByStatus(any()))
+                "Stub getStatusCountBreakdown to throw RuntimeException",
+                () -> when(paymentTransactionService.getStatusCountBreakdown())
                         .thenThrow(new RuntimeException("boom")));
 
         var result = Allure.step(
@@ -1685,8 +1828,8 @@ class PaymentControllerTest {
     @Severity(SeverityLevel.MINOR)
     void refund_stats_returns_500_on_error() throws Exception {
         Allure.step(
-                "Stub countByStatus to throw RuntimeException",
-                () -> when(paymentRefundService.countByStatus(any()))
+                "Stub getStatusCountBreakdown to throw RuntimeException",
+                () -> when(paymentRefundService.getStatusCountBreakdown())
                         .thenThrow(new RuntimeException("boom")));
 
         var result = Allure.step(
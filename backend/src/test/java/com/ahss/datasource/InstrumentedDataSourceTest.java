@@ -0,0 +1,153 @@
+package com.ahss.datasource;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Query Instrumentation")
+@Owner("backend")
+class InstrumentedDataSourceTest {
+
+    private static final String COUNT_SQL = "select count(*) from payment_audit_log p1_0 where p1_0.action=?";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource target = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+    private String previousQuery;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        previousQuery = QueryMetrics.enterQuery(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryMetrics.exitQuery(previousQuery);
+    }
+
+    @Test
+    @DisplayName("A query inside a repository call is timed under the repository method and its rows counted")
+    @Story("Per-query histograms")
+    void query_isTimedAndRowsCounted() throws SQLException {
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        DataSource dataSource = new InstrumentedDataSource(target, metrics(Duration.ofMillis(500)));
+
+        String previous = QueryMetrics.enterQuery("PaymentAuditLogRepository.countByAction");
+        try (Connection c = dataSource.getConnection(); PreparedStatement ps = c.prepareStatement(COUNT_SQL)) {
+            ps.setString(1, "PAYMENT_CREATED");
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                rs.getLong(1);
+            }
+            rs.close();
+        } finally {
+            QueryMetrics.exitQuery(previous);
+        }
+
+        Timer timer = meterRegistry.get(QueryMetrics.QUERY_METRIC)
+                .tag("query", "PaymentAuditLogRepository.countByAction").tag("outcome", "success").timer();
+        assertEquals(1, timer.count());
+        assertEquals(3.0, meterRegistry.get(QueryMetrics.ROWS_METRIC)
+                .tag("query", "PaymentAuditLogRepository.countByAction").summary().totalAmount());
+        assertEquals(1, meterRegistry.get(QueryMetrics.ROWS_METRIC).summary().count());
+        verify(statement).setString(1, "PAYMENT_CREATED");
+    }
+
+    @Test
+    @DisplayName("Statements outside a repository call are named by kind and table; batches sum their update counts")
+    @Story("Per-query histograms")
+    void batch_isNamedBySqlAndCountsRows() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[]{1, 1, Statement.SUCCESS_NO_INFO});
+        DataSource dataSource = new InstrumentedDataSource(target, metrics(Duration.ofMillis(500)));
+
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement("insert into payment_request (title,payment_request_id) values (?,?)")) {
+            ps.addBatch();
+            ps.executeBatch();
+        }
+
+        assertEquals(1, meterRegistry.get(QueryMetrics.QUERY_METRIC).tag("query", "insert payment_request").timer().count());
+        assertEquals(2.0, meterRegistry.get(QueryMetrics.ROWS_METRIC).tag("query", "insert payment_request")
+                .summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Failed statements are timed with outcome=error and the exception is rethrown unchanged")
+    @Story("Per-query histograms")
+    void failure_isRecordedAndRethrown() throws SQLException {
+        SQLException failure = new SQLException("deadlock detected", "40P01");
+        when(statement.executeUpdate()).thenThrow(failure);
+        DataSource dataSource = new InstrumentedDataSource(target, metrics(Duration.ofMillis(500)));
+
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement("update payment_request set status=? where payment_request_id=?")) {
+            assertSame(failure, assertThrows(SQLException.class, ps::executeUpdate));
+        }
+
+        assertEquals(1, meterRegistry.get(QueryMetrics.QUERY_METRIC)
+                .tag("query", "update payment_request").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    @DisplayName("Statements over the threshold count as slow")
+    @Story("Slow-query log")
+    void slowStatement_isCounted() throws SQLException {
+        when(statement.executeUpdate()).thenAnswer(inv -> {
+            Thread.sleep(5);
+            return 1;
+        });
+        DataSource dataSource = new InstrumentedDataSource(target, metrics(Duration.ofMillis(1)));
+
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement("delete from payment_refund where payment_refund_id=?")) {
+            ps.setObject(1, "42");
+            ps.executeUpdate();
+        }
+
+        assertEquals(1.0, meterRegistry.get(QueryMetrics.SLOW_METRIC).tag("query", "delete payment_refund")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("unwrap reaches the driver's connection and the pool is still reachable for pool metrics")
+    @Story("Per-query histograms")
+    void unwrap_passesThrough() throws SQLException {
+        when(connection.unwrap(String.class)).thenReturn("driver connection");
+        InstrumentedDataSource dataSource = new InstrumentedDataSource(target, metrics(Duration.ZERO));
+
+        Connection c = dataSource.getConnection();
+
+        assertSame(c, c.unwrap(Connection.class));
+        assertEquals("driver connection", c.unwrap(String.class));
+        assertSame(target, dataSource.getTargetDataSource());
+    }
+
+    private QueryMetrics metrics(Duration slowThreshold) {
+        return new QueryMetrics(meterRegistry, slowThreshold, 1.0, 10, () -> 0.0);
+    }
+}
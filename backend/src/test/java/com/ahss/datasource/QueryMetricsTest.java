@@ -0,0 +1,86 @@
+package com.ahss.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Query Instrumentation")
+@Owner("backend")
+class QueryMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryMetrics metrics = new QueryMetrics(meterRegistry, Duration.ofMillis(500), 1.0, 5, () -> 0.0);
+
+    @Test
+    @DisplayName("SQL outside a repository call is reduced to statement kind and main table")
+    @Story("Per-query histograms")
+    void fingerprint() {
+        assertEquals("select payment_audit_log",
+                QueryMetrics.fingerprint("select p1_0.id from payment_audit_log p1_0 where p1_0.action=?"));
+        assertEquals("select payment_transaction",
+                QueryMetrics.fingerprint("SELECT count(*) FROM (SELECT 1 FROM payment_transaction t) x"));
+        assertEquals("insert payment_request",
+                QueryMetrics.fingerprint("/* insert PaymentRequest */ insert into payment_request (id) values (?)"));
+        assertEquals("update payment_refund", QueryMetrics.fingerprint("update \"payment_refund\" set x=?"));
+        assertEquals("delete payment_audit_log", QueryMetrics.fingerprint("DELETE FROM payment_audit_log WHERE id=?"));
+        assertEquals("with payment_request",
+                QueryMetrics.fingerprint("WITH due AS (SELECT id FROM payment_request) UPDATE payment_request SET x=1"));
+        assertEquals("call", QueryMetrics.fingerprint("{call expire_payments(?)}"));
+        assertEquals("other", QueryMetrics.fingerprint("SET LOCAL statement_timeout = 1000"));
+    }
+
+    @Test
+    @DisplayName("A query repeated within one request is reported as a likely N+1 against the route pattern")
+    @Story("Statements per request")
+    void repeatedQuery_isReportedPerRequest() throws Exception {
+        QueryCountFilter filter = new QueryCountFilter(metrics);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/payments/stats");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/payments/stats");
+            metrics.recordExecution("select distinct action from payment_audit_log", 1_000, true, null);
+            String previous = QueryMetrics.enterQuery("PaymentAuditLogRepository.countByAction");
+            try {
+                for (int i = 0; i < 6; i++) {
+                    metrics.recordExecution("select count(*) from payment_audit_log where action=?", 1_000, true, null);
+                }
+            } finally {
+                QueryMetrics.exitQuery(previous);
+            }
+        });
+
+        assertEquals(7.0, meterRegistry.get(QueryMetrics.REQUEST_STATEMENTS_METRIC)
+                .tag("method", "GET").tag("uri", "/api/v1/payments/stats").summary().totalAmount());
+        assertEquals(1.0, meterRegistry.get(QueryMetrics.REPEATED_METRIC)
+                .tag("query", "PaymentAuditLogRepository.countByAction").counter().count());
+        assertNull(meterRegistry.find(QueryMetrics.REPEATED_METRIC).tag("query", "select payment_audit_log").counter());
+    }
+
+    @Test
+    @DisplayName("Statements after the request ends are not attributed to it")
+    @Story("Statements per request")
+    void requestScope_endsWithRequest() throws Exception {
+        new QueryCountFilter(metrics).doFilter(new MockHttpServletRequest("GET", "/missing"),
+                new MockHttpServletResponse(), (req, res) -> { });
+
+        metrics.recordExecution("select 1", 1_000, true, null);
+
+        assertEquals(0.0, meterRegistry.get(QueryMetrics.REQUEST_STATEMENTS_METRIC)
+                .tag("uri", QueryCountFilter.UNKNOWN_URI).summary().totalAmount());
+        Counter slow = meterRegistry.find(QueryMetrics.SLOW_METRIC).counter();
+        assertNull(slow);
+    }
+}
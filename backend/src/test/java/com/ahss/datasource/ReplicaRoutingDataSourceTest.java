@@ -0,0 +1,195 @@
+package com.ahss.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Read Replicas")
+@Owner("backend")
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final JdbcTemplate replicaJdbc = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        lagMonitor = new ReplicaLagMonitor(replicaJdbc, meterRegistry);
+        dataSource = new ReplicaRoutingDataSource(primary, replica, lagMonitor,
+                new ReadYourWritesTracker(clock, 5_000), 1_000, meterRegistry);
+        replicaLag(200.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("Read-only transactions use the replica, read-write transactions the primary")
+    @Story("Routing by transaction type")
+    void routesByReadOnlyFlag() throws SQLException {
+        assertSame(replicaConnection, inTransaction(true));
+        assertSame(primaryConnection, inTransaction(false));
+        assertSame(primaryConnection, dataSource.getConnection(), "no transaction: primary");
+
+        assertEquals(1.0, routed("replica", "read-only"));
+        assertEquals(2.0, routed("primary", "read-write"));
+    }
+
+    @Test
+    @DisplayName("Reads stay on the primary while the replica lags or cannot be checked")
+    @Story("Replica lag awareness")
+    void lagging_orUnreachableReplica_fallsBackToPrimary() throws SQLException {
+        replicaLag(4_000.0);
+        assertSame(primaryConnection, inTransaction(true));
+        assertEquals(1.0, routed("primary", "replica-lag"));
+
+        when(replicaJdbc.queryForObject(anyString(), eq(Double.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        lagMonitor.refresh();
+        assertSame(primaryConnection, inTransaction(true));
+        assertEquals(1.0, routed("primary", "replica-unavailable"));
+        assertEquals(-1.0, meterRegistry.get(ReplicaLagMonitor.LAG_METRIC).gauge().value());
+
+        replicaLag(0.0);
+        assertSame(replicaConnection, inTransaction(true));
+    }
+
+    @Test
+    @DisplayName("A replica connection failure falls back to the primary and takes the replica out of rotation")
+    @Story("Replica lag awareness")
+    void replicaConnectionFailure_fallsBackToPrimary() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("too many connections"));
+
+        assertSame(primaryConnection, inTransaction(true));
+        assertFalse(lagMonitor.isWithin(1_000));
+        assertEquals(1.0, routed("primary", "replica-unavailable"));
+    }
+
+    @Test
+    @DisplayName("After a committed write the same writer reads from the primary until the window passes")
+    @Story("Read-your-writes")
+    void committedWrite_pinsWriterToPrimary() throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        dataSource.getConnection();
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertSame(primaryConnection, inTransaction(true));
+        assertEquals(1.0, routed("primary", "recent-write"));
+
+        clock.advance(Duration.ofSeconds(6));
+        assertSame(replicaConnection, inTransaction(true));
+    }
+
+    @Test
+    @DisplayName("A rolled-back write does not pin the writer to the primary")
+    @Story("Read-your-writes")
+    void rolledBackWrite_doesNotPin() throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        dataSource.getConnection();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertSame(replicaConnection, inTransaction(true));
+    }
+
+    @Test
+    @DisplayName("Expired writers are purged from the tracker")
+    @Story("Read-your-writes")
+    void tracker_forgetsExpiredWriters() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(clock, 5_000);
+        tracker.recordWrite("user:alice");
+        assertTrue(tracker.wroteRecently("user:alice"));
+        assertFalse(tracker.wroteRecently("user:bob"));
+
+        clock.advance(Duration.ofSeconds(5));
+        assertFalse(tracker.wroteRecently("user:alice"));
+        assertEquals(0, tracker.tracked());
+    }
+
+    private Connection inTransaction(boolean readOnly) throws SQLException {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            return dataSource.getConnection();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    private void replicaLag(double millis) {
+        reset(replicaJdbc);
+        when(replicaJdbc.queryForObject(ReplicaLagMonitor.LAG_SQL, Double.class)).thenReturn(millis);
+        lagMonitor.refresh();
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get(ReplicaRoutingDataSource.ROUTE_METRIC)
+                .tag("target", target).tag("reason", reason).counter().count();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ahss.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Workload Pools")
+@Owner("backend")
+class WorkloadRoutingDataSourceTest {
+
+    private final DataSource oltp = mock(DataSource.class);
+    private final DataSource reporting = mock(DataSource.class);
+    private final DataSource jobs = mock(DataSource.class);
+    private final Connection oltpConnection = mock(Connection.class);
+    private final Connection reportingConnection = mock(Connection.class);
+    private final Connection jobsConnection = mock(Connection.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WorkloadRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(oltp.getConnection()).thenReturn(oltpConnection);
+        when(reporting.getConnection()).thenReturn(reportingConnection);
+        when(jobs.getConnection()).thenReturn(jobsConnection);
+        dataSource = new WorkloadRoutingDataSource(
+                Map.of(Workload.OLTP, oltp, Workload.REPORTING, reporting, Workload.JOBS, jobs), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Without a workload connections come from the OLTP pool")
+    @Story("Routing")
+    void noWorkload_usesOltp() throws SQLException {
+        assertSame(oltpConnection, dataSource.getConnection());
+        assertEquals(1.0, connections(Workload.OLTP));
+    }
+
+    @Test
+    @DisplayName("Connections come from the pool of the thread's workload and are counted by it")
+    @Story("Routing")
+    void workload_picksPool() throws Throwable {
+        assertSame(reportingConnection, WorkloadContext.call(Workload.REPORTING, dataSource::getConnection));
+        assertSame(jobsConnection, WorkloadContext.call(Workload.JOBS, dataSource::getConnection));
+
+        assertEquals(1.0, connections(Workload.REPORTING));
+        assertEquals(1.0, connections(Workload.JOBS));
+        assertEquals(0.0, connections(Workload.OLTP));
+        assertEquals(Workload.OLTP, WorkloadContext.current());
+    }
+
+    @Test
+    @DisplayName("An enclosing workload is kept by nested work")
+    @Story("Routing")
+    void enclosingWorkload_wins() throws Throwable {
+        Connection connection = WorkloadContext.call(Workload.JOBS,
+                () -> WorkloadContext.call(Workload.REPORTING, dataSource::getConnection));
+
+        assertSame(jobsConnection, connection);
+    }
+
+    @Test
+    @DisplayName("A reporting read inside an OLTP transaction keeps the transaction on the OLTP pool")
+    @Story("Routing")
+    void enclosingTransaction_keepsOltp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Reports());
+        factory.addAspect(new WorkloadAspect());
+        Reports proxy = factory.getProxy();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals(Workload.OLTP, proxy.search());
+            assertEquals(Workload.OLTP, proxy.cleanup());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(Workload.REPORTING, proxy.search());
+    }
+
+    @Test
+    @DisplayName("Every workload needs a pool")
+    @Story("Routing")
+    void missingPool_isRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new WorkloadRoutingDataSource(Map.of(Workload.OLTP, oltp), meterRegistry));
+    }
+
+    @Test
+    @DisplayName("@UseWorkload on a method or its class sets the workload through the aspect")
+    @Story("Annotation")
+    void annotation_setsWorkload() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Reports());
+        factory.addAspect(new WorkloadAspect());
+        Reports proxy = factory.getProxy();
+
+        assertEquals(Workload.JOBS, proxy.cleanup());
+        assertEquals(Workload.REPORTING, proxy.search());
+        assertEquals(Workload.OLTP, WorkloadContext.current());
+    }
+
+    private double connections(Workload workload) {
+        return meterRegistry.get(WorkloadRoutingDataSource.CONNECTIONS_METRIC).tag("workload", workload.tag())
+                .counter().count();
+    }
+
+    @UseWorkload(Workload.REPORTING)
+    static class Reports {
+
+        public Workload search() {
+            return WorkloadContext.current();
+        }
+
+        @UseWorkload(Workload.JOBS)
+        public Workload cleanup() {
+            return WorkloadContext.current();
+        }
+    }
+}
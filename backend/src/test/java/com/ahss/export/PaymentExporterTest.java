@@ -0,0 +1,177 @@
+package com.ahss.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Payment Export")
+@Owner("backend")
+class PaymentExporterTest {
+
+    private static final LocalDateTime SEPTEMBER = LocalDateTime.of(2026, 9, 1, 0, 0);
+    private static final LocalDateTime OCTOBER = LocalDateTime.of(2026, 10, 1, 0, 0);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentExporter exporter = new PaymentExporter(jdbcTemplate,
+            TransactionOperations.withoutTransaction(), new JsonFactory(), meterRegistry, 250);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws SQLException {
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(0, PreparedStatementCreator.class).createPreparedStatement(connection);
+                    return invocation.getArgument(1, ResultSetExtractor.class).extractData(resultSet);
+                });
+    }
+
+    @Test
+    @DisplayName("The query is bounded on created_at, filtered and ordered for the partitions")
+    @Story("Server-side cursor")
+    void sql_boundsCreatedAt() {
+        List<Object> args = new ArrayList<>();
+
+        String sql = PaymentExporter.sql(PaymentExporter.Dataset.TRANSACTIONS,
+                new PaymentExporter.Filter(SEPTEMBER, OCTOBER, "SUCCESS"), args);
+
+        assertTrue(sql.startsWith("SELECT payment_transaction_id, transaction_code, "));
+        assertTrue(sql.endsWith(" FROM payment_transaction WHERE created_at >= ? AND created_at < ? " +
+                "AND transaction_status = CAST(? AS payment_transaction_status) " +
+                "ORDER BY created_at, payment_transaction_id"));
+        assertEquals(List.of(Timestamp.valueOf(SEPTEMBER), Timestamp.valueOf(OCTOBER), "SUCCESS"), args);
+        assertFalse(PaymentExporter.sql(PaymentExporter.Dataset.AUDIT_LOGS,
+                new PaymentExporter.Filter(null, null, null), new ArrayList<>()).contains("WHERE"));
+    }
+
+    @Test
+    @DisplayName("NDJSON export writes one object per row from a forward-only cursor with the fetch size")
+    @Story("NDJSON")
+    void ndjson_writesOneLinePerRow() throws Exception {
+        auditRows(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter.export(PaymentExporter.Dataset.AUDIT_LOGS, ExportFormat.NDJSON,
+                new PaymentExporter.Filter(SEPTEMBER, null, "UPDATE"), false, out);
+
+        assertEquals(2, rows);
+        verify(connection).prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY));
+        verify(statement).setFetchSize(250);
+        verify(statement).setObject(1, Timestamp.valueOf(SEPTEMBER));
+        verify(statement).setObject(2, "UPDATE");
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":\"text\",\"paymentRequestId\":\"text\",\"paymentTransactionId\":\"text\","
+                + "\"paymentRefundId\":\"text\",\"action\":\"text\",\"entityType\":\"text\",\"oldStatus\":\"text\","
+                + "\"newStatus\":\"text\",\"changeDetails\":{\"amount\":\"10.00\"},\"description\":\"text\","
+                + "\"userId\":12,\"userAgent\":\"text\",\"ipAddress\":\"text\",\"createdAt\":\"2026-09-15T10:30:00\"}",
+                lines[0]);
+        assertEquals(2.0, meterRegistry.get(PaymentExporter.ROWS_METRIC).tag("dataset", "audit-logs")
+                .counter().count());
+        assertEquals(1, meterRegistry.get(PaymentExporter.DURATION_METRIC).tag("outcome", "completed")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("CSV export writes a header, quotes fields that need it and leaves nulls empty; gzip wraps it")
+    @Story("CSV")
+    void csv_gzipped() throws Exception {
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getString(anyInt())).thenReturn("a,\"b\"");
+        when(resultSet.getString(1)).thenReturn("0190-id");
+        when(resultSet.getBigDecimal(anyInt())).thenReturn(new BigDecimal("99.50"));
+        when(resultSet.getTimestamp(anyInt())).thenReturn(null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(PaymentExporter.Dataset.REFUNDS, ExportFormat.CSV,
+                new PaymentExporter.Filter(null, null, null), true, out);
+
+        String csv = gunzip(out.toByteArray());
+        assertEquals("id,refundCode,paymentTransactionId,refundAmount,currency,reason,refundStatus,gatewayName,"
+                + "errorCode,processedAt,createdAt\r\n"
+                + "0190-id,\"a,\"\"b\"\"\",\"a,\"\"b\"\"\",99.50,\"a,\"\"b\"\"\",\"a,\"\"b\"\"\",\"a,\"\"b\"\"\","
+                + "\"a,\"\"b\"\"\",\"a,\"\"b\"\"\",,\r\n", csv);
+        assertEquals("plain", PaymentExporter.csvField("plain"));
+        assertEquals("\"two\nlines\"", PaymentExporter.csvField("two\nlines"));
+    }
+
+    @Test
+    @DisplayName("A client that goes away fails the export with its I/O error")
+    @Story("Server-side cursor")
+    void writeFailure_propagates() throws Exception {
+        auditRows(5000);
+        // Rows outgrow the write buffer, so the broken stream is hit while the cursor is open
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        IOException e = assertThrows(IOException.class, () -> exporter.export(PaymentExporter.Dataset.AUDIT_LOGS,
+                ExportFormat.NDJSON, new PaymentExporter.Filter(null, null, null), false, broken));
+
+        assertEquals("Broken pipe", e.getMessage());
+        assertEquals(1, meterRegistry.get(PaymentExporter.DURATION_METRIC).tag("outcome", "failed")
+                .timer().count());
+    }
+
+    private void auditRows(int count) throws SQLException {
+        Boolean[] more = new Boolean[count];
+        Arrays.fill(more, true);
+        more[count - 1] = false;
+        when(resultSet.next()).thenReturn(true, more);
+        when(resultSet.getString(anyInt())).thenReturn("text");
+        when(resultSet.getString(9)).thenReturn("{\"amount\":\"10.00\"}");
+        when(resultSet.getBigDecimal(anyInt())).thenReturn(new BigDecimal("12"));
+        when(resultSet.getTimestamp(anyInt())).thenReturn(Timestamp.valueOf(LocalDateTime.of(2026, 9, 15, 10, 30)));
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
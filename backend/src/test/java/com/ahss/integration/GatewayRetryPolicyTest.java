@@ -0,0 +1,107 @@
+package com.ahss.integration;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payment Channel Integration")
+@Feature("Outbound Retry Policy")
+class GatewayRetryPolicyTest {
+
+    private final List<Long> sleeps = new ArrayList<>();
+    private final GatewayRetryPolicy policy = new GatewayRetryPolicy(3, 100, 1000, sleeps::add);
+
+    @Test
+    @DisplayName("Retries I/O failures and returns the first successful result")
+    @Story("Retries transient failures")
+    void retries_io_failures_until_success() {
+        AtomicInteger calls = new AtomicInteger();
+        String result = policy.execute("Stripe", "payment", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ResourceAccessException("Read timed out");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, sleeps.size());
+        assertTrue(sleeps.get(0) <= 100);
+        assertTrue(sleeps.get(1) <= 200);
+    }
+
+    @Test
+    @DisplayName("Gives up after max attempts and rethrows the last failure")
+    @Story("Bounds retries")
+    void gives_up_after_max_attempts() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpServerErrorException ex = assertThrows(HttpServerErrorException.class,
+                () -> policy.execute("PayPal", "refund", () -> {
+                    calls.incrementAndGet();
+                    throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+                }));
+
+        assertEquals(503, ex.getStatusCode().value());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    @DisplayName("Does not retry client errors other than 429")
+    @Story("Skips non-retryable failures")
+    void does_not_retry_client_errors() {
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(HttpClientErrorException.class, () -> policy.execute("Stripe", "payment", () -> {
+            calls.incrementAndGet();
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        }));
+
+        assertEquals(1, calls.get());
+        assertTrue(sleeps.isEmpty());
+        assertTrue(policy.isRetryable(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS)));
+        assertFalse(policy.isRetryable(new IllegalStateException("bug")));
+    }
+
+    @Test
+    @DisplayName("Honours Retry-After as a floor capped at the max backoff")
+    @Story("Honours Retry-After")
+    void honours_retry_after_header() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Retry-After", "5");
+        HttpClientErrorException tooMany = HttpClientErrorException.create(
+                HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, new byte[0], StandardCharsets.UTF_8);
+
+        assertEquals(1000, policy.backoffMillis(1, tooMany));
+    }
+
+    @Test
+    @DisplayName("Idempotency keys are deterministic per transaction and refund")
+    @Story("Derives idempotency keys")
+    void idempotency_keys_are_deterministic() {
+        UUID txId = UUID.randomUUID();
+        UUID refundId = UUID.randomUUID();
+
+        assertEquals("payment-" + txId, IdempotencyKeys.forPayment(txId));
+        assertEquals(IdempotencyKeys.forRefund(refundId), IdempotencyKeys.forRefund(refundId));
+        assertEquals(IdempotencyKeys.forRefund(txId, new BigDecimal("10.00")),
+                IdempotencyKeys.forRefund(txId, new BigDecimal("10")));
+        assertNotEquals(IdempotencyKeys.forRefund(txId, new BigDecimal("10.00")),
+                IdempotencyKeys.forRefund(txId, new BigDecimal("5.00")));
+        assertNull(IdempotencyKeys.forPayment(null));
+    }
+}
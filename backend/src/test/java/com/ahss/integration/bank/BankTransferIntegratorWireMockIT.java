@@ -2,6 +2,7 @@ package com.ahss.integration.bank;
 
 import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentTransactionDto;
+import com.ahss.integration.GatewayRetryPolicy;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -36,7 +37,8 @@ import io.qameta.allure.Story;
 })
 @AutoConfigureWireMock(port = 0)
 @ActiveProfiles("test")
-@Import({ BankTransferIntegratorWireMockIT.ProxyRestTemplateConfig.class, BankTransferIntegrator.class })
+@Import({ BankTransferIntegratorWireMockIT.ProxyRestTemplateConfig.class, BankTransferIntegrator.class,
+        GatewayRetryPolicy.class })
 @Epic("Payment Channel Integration")
 @Feature("Bank Transfer Integration")
 class BankTransferIntegratorWireMockIT {
@@ -0,0 +1,90 @@
+package com.ahss.integration.parser;
+
+import com.ahss.integration.MessageParserFactory;
+import com.ahss.kafka.event.PaymentCallbackEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Micro-benchmark of webhook payload parsing for every gateway, comparing lookup by gateway
+ * against shape sniffing. Opt-in because timings are noisy on shared CI runners:
+ * {@code mvn test -Dtest=MessageParserBenchmarkTest -Dbenchmarks=true}.
+ */
+@Epic("Payment Channel Integration")
+@Feature("Message Parser")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class MessageParserBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageParserBenchmarkTest.class);
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final Map<String, String> PAYLOADS = new LinkedHashMap<>();
+
+    static {
+        PAYLOADS.put("Stripe", "{ \"id\": \"evt_1\", \"type\": \"payment_intent.succeeded\", \"created\": 1700000000,"
+                + " \"data\": { \"object\": { \"id\": \"pi_1\", \"currency\": \"usd\", \"amount_received\": 1234,"
+                + " \"metadata\": { \"correlationId\": \"corr-1\", \"paymentToken\": \"tok_1\" } } } }");
+        PAYLOADS.put("PayPal", "{ \"id\": \"WH-1\", \"event_type\": \"PAYMENT.CAPTURE.COMPLETED\","
+                + " \"resource\": { \"id\": \"cap_1\", \"custom_id\": \"corr-1\", \"invoice_id\": \"INV-1\","
+                + " \"amount\": { \"value\": \"12.34\", \"currency_code\": \"USD\" },"
+                + " \"create_time\": \"2024-10-20T12:00:00Z\" } }");
+        PAYLOADS.put("BankTransfer", "{ \"id\": \"BT-1\", \"status\": \"TRANSFER.COMPLETED\","
+                + " \"transaction_id\": \"ext-1\", \"amount\": { \"value\": \"12.34\", \"currency\": \"USD\" },"
+                + " \"reference\": \"INV-1\" }");
+    }
+
+    @Test
+    @DisplayName("Benchmarks parsing by gateway against shape sniffing for all gateways")
+    @Story("Benchmarks parser dispatch")
+    void benchmark_parser_dispatch() throws Exception {
+        for (Map.Entry<String, String> entry : PAYLOADS.entrySet()) {
+            String gateway = entry.getKey();
+            JsonNode root = objectMapper.readTree(entry.getValue());
+
+            assertSame(MessageParserFactory.forGateway(gateway), MessageParserFactory.forPayload(root));
+
+            double byGatewayNs = measure(() -> MessageParserFactory.forGateway(gateway).parse(root));
+            double sniffedNs = measure(() -> MessageParserFactory.forPayload(root).parse(root));
+            double endToEndNs = measure(() -> MessageParserFactory.forGateway(gateway)
+                    .parse(objectMapper.readTree(entry.getValue())));
+
+            log.info(String.format("%-12s by-gateway %8.0f ns/op | sniffed %8.0f ns/op | read+parse %8.0f ns/op",
+                    gateway, byGatewayNs, sniffedNs, endToEndNs));
+        }
+    }
+
+    private interface ParseCall {
+        PaymentCallbackEvent run() throws Exception;
+    }
+
+    private double measure(ParseCall call) throws Exception {
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = call.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink = call.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertNotNull(sink);
+        return (double) elapsed / MEASURED_ITERATIONS;
+    }
+}
@@ -63,4 +63,16 @@ class MessageParserFactoryTest {
         MessageParser parser = MessageParserFactory.forPayload(root);
         assertNull(parser);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Looks parsers up by gateway name regardless of case")
+    @Story("Selects parser by gateway")
+    void selects_parser_by_gateway() {
+        assertEquals(StripeMessageParser.class, MessageParserFactory.forGateway("Stripe").getClass());
+        assertEquals(PayPalMessageParser.class, MessageParserFactory.forGateway("paypal").getClass());
+        assertEquals(BankTransferMessageParser.class, MessageParserFactory.forGateway("BankTransfer").getClass());
+        assertEquals(BankTransferMessageParser.class, MessageParserFactory.forGateway("bank-transfer").getClass());
+        assertNull(MessageParserFactory.forGateway("Unknown"));
+        assertNull(MessageParserFactory.forGateway(null));
+    }
+}
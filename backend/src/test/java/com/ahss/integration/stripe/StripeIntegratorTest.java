@@ -4,11 +4,15 @@ import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentResponseDto;
 import com.ahss.dto.response.PaymentTransactionDto;
 import com.ahss.enums.PaymentMethodType;
+import com.ahss.integration.GatewayRetryPolicy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
@@ -17,6 +21,7 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import io.qameta.allure.Epic;
@@ -109,4 +114,71 @@ class StripeIntegratorTest {
     assertNotNull(resp.getProcessedAt());
     verify(rt, times(1)).postForObject(anyString(), any(), any());
   }
+
+  @Test
+  @DisplayName("initiatePayment() sends an idempotency key derived from the transaction id")
+  @Story("Sends idempotency key on payment")
+  void initiatePayment_sendsIdempotencyKey() {
+    StripeIntegrator.CreditCardResponse mockResponse = new StripeIntegrator.CreditCardResponse();
+    mockResponse.setId("txn_12345");
+    mockResponse.setSuccess(true);
+    when(rt.postForObject(anyString(), any(), any())).thenReturn(mockResponse);
+
+    PaymentRequestDto request = new PaymentRequestDto();
+    request.setId(UUID.randomUUID());
+    PaymentTransactionDto tx = new PaymentTransactionDto();
+    tx.setId(UUID.randomUUID());
+    tx.setAmount(new BigDecimal("25.00"));
+    tx.setCurrency("USD");
+
+    integrator.initiatePayment(request, tx);
+
+    ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
+    verify(rt).postForObject(eq("paymentApiUrl"), captor.capture(), any());
+    assertEquals(
+        "payment-" + tx.getId(),
+        captor.getValue().getHeaders().getFirst(StripeIntegrator.IDEMPOTENCY_HEADER));
+  }
+
+  @Test
+  @DisplayName("processRefund() retries a timed-out call with the same refund idempotency key")
+  @Story("Retries refund with idempotency key")
+  void processRefund_retriesTimeoutWithSameKey() {
+    StripeIntegrator retrying =
+        new StripeIntegrator(
+            rt,
+            "tokenizationApiUrl",
+            "paymentApiUrl",
+            "refundApiUrl",
+            "apiKey",
+            mock(ObjectMapper.class),
+            new GatewayRetryPolicy(3, 0, 0));
+    StripeIntegrator.StripeRefundResponse refundResponse =
+        new StripeIntegrator.StripeRefundResponse();
+    refundResponse.setId("re_123");
+    refundResponse.setStatus("succeeded");
+    when(rt.postForObject(anyString(), any(), any()))
+        .thenThrow(new ResourceAccessException("Read timed out"))
+        .thenReturn(refundResponse);
+
+    PaymentTransactionDto tx = new PaymentTransactionDto();
+    tx.setId(UUID.randomUUID());
+    tx.setExternalTransactionId("ch_123");
+    tx.setCurrency("USD");
+    UUID refundId = UUID.randomUUID();
+
+    PaymentResponseDto resp = retrying.processRefund(tx, new BigDecimal("10.00"), refundId);
+
+    assertTrue(resp.isSuccess());
+    assertEquals("re_123", resp.getExternalRefundId());
+    ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
+    verify(rt, times(2)).postForObject(eq("refundApiUrl"), captor.capture(), any());
+    captor
+        .getAllValues()
+        .forEach(
+            entity ->
+                assertEquals(
+                    "refund-" + refundId,
+                    entity.getHeaders().getFirst(StripeIntegrator.IDEMPOTENCY_HEADER)));
+  }
 }
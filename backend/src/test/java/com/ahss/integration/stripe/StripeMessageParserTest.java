@@ -8,6 +8,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -116,4 +117,36 @@ class StripeMessageParserTest {
         assertEquals(PaymentCallbackType.REFUND_SUCCESS, evt.getType());
         assertEquals("re_abc", evt.getExternalRefundId());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Extracts internal identifiers echoed back in payment intent metadata")
+    @Story("Parses metadata identifiers")
+    void parses_metadata_identifiers() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        String json = "{\n" +
+                "  \"id\": \"evt_900\",\n" +
+                "  \"type\": \"payment_intent.succeeded\",\n" +
+                "  \"data\": {\n" +
+                "    \"object\": {\n" +
+                "      \"id\": \"pi_meta\",\n" +
+                "      \"metadata\": {\n" +
+                "        \"correlationId\": \"corr-1\",\n" +
+                "        \"paymentToken\": \"tok_1\",\n" +
+                "        \"paymentRequestId\": \"" + requestId + "\",\n" +
+                "        \"paymentTransactionId\": \"not-a-uuid\"\n" +
+                "      }\n" +
+                "    }\n" +
+                "  }\n" +
+                "}";
+        JsonNode root = objectMapper.readTree(json);
+        PaymentCallbackEvent evt = parser.parse(root);
+        assertEquals("corr-1", evt.getCorrelationId());
+        assertEquals("tok_1", evt.getPaymentToken());
+        assertEquals(requestId, evt.getPaymentRequestId());
+        assertNull(evt.getPaymentTransactionId());
+
+        PaymentCallbackEvent withoutMetadata = parser.parse(objectMapper.readTree(
+                "{ \"id\": \"evt_901\", \"type\": \"payment_intent.succeeded\", \"data\": { \"object\": {} } }"));
+        assertEquals("evt_901", withoutMetadata.getCorrelationId());
+    }
+}
@@ -0,0 +1,131 @@
+package com.ahss.integration.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Channel Integration")
+@Feature("Webhook Admission Control")
+class WebhookAdmissionFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private final AtomicLong nanos = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    private GatewayAdmission admission(int maxConcurrent, int maxQueue, double rate, double burst) {
+        GatewayAdmission.Limits limits = new GatewayAdmission.Limits();
+        limits.setMaxConcurrent(maxConcurrent);
+        limits.setMaxQueue(maxQueue);
+        limits.setMaxWaitMs(10);
+        limits.setRatePerSecond(rate);
+        limits.setBurst(burst);
+        limits.setRetryAfterSeconds(2);
+        return new GatewayAdmission("PayPal", limits, new TokenBucket(rate, burst, nanos::get), registry);
+    }
+
+    private double shed(GatewayAdmission.Outcome reason) {
+        var counter = registry.find(GatewayAdmission.SHED_METRIC)
+                .tag("gateway", "PayPal").tag("reason", reason.name()).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private MockHttpServletRequest post(String uri) {
+        return new MockHttpServletRequest("POST", uri);
+    }
+
+    @Test
+    @DisplayName("Returns 429 with Retry-After once the token bucket is empty and refills over time")
+    @Story("Rate limits per gateway")
+    void rate_limits_with_retry_after() throws Exception {
+        WebhookAdmissionFilter filter = new WebhookAdmissionFilter(
+                Map.of("paypal", admission(10, 0, 1, 2)), new ObjectMapper());
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse ok = new MockHttpServletResponse();
+            filter.doFilter(post("/api/integrations/webhooks/paypal"), ok, new MockFilterChain());
+            assertEquals(200, ok.getStatus());
+        }
+
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        filter.doFilter(post("/api/integrations/webhooks/paypal"), limited, new MockFilterChain());
+        assertEquals(429, limited.getStatus());
+        assertEquals("1", limited.getHeader("Retry-After"));
+        assertTrue(limited.getContentAsString().contains("rate limit"));
+        assertEquals(1, shed(GatewayAdmission.Outcome.RATE_LIMITED));
+
+        nanos.addAndGet(1_000_000_000L);
+        MockHttpServletResponse refilled = new MockHttpServletResponse();
+        filter.doFilter(post("/api/integrations/webhooks/paypal"), refilled, new MockFilterChain());
+        assertEquals(200, refilled.getStatus());
+    }
+
+    @Test
+    @DisplayName("Returns 503 when all permits are taken and the wait queue is full")
+    @Story("Sheds over-capacity traffic")
+    void sheds_when_over_capacity() throws Exception {
+        GatewayAdmission admission = admission(1, 0, 1000, 1000);
+        assertTrue(admission.admit().admitted());
+
+        GatewayAdmission.Decision decision = admission.admit();
+        assertEquals(GatewayAdmission.Outcome.OVER_CAPACITY, decision.outcome());
+        assertEquals(2, decision.retryAfterSeconds());
+        assertEquals(1, shed(GatewayAdmission.Outcome.OVER_CAPACITY));
+        assertEquals(1.0, registry.find(GatewayAdmission.IN_FLIGHT_METRIC).gauge().value());
+
+        admission.release();
+        assertTrue(admission.admit().admitted());
+    }
+
+    @Test
+    @DisplayName("Releases the permit even when the request fails downstream")
+    @Story("Releases permits")
+    void releases_permit_on_failure() throws Exception {
+        GatewayAdmission admission = admission(1, 0, 1000, 1000);
+        WebhookAdmissionFilter filter = new WebhookAdmissionFilter(Map.of("paypal", admission), new ObjectMapper());
+        FilterChain failing = mock(FilterChain.class);
+        doThrow(new IllegalStateException("boom")).when(failing).doFilter(any(), any());
+
+        assertThrows(IllegalStateException.class, () ->
+                filter.doFilter(post("/api/integrations/webhooks/paypal"), new MockHttpServletResponse(), failing));
+
+        assertTrue(admission.admit().admitted());
+        assertEquals(0.0, registry.find(GatewayAdmission.QUEUE_DEPTH_METRIC).gauge().value());
+    }
+
+    @Test
+    @DisplayName("Passes through gateways without limits and non-webhook paths")
+    @Story("Scopes admission control")
+    void passes_through_unlimited_paths() throws Exception {
+        GatewayAdmission admission = admission(1, 0, 1000, 1000);
+        assertTrue(admission.admit().admitted());
+        WebhookAdmissionFilter filter = new WebhookAdmissionFilter(Map.of("paypal", admission), new ObjectMapper());
+
+        MockHttpServletResponse stripe = new MockHttpServletResponse();
+        filter.doFilter(post("/api/integrations/webhooks/stripe"), stripe, new MockFilterChain());
+        MockHttpServletResponse api = new MockHttpServletResponse();
+        filter.doFilter(post("/api/v1/payments/requests"), api, new MockFilterChain());
+
+        assertEquals(200, stripe.getStatus());
+        assertEquals(200, api.getStatus());
+        assertEquals("bank-transfer", WebhookAdmissionFilter.gatewaySegment("/api/integrations/webhooks/bank-transfer/bulk"));
+    }
+}
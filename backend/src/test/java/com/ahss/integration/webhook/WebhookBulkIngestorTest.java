@@ -0,0 +1,125 @@
+package com.ahss.integration.webhook;
+
+import com.ahss.dto.response.BulkIngestionResultDto;
+import com.ahss.dto.response.BulkIngestionResultDto.LineStatus;
+import com.ahss.integration.MessageParserFactory;
+import com.ahss.kafka.producer.PaymentCallbackProducer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Channel Integration")
+@Feature("Webhook Bulk Ingestion")
+class WebhookBulkIngestorTest {
+
+    private static final WebhookBulkIngestor.LineParser BANK_PARSER =
+            root -> MessageParserFactory.forGateway("BankTransfer").parse(root);
+
+    private PaymentCallbackProducer producer;
+
+    @BeforeEach
+    void setUp() {
+        producer = mock(PaymentCallbackProducer.class);
+    }
+
+    private WebhookBulkIngestor ingestor(int batchSize, long maxLines) {
+        return new WebhookBulkIngestor(new ObjectMapper(), producer, batchSize, maxLines, 1000);
+    }
+
+    private static String line(int i) {
+        return "{\"id\":\"BT-" + i + "\",\"status\":\"TRANSFER.COMPLETED\",\"amount\":10,\"currency\":\"USD\"}";
+    }
+
+    private static InputStream body(String ndjson) {
+        return new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Publishes lines in producer batches and rejects malformed lines individually")
+    @Story("Ingests NDJSON in batches")
+    void publishes_in_batches_and_rejects_bad_lines() throws Exception {
+        when(producer.sendBatch(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+        String ndjson = line(1) + "\n" + line(2) + "\n\n{not json\n" + line(3) + "\n";
+
+        BulkIngestionResultDto result = ingestor(2, 100).ingest(body(ndjson), false, BANK_PARSER);
+
+        assertEquals(3, result.getAccepted());
+        assertEquals(1, result.getRejected());
+        assertNull(result.getResumeFromLine());
+        verify(producer, times(2)).sendBatch(anyList());
+
+        // accepted lines are only counted
+        assertEquals(1, result.getResults().size());
+        assertEquals(4, result.getResults().get(0).getLine());
+        assertEquals(LineStatus.REJECTED, result.getResults().get(0).getStatus());
+        assertNotNull(result.getResults().get(0).getError());
+    }
+
+    @Test
+    @DisplayName("Reads gzip-compressed bodies")
+    @Story("Accepts gzip bodies")
+    void reads_gzip_body() throws Exception {
+        when(producer.sendBatch(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            for (int i = 1; i <= 50; i++) {
+                gzip.write((line(i) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        BulkIngestionResultDto result = ingestor(20, 100)
+                .ingest(new ByteArrayInputStream(compressed.toByteArray()), true, BANK_PARSER);
+
+        assertEquals(50, result.getAccepted());
+        assertTrue(result.getResults().isEmpty());
+        verify(producer, times(3)).sendBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("Stops at the first unpublished batch and reports where to resume")
+    @Story("Reports resume point on publish failure")
+    void stops_at_failed_batch() throws Exception {
+        when(producer.sendBatch(anyList()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+        String ndjson = line(1) + "\n" + line(2) + "\n" + line(3) + "\n" + line(4) + "\n" + line(5) + "\n";
+
+        BulkIngestionResultDto result = ingestor(2, 100).ingest(body(ndjson), false, BANK_PARSER);
+
+        assertEquals(2, result.getAccepted());
+        assertEquals(2, result.getFailed());
+        assertEquals(3L, result.getResumeFromLine());
+        verify(producer, times(2)).sendBatch(anyList());
+        assertEquals(2, result.getResults().size());
+        assertEquals(LineStatus.FAILED, result.getResults().get(0).getStatus());
+        assertEquals("BT-3", result.getResults().get(0).getCorrelationId());
+    }
+
+    @Test
+    @DisplayName("Publishes what was read when the line limit is reached")
+    @Story("Bounds lines per request")
+    void honours_line_limit() throws Exception {
+        when(producer.sendBatch(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+        String ndjson = line(1) + "\n" + line(2) + "\n" + line(3) + "\n";
+
+        BulkIngestionResultDto result = ingestor(10, 2).ingest(body(ndjson), false, BANK_PARSER);
+
+        assertEquals(2, result.getAccepted());
+        assertEquals(3L, result.getResumeFromLine());
+    }
+}
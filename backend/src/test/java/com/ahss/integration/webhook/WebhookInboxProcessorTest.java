@@ -0,0 +1,103 @@
+package com.ahss.integration.webhook;
+
+import com.ahss.entity.WebhookInboxEvent;
+import com.ahss.enums.WebhookInboxStatus;
+import com.ahss.kafka.event.PaymentCallbackEvent;
+import com.ahss.kafka.producer.PaymentCallbackProducer;
+import com.ahss.repository.WebhookInboxRepository;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Channel Integration")
+@Feature("Webhook Inbox")
+class WebhookInboxProcessorTest {
+
+    private WebhookInboxRepository repository;
+    private PaymentCallbackProducer producer;
+    private BaseWebhookController stripeHandler;
+    private WebhookInboxProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(WebhookInboxRepository.class);
+        producer = mock(PaymentCallbackProducer.class);
+        stripeHandler = mock(BaseWebhookController.class);
+        when(stripeHandler.gatewayName()).thenReturn("Stripe");
+        processor = new WebhookInboxProcessor(repository, producer, mock(PlatformTransactionManager.class),
+                List.of(stripeHandler), 10, 1000);
+    }
+
+    private WebhookInboxEvent entry(long id, String gateway, String payload) {
+        WebhookInboxEvent e = new WebhookInboxEvent(gateway, payload, Map.of("Stripe-Signature", "sig"));
+        e.setId(id);
+        e.setReceivedAt(LocalDateTime.of(2025, 1, 1, 10, 0));
+        return e;
+    }
+
+    @Test
+    @DisplayName("Publishes parsed deliveries as one batch and marks them published after the ack")
+    @Story("Publishes pending deliveries")
+    void publishes_batch_and_marks_published() throws Exception {
+        WebhookInboxEvent first = entry(1L, "Stripe", "{\"id\":\"evt_1\"}");
+        WebhookInboxEvent second = entry(2L, "Stripe", "{\"id\":\"evt_2\"}");
+        when(repository.lockPendingBatch(10)).thenReturn(List.of(first, second));
+        when(stripeHandler.toCallbackEvent(anyString(), anyMap())).thenAnswer(inv -> new PaymentCallbackEvent());
+        when(producer.sendBatch(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+
+        int processed = processor.processBatch();
+
+        assertEquals(2, processed);
+        verify(producer).sendBatch(argThat(events -> events.size() == 2
+                && events.get(0).getReceivedAt().equals(first.getReceivedAt())));
+        verify(repository).updateStatus(eq(List.of(1L, 2L)), eq(WebhookInboxStatus.PUBLISHED), any());
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Sets unparseable deliveries aside as FAILED without blocking the rest")
+    @Story("Isolates poison deliveries")
+    void marks_unparseable_payload_failed() throws Exception {
+        WebhookInboxEvent good = entry(1L, "Stripe", "{\"id\":\"evt_1\"}");
+        WebhookInboxEvent unknownGateway = entry(2L, "Unknown", "{}");
+        when(repository.lockPendingBatch(10)).thenReturn(List.of(good, unknownGateway));
+        when(stripeHandler.toCallbackEvent(anyString(), anyMap())).thenReturn(new PaymentCallbackEvent());
+        when(producer.sendBatch(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+
+        processor.processBatch();
+
+        verify(repository).updateStatus(eq(List.of(1L)), eq(WebhookInboxStatus.PUBLISHED), any());
+        assertEquals(WebhookInboxStatus.FAILED, unknownGateway.getStatus());
+        assertNotNull(unknownGateway.getLastError());
+        verify(repository).saveAll(List.of(unknownGateway));
+    }
+
+    @Test
+    @DisplayName("Leaves deliveries pending when Kafka does not acknowledge the batch")
+    @Story("Replays after publish failure")
+    void keeps_rows_pending_when_publish_fails() throws Exception {
+        when(repository.lockPendingBatch(10)).thenReturn(List.of(entry(1L, "Stripe", "{}")));
+        when(stripeHandler.toCallbackEvent(anyString(), anyMap())).thenReturn(new PaymentCallbackEvent());
+        when(producer.sendBatch(anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        assertThrows(IllegalStateException.class, () -> processor.processBatch());
+        verify(repository, never()).updateStatus(anyList(), any(), any());
+
+        // drain() swallows the failure so the scheduler keeps polling
+        assertDoesNotThrow(() -> processor.drain());
+    }
+}
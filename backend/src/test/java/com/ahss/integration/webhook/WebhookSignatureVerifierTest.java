@@ -0,0 +1,106 @@
+package com.ahss.integration.webhook;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payment Channel Integration")
+@Feature("Webhook Signature Verification")
+class WebhookSignatureVerifierTest {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final String BODY = "{\"id\":\"evt_1\",\"type\":\"payment_intent.succeeded\"}";
+
+    private SimpleMeterRegistry registry;
+    private WebhookSignatureVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        verifier = new WebhookSignatureVerifier(registry, true, 300,
+                Clock.fixed(Instant.ofEpochSecond(NOW), ZoneOffset.UTC));
+        verifier.register("Stripe", "Stripe-Signature", "whsec_new, whsec_old");
+        verifier.register("BankTransfer", "X-Bank-Signature", "bank_secret");
+    }
+
+    private static String sign(String secret, long timestamp, String body) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] digest = mac.doFinal((timestamp + "." + body).getBytes(StandardCharsets.UTF_8));
+        return "t=" + timestamp + ",v1=" + HexFormat.of().formatHex(digest);
+    }
+
+    private double rejected(String gateway, WebhookSignatureVerifier.Result reason) {
+        var counter = registry.find(WebhookSignatureVerifier.REJECTED_METRIC)
+                .tag("gateway", gateway).tag("reason", reason.name()).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    @DisplayName("Accepts signatures made with the current or the previous secret")
+    @Story("Supports secret rotation")
+    void accepts_current_and_rotated_secret() throws Exception {
+        assertEquals(WebhookSignatureVerifier.Result.VERIFIED, verifier.verify("Stripe", BODY,
+                Map.of("Stripe-Signature", sign("whsec_new", NOW, BODY))));
+        assertEquals(WebhookSignatureVerifier.Result.VERIFIED, verifier.verify("Stripe", BODY,
+                Map.of("Stripe-Signature", sign("whsec_old", NOW - 10, BODY))));
+        assertEquals(WebhookSignatureVerifier.Result.VERIFIED, verifier.verify("BankTransfer", BODY,
+                Map.of("X-Bank-Signature", sign("bank_secret", NOW, BODY))));
+    }
+
+    @Test
+    @DisplayName("Rejects tampered bodies, unknown secrets and malformed headers and counts them per gateway")
+    @Story("Rejects forged deliveries")
+    void rejects_forged_deliveries() throws Exception {
+        String signature = sign("whsec_new", NOW, BODY);
+
+        assertEquals(WebhookSignatureVerifier.Result.SIGNATURE_MISMATCH,
+                verifier.verify("Stripe", BODY.replace("evt_1", "evt_2"), Map.of("Stripe-Signature", signature)));
+        assertEquals(WebhookSignatureVerifier.Result.SIGNATURE_MISMATCH,
+                verifier.verify("BankTransfer", BODY, Map.of("X-Bank-Signature", sign("wrong", NOW, BODY))));
+        assertEquals(WebhookSignatureVerifier.Result.MALFORMED_SIGNATURE,
+                verifier.verify("Stripe", BODY, Map.of("Stripe-Signature", "t=" + NOW + ",v1=not-hex")));
+        assertEquals(WebhookSignatureVerifier.Result.MISSING_SIGNATURE,
+                verifier.verify("Stripe", BODY, Map.of()));
+
+        assertEquals(1, rejected("Stripe", WebhookSignatureVerifier.Result.SIGNATURE_MISMATCH));
+        assertEquals(1, rejected("BankTransfer", WebhookSignatureVerifier.Result.SIGNATURE_MISMATCH));
+        assertEquals(1, rejected("Stripe", WebhookSignatureVerifier.Result.MALFORMED_SIGNATURE));
+        assertEquals(1, rejected("Stripe", WebhookSignatureVerifier.Result.MISSING_SIGNATURE));
+    }
+
+    @Test
+    @DisplayName("Rejects valid signatures whose timestamp is outside the tolerance window")
+    @Story("Limits replay window")
+    void rejects_stale_timestamp() throws Exception {
+        assertEquals(WebhookSignatureVerifier.Result.TIMESTAMP_OUT_OF_TOLERANCE, verifier.verify("Stripe", BODY,
+                Map.of("Stripe-Signature", sign("whsec_new", NOW - 301, BODY))));
+        assertEquals(1, rejected("Stripe", WebhookSignatureVerifier.Result.TIMESTAMP_OUT_OF_TOLERANCE));
+    }
+
+    @Test
+    @DisplayName("Passes through gateways without a shared-secret scheme")
+    @Story("Skips unsigned gateways")
+    void passes_through_gateways_without_scheme() {
+        WebhookSignatureVerifier.Result result = verifier.verify("PayPal", BODY, Map.of());
+
+        assertEquals(WebhookSignatureVerifier.Result.NOT_APPLICABLE, result);
+        assertTrue(result.isAccepted());
+        assertNull(registry.find(WebhookSignatureVerifier.REJECTED_METRIC).tag("gateway", "PayPal").counter());
+    }
+}
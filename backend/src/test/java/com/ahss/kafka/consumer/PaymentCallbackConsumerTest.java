@@ -0,0 +1,102 @@
+package com.ahss.kafka.consumer;
+
+import com.ahss.kafka.event.PaymentCallbackEvent;
+import com.ahss.kafka.event.PaymentCallbackType;
+import com.ahss.saga.PaymentSagaOrchestrator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Saga")
+@Feature("Payment Callback Consumer")
+class PaymentCallbackConsumerTest {
+
+    private final PaymentSagaOrchestrator orchestrator = mock(PaymentSagaOrchestrator.class);
+    // As configured by Spring Boot
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final PaymentCallbackConsumer consumer = new PaymentCallbackConsumer(orchestrator, objectMapper);
+
+    @Test
+    @DisplayName("Stripe events without a callback mapping never reach the saga")
+    @Story("Unknown event types")
+    void stripe_unmappedTypes_ignored() {
+        consumer.onMessage("{\"id\":\"evt_1\",\"type\":\"payment_intent.created\","
+                + "\"data\":{\"object\":{\"id\":\"pi_1\",\"amount\":5000}}}");
+        consumer.onMessage("{\"id\":\"evt_2\",\"type\":\"payment_intent.processing\","
+                + "\"data\":{\"object\":{\"id\":\"pi_1\",\"amount\":5000}}}");
+
+        verifyNoInteractions(orchestrator);
+    }
+
+    @Test
+    @DisplayName("PayPal events outside the mapping table never reach the saga")
+    @Story("Unknown event types")
+    void paypal_unmappedTypes_ignored() {
+        consumer.onMessage("{\"id\":\"WH-1\",\"event_type\":\"PAYMENT.CAPTURE.PENDING\","
+                + "\"resource\":{\"id\":\"CAP-1\",\"amount\":{\"value\":\"10.00\",\"currency_code\":\"USD\"}}}");
+        consumer.onMessage("{\"id\":\"WH-2\",\"resource\":{\"id\":\"CAP-1\"}}");
+
+        verifyNoInteractions(orchestrator);
+    }
+
+    @Test
+    @DisplayName("Stripe charge.refunded and charge.refund.updated are refund successes with the refund id")
+    @Story("Refund event types")
+    void stripe_refundTypes_mapToRefundSuccess() {
+        consumer.onMessage(stripeRefund("charge.refunded"));
+        consumer.onMessage(stripeRefund("charge.refund.updated"));
+
+        ArgumentCaptor<PaymentCallbackEvent> captor = ArgumentCaptor.forClass(PaymentCallbackEvent.class);
+        verify(orchestrator, times(2)).handle(captor.capture());
+        for (PaymentCallbackEvent event : captor.getAllValues()) {
+            assertEquals(PaymentCallbackType.REFUND_SUCCESS, event.getType());
+            assertEquals("ch_1", event.getExternalTransactionId());
+            assertEquals("re_1", event.getExternalRefundId());
+        }
+    }
+
+    @Test
+    @DisplayName("PayPal refund events map to refund success and failure")
+    @Story("Refund event types")
+    void paypal_refundTypes_mapped() {
+        consumer.onMessage("{\"id\":\"WH-3\",\"event_type\":\"PAYMENT.CAPTURE.REFUNDED\","
+                + "\"resource\":{\"id\":\"RF-1\"}}");
+        consumer.onMessage("{\"id\":\"WH-4\",\"event_type\":\"PAYMENT.REFUND.DENIED\","
+                + "\"resource\":{\"id\":\"RF-2\",\"status\":\"DENIED\"}}");
+
+        ArgumentCaptor<PaymentCallbackEvent> captor = ArgumentCaptor.forClass(PaymentCallbackEvent.class);
+        verify(orchestrator, times(2)).handle(captor.capture());
+        assertEquals(PaymentCallbackType.REFUND_SUCCESS, captor.getAllValues().get(0).getType());
+        assertEquals("RF-1", captor.getAllValues().get(0).getExternalRefundId());
+        assertEquals(PaymentCallbackType.REFUND_FAILED, captor.getAllValues().get(1).getType());
+        assertEquals("DENIED", captor.getAllValues().get(1).getErrorCode());
+    }
+
+    @Test
+    @DisplayName("Canonical events published by the webhook controllers are bound as is, not re-parsed")
+    @Story("Canonical events")
+    void canonicalEvent_notReparsed() {
+        // Shaped like a Stripe payload too (type + data), but it names its gateway
+        consumer.onMessage("{\"type\":\"PAYMENT_SUCCESS\",\"correlationId\":\"evt_4\",\"gatewayName\":\"Stripe\","
+                + "\"externalTransactionId\":\"pi_4\",\"data\":{}}");
+
+        ArgumentCaptor<PaymentCallbackEvent> captor = ArgumentCaptor.forClass(PaymentCallbackEvent.class);
+        verify(orchestrator).handle(captor.capture());
+        assertEquals(PaymentCallbackType.PAYMENT_SUCCESS, captor.getValue().getType());
+        assertEquals("pi_4", captor.getValue().getExternalTransactionId());
+    }
+
+    private static String stripeRefund(String type) {
+        return "{\"id\":\"evt_3\",\"type\":\"" + type + "\",\"data\":{\"object\":{\"id\":\"ch_1\",\"amount\":5000,"
+                + "\"currency\":\"usd\",\"refunds\":{\"data\":[{\"id\":\"re_1\"}]}}}}";
+    }
+}
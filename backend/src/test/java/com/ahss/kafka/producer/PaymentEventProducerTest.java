@@ -14,9 +14,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.kafka.core.KafkaTemplate;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -66,4 +70,28 @@ class PaymentEventProducerTest {
         });
         verify(kafkaTemplate, times(0)).send(any(), any(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("sendAll() publishes every event and completes once all are acknowledged")
+    @Story("sendAll() publishes a batch of events and completes when the broker acknowledges all of them")
+    void sendAll_completes_after_all_acks() throws Exception {
+        KafkaTemplate<Object, Object> kafkaTemplate = Mockito.mock(KafkaTemplate.class);
+        ObjectMapper objectMapper = Mockito.mock(ObjectMapper.class);
+        PaymentEventProducer producer = new PaymentEventProducer(kafkaTemplate, objectMapper, "unit-payment-events");
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+        CompletableFuture first = new CompletableFuture<>();
+        CompletableFuture second = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq("unit-payment-events"), eq("cid-1"), any())).thenReturn(first);
+        when(kafkaTemplate.send(eq("unit-payment-events"), eq("cid-2"), any())).thenReturn(second);
+
+        CompletableFuture<Void> all = producer.sendAll(List.of(
+                new PaymentDomainEvent("request.expired", "cid-1", Map.of()),
+                new PaymentDomainEvent("request.expired", "cid-2", Map.of())));
+
+        first.complete(null);
+        assertFalse(all.isDone());
+        second.complete(null);
+        assertTrue(all.isDone());
+        verify(kafkaTemplate, times(2)).send(eq("unit-payment-events"), anyString(), any());
+    }
+}
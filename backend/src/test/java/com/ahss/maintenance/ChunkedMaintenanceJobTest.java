@@ -0,0 +1,123 @@
+package com.ahss.maintenance;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Chunk loop, keyset cursor and checkpoint handling, exercised through the stale transaction
+ * timeout.
+ */
+@Epic("Payment Lifecycle")
+@Feature("Maintenance Jobs")
+@Owner("backend")
+class ChunkedMaintenanceJobTest {
+
+    private static final Clock NOON = Clock.fixed(Instant.parse("2025-06-30T12:00:00Z"), ZoneOffset.UTC);
+    private static final Timestamp DAY_BEFORE = Timestamp.valueOf(LocalDateTime.of(2025, 6, 29, 12, 0));
+
+    private static final UUID A = UUID.fromString("0190a000-0000-7000-8000-000000000001");
+    private static final UUID B = UUID.fromString("0190b000-0000-7000-8000-000000000002");
+    private static final UUID C = UUID.fromString("f190c000-0000-7000-8000-000000000003");
+    private static final UUID D = UUID.fromString("f290c000-0000-7000-8000-000000000004");
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    @DisplayName("Each chunk starts after the largest id of the previous one and is checkpointed")
+    @Story("Checkpoints")
+    void cursorAdvancesByLargestId() {
+        // RETURNING order is not id order; the cursor must still be the largest id
+        when(jdbcTemplate.queryForList(eq(StaleTransactionTimeout.TIMEOUT_SQL), eq(UUID.class), any(), any(), any(),
+                any(), any())).thenReturn(List.of(B, A), List.of(C));
+        JobContext context = mock(JobContext.class);
+        when(context.shard()).thenReturn(1);
+        when(context.shardCount()).thenReturn(2);
+        when(context.checkpoint(anyString(), anyInt())).thenReturn(true);
+
+        assertTrue(timeout(2, 10).run(context));
+
+        verify(jdbcTemplate).queryForList(StaleTransactionTimeout.TIMEOUT_SQL, UUID.class, DAY_BEFORE, 2, 1,
+                ChunkedMaintenanceJob.FIRST_ID, 2);
+        verify(jdbcTemplate).queryForList(StaleTransactionTimeout.TIMEOUT_SQL, UUID.class, DAY_BEFORE, 2, 1,
+                B.toString(), 2);
+        verify(context).checkpoint(B.toString(), 2);
+        verify(context).checkpoint(C.toString(), 1);
+    }
+
+    @Test
+    @DisplayName("A run resumes from the saved checkpoint")
+    @Story("Checkpoints")
+    void resumesFromCheckpoint() {
+        JobContext context = mock(JobContext.class);
+        when(context.shardCount()).thenReturn(1);
+        when(context.checkpoint()).thenReturn(B.toString());
+
+        assertTrue(timeout(2, 10).run(context));
+
+        verify(jdbcTemplate).queryForList(StaleTransactionTimeout.TIMEOUT_SQL, UUID.class, DAY_BEFORE, 1, 0,
+                B.toString(), 2);
+        verify(context, never()).checkpoint(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("A refused checkpoint stops the run before the next chunk")
+    @Story("Leases")
+    void stopsWhenCheckpointRefused() {
+        when(jdbcTemplate.queryForList(eq(StaleTransactionTimeout.TIMEOUT_SQL), eq(UUID.class), any(), any(), any(),
+                any(), any())).thenReturn(List.of(A, B));
+        JobContext context = mock(JobContext.class);
+        when(context.shardCount()).thenReturn(1);
+
+        assertFalse(timeout(2, 10).run(context));
+        verify(jdbcTemplate, times(1)).queryForList(eq(StaleTransactionTimeout.TIMEOUT_SQL), eq(UUID.class), any(),
+                any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Hitting max-batches-per-run leaves the shard unfinished")
+    @Story("Checkpoints")
+    void batchLimit_isPartial() {
+        when(jdbcTemplate.queryForList(eq(StaleTransactionTimeout.TIMEOUT_SQL), eq(UUID.class), any(), any(), any(),
+                any(), any())).thenReturn(List.of(A, B), List.of(C, D));
+        JobContext context = mock(JobContext.class);
+        when(context.shardCount()).thenReturn(1);
+        when(context.checkpoint(anyString(), anyInt())).thenReturn(true);
+
+        assertFalse(timeout(2, 2).run(context));
+    }
+
+    @Test
+    @DisplayName("Called inline, the job covers every row as one shard and returns the count")
+    @Story("Checkpoints")
+    void unsharded_countsAllChunks() {
+        when(jdbcTemplate.queryForList(eq(StaleTransactionTimeout.TIMEOUT_SQL), eq(UUID.class), any(), any(), any(),
+                any(), any())).thenReturn(List.of(A, B), List.of(C));
+
+        assertEquals(3, timeout(2, 10).timeOutStale());
+        verify(jdbcTemplate).queryForList(StaleTransactionTimeout.TIMEOUT_SQL, UUID.class, DAY_BEFORE, 1, 0,
+                ChunkedMaintenanceJob.FIRST_ID, 2);
+    }
+
+    private StaleTransactionTimeout timeout(int batchSize, int maxBatchesPerRun) {
+        return new StaleTransactionTimeout(jdbcTemplate, TransactionOperations.withoutTransaction(), NOON, 1440,
+                batchSize, maxBatchesPerRun);
+    }
+}
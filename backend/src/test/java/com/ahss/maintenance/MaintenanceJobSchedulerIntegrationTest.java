@@ -0,0 +1,113 @@
+package com.ahss.maintenance;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the lease SQL against the V33 table: two nodes never hold the same shard, a finished
+ * shard is not due again before its interval and a lapsed lease can be taken over.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Epic("Payment Lifecycle")
+@Feature("Maintenance Jobs")
+@Owner("backend")
+class MaintenanceJobSchedulerIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final MaintenanceJob job = new MaintenanceJob() {
+        @Override
+        public String name() {
+            return "it-job";
+        }
+
+        @Override
+        public boolean run(JobContext context) {
+            return true;
+        }
+    };
+
+    @Test
+    @DisplayName("Each shard is leased to one node at a time")
+    @Story("Leases")
+    void shardsAreSplitBetweenNodes() {
+        MaintenanceJobScheduler first = node("node-a", 2);
+        MaintenanceJobScheduler second = node("node-b", 2);
+        first.register();
+        second.register();
+
+        MaintenanceJobScheduler.Lease a = first.claim(job);
+        MaintenanceJobScheduler.Lease b = second.claim(job);
+
+        assertNotNull(a);
+        assertNotNull(b);
+        assertNotEquals(a.shard(), b.shard());
+        assertNull(first.claim(job));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(DISTINCT owner) FROM maintenance_job_lease WHERE job_name = 'it-job'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("A finished shard waits for its interval; a lapsed lease is taken over with its checkpoint")
+    @Story("Checkpoints")
+    void finishedAndLapsedShards() {
+        MaintenanceJobScheduler first = node("node-a", 1);
+        first.register();
+        MaintenanceJobScheduler.Lease lease = first.claim(job);
+        first.execute(job, schedule(1), lease);
+        assertNull(first.claim(job), "finished shard is not due before its interval");
+
+        jdbcTemplate.update("UPDATE maintenance_job_lease SET next_run_at = LOCALTIMESTAMP - INTERVAL '1 second', " +
+                "owner = 'dead-node', lease_until = LOCALTIMESTAMP - INTERVAL '1 second', " +
+                "checkpoint = '0190a000-0000-7000-8000-000000000001' WHERE job_name = 'it-job'");
+
+        MaintenanceJobScheduler.Lease takenOver = node("node-b", 1).claim(job);
+        assertNotNull(takenOver);
+        assertEquals("0190a000-0000-7000-8000-000000000001", takenOver.checkpoint());
+    }
+
+    @Test
+    @DisplayName("Registering a different shard count resets checkpoints and drops extra shards")
+    @Story("Leases")
+    void reshardingResetsCheckpoints() {
+        node("node-a", 4).register();
+        jdbcTemplate.update("UPDATE maintenance_job_lease SET checkpoint = 'x' WHERE job_name = 'it-job'");
+
+        node("node-a", 2).register();
+
+        assertEquals(List.of(0, 1), jdbcTemplate.queryForList(
+                "SELECT shard FROM maintenance_job_lease WHERE job_name = 'it-job' AND shard_count = 2 " +
+                "AND checkpoint IS NULL ORDER BY shard", Integer.class));
+    }
+
+    private MaintenanceJobScheduler node(String owner, int shards) {
+        return new MaintenanceJobScheduler(jdbcTemplate, List.of(job), Map.of(job.name(), schedule(shards)), 30, 1,
+                new SimpleMeterRegistry(), owner, Executors.newSingleThreadExecutor());
+    }
+
+    private static MaintenanceJobScheduler.Schedule schedule(int shards) {
+        MaintenanceJobScheduler.Schedule schedule = new MaintenanceJobScheduler.Schedule();
+        schedule.setIntervalSeconds(3600);
+        schedule.setShards(shards);
+        return schedule;
+    }
+}
@@ -0,0 +1,187 @@
+package com.ahss.maintenance;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Maintenance Jobs")
+@Owner("backend")
+class MaintenanceJobSchedulerTest {
+
+    private static final String OWNER = "node-1";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("The first poll registers one lease row per shard and prunes shards beyond the count")
+    @Story("Leases")
+    void firstPoll_registersShards() {
+        MaintenanceJobScheduler scheduler = scheduler(Map.of("stub", schedule(60, 4)), new StubJob(ctx -> true));
+
+        scheduler.poll();
+        scheduler.poll();
+
+        verify(jdbcTemplate, times(1)).update(MaintenanceJobScheduler.REGISTER_SQL, "stub", 4, 4);
+        verify(jdbcTemplate, times(1)).update(MaintenanceJobScheduler.PRUNE_SQL, "stub", 4);
+    }
+
+    @Test
+    @DisplayName("Claimed shards run on the workers until nothing is due")
+    @Story("Leases")
+    @SuppressWarnings("unchecked")
+    void poll_runsClaimedShards() {
+        StubJob job = new StubJob(ctx -> true);
+        when(jdbcTemplate.query(eq(MaintenanceJobScheduler.CLAIM_SQL), any(RowMapper.class), any(), any(), any()))
+                .thenReturn(List.of(new MaintenanceJobScheduler.Lease(1, 4, null)),
+                        List.of(new MaintenanceJobScheduler.Lease(3, 4, null)), List.of());
+        MaintenanceJobScheduler scheduler = scheduler(Map.of("stub", schedule(60, 4)), job);
+
+        scheduler.poll();
+        scheduler.stop();
+
+        assertEquals(List.of(1, 3), job.shards);
+        verify(jdbcTemplate, times(3)).query(eq(MaintenanceJobScheduler.CLAIM_SQL), any(RowMapper.class),
+                eq(OWNER), eq(30L), eq("stub"));
+        verify(jdbcTemplate).update(MaintenanceJobScheduler.RELEASE_ALL_SQL, OWNER);
+    }
+
+    @Test
+    @DisplayName("Disabled jobs are neither registered nor claimed")
+    @Story("Leases")
+    void disabledJob_isSkipped() {
+        MaintenanceJobScheduler.Schedule off = schedule(60, 2);
+        off.setEnabled(false);
+        MaintenanceJobScheduler scheduler = scheduler(Map.of("stub", off), new StubJob(ctx -> true));
+
+        scheduler.poll();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("A finished shard clears its checkpoint and is due again after its interval")
+    @Story("Checkpoints")
+    void finishedShard_isReleasedWithInterval() {
+        when(jdbcTemplate.update(eq(MaintenanceJobScheduler.CHECKPOINT_SQL), any(Object[].class))).thenReturn(1);
+        StubJob job = new StubJob(ctx -> ctx.checkpoint("0190-a", 5) && ctx.checkpoint("0190-b", 2));
+
+        scheduler(Map.of(), job).execute(job, schedule(60, 2), new MaintenanceJobScheduler.Lease(1, 2, null));
+
+        verify(jdbcTemplate).update(MaintenanceJobScheduler.CHECKPOINT_SQL, "0190-b", 30L, "stub", 1, OWNER);
+        verify(jdbcTemplate).update(MaintenanceJobScheduler.RELEASE_SQL, null, 60L, 7, null, "stub", 1, OWNER);
+        assertEquals(1, runs(MaintenanceJobScheduler.OUTCOME_FINISHED));
+        assertEquals(7.0, meterRegistry.get(MaintenanceJobScheduler.PROCESSED_METRIC).tag("job", "stub")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("A shard that stops early keeps its checkpoint and is due right away")
+    @Story("Checkpoints")
+    void partialShard_keepsCheckpoint() {
+        when(jdbcTemplate.update(eq(MaintenanceJobScheduler.CHECKPOINT_SQL), any(Object[].class))).thenReturn(1);
+        StubJob job = new StubJob(ctx -> {
+            assertEquals("0190-a", ctx.checkpoint());
+            ctx.checkpoint("0190-c", 3);
+            return false;
+        });
+
+        scheduler(Map.of(), job).execute(job, schedule(60, 2), new MaintenanceJobScheduler.Lease(0, 2, "0190-a"));
+
+        verify(jdbcTemplate).update(MaintenanceJobScheduler.RELEASE_SQL, "0190-c", 0L, 3, null, "stub", 0, OWNER);
+        assertEquals(1, runs(MaintenanceJobScheduler.OUTCOME_PARTIAL));
+    }
+
+    @Test
+    @DisplayName("A lost lease stops the job and leaves the row to its new owner")
+    @Story("Leases")
+    void lostLease_stopsWithoutRelease() {
+        when(jdbcTemplate.update(eq(MaintenanceJobScheduler.CHECKPOINT_SQL), any(Object[].class))).thenReturn(0);
+        List<Boolean> answers = new ArrayList<>();
+        StubJob job = new StubJob(ctx -> {
+            answers.add(ctx.checkpoint("0190-a", 5));
+            return false;
+        });
+
+        scheduler(Map.of(), job).execute(job, schedule(60, 2), new MaintenanceJobScheduler.Lease(0, 2, null));
+
+        assertEquals(List.of(false), answers);
+        verify(jdbcTemplate, never()).update(eq(MaintenanceJobScheduler.RELEASE_SQL), any(Object[].class));
+        assertEquals(1, runs(MaintenanceJobScheduler.OUTCOME_LEASE_LOST));
+    }
+
+    @Test
+    @DisplayName("A failing run records its error and retries after the interval from its checkpoint")
+    @Story("Checkpoints")
+    void failedShard_recordsError() {
+        when(jdbcTemplate.update(eq(MaintenanceJobScheduler.CHECKPOINT_SQL), any(Object[].class))).thenReturn(1);
+        StubJob job = new StubJob(ctx -> {
+            ctx.checkpoint("0190-a", 5);
+            throw new IllegalStateException("boom");
+        });
+
+        scheduler(Map.of(), job).execute(job, schedule(60, 2), new MaintenanceJobScheduler.Lease(0, 2, null));
+
+        verify(jdbcTemplate).update(MaintenanceJobScheduler.RELEASE_SQL, "0190-a", 60L, 5, "boom", "stub", 0, OWNER);
+        assertEquals(1, runs(MaintenanceJobScheduler.OUTCOME_FAILED));
+    }
+
+    private long runs(String outcome) {
+        return meterRegistry.get(MaintenanceJobScheduler.RUN_METRIC).tag("job", "stub").tag("outcome", outcome)
+                .timer().count();
+    }
+
+    private MaintenanceJobScheduler scheduler(Map<String, MaintenanceJobScheduler.Schedule> schedules,
+                                              MaintenanceJob job) {
+        // More permits than claims, so a poll never stops early on a busy worker
+        return new MaintenanceJobScheduler(jdbcTemplate, List.of(job), schedules, 30, 3, meterRegistry, OWNER,
+                Executors.newSingleThreadExecutor());
+    }
+
+    private static MaintenanceJobScheduler.Schedule schedule(long intervalSeconds, int shards) {
+        MaintenanceJobScheduler.Schedule schedule = new MaintenanceJobScheduler.Schedule();
+        schedule.setIntervalSeconds(intervalSeconds);
+        schedule.setShards(shards);
+        return schedule;
+    }
+
+    private static class StubJob implements MaintenanceJob {
+
+        private final Function<JobContext, Boolean> body;
+        private final List<Integer> shards = new ArrayList<>();
+
+        StubJob(Function<JobContext, Boolean> body) {
+            this.body = body;
+        }
+
+        @Override
+        public String name() {
+            return "stub";
+        }
+
+        @Override
+        public boolean run(JobContext context) {
+            synchronized (shards) {
+                shards.add(context.shard());
+            }
+            return body.apply(context);
+        }
+    }
+}
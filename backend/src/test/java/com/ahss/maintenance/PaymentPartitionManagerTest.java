@@ -0,0 +1,86 @@
+package com.ahss.maintenance;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Table Partitioning")
+@Owner("backend")
+class PaymentPartitionManagerTest {
+
+    private static final Clock MAY_2025 = Clock.fixed(Instant.parse("2025-05-17T10:00:00Z"), ZoneOffset.UTC);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    @DisplayName("Partitions are ensured from the current month through months-ahead")
+    @Story("Pre-create partitions")
+    void ensures_partitions_ahead() {
+        PaymentPartitionManager manager = new PaymentPartitionManager(jdbcTemplate, MAY_2025, 3, 0, 0);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(Object[].class))).thenReturn(2);
+
+        assertEquals(2, manager.ensurePartitions("payment_audit_log"));
+
+        verify(jdbcTemplate).queryForObject("SELECT ensure_monthly_partitions(?::regclass, ?, ?)", Integer.class,
+                "payment_audit_log", LocalDate.of(2025, 5, 1), LocalDate.of(2025, 8, 1));
+    }
+
+    @Test
+    @DisplayName("Only partitions wholly before the retention window are detached")
+    @Story("Retention by detach")
+    void detaches_expired_partitions() {
+        PaymentPartitionManager manager = new PaymentPartitionManager(jdbcTemplate, MAY_2025, 3, 0, 12);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("payment_audit_log"))).thenReturn(List.of(
+                "payment_audit_log_y2024m03", "payment_audit_log_y2024m04", "payment_audit_log_y2024m05",
+                "payment_audit_log_y2025m05"));
+
+        List<String> detached = manager.detachExpiredPartitions("payment_audit_log");
+
+        assertEquals(List.of("payment_audit_log_y2024m03", "payment_audit_log_y2024m04"), detached);
+        verify(jdbcTemplate).execute("ALTER TABLE payment_audit_log DETACH PARTITION payment_audit_log_y2024m03 CONCURRENTLY");
+        verify(jdbcTemplate).execute("ALTER TABLE payment_audit_log DETACH PARTITION payment_audit_log_y2024m04 CONCURRENTLY");
+        verify(jdbcTemplate, never()).execute(contains("y2024m05"));
+    }
+
+    @Test
+    @DisplayName("Retention 0 never detaches and a failing table does not stop the others")
+    @Story("Retention by detach")
+    void retention_disabled_and_failures_isolated() {
+        PaymentPartitionManager manager = new PaymentPartitionManager(jdbcTemplate, MAY_2025, 3, 0, 0);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("payment_transaction"), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("lock timeout"));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("payment_audit_log"), any(), any()))
+                .thenReturn(0);
+
+        manager.maintain();
+
+        verify(jdbcTemplate).queryForObject(anyString(), eq(Integer.class), eq("payment_audit_log"), any(), any());
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), anyString());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("Partition month is parsed from the _yYYYYmMM suffix")
+    @Story("Retention by detach")
+    void parses_partition_month() {
+        assertEquals(LocalDate.of(2025, 1, 1), PaymentPartitionManager.partitionMonth("payment_transaction_y2025m01"));
+        assertNull(PaymentPartitionManager.partitionMonth("payment_transaction_default"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.ahss.maintenance;
+
+import com.ahss.kafka.producer.PaymentEventProducer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the expiry SQL against the seeded payments: overdue PENDING requests become EXPIRED
+ * with one audit row each, everything else is left alone.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Epic("Payment Lifecycle")
+@Feature("Payment Request Expiry")
+@Owner("backend")
+class PaymentRequestExpiryIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Overdue PENDING requests are expired and audited in chunks")
+    @Story("Bulk expiry")
+    void expiresOverduePendingRequests() {
+        List<UUID> pending = jdbcTemplate.queryForList(
+                "SELECT payment_request_id FROM payment_request WHERE status = 'PENDING'", UUID.class);
+        assertFalse(pending.isEmpty(), "seed data should contain pending payments");
+        jdbcTemplate.update("UPDATE payment_request SET expires_at = now() - interval '1 day' WHERE status = 'PENDING'");
+        jdbcTemplate.update("UPDATE payment_request SET expires_at = now() - interval '1 day' WHERE status = 'DRAFT'");
+        Integer draftsBefore = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM payment_request WHERE status = 'DRAFT'", Integer.class);
+        PaymentEventProducer eventProducer = mock(PaymentEventProducer.class);
+        when(eventProducer.sendAll(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+        PaymentRequestExpiry expiry = new PaymentRequestExpiry(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                eventProducer, new SimpleMeterRegistry(), Clock.systemDefaultZone(), 2, 100);
+
+        int expired = expiry.expireDue();
+
+        assertEquals(pending.size(), expired);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM payment_request WHERE status = 'PENDING' AND expires_at < now()", Integer.class));
+        assertEquals(draftsBefore, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM payment_request WHERE status = 'DRAFT'", Integer.class));
+        for (UUID id : pending) {
+            assertEquals("EXPIRED", jdbcTemplate.queryForObject(
+                    "SELECT status::text FROM payment_request WHERE payment_request_id = ?", String.class, id));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM payment_audit_log WHERE payment_request_id = ? AND action = 'EXPIRED' " +
+                    "AND old_status = 'PENDING' AND new_status = 'EXPIRED'", Integer.class, id));
+        }
+        // One publish per non-empty chunk of two
+        verify(eventProducer, times((pending.size() + 1) / 2)).sendAll(anyList());
+    }
+}
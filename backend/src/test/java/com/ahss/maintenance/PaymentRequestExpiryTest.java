@@ -0,0 +1,139 @@
+package com.ahss.maintenance;
+
+import com.ahss.kafka.event.PaymentDomainEvent;
+import com.ahss.kafka.producer.PaymentEventProducer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Payment Request Expiry")
+@Owner("backend")
+class PaymentRequestExpiryTest {
+
+    private static final Clock NOON = Clock.fixed(Instant.parse("2025-06-30T12:00:00Z"), ZoneOffset.UTC);
+    private static final Timestamp NOW = Timestamp.valueOf(LocalDateTime.of(2025, 6, 30, 12, 0));
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PaymentEventProducer eventProducer = mock(PaymentEventProducer.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("A chunk is expired with one UPDATE ... RETURNING and audited with one insert, then published")
+    @Story("Bulk expiry")
+    void chunk_isUpdatedAuditedAndPublished() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(jdbcTemplate.query(eq(PaymentRequestExpiry.EXPIRE_SQL), any(RowMapper.class), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(expired(first), expired(second)));
+        when(eventProducer.sendAll(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+
+        int count = expiry(10).expireDue();
+
+        assertEquals(2, count);
+        InOrder order = inOrder(jdbcTemplate, eventProducer);
+        order.verify(jdbcTemplate).query(eq(PaymentRequestExpiry.EXPIRE_SQL), any(RowMapper.class), eq(NOW), eq(1), eq(0),
+                eq(ChunkedMaintenanceJob.FIRST_ID), eq(10));
+        ArgumentCaptor<String[]> auditIds = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<String[]> requestIds = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<String[]> oldStatuses = ArgumentCaptor.forClass(String[].class);
+        order.verify(jdbcTemplate).update(eq(PaymentRequestExpiry.AUDIT_SQL), eq(NOW), auditIds.capture(),
+                requestIds.capture(), oldStatuses.capture());
+        order.verify(eventProducer).sendAll(anyList());
+        assertArrayEquals(new String[]{first.toString(), second.toString()}, requestIds.getValue());
+        assertArrayEquals(new String[]{"PENDING", "PENDING"}, oldStatuses.getValue());
+        assertEquals(2, auditIds.getValue().length);
+        assertNotEquals(auditIds.getValue()[0], auditIds.getValue()[1]);
+        assertEquals(2.0, meterRegistry.get(PaymentRequestExpiry.EXPIRED_METRIC).counter().count());
+    }
+
+    @Test
+    @DisplayName("Each expired request gets a request.expired event keyed by its id")
+    @Story("Bulk expiry")
+    @SuppressWarnings("unchecked")
+    void events_describeExpiredRequests() {
+        UUID id = UUID.randomUUID();
+        when(jdbcTemplate.query(eq(PaymentRequestExpiry.EXPIRE_SQL), any(RowMapper.class), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(expired(id)));
+        when(eventProducer.sendAll(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+
+        expiry(10).expireDue();
+
+        ArgumentCaptor<List<PaymentDomainEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(eventProducer).sendAll(events.capture());
+        PaymentDomainEvent event = events.getValue().get(0);
+        assertEquals(PaymentRequestExpiry.EVENT_TYPE, event.getType());
+        assertEquals(id.toString(), event.getCorrelationId());
+        assertEquals("EXPIRED", event.getPayload().get("status"));
+        assertEquals("PENDING", event.getPayload().get("previousStatus"));
+        assertEquals(3L, event.getPayload().get("tenantId"));
+    }
+
+    @Test
+    @DisplayName("Full chunks are followed by another until one comes back partial or empty")
+    @Story("Bulk expiry")
+    void loopsUntilPartialChunk() {
+        when(jdbcTemplate.query(eq(PaymentRequestExpiry.EXPIRE_SQL), any(RowMapper.class), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(expired(UUID.randomUUID()), expired(UUID.randomUUID())),
+                        List.of(expired(UUID.randomUUID())));
+        when(eventProducer.sendAll(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(3, expiry(2).expireDue());
+        verify(jdbcTemplate, times(2)).query(eq(PaymentRequestExpiry.EXPIRE_SQL), any(RowMapper.class), any(), any(), any(), any(), any());
+        verify(jdbcTemplate, times(2)).update(eq(PaymentRequestExpiry.AUDIT_SQL), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Nothing due means no audit insert and no events")
+    @Story("Bulk expiry")
+    void nothingDue() {
+        when(jdbcTemplate.query(eq(PaymentRequestExpiry.EXPIRE_SQL), any(RowMapper.class), any(), any(), any(), any(), any()))
+                .thenReturn(List.of());
+
+        assertEquals(0, expiry(10).expireDue());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verifyNoInteractions(eventProducer);
+    }
+
+    @Test
+    @DisplayName("A publish failure does not undo or stop the expiry")
+    @Story("Bulk expiry")
+    void publishFailure_isLogged() {
+        when(jdbcTemplate.query(eq(PaymentRequestExpiry.EXPIRE_SQL), any(RowMapper.class), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(expired(UUID.randomUUID())));
+        when(eventProducer.sendAll(anyList())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("down")));
+
+        assertEquals(1, expiry(10).expireDue());
+    }
+
+    private PaymentRequestExpiry expiry(int batchSize) {
+        return new PaymentRequestExpiry(jdbcTemplate, TransactionOperations.withoutTransaction(), eventProducer,
+                meterRegistry, NOON, batchSize, 5);
+    }
+
+    private static PaymentRequestExpiry.Expired expired(UUID id) {
+        return new PaymentRequestExpiry.Expired(id, "PENDING", "PR-" + id.toString().substring(0, 8), 3L);
+    }
+}
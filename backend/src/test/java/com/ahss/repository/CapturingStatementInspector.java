@@ -0,0 +1,29 @@
+package com.ahss.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every SQL statement Hibernate prepares so QueryPlanRegressionIntegrationTest
+ * can EXPLAIN exactly what a repository method sends to the database.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> CAPTURED = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        CAPTURED.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        CAPTURED.clear();
+    }
+
+    static List<String> captured() {
+        return List.copyOf(CAPTURED);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ahss.repository;
+
+import com.ahss.entity.PaymentAuditLog;
+import com.ahss.util.UuidV7;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the batching settings in {@code application.yml} take effect: entities with
+ * app-assigned UUIDv7 ids flushed together are sent as JDBC batches, one prepared statement
+ * per {@code hibernate.jdbc.batch_size} rows, instead of one round trip per row.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Epic("Payment Lifecycle")
+@Feature("Entity Ids")
+@Owner("backend")
+class InsertBatchingIntegrationTest {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    private PaymentAuditLogRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Inserts flushed together are sent as JDBC batches with time-ordered ids")
+    @Story("Hibernate insert batching")
+    void inserts_areBatched() {
+        Object batchSize = entityManagerFactory.getProperties().get("hibernate.jdbc.batch_size");
+        assertEquals(50, Integer.parseInt(String.valueOf(batchSize)));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<UUID> ids = new TransactionTemplate(transactionManager).execute(status -> {
+            List<PaymentAuditLog> logs = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                PaymentAuditLog log = new PaymentAuditLog();
+                log.setAction("BATCH_TEST");
+                log.setEntityType("PAYMENT_REQUEST");
+                log.setDescription("row " + i);
+                logs.add(log);
+            }
+            return repository.saveAll(logs).stream().map(PaymentAuditLog::getId).toList();
+        });
+
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        // 120 rows at batch_size 50: three batches, not 120 statements
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "prepared " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(ids.stream().sorted(Comparator.naturalOrder()).toList(), ids,
+                "ids should follow insertion order");
+        assertTrue(ids.stream().allMatch(id -> id.version() == 7));
+        assertTrue(UuidV7.timestamp(ids.get(0)) <= System.currentTimeMillis());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> repository.deleteAllByIdInBatch(ids));
+    }
+}
@@ -0,0 +1,65 @@
+package com.ahss.repository;
+
+import com.ahss.entity.PaymentRequest;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two writers that read the same payment request version: the first update wins and bumps
+ * the version, the second is rejected instead of silently overwriting it.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Epic("Payment Lifecycle")
+@Feature("Optimistic Locking")
+@Owner("backend")
+class OptimisticLockingIntegrationTest {
+
+    @Autowired
+    private PaymentRequestRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("A stale copy cannot overwrite a newer version")
+    @Story("Version columns")
+    void staleUpdate_isRejected() {
+        UUID id = jdbcTemplate.queryForObject(
+                "SELECT payment_request_id FROM payment_request ORDER BY created_at LIMIT 1", UUID.class);
+        PaymentRequest first = repository.findById(id).orElseThrow();
+        PaymentRequest second = repository.findById(id).orElseThrow();
+        String title = first.getTitle();
+        long version = first.getVersion();
+
+        try {
+            first.setTitle(title + " (first)");
+            assertEquals(version + 1, repository.saveAndFlush(first).getVersion());
+
+            second.setTitle(title + " (second)");
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> repository.saveAndFlush(second));
+            assertEquals(title + " (first)", jdbcTemplate.queryForObject(
+                    "SELECT title FROM payment_request WHERE payment_request_id = ?", String.class, id));
+        } finally {
+            jdbcTemplate.update("UPDATE payment_request SET title = ? WHERE payment_request_id = ?", title, id);
+        }
+    }
+}
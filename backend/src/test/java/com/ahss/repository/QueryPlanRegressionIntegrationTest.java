@@ -0,0 +1,276 @@
+package com.ahss.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs every {@code @Query} method in {@code com.ahss.repository} against a seeded
+ * Postgres and EXPLAINs the SQL Hibernate actually sends. A plan fails when it
+ * seq-scans a payment table, walks a whole payment index filtering every row,
+ * or costs more than {@link #COST_BUDGET}.
+ *
+ * <p>Plans are generic ({@code EXPLAIN (GENERIC_PLAN)}), so they do not depend on the
+ * sample arguments. The scan check runs with {@code enable_seqscan = off}: when a
+ * usable index exists the planner picks it, so a remaining Seq Scan means there is
+ * none, regardless of how small the seed data happens to be.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.ahss.repository.CapturingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Epic("Payment Lifecycle")
+@Feature("Query Plans")
+@Owner("backend")
+class QueryPlanRegressionIntegrationTest {
+
+    private static final Set<String> PAYMENT_TABLES =
+            Set.of("payment_request", "payment_transaction", "payment_refund", "payment_audit_log");
+
+    /** Upper bound on the planner's total cost for one statement over the seed data. */
+    private static final double COST_BUDGET = 25_000;
+
+    /**
+     * Statements that are allowed to exceed the cost budget, keyed by
+     * {@code Repository.method(ParamTypes)}, with the reason.
+     */
+    private static final Map<String, String> COST_EXEMPTIONS = Map.of(
+            "PaymentAuditLogRepository.findUserActionsOrderByCreatedAtDesc()",
+            "Unpaged: returns every user-attributed audit row by design; the API uses the Pageable overload",
+            "PaymentAuditLogRepository.findStatusChangesOrderByCreatedAtDesc()",
+            "Unpaged: returns every status-change audit row by design; the API uses the Pageable overload"
+    );
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    void seed() {
+        new ResourceDatabasePopulator(new ClassPathResource("sql/query-plan-seed.sql")).execute(dataSource);
+    }
+
+    @TestFactory
+    @DisplayName("Repository queries use an index and stay within the cost budget")
+    @Story("Index coverage for repository queries")
+    @Severity(SeverityLevel.CRITICAL)
+    Stream<DynamicTest> repositoryQueriesHaveIndexedPlans() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Object bean : context.getBeansOfType(Repository.class).values()) {
+            for (Class<?> repository : ClassUtils.getAllInterfacesForClass(bean.getClass())) {
+                if (!repository.getPackageName().equals(getClass().getPackageName())) {
+                    continue;
+                }
+                Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> AnnotatedElementUtils.hasAnnotation(method, Query.class))
+                        .sorted(Comparator.comparing(QueryPlanRegressionIntegrationTest::key))
+                        .forEach(method -> tests.add(DynamicTest.dynamicTest(key(method), () -> verify(bean, method))));
+            }
+        }
+        assertFalse(tests.isEmpty(), "No @Query methods found in " + getClass().getPackageName());
+        return tests.stream();
+    }
+
+    private void verify(Object bean, Method method) {
+        List<String> statements = capture(bean, method);
+        assertFalse(statements.isEmpty(), key(method) + " issued no SQL");
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        for (String sql : statements) {
+            String explainable = numberParameters(sql);
+
+            JsonNode indexOnly = jdbc.execute((ConnectionCallback<JsonNode>) connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET enable_seqscan = off");
+                    try {
+                        return explain(statement, explainable);
+                    } finally {
+                        statement.execute("RESET enable_seqscan");
+                    }
+                }
+            });
+            List<String> violations = new ArrayList<>();
+            collectScanViolations(indexOnly, violations);
+            assertTrue(violations.isEmpty(), key(method) + " has no usable index: " + violations + "\n" + sql);
+
+            if (!COST_EXEMPTIONS.containsKey(key(method))) {
+                JsonNode plan = jdbc.execute((ConnectionCallback<JsonNode>) connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        return explain(statement, explainable);
+                    }
+                });
+                double cost = plan.path("Total Cost").asDouble();
+                assertTrue(cost <= COST_BUDGET,
+                        key(method) + " costs " + cost + " (budget " + COST_BUDGET + ")\n" + sql);
+            }
+        }
+    }
+
+    /** Invokes the method with sample arguments in a rolled-back transaction and returns the SQL it issued. */
+    private List<String> capture(Object bean, Method method) {
+        Object[] args = Arrays.stream(method.getGenericParameterTypes()).map(this::sample).toArray();
+        CapturingStatementInspector.clear();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                ReflectionUtils.invokeMethod(method, bean, args);
+            });
+        } catch (RuntimeException e) {
+            // Result-shape errors (e.g. a non-unique Optional) still leave the statement to explain
+            if (CapturingStatementInspector.captured().isEmpty()) {
+                fail(key(method) + " failed before issuing SQL", e);
+            }
+        }
+        return CapturingStatementInspector.captured();
+    }
+
+    private JsonNode explain(Statement statement, String sql) throws java.sql.SQLException {
+        try (ResultSet rs = statement.executeQuery("EXPLAIN (FORMAT JSON, GENERIC_PLAN) " + sql)) {
+            rs.next();
+            try {
+                return objectMapper.readTree(rs.getString(1)).get(0).get("Plan");
+            } catch (java.io.IOException e) {
+                throw new IllegalStateException("Unreadable plan for " + sql, e);
+            }
+        }
+    }
+
+    private static void collectScanViolations(JsonNode node, List<String> violations) {
+        String nodeType = node.path("Node Type").asText();
+        // Partitions (payment_audit_log_y2025m01) count as their parent table
+        String relation = node.path("Relation Name").asText().replaceFirst("_y\\d{4}m\\d{2}$", "");
+        if (PAYMENT_TABLES.contains(relation)) {
+            if (nodeType.equals("Seq Scan")) {
+                violations.add("Seq Scan on " + relation);
+            } else if (nodeType.startsWith("Index") && !node.has("Index Cond") && node.has("Filter")) {
+                violations.add(nodeType + " on " + relation + " filtering " + node.path("Filter").asText());
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectScanViolations(child, violations);
+        }
+    }
+
+    /** Rewrites JDBC {@code ?} placeholders as {@code $n}, which EXPLAIN GENERIC_PLAN requires. */
+    static String numberParameters(String sql) {
+        StringBuilder out = new StringBuilder(sql.length() + 16);
+        boolean quoted = false;
+        int index = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                out.append('$').append(++index);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private Object sample(Type type) {
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() == List.class) {
+            return List.of(sample(parameterized.getActualTypeArguments()[0]));
+        }
+        Class<?> raw = (Class<?>) type;
+        if (raw == UUID.class) {
+            return UUID.randomUUID();
+        }
+        if (raw == String.class) {
+            return "sample";
+        }
+        if (raw == Long.class || raw == long.class) {
+            return 1L;
+        }
+        if (raw == Integer.class || raw == int.class) {
+            return 10;
+        }
+        if (raw == Boolean.class || raw == boolean.class) {
+            return false;
+        }
+        if (raw == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (raw == BigDecimal.class) {
+            return BigDecimal.TEN;
+        }
+        if (raw == Pageable.class) {
+            return PageRequest.of(0, 10);
+        }
+        if (raw.isEnum()) {
+            return raw.getEnumConstants()[0];
+        }
+        throw new IllegalArgumentException("No sample value for parameter type " + type
+                + "; add one to " + QueryPlanRegressionIntegrationTest.class.getSimpleName());
+    }
+
+    private static String key(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "("
+                + Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(", "))
+                + ")";
+    }
+}
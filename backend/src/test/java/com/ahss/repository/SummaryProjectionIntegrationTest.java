@@ -0,0 +1,85 @@
+package com.ahss.repository;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * List endpoints read summary rows through constructor expressions; the SQL they send must
+ * not touch the jsonb and error-text columns that only the detail endpoints return.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.ahss.repository.CapturingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Epic("Payment Lifecycle")
+@Feature("Query Plans")
+@Owner("backend")
+class SummaryProjectionIntegrationTest {
+
+    private static final List<String> DETAIL_COLUMNS =
+            List.of("gateway_response", "metadata", "payment_method_details", "error_message");
+
+    @Autowired
+    private PaymentTransactionRepository transactionRepository;
+
+    @Autowired
+    private PaymentRefundRepository refundRepository;
+
+    @BeforeEach
+    void clear() {
+        CapturingStatementInspector.clear();
+    }
+
+    @Test
+    @DisplayName("Transaction list queries select only summary columns")
+    @Story("Summary projections for listings")
+    void transactionSummaries_skipDetailColumns() {
+        transactionRepository.findSummaries(PageRequest.of(0, 10));
+        transactionRepository.findSummariesByPaymentRequestId(UUID.randomUUID(), PageRequest.of(0, 10));
+        transactionRepository.searchSummaries("TX", PageRequest.of(0, 10));
+        transactionRepository.scrollFirst(PageRequest.of(0, 11));
+
+        assertSummaryOnly("payment_transaction");
+    }
+
+    @Test
+    @DisplayName("Refund list queries select only summary columns")
+    @Story("Summary projections for listings")
+    void refundSummaries_skipDetailColumns() {
+        refundRepository.findSummaries(PageRequest.of(0, 10));
+        refundRepository.findSummariesByPaymentTransactionId(UUID.randomUUID(), PageRequest.of(0, 10));
+        refundRepository.searchSummaries("RF", PageRequest.of(0, 10));
+        refundRepository.scrollFirst(PageRequest.of(0, 11));
+
+        assertSummaryOnly("payment_refund");
+    }
+
+    private static void assertSummaryOnly(String table) {
+        List<String> selects = CapturingStatementInspector.captured().stream()
+                .filter(sql -> sql.contains(table) && !sql.toLowerCase().contains("count("))
+                .toList();
+        assertFalse(selects.isEmpty());
+        for (String sql : selects) {
+            for (String column : DETAIL_COLUMNS) {
+                assertFalse(sql.contains(column), () -> "summary query reads " + column + ": " + sql);
+            }
+        }
+    }
+}
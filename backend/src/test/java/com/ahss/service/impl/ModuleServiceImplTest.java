@@ -6,7 +6,10 @@ import com.ahss.entity.ModuleStatus;
 import com.ahss.entity.Product;
 import com.ahss.repository.ModuleRepository;
 import com.ahss.repository.ProductRepository;
+import com.ahss.cache.ReferenceDataCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.qameta.allure.*;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,7 +30,7 @@ import static org.mockito.Mockito.*;
 @Feature("Module Management")
 @Owner("backend")
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(classes = ModuleServiceImpl.class)
+@SpringBootTest(classes = {ModuleServiceImpl.class, ReferenceDataCache.class, SimpleMeterRegistry.class})
 public class ModuleServiceImplTest {
 
     @MockBean
@@ -38,6 +41,14 @@ public class ModuleServiceImplTest {
     @Autowired
     private ModuleServiceImpl service;
 
+    @Autowired
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void clearCache() {
+        cache.invalidateAll();
+    }
+
     @Test
     @Story("Return only ACTIVE modules")
     @Severity(SeverityLevel.CRITICAL)
@@ -53,12 +64,8 @@ public class ModuleServiceImplTest {
         Allure.step("Stub module permissions to empty list",
                 () -> when(active.getPermissions()).thenReturn(Collections.emptyList()));
 
-        Module inactive = Allure.step("Create mock inactive module", () -> mock(Module.class));
-        Allure.step("Stub inactive module status to INACTIVE",
-                () -> when(inactive.getModuleStatus()).thenReturn(ModuleStatus.INACTIVE));
-
-        Allure.step("Stub module repository to return active and inactive modules",
-                () -> when(moduleRepository.findAll()).thenReturn(Arrays.asList(active, inactive)));
+        Allure.step("Stub module repository to return only the active module",
+                () -> when(moduleRepository.findAllActive(ModuleStatus.ACTIVE)).thenReturn(List.of(active)));
 
         Allure.step("Fetch all active modules and ensure filter works");
         List<ModuleDto> result = service.getAllActiveModules();
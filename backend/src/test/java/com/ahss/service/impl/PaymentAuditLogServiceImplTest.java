@@ -1,11 +1,14 @@
 package com.ahss.service.impl;
 
+import com.ahss.audit.AsyncAuditLogWriter;
+import com.ahss.audit.AuditRecord;
 import com.ahss.dto.response.PaymentAuditLogDto;
 import com.ahss.entity.PaymentAuditLog;
 import com.ahss.repository.PaymentAuditLogRepository;
 import io.qameta.allure.*;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -13,6 +16,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -35,80 +39,92 @@ public class PaymentAuditLogServiceImplTest {
     private PaymentAuditLogServiceImpl service;
 
     @Test
-    @Story("Log payment request action persists and maps DTO")
+    @Story("Log payment request action persists the audit entity")
     @Severity(SeverityLevel.CRITICAL)
-    void logPaymentRequestAction_saves_andReturnsDto() {
+    void logPaymentRequestAction_savesEntity() {
         UUID reqId = UUID.randomUUID();
         Map<String, Object> changes = Map.of("field", "value");
 
-        Allure.step("Mock auditLogRepository save to return a new log with random ID and timestamp",
-                () -> when(auditLogRepository.save(any(PaymentAuditLog.class))).thenAnswer(inv -> {
-                    PaymentAuditLog log = inv.getArgument(0);
-                    log.setId(UUID.randomUUID());
-                    log.setCreatedAt(LocalDateTime.now());
-                    return log;
-                }));
-
-        PaymentAuditLogDto dto = Allure.step(
-                "Verify service logPaymentRequestAction returns a DTO with expected fields",
+        Allure.step("Log a payment request action",
                 () -> service.logPaymentRequestAction(reqId, "CREATED", null, "PENDING",
                         "created", changes, 1L, "UA", "127.0.0.1"));
-        Allure.step("Verify DTO action is CREATED", () -> assertEquals("CREATED", dto.getAction()));
-        Allure.step("Verify DTO payment request ID matches input",
-                () -> assertEquals(reqId, dto.getPaymentRequestId()));
-        Allure.step("Verify DTO new status is PENDING", () -> assertEquals("PENDING", dto.getNewStatus()));
-        Allure.step("Verify DTO user agent is UA", () -> assertEquals("UA", dto.getUserAgent()));
-        Allure.step("Verify DTO IP address is 127.0.0.1", () -> assertEquals("127.0.0.1", dto.getIpAddress()));
-        Allure.step("Verify DTO change details match input", () -> assertEquals(changes, dto.getChangeDetails()));
+
+        PaymentAuditLog saved = Allure.step("Capture the entity saved by the repository", this::captureSaved);
+        Allure.step("Verify action is CREATED", () -> assertEquals("CREATED", saved.getAction()));
+        Allure.step("Verify payment request ID matches input",
+                () -> assertEquals(reqId, saved.getPaymentRequestId()));
+        Allure.step("Verify new status is PENDING", () -> assertEquals("PENDING", saved.getNewStatus()));
+        Allure.step("Verify user agent is UA", () -> assertEquals("UA", saved.getUserAgent()));
+        Allure.step("Verify IP address is 127.0.0.1", () -> assertEquals("127.0.0.1", saved.getIpAddress()));
+        Allure.step("Verify change details match input", () -> assertEquals(changes, saved.getChangeDetails()));
     }
 
     @Test
-    @Story("Log transaction action persists and maps statuses")
+    @Story("Log transaction action persists statuses")
     @Severity(SeverityLevel.NORMAL)
     void logTransactionAction_setsOldNewStatus() {
         UUID txId = UUID.randomUUID();
-        Allure.step("Mock auditLogRepository save to return a new log with random ID and timestamp",
-                () -> when(auditLogRepository.save(any(PaymentAuditLog.class))).thenAnswer(inv -> {
-                    PaymentAuditLog log = inv.getArgument(0);
-                    log.setId(UUID.randomUUID());
-                    log.setCreatedAt(LocalDateTime.now());
-                    return log;
-                }));
 
-        PaymentAuditLogDto dto = Allure.step("Verify service logTransactionAction returns a DTO with expected fields",
+        Allure.step("Log a transaction action",
                 () -> service.logTransactionAction(txId, "UPDATED", "PENDING", "SUCCESS",
                         "updated", null, 2L, null, null));
-        Allure.step("Verify DTO payment transaction ID matches input",
-                () -> assertEquals(txId, dto.getPaymentTransactionId()));
-        Allure.step("Verify DTO old status is PENDING", () -> assertEquals("PENDING", dto.getOldStatus()));
-        Allure.step("Verify DTO new status is SUCCESS", () -> assertEquals("SUCCESS", dto.getNewStatus()));
+
+        PaymentAuditLog saved = Allure.step("Capture the entity saved by the repository", this::captureSaved);
+        Allure.step("Verify payment transaction ID matches input",
+                () -> assertEquals(txId, saved.getPaymentTransactionId()));
+        Allure.step("Verify old status is PENDING", () -> assertEquals("PENDING", saved.getOldStatus()));
+        Allure.step("Verify new status is SUCCESS", () -> assertEquals("SUCCESS", saved.getNewStatus()));
     }
 
     @Test
-    @Story("Log refund action persists and maps DTO")
+    @Story("Log refund action persists the audit entity")
     @Severity(SeverityLevel.NORMAL)
     void logRefundAction_setsFields() {
         UUID refundId = UUID.randomUUID();
-        Allure.step("Mock auditLogRepository save to return a new log with random ID and timestamp",
-                () -> when(auditLogRepository.save(any(PaymentAuditLog.class))).thenAnswer(inv -> {
-                    PaymentAuditLog log = inv.getArgument(0);
-                    log.setId(UUID.randomUUID());
-                    log.setCreatedAt(LocalDateTime.now());
-                    return log;
-                }));
 
-        PaymentAuditLogDto dto = Allure.step("Verify service logRefundAction returns a DTO with expected fields",
+        Allure.step("Log a refund action",
                 () -> service.logRefundAction(refundId, "FAILED", "PENDING", "FAILED",
                         "failed", Map.of("code", "E001"), 3L, "UA2", "10.0.0.1"));
-        Allure.step("Verify DTO payment refund ID matches input",
-                () -> assertEquals(refundId, dto.getPaymentRefundId()));
-        Allure.step("Verify DTO action is FAILED", () -> assertEquals("FAILED", dto.getAction()));
-        Allure.step("Verify DTO change details contain code E001",
-                () -> assertEquals("E001", ((Map<?, ?>) dto.getChangeDetails()).get("code")));
-        Allure.step("Verify DTO old status is PENDING", () -> assertEquals("PENDING", dto.getOldStatus()));
-        Allure.step("Verify DTO new status is FAILED", () -> assertEquals("FAILED", dto.getNewStatus()));
-        Allure.step("Verify DTO user agent is UA2", () -> assertEquals("UA2", dto.getUserAgent()));
-        Allure.step("Verify DTO IP address is 10.0.0.1", () -> assertEquals("10.0.0.1", dto.getIpAddress()));
+
+        PaymentAuditLog saved = Allure.step("Capture the entity saved by the repository", this::captureSaved);
+        Allure.step("Verify payment refund ID matches input",
+                () -> assertEquals(refundId, saved.getPaymentRefundId()));
+        Allure.step("Verify action is FAILED", () -> assertEquals("FAILED", saved.getAction()));
+        Allure.step("Verify change details contain code E001",
+                () -> assertEquals("E001", saved.getChangeDetails().get("code")));
+        Allure.step("Verify old status is PENDING", () -> assertEquals("PENDING", saved.getOldStatus()));
+        Allure.step("Verify new status is FAILED", () -> assertEquals("FAILED", saved.getNewStatus()));
+        Allure.step("Verify user agent is UA2", () -> assertEquals("UA2", saved.getUserAgent()));
+        Allure.step("Verify IP address is 10.0.0.1", () -> assertEquals("10.0.0.1", saved.getIpAddress()));
+    }
+
+    @Test
+    @Story("Async writer takes audit writes off the caller's transaction")
+    @Severity(SeverityLevel.CRITICAL)
+    void logAction_submitsToAsyncWriter_whenEnabled() {
+        AsyncAuditLogWriter writer = mock(AsyncAuditLogWriter.class);
+        ReflectionTestUtils.setField(service, "asyncAuditLogWriter", writer);
+        try {
+            UUID txId = UUID.randomUUID();
+            service.logTransactionAction(txId, "PAYMENT_SUCCESS", "PROCESSING", "SUCCESS",
+                    "paid", null, 1L, null, null);
+
+            ArgumentCaptor<AuditRecord> record = ArgumentCaptor.forClass(AuditRecord.class);
+            verify(writer).submit(record.capture());
+            assertEquals(txId, record.getValue().paymentTransactionId());
+            assertEquals("TRANSACTION", record.getValue().entityType());
+            assertNotNull(record.getValue().id());
+            assertNotNull(record.getValue().createdAt());
+            verify(auditLogRepository, never()).save(any());
+        } finally {
+            ReflectionTestUtils.setField(service, "asyncAuditLogWriter", null);
+        }
+    }
+
+    private PaymentAuditLog captureSaved() {
+        ArgumentCaptor<PaymentAuditLog> captor = ArgumentCaptor.forClass(PaymentAuditLog.class);
+        verify(auditLogRepository).save(captor.capture());
+        return captor.getValue();
     }
 
     @Test
@@ -153,20 +169,22 @@ public class PaymentAuditLogServiceImplTest {
     @Test
     @Story("List by transaction converts list to page")
     @Severity(SeverityLevel.TRIVIAL)
-    void getAuditLogsByTransaction_convertListToPage() {
+    void getAuditLogsByTransaction_pagesInRepository() {
         UUID txId = UUID.randomUUID();
         PaymentAuditLog l1 = Allure.step("Create a new audit log entity with random ID and action CREATED",
                 () -> new PaymentAuditLog());
         PaymentAuditLog l2 = Allure.step("Create a new audit log entity with random ID and action CREATED",
                 () -> new PaymentAuditLog());
         Allure.step(
-                "Mock auditLogRepository findByPaymentTransactionIdOrderByCreatedAtDesc to return a new page with 2 logs",
-                () -> when(auditLogRepository.findByPaymentTransactionIdOrderByCreatedAtDesc(txId))
-                        .thenReturn(List.of(l1, l2)));
+                "Mock auditLogRepository findByPaymentTransactionIdOrderByCreatedAtDesc to return the first page of 2 logs",
+                () -> when(auditLogRepository.findByPaymentTransactionIdOrderByCreatedAtDesc(txId, PageRequest.of(0, 1)))
+                        .thenReturn(new PageImpl<>(List.of(l1), PageRequest.of(0, 1), 2)));
 
         Page<PaymentAuditLogDto> page = Allure.step(
                 "Verify service getAuditLogsByTransaction returns a page with 1 element",
                 () -> service.getAuditLogsByTransaction(txId, PageRequest.of(0, 1)));
+        Allure.step("Verify the unpaged list query is not used",
+                () -> verify(auditLogRepository, never()).findByPaymentTransactionIdOrderByCreatedAtDesc(txId));
         Allure.step("Verify page size is 1", () -> assertEquals(1, page.getSize()));
         Allure.step("Verify page total elements is 2", () -> assertEquals(2, page.getTotalElements()));
     }
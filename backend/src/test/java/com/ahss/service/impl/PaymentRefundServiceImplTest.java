@@ -2,16 +2,19 @@ package com.ahss.service.impl;
 
 import com.ahss.dto.request.CreateRefundDto;
 import com.ahss.dto.response.PaymentRefundDto;
+import com.ahss.dto.response.PaymentRefundSummaryDto;
 import com.ahss.entity.PaymentRefund;
 import com.ahss.entity.PaymentTransaction;
 import com.ahss.enums.PaymentTransactionStatus;
 import com.ahss.integration.PaymentIntegratorFactory;
+import com.ahss.maintenance.StaleRefundTimeout;
 import com.ahss.repository.PaymentRefundRepository;
 import com.ahss.repository.PaymentRequestRepository;
 import com.ahss.repository.PaymentTransactionRepository;
 import com.ahss.security.UserPrincipal;
 import com.ahss.service.PaymentAuditLogService;
 import com.ahss.service.PaymentRequestService;
+import com.ahss.stats.PaymentStats;
 import io.qameta.allure.*;
 
 import org.junit.jupiter.api.AfterEach;
@@ -22,6 +25,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -58,6 +62,10 @@ public class PaymentRefundServiceImplTest {
     private PaymentRequestService paymentRequestService;
     @MockBean
     private PaymentAuditLogService paymentAuditLogService;
+    @MockBean
+    private StaleRefundTimeout staleRefundTimeout;
+    @MockBean
+    private PaymentStats paymentStats;
 
     @Autowired
     private PaymentRefundServiceImpl service;
@@ -216,22 +224,34 @@ public class PaymentRefundServiceImplTest {
     @Test
     @Story("Get refunds by tx converts to page")
     @Severity(SeverityLevel.TRIVIAL)
-    void getRefundsByTransaction_convertListToPage() {
+    void getRefundsByTransaction_pagesInRepository() {
         UUID txId = UUID.randomUUID();
-        PaymentRefund r1 = Allure.step("Create a new PaymentRefund with id " + txId + " and refundStatus SUCCESS",
-                () -> new PaymentRefund());
-        PaymentRefund r2 = Allure.step("Create a new PaymentRefund with id " + txId + " and refundStatus PENDING",
-                () -> new PaymentRefund());
-        Allure.step("Mock refundRepository.findByPaymentTransactionId to return the list of PaymentRefund r1 and r2",
-                () -> when(refundRepository.findByPaymentTransactionId(eq(txId)))
-                        .thenReturn(List.of(r1, r2)));
+        PaymentRefundSummaryDto r1 = Allure.step("Create a refund summary row for transaction " + txId,
+                () -> new PaymentRefundSummaryDto());
+        Allure.step("Mock refundRepository.findSummariesByPaymentTransactionId to return the first of two rows",
+                () -> when(refundRepository.findSummariesByPaymentTransactionId(eq(txId), eq(PageRequest.of(0, 1))))
+                        .thenReturn(new PageImpl<>(List.of(r1), PageRequest.of(0, 1), 2)));
 
         Allure.step(
-                "Verify service getRefundsByTransaction returns a Page of PaymentRefundDto with size 1 and totalElements 2",
+                "Verify service getRefundsByTransaction returns a Page of PaymentRefundSummaryDto with size 1 and totalElements 2",
                 () -> {
-                    Page<PaymentRefundDto> page = service.getRefundsByTransaction(txId, PageRequest.of(0, 1));
+                    Page<PaymentRefundSummaryDto> page = service.getRefundsByTransaction(txId, PageRequest.of(0, 1));
                     assertEquals(1, page.getSize());
                     assertEquals(2, page.getTotalElements());
                 });
     }
-}
\ No newline at end of file
+
+    @Test
+    @Story("Stale refunds are timed out in bulk")
+    @Severity(SeverityLevel.NORMAL)
+    void processStaleRefunds_delegatesToBulkTimeout() {
+        Allure.step("Mock staleRefundTimeout.timeOutStale to report 4 refunds failed",
+                () -> when(staleRefundTimeout.timeOutStale()).thenReturn(4));
+
+        Allure.step("Verify the count is returned and no refund is loaded or saved one by one", () -> {
+            assertEquals(4, service.processStaleRefunds());
+            verify(refundRepository, never()).findStaleRefunds(any(), any());
+            verify(refundRepository, never()).save(any(PaymentRefund.class));
+        });
+    }
+}
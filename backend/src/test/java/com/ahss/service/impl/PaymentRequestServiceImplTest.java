@@ -1,14 +1,20 @@
 package com.ahss.service.impl;
 
+import com.ahss.archive.PaymentArchive;
 import com.ahss.dto.request.CreatePaymentRequestDto;
 import com.ahss.dto.request.UpdatePaymentRequestDto;
+import com.ahss.dto.response.BulkPaymentRequestResultDto;
 import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentSummaryDto;
 import com.ahss.entity.PaymentRequest;
 import com.ahss.enums.PaymentRequestStatus;
 import com.ahss.enums.PaymentMethodType;
+import com.ahss.exception.BadRequestException;
+import com.ahss.maintenance.PaymentRequestExpiry;
 import com.ahss.repository.PaymentRequestRepository;
 import com.ahss.service.PaymentAuditLogService;
+import com.ahss.stats.PaymentStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.qameta.allure.*;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,9 +24,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.List;
@@ -34,13 +45,23 @@ import static org.mockito.Mockito.*;
 @Feature("Payment Requests")
 @Owner("backend")
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(classes = PaymentRequestServiceImpl.class)
+@SpringBootTest(classes = {PaymentRequestServiceImpl.class, LocalValidatorFactoryBean.class})
 public class PaymentRequestServiceImplTest {
 
     @MockBean
     private PaymentRequestRepository paymentRequestRepository;
     @MockBean
     private PaymentAuditLogService auditLogService;
+    @MockBean
+    private PaymentArchive paymentArchive;
+    @MockBean
+    private PaymentRequestExpiry paymentRequestExpiry;
+    @MockBean
+    private PaymentStats paymentStats;
+    @MockBean
+    private JdbcTemplate jdbcTemplate;
+    @MockBean
+    private ObjectMapper objectMapper;
 
     @Autowired
     private PaymentRequestServiceImpl service;
@@ -124,13 +145,27 @@ public class PaymentRequestServiceImplTest {
     }
 
     @Test
-    @Story("Created between converts list to page")
+    @Story("Cancel is rejected once the request is final")
+    @Severity(SeverityLevel.NORMAL)
+    void cancelPaymentRequest_finalRequest_isRejected() {
+        UUID id = UUID.randomUUID();
+        PaymentRequest pr = new PaymentRequest();
+        pr.setId(id);
+        pr.setStatus(PaymentRequestStatus.COMPLETED);
+        when(paymentRequestRepository.findById(id)).thenReturn(java.util.Optional.of(pr));
+
+        assertThrows(BadRequestException.class, () -> service.cancelPaymentRequest(id, "Too late"));
+        verify(paymentRequestRepository, never()).save(any(PaymentRequest.class));
+        verifyNoInteractions(auditLogService);
+    }
+
+    @Test
+    @Story("Created between pages in the repository")
     @Severity(SeverityLevel.TRIVIAL)
-    void getPaymentRequestsCreatedBetween_convertsToPage() {
+    void getPaymentRequestsCreatedBetween_pagesInRepository() {
         PaymentRequest pr1 = new PaymentRequest();
-        PaymentRequest pr2 = new PaymentRequest();
-        when(paymentRequestRepository.findByCreatedAtBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(List.of(pr1, pr2));
+        when(paymentRequestRepository.findByCreatedAtBetween(any(LocalDateTime.class), any(LocalDateTime.class), eq(PageRequest.of(0, 1))))
+                .thenReturn(new PageImpl<>(List.of(pr1), PageRequest.of(0, 1), 2));
 
         Page<PaymentRequestDto> page = service.getPaymentRequestsCreatedBetween(LocalDateTime.now().minusDays(1), LocalDateTime.now(), PageRequest.of(0, 1));
         assertEquals(1, page.getSize());
@@ -138,9 +173,9 @@ public class PaymentRequestServiceImplTest {
     }
 
     @Test
-    @Story("Expire payment request sets CANCELLED and logs EXPIRED")
+    @Story("Expire payment request sets EXPIRED and logs EXPIRED")
     @Severity(SeverityLevel.NORMAL)
-    void expirePaymentRequest_setsCancelled_andLogs() {
+    void expirePaymentRequest_setsExpired_andLogs() {
         UUID id = UUID.randomUUID();
         PaymentRequest pr = new PaymentRequest();
         pr.setId(id);
@@ -149,8 +184,8 @@ public class PaymentRequestServiceImplTest {
         when(paymentRequestRepository.save(any(PaymentRequest.class))).thenAnswer(inv -> (PaymentRequest) inv.getArgument(0));
 
         PaymentRequestDto result = service.expirePaymentRequest(id);
-        assertEquals(PaymentRequestStatus.CANCELLED, result.getStatus());
-        verify(auditLogService).logPaymentRequestAction(eq(id), eq("EXPIRED"), anyString(), eq(PaymentRequestStatus.CANCELLED.toString()), contains("expired"), isNull(), isNull(), isNull(), isNull());
+        assertEquals(PaymentRequestStatus.EXPIRED, result.getStatus());
+        verify(auditLogService).logPaymentRequestAction(eq(id), eq("EXPIRED"), anyString(), eq(PaymentRequestStatus.EXPIRED.toString()), contains("expired"), isNull(), isNull(), isNull(), isNull());
     }
 
     @Test
@@ -176,23 +211,40 @@ public class PaymentRequestServiceImplTest {
     @Severity(SeverityLevel.NORMAL)
     void getPaymentSummary_computesValues() {
         Long tenantId = 7L;
-        when(paymentRequestRepository.countByTenantIdAndStatus(tenantId, PaymentRequestStatus.PENDING)).thenReturn(2L);
-        when(paymentRequestRepository.countByTenantIdAndStatus(tenantId, PaymentRequestStatus.COMPLETED)).thenReturn(3L);
-        when(paymentRequestRepository.countByTenantIdAndStatus(tenantId, PaymentRequestStatus.FAILED)).thenReturn(1L);
-
-        when(paymentRequestRepository.sumAmountByStatusAndCurrency(PaymentRequestStatus.COMPLETED, "USD"))
-                .thenReturn(new BigDecimal("100.00"));
-        when(paymentRequestRepository.sumAmountByStatusAndCurrency(PaymentRequestStatus.PENDING, "USD"))
-                .thenReturn(new BigDecimal("10.00"));
+        when(paymentStats.totals(PaymentStats.Subject.REQUEST, tenantId, null, null)).thenReturn(List.of(
+                new PaymentStats.Totals("PENDING", "USD", 2L, new BigDecimal("10.00")),
+                new PaymentStats.Totals("COMPLETED", "USD", 2L, new BigDecimal("100.00")),
+                new PaymentStats.Totals("COMPLETED", "EUR", 1L, new BigDecimal("40.00")),
+                new PaymentStats.Totals("FAILED", "USD", 1L, new BigDecimal("5.00"))));
 
         PaymentSummaryDto summary = service.getPaymentSummary(tenantId);
         assertEquals(6L, summary.getTotalPaymentRequests());
         assertEquals(2L, summary.getPendingPaymentRequests());
         assertEquals(3L, summary.getCompletedPaymentRequests());
         assertEquals(1L, summary.getFailedPaymentRequests());
+        assertEquals(0L, summary.getExpiredPaymentRequests());
         assertEquals(new BigDecimal("100.00"), summary.getTotalAmount());
         assertEquals(new BigDecimal("10.00"), summary.getPendingAmount());
         assertEquals(new BigDecimal("100.00"), summary.getCompletedAmount());
+        assertEquals(Map.of("USD", new BigDecimal("100.00"), "EUR", new BigDecimal("40.00")),
+                summary.getCurrencyBreakdown());
+        assertEquals(Map.of("PENDING", 2L, "COMPLETED", 3L, "FAILED", 1L), summary.getStatusBreakdown());
+        verifyNoInteractions(paymentRequestRepository);
+    }
+
+    @Test
+    @Story("Payment summary between dates reads the aggregates of those days")
+    @Severity(SeverityLevel.NORMAL)
+    void getPaymentSummaryBetween_boundsDays() {
+        when(paymentStats.totals(PaymentStats.Subject.REQUEST, 7L, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30)))
+                .thenReturn(List.of(new PaymentStats.Totals("EXPIRED", "USD", 4L, new BigDecimal("80.00"))));
+
+        PaymentSummaryDto summary = service.getPaymentSummaryBetween(7L,
+                LocalDateTime.of(2025, 6, 1, 0, 0), LocalDateTime.of(2025, 6, 30, 23, 59));
+
+        assertEquals(4L, summary.getTotalPaymentRequests());
+        assertEquals(4L, summary.getExpiredPaymentRequests());
+        assertEquals(BigDecimal.ZERO, summary.getCompletedAmount());
     }
 
     @Test
@@ -201,7 +253,7 @@ public class PaymentRequestServiceImplTest {
     void existsAndCounts_delegate() {
         when(paymentRequestRepository.existsByRequestCode("REQ-1")).thenReturn(true);
         when(paymentRequestRepository.existsByPaymentToken("tok-1")).thenReturn(true);
-        when(paymentRequestRepository.countByStatus(PaymentRequestStatus.PENDING)).thenReturn(7L);
+        when(paymentStats.count(PaymentStats.Subject.REQUEST, "PENDING")).thenReturn(7L);
         when(paymentRequestRepository.countByTenantIdAndStatus(5L, PaymentRequestStatus.COMPLETED)).thenReturn(4L);
         when(paymentRequestRepository.sumAmountByStatusAndCurrency(PaymentRequestStatus.COMPLETED, "USD"))
                 .thenReturn(new BigDecimal("250.00"));
@@ -214,29 +266,17 @@ public class PaymentRequestServiceImplTest {
     }
 
     @Test
-    @Story("Process expired payment requests only expires PENDING ones")
+    @Story("Process expired payment requests delegates to the set-based expiry")
     @Severity(SeverityLevel.NORMAL)
-    void processExpiredPaymentRequests_expiresOnlyPending() {
-        PaymentRequest pending = new PaymentRequest();
-        UUID id1 = UUID.randomUUID();
-        pending.setId(id1);
-        pending.setStatus(PaymentRequestStatus.PENDING);
-
-        PaymentRequest draft = new PaymentRequest();
-        UUID id2 = UUID.randomUUID();
-        draft.setId(id2);
-        draft.setStatus(PaymentRequestStatus.DRAFT);
-
-        when(paymentRequestRepository.findExpiredPaymentRequests(any(LocalDateTime.class), anyList()))
-                .thenReturn(List.of(pending, draft));
-        when(paymentRequestRepository.findById(id1)).thenReturn(java.util.Optional.of(pending));
-        when(paymentRequestRepository.save(any(PaymentRequest.class))).thenAnswer(inv -> inv.getArgument(0));
-
-        service.processExpiredPaymentRequests();
-
-        // Verify only the PENDING request was expired/logged
-        verify(auditLogService, times(1)).logPaymentRequestAction(eq(id1), eq("EXPIRED"), anyString(), eq(PaymentRequestStatus.CANCELLED.toString()), anyString(), isNull(), isNull(), isNull(), isNull());
-        verify(paymentRequestRepository, times(1)).save(any(PaymentRequest.class));
+    void processExpiredPaymentRequests_delegatesToBulkExpiry() {
+        when(paymentRequestExpiry.expireDue()).thenReturn(3);
+
+        assertEquals(3, service.processExpiredPaymentRequests());
+
+        // No per-request load, save or audit call
+        verify(paymentRequestRepository, never()).findExpiredPaymentRequests(any(LocalDateTime.class), anyList());
+        verify(paymentRequestRepository, never()).save(any(PaymentRequest.class));
+        verifyNoInteractions(auditLogService);
     }
 
     @Test
@@ -258,6 +298,25 @@ public class PaymentRequestServiceImplTest {
         assertTrue(service.getPaymentRequestById(another).isEmpty());
     }
 
+    @Test
+    @Story("Find by id falls back to the payment archive")
+    @Severity(SeverityLevel.NORMAL)
+    void getPaymentRequestById_fallsBackToArchive() {
+        UUID id = UUID.randomUUID();
+        PaymentRequest archived = new PaymentRequest();
+        archived.setId(id);
+        archived.setTitle("Archived");
+        archived.setStatus(PaymentRequestStatus.COMPLETED);
+        archived.setAllowedPaymentMethods(new PaymentMethodType[]{PaymentMethodType.CREDIT_CARD});
+        when(paymentRequestRepository.findById(id)).thenReturn(java.util.Optional.empty());
+        when(paymentArchive.findPaymentRequest(id)).thenReturn(java.util.Optional.of(archived));
+
+        PaymentRequestDto dto = service.getPaymentRequestById(id).orElseThrow();
+
+        assertEquals("Archived", dto.getTitle());
+        assertEquals(PaymentRequestStatus.COMPLETED, dto.getStatus());
+    }
+
     @Test
     @Story("Find by code and token returns Optional present/empty")
     @Severity(SeverityLevel.TRIVIAL)
@@ -296,26 +355,28 @@ public class PaymentRequestServiceImplTest {
         when(paymentRequestRepository.findByTenantId(7L, pageable)).thenReturn(new PageImpl<>(List.of(e), pageable, 1));
         when(paymentRequestRepository.findByPayerEmail("a@b.com", pageable)).thenReturn(new PageImpl<>(List.of(e), pageable, 1));
         when(paymentRequestRepository.searchPaymentRequests("test", pageable)).thenReturn(new PageImpl<>(List.of(e), pageable, 1));
+        when(paymentRequestRepository.searchPaymentRequestsByTenant(7L, "test", pageable)).thenReturn(new PageImpl<>(List.of(e), pageable, 1));
 
         assertEquals(1, service.getAllPaymentRequests(pageable).getTotalElements());
         assertEquals("Paged", service.getPaymentRequestsByStatus(PaymentRequestStatus.PENDING, pageable).getContent().get(0).getTitle());
         assertEquals(1, service.getPaymentRequestsByTenant(7L, pageable).getTotalElements());
         assertEquals(1, service.getPaymentRequestsByPayerEmail("a@b.com", pageable).getTotalElements());
         assertEquals(1, service.searchPaymentRequests("test", pageable).getTotalElements());
+        assertEquals("Paged", service.searchPaymentRequestsByTenant(7L, "test", pageable).getContent().get(0).getTitle());
     }
 
     @Test
-    @Story("List-to-page conversion for amount range and currency")
+    @Story("Amount range and currency page in the repository")
     @Severity(SeverityLevel.TRIVIAL)
-    void amountRange_and_currency_convertToPage() {
+    void amountRange_and_currency_pageInRepository() {
         PaymentRequest a = new PaymentRequest();
         a.setId(UUID.randomUUID());
         PaymentRequest b = new PaymentRequest();
         b.setId(UUID.randomUUID());
-        when(paymentRequestRepository.findByAmountBetween(any(BigDecimal.class), any(BigDecimal.class)))
-                .thenReturn(List.of(a, b));
-        when(paymentRequestRepository.findByCurrency("USD"))
-                .thenReturn(List.of(a));
+        when(paymentRequestRepository.findByAmountBetween(any(BigDecimal.class), any(BigDecimal.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(a), PageRequest.of(0, 1), 2));
+        when(paymentRequestRepository.findByCurrency(eq("USD"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(a), PageRequest.of(0, 1), 1));
 
         Page<PaymentRequestDto> byAmount = service.getPaymentRequestsByAmountRange(new BigDecimal("1.00"), new BigDecimal("999.00"), PageRequest.of(0, 1));
         assertEquals(2, byAmount.getTotalElements());
@@ -327,16 +388,16 @@ public class PaymentRequestServiceImplTest {
     }
 
     @Test
-    @Story("List-to-page returns empty page when offset exceeds size")
+    @Story("Offset beyond the result set is passed to the repository")
     @Severity(SeverityLevel.TRIVIAL)
-    void convertListToPage_returnsEmpty_whenOffsetBeyond() {
-        PaymentRequest only = new PaymentRequest();
-        only.setId(UUID.randomUUID());
-        when(paymentRequestRepository.findByCurrency("EUR")).thenReturn(List.of(only));
+    void currency_passesOffsetToRepository_whenBeyondSize() {
+        when(paymentRequestRepository.findByCurrency("EUR", PageRequest.of(5, 10)))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(5, 10), 1));
 
         Page<PaymentRequestDto> page = service.getPaymentRequestsByCurrency("EUR", PageRequest.of(5, 10));
         assertEquals(0, page.getContent().size());
         assertEquals(1, page.getTotalElements());
+        verify(paymentRequestRepository, never()).findByCurrency("EUR");
     }
 
     @Test
@@ -405,4 +466,53 @@ public class PaymentRequestServiceImplTest {
         assertNotNull(result.getExpiresAt());
         assertEquals("2", result.getUpdatedBy());
     }
-}
\ No newline at end of file
+
+    @Test
+    @Story("Bulk create rejects invalid lines and batch-inserts the rest with their audit rows")
+    @Severity(SeverityLevel.CRITICAL)
+    @SuppressWarnings("unchecked")
+    void createPaymentRequests_rejectsInvalid_andBatchInsertsValid() {
+        CreatePaymentRequestDto first = bulkDto(1L);
+        CreatePaymentRequestDto invalid = bulkDto(1L);
+        invalid.setPayerEmail("not-an-email");
+        invalid.setAmount(BigDecimal.ZERO);
+        CreatePaymentRequestDto unknownTenant = bulkDto(99L);
+        CreatePaymentRequestDto second = bulkDto(1L);
+        when(jdbcTemplate.queryForList(eq(PaymentRequestServiceImpl.EXISTING_TENANTS_SQL), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of(1L));
+
+        List<BulkPaymentRequestResultDto> results =
+                service.createPaymentRequests(java.util.Arrays.asList(first, invalid, unknownTenant, null, second));
+
+        assertEquals(5, results.size());
+        assertEquals(BulkPaymentRequestResultDto.Status.CREATED, results.get(0).getStatus());
+        assertEquals("amount: Amount must be greater than 0; payerEmail: Payer email should be valid",
+                results.get(1).getError());
+        assertEquals("tenantId: Tenant not found", results.get(2).getError());
+        assertEquals("Empty payment request", results.get(3).getError());
+        assertEquals(BulkPaymentRequestResultDto.Status.CREATED, results.get(4).getStatus());
+        assertNotEquals(results.get(0).getRequestCode(), results.get(4).getRequestCode());
+        assertTrue(results.get(0).getRequestCode().matches("PR-\\d{4}-[0-9A-Z]+"));
+        assertEquals(32, results.get(0).getPaymentToken().length());
+
+        verify(jdbcTemplate).batchUpdate(eq(PaymentRequestServiceImpl.BULK_INSERT_SQL),
+                argThat((List<PaymentRequest> requests) -> requests.size() == 2
+                        && requests.get(0).getId().equals(results.get(0).getId())),
+                eq(2), any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).batchUpdate(eq(PaymentRequestServiceImpl.BULK_AUDIT_SQL), anyList(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        verifyNoInteractions(paymentRequestRepository, auditLogService);
+    }
+
+    private static CreatePaymentRequestDto bulkDto(Long tenantId) {
+        CreatePaymentRequestDto dto = new CreatePaymentRequestDto();
+        dto.setTitle("Invoice");
+        dto.setAmount(new BigDecimal("42.00"));
+        dto.setCurrency("USD");
+        dto.setPayerName("Jane");
+        dto.setPayerEmail("jane@example.com");
+        dto.setAllowedPaymentMethods(List.of(PaymentMethodType.CREDIT_CARD));
+        dto.setTenantId(tenantId);
+        return dto;
+    }
+}
@@ -4,15 +4,18 @@ import com.ahss.dto.request.ProcessPaymentDto;
 import com.ahss.dto.response.PaymentRequestDto;
 import com.ahss.dto.response.PaymentResponseDto;
 import com.ahss.dto.response.PaymentTransactionDto;
+import com.ahss.dto.response.PaymentTransactionSummaryDto;
 import com.ahss.entity.PaymentTransaction;
 import com.ahss.enums.PaymentMethodType;
 import com.ahss.enums.PaymentTransactionStatus;
 import com.ahss.integration.PaymentIntegrator;
 import com.ahss.integration.PaymentIntegratorFactory;
 import com.ahss.kafka.producer.PaymentCallbackProducer;
+import com.ahss.maintenance.StaleTransactionTimeout;
 import com.ahss.repository.PaymentTransactionRepository;
 import com.ahss.service.PaymentAuditLogService;
 import com.ahss.service.PaymentRequestService;
+import com.ahss.stats.PaymentStats;
 import io.qameta.allure.*;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -62,6 +65,8 @@ public class PaymentTransactionServiceImplTest {
   @MockBean private PaymentRequestService paymentRequestService;
   @MockBean private PaymentIntegratorFactory integratorFactory;
   @MockBean private PaymentCallbackProducer paymentCallbackProducer;
+  @MockBean private StaleTransactionTimeout staleTransactionTimeout;
+  @MockBean private PaymentStats paymentStats;
 
   @Autowired private PaymentTransactionServiceImpl service;
 
@@ -217,30 +222,62 @@ public class PaymentTransactionServiceImplTest {
   }
 
   @Test
-  @Story("List by request converts list to page")
+  @Story("List by request pages in the repository")
   @Severity(SeverityLevel.TRIVIAL)
-  void getTransactionsByPaymentRequest_convertsToPage() {
+  void getTransactionsByPaymentRequest_pagesInRepository() {
     UUID reqId = UUID.randomUUID();
-    PaymentTransaction t1 = new PaymentTransaction();
-    PaymentTransaction t2 = new PaymentTransaction();
-    when(transactionRepository.findByPaymentRequestId(reqId)).thenReturn(List.of(t1, t2));
+    PaymentTransactionSummaryDto t1 = new PaymentTransactionSummaryDto();
+    when(transactionRepository.findSummariesByPaymentRequestId(reqId, PageRequest.of(0, 1)))
+        .thenReturn(new PageImpl<>(List.of(t1), PageRequest.of(0, 1), 2));
 
-    Page<PaymentTransactionDto> page =
+    Page<PaymentTransactionSummaryDto> page =
         service.getTransactionsByPaymentRequest(reqId, PageRequest.of(0, 1));
     assertEquals(1, page.getSize());
     assertEquals(2, page.getTotalElements());
   }
 
   @Test
-  @Story("Page by status maps DTOs")
+  @Story("Scroll seeks past the cursor and skips the count by default")
+  @Severity(SeverityLevel.NORMAL)
+  void scrollTransactions_seeksAfterCursor() {
+    LocalDateTime now = LocalDateTime.now();
+    PaymentTransactionSummaryDto t1 = new PaymentTransactionSummaryDto();
+    t1.setId(UUID.randomUUID());
+    t1.setCreatedAt(now);
+    PaymentTransactionSummaryDto t2 = new PaymentTransactionSummaryDto();
+    t2.setId(UUID.randomUUID());
+    t2.setCreatedAt(now.minusSeconds(1));
+    when(transactionRepository.scrollFirst(PageRequest.of(0, 2))).thenReturn(List.of(t1, t2));
+
+    var first = service.scrollTransactions(null, 1, false);
+    assertEquals(1, first.getContent().size());
+    assertEquals(t1.getId(), first.getContent().get(0).getId());
+    assertTrue(first.isHasNext());
+    assertNull(first.getTotalElements());
+    verify(transactionRepository, never()).count();
+
+    when(transactionRepository.scrollAfter(now, t1.getId(), PageRequest.of(0, 2)))
+        .thenReturn(List.of(t2));
+    when(transactionRepository.count()).thenReturn(2L);
+
+    var second = service.scrollTransactions(first.getNextCursor(), 1, true);
+    assertEquals(t2.getId(), second.getContent().get(0).getId());
+    assertFalse(second.isHasNext());
+    assertNull(second.getNextCursor());
+    assertEquals(2L, second.getTotalElements());
+  }
+
+  @Test
+  @Story("Page by status returns summary rows")
   @Severity(SeverityLevel.TRIVIAL)
   void getTransactionsByStatus_mapsPage() {
-    PaymentTransaction tx = new PaymentTransaction();
+    PaymentTransactionSummaryDto tx = new PaymentTransactionSummaryDto();
     tx.setTransactionStatus(PaymentTransactionStatus.PENDING);
-    when(transactionRepository.findByTransactionStatus(eq(PaymentTransactionStatus.PENDING), any()))
+    when(transactionRepository.findSummariesByTransactionStatus(
+            eq(PaymentTransactionStatus.PENDING), any()))
         .thenReturn(new PageImpl<>(List.of(tx)));
 
-    Page<PaymentTransactionDto> page =
+    Page<PaymentTransactionSummaryDto> page =
         service.getTransactionsByStatus(PaymentTransactionStatus.PENDING, PageRequest.of(0, 10));
     assertEquals(1, page.getTotalElements());
     assertEquals(PaymentTransactionStatus.PENDING, page.getContent().get(0).getTransactionStatus());
@@ -256,6 +293,26 @@ public class PaymentTransactionServiceImplTest {
     assertFalse(service.existsByExternalTransactionId("EXT-1"));
   }
 
+  @Test
+  @Story("Count by status reads the payment aggregates")
+  @Severity(SeverityLevel.TRIVIAL)
+  void countByStatus_readsAggregates() {
+    when(paymentStats.count(PaymentStats.Subject.TRANSACTION, "SUCCESS")).thenReturn(9L);
+    assertEquals(9L, service.countByStatus(PaymentTransactionStatus.SUCCESS));
+    verifyNoInteractions(transactionRepository);
+  }
+
+  @Test
+  @Story("Status count breakdown reads the payment aggregates once")
+  @Severity(SeverityLevel.TRIVIAL)
+  void getStatusCountBreakdown_readsAggregates() {
+    Map<PaymentTransactionStatus, Long> counts = Map.of(PaymentTransactionStatus.SUCCESS, 9L);
+    when(paymentStats.countByStatus(PaymentStats.Subject.TRANSACTION, PaymentTransactionStatus.class))
+        .thenReturn(counts);
+    assertEquals(counts, service.getStatusCountBreakdown());
+    verifyNoInteractions(transactionRepository);
+  }
+
   @Test
   @Story("Sum amount by status and currency delegates to repository")
   @Severity(SeverityLevel.TRIVIAL)
@@ -3,7 +3,10 @@ package com.ahss.service.impl;
 import com.ahss.dto.PermissionDto;
 import com.ahss.entity.Permission;
 import com.ahss.repository.PermissionRepository;
+import com.ahss.cache.ReferenceDataCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.qameta.allure.*;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +23,7 @@ import static org.mockito.Mockito.*;
 @Feature("Permission Management")
 @Owner("backend")
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(classes = PermissionServiceImpl.class)
+@SpringBootTest(classes = {PermissionServiceImpl.class, ReferenceDataCache.class, SimpleMeterRegistry.class})
 public class PermissionServiceImplTest {
 
     @MockBean
@@ -29,6 +32,14 @@ public class PermissionServiceImplTest {
     @Autowired
     private PermissionServiceImpl service;
 
+    @Autowired
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void clearCache() {
+        cache.invalidateAll();
+    }
+
     @Test
     @Story("List permissions ordered by name")
     @Severity(SeverityLevel.NORMAL)
@@ -5,7 +5,10 @@ import com.ahss.entity.Product;
 import com.ahss.entity.ProductStatus;
 import com.ahss.repository.ProductRepository;
 import com.ahss.service.ModuleService;
+import com.ahss.cache.ReferenceDataCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.qameta.allure.*;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,7 +26,7 @@ import static org.mockito.Mockito.*;
 @Feature("Product Management")
 @Owner("backend")
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(classes = ProductServiceImpl.class)
+@SpringBootTest(classes = {ProductServiceImpl.class, ReferenceDataCache.class, SimpleMeterRegistry.class})
 public class ProductServiceImplTest {
 
     @MockBean
@@ -34,6 +37,14 @@ public class ProductServiceImplTest {
     @Autowired
     private ProductServiceImpl service;
 
+    @Autowired
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void clearCache() {
+        cache.invalidateAll();
+    }
+
     @Test
     @Story("Return only ACTIVE products")
     @Severity(SeverityLevel.CRITICAL)
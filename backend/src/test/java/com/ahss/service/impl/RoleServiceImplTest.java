@@ -6,7 +6,10 @@ import com.ahss.entity.RoleStatus;
 import com.ahss.entity.Permission;
 import com.ahss.repository.PermissionRepository;
 import com.ahss.repository.RoleRepository;
+import com.ahss.cache.ReferenceDataCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.qameta.allure.*;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,7 +29,7 @@ import static org.mockito.Mockito.*;
 @Feature("Role Management")
 @Owner("backend")
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(classes = RoleServiceImpl.class)
+@SpringBootTest(classes = {RoleServiceImpl.class, ReferenceDataCache.class, SimpleMeterRegistry.class})
 public class RoleServiceImplTest {
 
     @MockBean
@@ -38,6 +41,14 @@ public class RoleServiceImplTest {
     @Autowired
     private RoleServiceImpl service;
 
+    @Autowired
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void clearCache() {
+        cache.invalidateAll();
+    }
+
     @Test
     @Story("Return only ACTIVE roles")
     @Severity(SeverityLevel.CRITICAL)
@@ -48,14 +59,8 @@ public class RoleServiceImplTest {
         Allure.step("Mock active role with empty permissions",
                 () -> when(active.getPermissions()).thenReturn(Collections.emptyList()));
 
-        Role inactive = Allure.step("Create mock inactive role", () -> mock(Role.class));
-        Allure.step("Mock inactive role with status INACTIVE",
-                () -> when(inactive.getRoleStatus()).thenReturn(RoleStatus.INACTIVE));
-        Allure.step("Mock inactive role with empty permissions",
-                () -> when(inactive.getPermissions()).thenReturn(Collections.emptyList()));
-
-        Allure.step("Mock role repository to return both active and inactive roles",
-                () -> when(roleRepository.findAll()).thenReturn(Arrays.asList(active, inactive)));
+        Allure.step("Mock role repository to return only the active role",
+                () -> when(roleRepository.findAllActiveWithPermissions()).thenReturn(List.of(active)));
 
         Allure.step("Fetch all active roles and ensure filter works");
         List<RoleDto> result = Allure.step("Call service to get all active roles", () -> service.getAllActiveRoles());
@@ -238,4 +243,25 @@ public class RoleServiceImplTest {
         RoleDto dto = service.removePermissions(60L, java.util.List.of(1L));
         assertEquals(1, dto.getPermissions().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    @Story("Active roles are served from the reference data cache until a role is written")
+    @Severity(SeverityLevel.NORMAL)
+    void getAllActiveRoles_cachedUntilRoleWrite() {
+        Role role = new Role();
+        role.setId(70L);
+        role.setRoleStatus(RoleStatus.ACTIVE);
+        role.setPermissions(new java.util.ArrayList<>());
+        when(roleRepository.findAllActiveWithPermissions()).thenReturn(List.of(role));
+        when(roleRepository.findById(70L)).thenReturn(Optional.of(role));
+        when(roleRepository.save(any(Role.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.getAllActiveRoles();
+        service.getAllActiveRoles();
+        verify(roleRepository, times(1)).findAllActiveWithPermissions();
+
+        service.deactivateRole(70L);
+        service.getAllActiveRoles();
+        verify(roleRepository, times(2)).findAllActiveWithPermissions();
+    }
+}
@@ -4,7 +4,10 @@ import com.ahss.dto.TenantDto;
 import com.ahss.entity.Tenant;
 import com.ahss.entity.TenantStatus;
 import com.ahss.repository.TenantRepository;
+import com.ahss.cache.ReferenceDataCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.qameta.allure.*;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -23,7 +26,7 @@ import static org.mockito.Mockito.*;
 @Feature("Tenant Management")
 @Owner("backend")
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(classes = TenantServiceImpl.class)
+@SpringBootTest(classes = {TenantServiceImpl.class, ReferenceDataCache.class, SimpleMeterRegistry.class})
 public class TenantServiceImplTest {
 
     @MockBean
@@ -32,6 +35,14 @@ public class TenantServiceImplTest {
     @Autowired
     private TenantServiceImpl service;
 
+    @Autowired
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void clearCache() {
+        cache.invalidateAll();
+    }
+
     @Test
     @Story("Filter tenants by status")
     @Severity(SeverityLevel.NORMAL)
@@ -0,0 +1,72 @@
+package com.ahss.stats;
+
+import com.ahss.maintenance.JobContext;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Payment Statistics")
+@Owner("backend")
+class PaymentStatsCompactionTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final JobContext context = mock(JobContext.class);
+
+    @Test
+    @DisplayName("Full chunks are followed by another until one comes back partial")
+    @Story("Compaction")
+    void compactsUntilPartialChunk() {
+        when(context.shardCount()).thenReturn(2);
+        when(context.shard()).thenReturn(1);
+        when(context.checkpoint(isNull(), anyInt())).thenReturn(true);
+        when(jdbcTemplate.queryForObject(PaymentStatsCompaction.COMPACT_SQL, Integer.class, 2, 1, 10))
+                .thenReturn(10, 4);
+
+        assertTrue(compaction(10, 5).run(context));
+
+        verify(jdbcTemplate, times(2)).queryForObject(PaymentStatsCompaction.COMPACT_SQL, Integer.class, 2, 1, 10);
+        verify(context).checkpoint(null, 10);
+        verify(context).checkpoint(null, 4);
+    }
+
+    @Test
+    @DisplayName("No deltas means nothing to record")
+    @Story("Compaction")
+    void nothingToCompact() {
+        when(jdbcTemplate.queryForObject(eq(PaymentStatsCompaction.COMPACT_SQL), eq(Integer.class), any(Object[].class)))
+                .thenReturn(0);
+
+        assertTrue(compaction(10, 5).run(context));
+        verify(context, never()).checkpoint(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("A lost lease or the batch limit stops the run as unfinished")
+    @Story("Compaction")
+    void stopsEarly() {
+        when(jdbcTemplate.queryForObject(eq(PaymentStatsCompaction.COMPACT_SQL), eq(Integer.class), any(Object[].class)))
+                .thenReturn(10);
+        when(context.checkpoint(isNull(), anyInt())).thenReturn(false);
+        assertFalse(compaction(10, 5).run(context));
+        verify(jdbcTemplate, times(1)).queryForObject(eq(PaymentStatsCompaction.COMPACT_SQL), eq(Integer.class),
+                any(Object[].class));
+
+        when(context.checkpoint(isNull(), anyInt())).thenReturn(true);
+        assertFalse(compaction(10, 2).run(context));
+    }
+
+    private PaymentStatsCompaction compaction(int batchSize, int maxBatchesPerRun) {
+        return new PaymentStatsCompaction(jdbcTemplate, TransactionOperations.withoutTransaction(), batchSize,
+                maxBatchesPerRun);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ahss.stats;
+
+import com.ahss.maintenance.JobContext;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the V35 triggers against the seeded payments: after inserts, status changes and
+ * compaction the aggregates still match counting the payment tables.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Epic("Payment Lifecycle")
+@Feature("Payment Statistics")
+@Owner("backend")
+class PaymentStatsIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Status changes move counts between statuses, before and after compaction")
+    @Story("Aggregate maintenance")
+    void aggregatesFollowStatusChanges() {
+        PaymentStats stats = new PaymentStats(jdbcTemplate);
+        assertMatchesTables(stats);
+
+        UUID pending = jdbcTemplate.queryForObject(
+                "SELECT payment_request_id FROM payment_request WHERE status = 'PENDING' LIMIT 1", UUID.class);
+        long pendingBefore = stats.count(PaymentStats.Subject.REQUEST, "PENDING");
+        long cancelledBefore = stats.count(PaymentStats.Subject.REQUEST, "CANCELLED");
+        jdbcTemplate.update("UPDATE payment_request SET status = 'CANCELLED' WHERE payment_request_id = ?", pending);
+        // A version-only update leaves no delta
+        int deltas = jdbcTemplate.queryForObject("SELECT count(*) FROM payment_stats_delta", Integer.class);
+        jdbcTemplate.update("UPDATE payment_request SET version = version + 1 WHERE payment_request_id = ?", pending);
+        assertEquals(deltas, jdbcTemplate.queryForObject("SELECT count(*) FROM payment_stats_delta", Integer.class));
+
+        assertEquals(pendingBefore - 1, stats.count(PaymentStats.Subject.REQUEST, "PENDING"));
+        assertEquals(cancelledBefore + 1, stats.count(PaymentStats.Subject.REQUEST, "CANCELLED"));
+        assertMatchesTables(stats);
+
+        JobContext context = mock(JobContext.class);
+        when(context.shardCount()).thenReturn(1);
+        when(context.checkpoint(isNull(), anyInt())).thenReturn(true);
+        assertTrue(new PaymentStatsCompaction(jdbcTemplate, TransactionOperations.withoutTransaction(), 1000, 10)
+                .run(context));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM payment_stats_delta", Integer.class));
+        assertEquals(pendingBefore - 1, stats.count(PaymentStats.Subject.REQUEST, "PENDING"));
+        assertMatchesTables(stats);
+    }
+
+    private void assertMatchesTables(PaymentStats stats) {
+        for (String status : jdbcTemplate.queryForList("SELECT DISTINCT status::text FROM payment_request", String.class)) {
+            assertEquals(jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM payment_request WHERE status::text = ?", Long.class, status),
+                    stats.count(PaymentStats.Subject.REQUEST, status), status);
+        }
+        for (String status : jdbcTemplate.queryForList(
+                "SELECT DISTINCT transaction_status::text FROM payment_transaction", String.class)) {
+            assertEquals(jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM payment_transaction WHERE transaction_status::text = ?", Long.class, status),
+                    stats.count(PaymentStats.Subject.TRANSACTION, status), status);
+        }
+        for (String status : jdbcTemplate.queryForList(
+                "SELECT DISTINCT refund_status::text FROM payment_refund", String.class)) {
+            assertEquals(jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM payment_refund WHERE refund_status::text = ?", Long.class, status),
+                    stats.count(PaymentStats.Subject.REFUND, status), status);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ahss.stats;
+
+import com.ahss.enums.PaymentTransactionStatus;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Payment Statistics")
+@Owner("backend")
+class PaymentStatsTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PaymentStats stats = new PaymentStats(jdbcTemplate);
+
+    @Test
+    @DisplayName("A status count adds the compacted rows and the pending deltas")
+    @Story("Aggregate reads")
+    void count_readsBothTables() {
+        when(jdbcTemplate.queryForObject(PaymentStats.COUNT_SQL, Long.class, "REFUND", "SUCCESS", "REFUND", "SUCCESS"))
+                .thenReturn(12L);
+
+        assertEquals(12L, stats.count(PaymentStats.Subject.REFUND, "SUCCESS"));
+    }
+
+    @Test
+    @DisplayName("All statuses of a subject are counted in one grouped read, missing ones as zero")
+    @Story("Aggregate reads")
+    void countByStatus_readsAllStatusesAtOnce() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("SUCCESS", "FAILED");
+        when(rs.getLong(2)).thenReturn(7L, 2L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(eq(PaymentStats.STATUS_COUNTS_SQL), any(RowCallbackHandler.class),
+                eq("TRANSACTION"), eq("TRANSACTION"));
+
+        Map<PaymentTransactionStatus, Long> counts =
+                stats.countByStatus(PaymentStats.Subject.TRANSACTION, PaymentTransactionStatus.class);
+
+        assertEquals(7L, counts.get(PaymentTransactionStatus.SUCCESS));
+        assertEquals(2L, counts.get(PaymentTransactionStatus.FAILED));
+        assertEquals(0L, counts.get(PaymentTransactionStatus.PENDING));
+        assertEquals(PaymentTransactionStatus.values().length, counts.size());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Totals without a tenant or days filter on the subject only")
+    @Story("Aggregate reads")
+    @SuppressWarnings("unchecked")
+    void totals_unfiltered() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        stats.totals(PaymentStats.Subject.REQUEST, null, null, null);
+
+        verify(jdbcTemplate).query(eq(PaymentStats.totalsSql("subject = ?")), any(RowMapper.class),
+                eq("REQUEST"), eq("REQUEST"));
+    }
+
+    @Test
+    @DisplayName("Tenant and day bounds are applied to both tables")
+    @Story("Aggregate reads")
+    @SuppressWarnings("unchecked")
+    void totals_filteredByTenantAndDays() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+        Date from = Date.valueOf(LocalDate.of(2025, 6, 1));
+        Date to = Date.valueOf(LocalDate.of(2025, 6, 30));
+
+        stats.totals(PaymentStats.Subject.TRANSACTION, 3L, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30));
+
+        String sql = PaymentStats.totalsSql("subject = ? AND tenant_id = ? AND day >= ? AND day <= ?");
+        verify(jdbcTemplate).query(eq(sql), any(RowMapper.class),
+                eq("TRANSACTION"), eq(3L), eq(from), eq(to), eq("TRANSACTION"), eq(3L), eq(from), eq(to));
+    }
+}
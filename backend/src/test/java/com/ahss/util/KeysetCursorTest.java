@@ -0,0 +1,75 @@
+package com.ahss.util;
+
+import com.ahss.dto.response.CursorPage;
+import com.ahss.exception.BadRequestException;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Keyset Pagination")
+@Owner("backend")
+class KeysetCursorTest {
+
+    private record Row(LocalDateTime createdAt, UUID id) {
+    }
+
+    @Test
+    @DisplayName("Encoded cursors are URL-safe and decode to the same key")
+    @Story("Opaque continuation tokens")
+    void round_trips() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123456000), UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, KeysetCursor.decode(token));
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(" "));
+    }
+
+    @Test
+    @DisplayName("Rejects tokens it did not produce")
+    @Story("Opaque continuation tokens")
+    void rejects_tampered_tokens() {
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode("not-a-cursor"));
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode("%%%"));
+        String wrongVersion = java.util.Base64.getUrlEncoder()
+                .encodeToString(("v9|2025-03-01T12:30|" + UUID.randomUUID()).getBytes());
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode(wrongVersion));
+    }
+
+    @Test
+    @DisplayName("Uses the probe row to detect a next page and points the cursor at the last returned row")
+    @Story("Next page detection without a count")
+    void builds_page_from_probe() {
+        LocalDateTime now = LocalDateTime.now();
+        Row a = new Row(now, UUID.randomUUID());
+        Row b = new Row(now.minusSeconds(1), UUID.randomUUID());
+        Row c = new Row(now.minusSeconds(2), UUID.randomUUID());
+
+        CursorPage<UUID> first = KeysetCursor.toPage(List.of(a, b, c), 2, Row::createdAt, Row::id, Row::id, null);
+        assertEquals(List.of(a.id(), b.id()), first.getContent());
+        assertTrue(first.isHasNext());
+        assertEquals(new KeysetCursor(b.createdAt(), b.id()), KeysetCursor.decode(first.getNextCursor()));
+        assertNull(first.getTotalElements());
+
+        CursorPage<UUID> last = KeysetCursor.toPage(List.of(c), 2, Row::createdAt, Row::id, Row::id, 3L);
+        assertEquals(List.of(c.id()), last.getContent());
+        assertFalse(last.isHasNext());
+        assertNull(last.getNextCursor());
+        assertEquals(3L, last.getTotalElements());
+        assertEquals(2, KeysetCursor.probe(1).getPageSize());
+        assertEquals(KeysetCursor.MAX_SIZE, KeysetCursor.clampSize(10_000));
+        assertEquals(1, KeysetCursor.clampSize(0));
+    }
+}
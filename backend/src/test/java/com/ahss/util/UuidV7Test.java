@@ -0,0 +1,74 @@
+package com.ahss.util;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Payment Lifecycle")
+@Feature("Entity Ids")
+@Owner("backend")
+class UuidV7Test {
+
+    @Test
+    @DisplayName("Generated ids carry version 7, the RFC 4122 variant and the current time")
+    @Story("Time-ordered UUIDs")
+    void layout() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.generate();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long timestamp = UuidV7.timestamp(id);
+        assertTrue(timestamp >= before && timestamp <= after + 1, "timestamp " + timestamp);
+    }
+
+    @Test
+    @DisplayName("Ids are strictly increasing, also within one millisecond and when the clock steps back")
+    @Story("Time-ordered UUIDs")
+    void monotonic() {
+        UuidV7 generator = new UuidV7();
+        long now = System.currentTimeMillis();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.next(now));
+        }
+        ids.add(generator.next(now - 1_000));
+        ids.add(generator.next(now + 5_000));
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "id " + i + " out of order");
+            // Postgres compares uuid values byte by byte
+            assertTrue(ids.get(i - 1).toString().compareTo(ids.get(i).toString()) < 0);
+        }
+        assertEquals(now + 5_000, UuidV7.timestamp(ids.get(ids.size() - 1)));
+    }
+
+    @Test
+    @DisplayName("Concurrent callers never receive the same id")
+    @Story("Time-ordered UUIDs")
+    void unique_underContention() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 50_000).parallel().forEach(i -> ids.add(UuidV7.generate()));
+        assertEquals(50_000, ids.size());
+    }
+
+    @Test
+    @DisplayName("Only version 7 ids have an embedded timestamp")
+    @Story("Time-ordered UUIDs")
+    void timestamp_rejectsOtherVersions() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestamp(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,110 @@
+-- Synthetic payment data for QueryPlanRegressionIntegrationTest.
+-- Large enough that the planner prefers an index wherever one applies, with
+-- realistic spreads: a handful of statuses, gateways and currencies, unique
+-- codes and external ids, and sparse error codes.
+
+SELECT ensure_monthly_partitions('payment_transaction', DATE '2024-01-01', DATE '2024-02-01');
+SELECT ensure_monthly_partitions('payment_audit_log', DATE '2024-01-01', DATE '2024-02-01');
+
+INSERT INTO payment_request (payment_request_id, request_code, payment_token, title, amount, currency,
+                             payer_name, payer_email, allowed_payment_methods, status, expires_at,
+                             tenant_id, created_at, updated_at)
+SELECT gen_random_uuid(),
+       'PR-SEED-' || g,
+       'seed_token_' || g,
+       'Invoice ' || g || ' ' || md5(g::text),
+       (g % 5000) + 1,
+       (ARRAY['USD', 'EUR', 'GBP', 'SGD', 'JPY', 'AUD'])[1 + g % 6],
+       'Payer ' || g,
+       'payer' || g || '@example.com',
+       ARRAY['CREDIT_CARD', 'DEBIT_CARD'],
+       (ARRAY['DRAFT', 'PENDING', 'PROCESSING', 'COMPLETED', 'FAILED', 'CANCELLED', 'VOIDED', 'REFUNDED',
+              'PARTIAL_REFUND'])[1 + g % 9]::payment_request_status,
+       TIMESTAMP '2024-01-01' + g * INTERVAL '37 seconds' + INTERVAL '30 days',
+       tenants.ids[1 + g % array_length(tenants.ids, 1)],
+       TIMESTAMP '2024-01-01' + g * INTERVAL '37 seconds',
+       TIMESTAMP '2024-01-01' + g * INTERVAL '37 seconds'
+FROM generate_series(1, 50000) g,
+     (SELECT array_agg(tenant_id ORDER BY tenant_id) AS ids FROM tenant) tenants;
+
+INSERT INTO payment_transaction (payment_transaction_id, transaction_code, external_transaction_id, payment_request_id,
+                                 transaction_type, transaction_status, amount, currency, payment_method, gateway_name,
+                                 processed_at, error_code, created_at, updated_at)
+SELECT gen_random_uuid(),
+       'TXN-SEED-' || pr.n || '-' || k,
+       'ext_' || md5(pr.n || '-' || k),
+       pr.payment_request_id,
+       (ARRAY['PAYMENT', 'REFUND', 'VOID', 'CHARGEBACK'])[CASE WHEN k = 1 THEN 1 ELSE 1 + pr.n % 4 END]::payment_transaction_type,
+       (ARRAY['PENDING', 'SUCCESS', 'FAILED', 'CANCELLED'])[1 + (pr.n + k) % 4]::payment_transaction_status,
+       pr.amount,
+       pr.currency,
+       (ARRAY['CREDIT_CARD', 'DEBIT_CARD', 'BANK_TRANSFER', 'DIGITAL_WALLET', 'PAYPAL', 'STRIPE',
+              'MANUAL'])[1 + pr.n % 7]::payment_method_type,
+       (ARRAY['Stripe', 'PayPal', 'BankTransfer'])[1 + pr.n % 3],
+       pr.created_at + INTERVAL '5 minutes',
+       CASE WHEN (pr.n + k) % 4 = 2 THEN 'ERR_' || (pr.n % 50) END,
+       pr.created_at + k * INTERVAL '1 second',
+       pr.created_at + k * INTERVAL '1 second'
+FROM (SELECT payment_request_id, amount, currency, created_at, row_number() OVER (ORDER BY created_at) AS n
+      FROM payment_request
+      WHERE request_code LIKE 'PR-SEED-%') pr,
+     generate_series(1, 2) k;
+
+INSERT INTO payment_refund (refund_code, payment_transaction_id, refund_amount, refund_reason, currency, gateway_name,
+                            error_code, refund_status, external_refund_id, processed_at, created_at, updated_at,
+                            created_by)
+SELECT 'RFD-SEED-' || t.n,
+       t.payment_transaction_id,
+       t.amount,
+       'Customer request ' || md5(t.n::text),
+       t.currency,
+       t.gateway_name,
+       CASE WHEN t.n % 4 = 2 THEN 'RERR_' || (t.n % 20) END,
+       (ARRAY['PENDING', 'SUCCESS', 'FAILED', 'CANCELLED'])[1 + t.n % 4]::payment_transaction_status,
+       're_' || md5(t.n::text),
+       t.created_at + INTERVAL '1 day',
+       t.created_at + INTERVAL '1 hour',
+       t.created_at + INTERVAL '1 hour',
+       (SELECT min(user_id) FROM users)
+FROM (SELECT payment_transaction_id, amount, currency, gateway_name, created_at,
+             row_number() OVER (ORDER BY created_at) AS n
+      FROM payment_transaction
+      WHERE transaction_code LIKE 'TXN-SEED-%' AND transaction_status = 'SUCCESS'
+      LIMIT 10000) t;
+
+INSERT INTO payment_audit_log (payment_request_id, payment_transaction_id, action, entity_type, old_status, new_status,
+                               reason, ip_address, created_at, created_by)
+SELECT t.payment_request_id,
+       t.payment_transaction_id,
+       (ARRAY['CREATE', 'UPDATE', 'VERIFY', 'VOID', 'REFUND', 'CANCEL', 'PROCESS', 'RETRY'])[1 + (t.n + k) % 8],
+       'TRANSACTION',
+       CASE WHEN k = 1 THEN NULL ELSE 'PENDING' END,
+       CASE WHEN k = 1 THEN 'PENDING' ELSE t.transaction_status::text END,
+       'Synthetic event ' || md5(t.n || '-' || k),
+       '10.' || (t.n % 250) || '.' || k || '.' || (t.n % 200),
+       t.created_at + k * INTERVAL '1 second',
+       CASE WHEN (t.n + k) % 5 = 0 THEN NULL ELSE (SELECT min(user_id) FROM users) END
+FROM (SELECT payment_request_id, payment_transaction_id, transaction_status, created_at,
+             row_number() OVER (ORDER BY created_at) AS n
+      FROM payment_transaction
+      WHERE transaction_code LIKE 'TXN-SEED-%') t,
+     generate_series(1, 2) k;
+
+INSERT INTO payment_audit_log (payment_refund_id, action, entity_type, old_status, new_status, reason, ip_address,
+                               created_at, created_by)
+SELECT r.payment_refund_id,
+       'REFUND',
+       'REFUND',
+       'PENDING',
+       r.refund_status::text,
+       'Synthetic refund event',
+       '10.200.0.' || (row_number() OVER () % 250),
+       r.created_at,
+       r.created_by
+FROM payment_refund r
+WHERE r.refund_code LIKE 'RFD-SEED-%';
+
+ANALYZE payment_request;
+ANALYZE payment_transaction;
+ANALYZE payment_refund;
+ANALYZE payment_audit_log;
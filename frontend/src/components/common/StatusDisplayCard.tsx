@@ -21,7 +21,7 @@ const StatusDisplayCard: React.FC<StatusDisplayCardProps> = ({
   // Determine if this is a PaymentRequestStatus by checking if it's one of the payment status values
   const isPaymentStatus = [
     "DRAFT", "PENDING", "PROCESSING", "COMPLETED", "FAILED", 
-    "CANCELLED", "VOIDED", "REFUNDED", "PARTIAL_REFUND", "APPROVED", "REJECTED"
+    "CANCELLED", "EXPIRED", "VOIDED", "REFUNDED", "PARTIAL_REFUND", "APPROVED", "REJECTED"
   ].includes(status as string);
 
   // Use appropriate status functions based on status type
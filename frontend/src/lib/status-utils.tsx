@@ -489,6 +489,8 @@ export const getPaymentRequestStatusColor = (
       return "bg-red-100 text-red-800 hover:bg-red-100 border-red-200";
     case "CANCELLED":
       return "bg-gray-100 text-gray-800 hover:bg-gray-100 border-gray-200";
+    case "EXPIRED":
+      return "bg-gray-100 text-gray-800 hover:bg-gray-100 border-gray-200";
     case "VOIDED":
       return "bg-purple-100 text-purple-800 hover:bg-purple-100 border-purple-200";
     case "REFUNDED":
@@ -524,6 +526,8 @@ export const getPaymentRequestStatusIcon = (status: PaymentRequestStatus) => {
         return "text-red-600";
       case "CANCELLED":
         return "text-gray-600";
+      case "EXPIRED":
+        return "text-gray-600";
       case "VOIDED":
         return "text-purple-600";
       case "REFUNDED":
@@ -554,6 +558,8 @@ export const getPaymentRequestStatusIcon = (status: PaymentRequestStatus) => {
       return <XCircle className={`h-4 w-4 ${iconColor}`} />;
     case "CANCELLED":
       return <Ban className={`h-4 w-4 ${iconColor}`} />;
+    case "EXPIRED":
+      return <Clock className={`h-4 w-4 ${iconColor}`} />;
     case "VOIDED":
       return <Trash2 className={`h-4 w-4 ${iconColor}`} />;
     case "REFUNDED":
@@ -7,6 +7,7 @@ export type PaymentRequestStatus =
   | "COMPLETED" 
   | "FAILED" 
   | "CANCELLED" 
+  | "EXPIRED" 
   | "VOIDED" 
   | "REFUNDED" 
   | "PARTIAL_REFUND" 
@@ -224,6 +225,7 @@ export const PAYMENT_REQUEST_STATUS_MAPPINGS = {
   COMPLETED: "Completed",
   FAILED: "Failed",
   CANCELLED: "Cancelled",
+  EXPIRED: "Expired",
   VOIDED: "Voided",
   REFUNDED: "Refunded",
   PARTIAL_REFUND: "Partial Refund",
@@ -266,6 +268,7 @@ export const PAYMENT_REQUEST_STATUS_OPTIONS = [
   { value: "COMPLETED", label: "Completed" },
   { value: "FAILED", label: "Failed" },
   { value: "CANCELLED", label: "Cancelled" },
+  { value: "EXPIRED", label: "Expired" },
   { value: "VOIDED", label: "Voided" },
   { value: "REFUNDED", label: "Refunded" },
   { value: "PARTIAL_REFUND", label: "Partial Refund" },